@@ -23,18 +23,26 @@ import static de.dentrassi.asyncapi.generator.java.util.JDTHelper.newStringLiter
 import static de.dentrassi.asyncapi.generator.java.util.Names.makeVersion;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -42,7 +50,9 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.eclipse.jdt.core.dom.Javadoc;
 import org.eclipse.jdt.core.dom.MemberValuePair;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
@@ -61,10 +71,14 @@ import org.eclipse.jdt.core.dom.TypeParameter;
 import de.dentrassi.asyncapi.AsyncApi;
 import de.dentrassi.asyncapi.Message;
 import de.dentrassi.asyncapi.MessageReference;
+import de.dentrassi.asyncapi.SymbolTable;
 import de.dentrassi.asyncapi.Topic;
 import de.dentrassi.asyncapi.generator.java.ServiceDefinitions.VersionedService;
 import de.dentrassi.asyncapi.generator.java.util.JDTHelper;
+import de.dentrassi.asyncapi.generator.java.util.Java;
+import de.dentrassi.asyncapi.generator.java.util.Names;
 import de.dentrassi.asyncapi.meta.Information;
+import de.dentrassi.asyncapi.snapshot.Fingerprint;
 import de.dentrassi.asyncapi.type.ArrayType;
 import de.dentrassi.asyncapi.type.CoreType;
 import de.dentrassi.asyncapi.type.EnumType;
@@ -82,6 +96,10 @@ public class Generator {
         private Path targetPath;
         private Charset characterSet = StandardCharsets.UTF_8;
         private String basePackage;
+        private boolean formatCode = true;
+        private Map<String, String> formatterOptions;
+        private boolean immutablePayloads;
+        private boolean deduplicateTypes;
 
         private Options() {
         }
@@ -90,6 +108,10 @@ public class Generator {
             this.targetPath = other.targetPath;
             this.characterSet = other.characterSet;
             this.basePackage = other.basePackage;
+            this.formatCode = other.formatCode;
+            this.formatterOptions = other.formatterOptions;
+            this.immutablePayloads = other.immutablePayloads;
+            this.deduplicateTypes = other.deduplicateTypes;
         }
 
         public String getBasePackage() {
@@ -100,13 +122,61 @@ public class Generator {
             return this.characterSet;
         }
 
+        /**
+         * Get the target path
+         *
+         * @return the target path, may be {@code null} when generating into
+         *         memory
+         */
         public Path getTargetPath() {
             return this.targetPath;
         }
 
+        public boolean isFormatCode() {
+            return this.formatCode;
+        }
+
+        /**
+         * Get the options of the Eclipse code formatter
+         *
+         * @return the formatter options, or {@code null} for the default
+         *         options
+         */
+        public Map<String, String> getFormatterOptions() {
+            return this.formatterOptions;
+        }
+
+        /**
+         * Check if payload types are generated as immutable classes
+         *
+         * @return {@code true} if payload types are immutable
+         */
+        public boolean isImmutablePayloads() {
+            return this.immutablePayloads;
+        }
+
+        /**
+         * Check if structurally equal inline types get merged
+         *
+         * @return {@code true} if inline types get merged
+         */
+        public boolean isDeduplicateTypes() {
+            return this.deduplicateTypes;
+        }
+
+        private SourceFormatter createFormatter() {
+            if (!this.formatCode) {
+                return SourceFormatter.simple();
+            }
+            if (this.formatterOptions == null) {
+                return Renderer.DEFAULT_FORMATTER;
+            }
+            return SourceFormatter.eclipse(this.formatterOptions);
+        }
+
         private void validate(final List<Exception> errors) {
-            if (this.targetPath == null) {
-                errors.add(new IllegalStateException("'targetPath' is not set"));
+            if (this.characterSet == null) {
+                errors.add(new IllegalStateException("'characterSet' is not set"));
             }
         }
     }
@@ -117,7 +187,13 @@ public class Generator {
 
         private boolean validateTopicSyntax = true;
 
-        private final Set<GeneratorExtension> extensions = new HashSet<>();
+        private final Set<GeneratorExtension> extensions = new LinkedHashSet<>();
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private Executor executor;
+
+        private boolean cache;
 
         private Builder() {
         }
@@ -150,6 +226,165 @@ public class Generator {
             return this;
         }
 
+        /**
+         * Run the Eclipse code formatter on the generated code
+         * <p>
+         * This is enabled by default. If disabled, the code will still be
+         * indented, and the output is still deterministic. However it gets
+         * generated a lot faster, which may be preferable if the code is only
+         * compiled, and never read.
+         * </p>
+         *
+         * @param formatCode
+         *            {@code true} to format the code
+         * @return the builder instance
+         */
+        public Builder formatCode(final boolean formatCode) {
+            this.options.formatCode = formatCode;
+            return this;
+        }
+
+        /**
+         * Set the options of the Eclipse code formatter
+         *
+         * @param formatterOptions
+         *            the formatter options, may be {@code null} for the
+         *            default options
+         * @return the builder instance
+         * @see SourceFormatter#loadProfile(Path)
+         */
+        public Builder formatterOptions(final Map<String, String> formatterOptions) {
+            this.options.formatterOptions = formatterOptions != null ? Collections.unmodifiableMap(new LinkedHashMap<>(formatterOptions)) : null;
+            return this;
+        }
+
+        /**
+         * Generate immutable payload types
+         * <p>
+         * This is disabled by default. If enabled, object types are generated
+         * as final classes, with final fields and without setters. Instances
+         * are created using a nested {@code Builder} class and implement
+         * {@code equals}, {@code hashCode} and {@code toString} based on their
+         * values. Collections are unmodifiable and arrays get copied, so that
+         * instances can be shared between threads and used as keys of maps.
+         * </p>
+         * <p>
+         * As immutable payloads cannot be reset, messages will not be decoded
+         * into existing payload instances.
+         * </p>
+         *
+         * @param immutablePayloads
+         *            {@code true} to generate immutable payload types
+         * @return the builder instance
+         */
+        public Builder immutablePayloads(final boolean immutablePayloads) {
+            this.options.immutablePayloads = immutablePayloads;
+            return this;
+        }
+
+        /**
+         * Merge structurally equal inline types
+         * <p>
+         * This is disabled by default. If enabled, inline object and enum
+         * types, which are structurally equal, are generated only once, as a
+         * nested type of the first parent using it. All other parents refer to
+         * this type. The merged types can be retrieved after the code has been
+         * generated, using {@link Generator#getMergedTypes()}.
+         * </p>
+         *
+         * @param deduplicateTypes
+         *            {@code true} to merge structurally equal inline types
+         * @return the builder instance
+         * @see TypeDeduplication
+         */
+        public Builder deduplicateTypes(final boolean deduplicateTypes) {
+            this.options.deduplicateTypes = deduplicateTypes;
+            return this;
+        }
+
+        /**
+         * Load the options of the Eclipse code formatter from a profile
+         * <p>
+         * The profile is an XML file, as exported by the Eclipse IDE, like
+         * {@code src/settings/eclipse/code-formatter.xml}.
+         * </p>
+         *
+         * @param profile
+         *            the profile file
+         * @return the builder instance
+         * @throws IOException
+         *             if reading the profile failed
+         */
+        public Builder formatterProfile(final Path profile) throws IOException {
+            return formatterOptions(SourceFormatter.loadProfile(profile));
+        }
+
+        /**
+         * Re-use the output of the previous run
+         * <p>
+         * If enabled, the generator calculates a fingerprint of the model,
+         * the options and the extensions, including their versions. If
+         * nothing changed since the previous run, and none of the generated
+         * files was modified, the generation is skipped. Otherwise only
+         * messages and types which changed, directly or by one of the types
+         * they use, are rendered again. All other compilation units are
+         * rendered again, whenever the model changed.
+         * </p>
+         * <p>
+         * This is disabled by default, as it relies on the extensions
+         * reporting a new version, by
+         * {@link GeneratorExtension#getVersion()}, whenever their output
+         * changes.
+         * </p>
+         *
+         * @param cache
+         *            {@code true} to enable the cache
+         * @return the builder instance
+         */
+        public Builder cache(final boolean cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * Set the number of threads rendering compilation units
+         * <p>
+         * Defaults to the number of available processors. A value of
+         * {@code 1} renders all units on the thread calling
+         * {@link Generator#generate()}. This is ignored if an executor was
+         * set using {@link #executor(Executor)}.
+         * </p>
+         *
+         * @param parallelism
+         *            the number of threads, must be greater than zero
+         * @return the builder instance
+         */
+        public Builder parallelism(final int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("'parallelism' must be greater than zero");
+            }
+
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set the executor rendering compilation units
+         * <p>
+         * The executor is not shut down by the generator. If set to
+         * {@code null}, which is the default, the generator will use a pool
+         * of its own, as configured by {@link #parallelism(int)}.
+         * </p>
+         *
+         * @param executor
+         *            the executor to use, may be {@code null}
+         * @return the builder instance
+         */
+        public Builder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
         public Generator build(final AsyncApi api) {
 
             final LinkedList<Exception> errors = new LinkedList<>();
@@ -161,7 +396,90 @@ public class Generator {
                 throw e;
             }
 
-            return new Generator(api, new Options(this.options), this.validateTopicSyntax, new ArrayList<>(this.extensions));
+            return new Generator(api, new Options(this.options), this.validateTopicSyntax, new ArrayList<>(this.extensions), this.parallelism, this.executor,
+                    this.cache);
+        }
+    }
+
+    /**
+     * The result of a run of the generator
+     */
+    public static final class Result {
+
+        private final int written;
+        private final int unchanged;
+        private final int deleted;
+        private final int cached;
+        private final List<Path> kept;
+
+        private Result(final int written, final int unchanged, final int deleted, final int cached, final List<Path> kept) {
+            this.written = written;
+            this.unchanged = unchanged;
+            this.deleted = deleted;
+            this.cached = cached;
+            this.kept = kept;
+        }
+
+        /**
+         * Get the number of files which have been written
+         *
+         * @return the number of written files
+         */
+        public int getWritten() {
+            return this.written;
+        }
+
+        /**
+         * Get the number of files which already had the expected content
+         *
+         * @return the number of unchanged files
+         */
+        public int getUnchanged() {
+            return this.unchanged;
+        }
+
+        /**
+         * Get the number of files from the previous run, which have been
+         * deleted as they are no longer generated
+         *
+         * @return the number of deleted files
+         */
+        public int getDeleted() {
+            return this.deleted;
+        }
+
+        /**
+         * Get the files from the previous run, which are no longer generated,
+         * but have been kept, as they were modified since
+         * <p>
+         * These files are no longer tracked by the generator, and will not be
+         * reported again.
+         * </p>
+         *
+         * @return the kept files, never {@code null}
+         */
+        public List<Path> getKept() {
+            return this.kept;
+        }
+
+        /**
+         * Get the number of unchanged files, which have not even been
+         * rendered, as nothing they depend on changed
+         * <p>
+         * This is always zero, unless the cache is enabled. The files are
+         * included in {@link #getUnchanged()}.
+         * </p>
+         *
+         * @return the number of cached files
+         */
+        public int getCached() {
+            return this.cached;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[written=%s, unchanged=%s, deleted=%s, cached=%s, kept=%s]", this.written, this.unchanged, this.deleted, this.cached,
+                    this.kept.size());
         }
     }
 
@@ -175,6 +493,15 @@ public class Generator {
 
     private static final String TYPE_NAME_MESSAGE_INTERFACE = "de.dentrassi.asyncapi.Message";
 
+    private static final String TYPE_NAME_RESETTABLE_INTERFACE = "de.dentrassi.asyncapi.Resettable";
+
+    private static final String TYPE_NAME_MESSAGE_REGISTRY = "de.dentrassi.asyncapi.util.MessageRegistry";
+
+    /**
+     * Number of registrations per method of the message factories
+     */
+    private static final int MESSAGE_FACTORIES_PER_METHOD = 500;
+
     private static final String TYPE_NAME_PUBSUB_CLASS = "de.dentrassi.asyncapi.PublishSubscribe";
 
     private static final String TYPE_NAME_SUB_CLASS = "de.dentrassi.asyncapi.Subscribe";
@@ -188,11 +515,28 @@ public class Generator {
     }
 
     private final AsyncApi api;
+    private final SymbolTable symbols;
     private final boolean validateTopicSyntax;
     private List<GeneratorExtension> extensions = new ArrayList<>();
 
     private final Options options;
 
+    private final int parallelism;
+    private final Executor executor;
+    private final boolean cache;
+
+    private Renderer renderer;
+
+    /**
+     * The fingerprint of the generator settings, without the model
+     */
+    private String settingsKey;
+
+    /**
+     * The fingerprint of the generator settings and the full model
+     */
+    private String modelKey;
+
     private final Context context = new Context() {
         @Override
         public TypeBuilder createTypeBuilder(final String localPackageName) {
@@ -212,25 +556,303 @@ public class Generator {
 
     private final ServiceDefinitions serviceDefinitions;
 
-    private Generator(final AsyncApi api, final Options options, final boolean validateTopicSyntax, final List<GeneratorExtension> extensions) {
+    private final TypeDeduplication typeDeduplication;
+
+    private final Set<String> deltaMessages;
+
+    private Generator(final AsyncApi api, final Options options, final boolean validateTopicSyntax, final List<GeneratorExtension> extensions,
+            final int parallelism, final Executor executor, final boolean cache) {
         this.api = api;
+        this.symbols = api.getSymbols();
         this.options = options;
         this.validateTopicSyntax = validateTopicSyntax;
         this.extensions = extensions;
+        this.parallelism = parallelism;
+        this.executor = executor;
+        this.cache = cache;
 
         this.serviceDefinitions = ServiceDefinitions.build(this.api, this.validateTopicSyntax);
+        this.typeDeduplication = options.isDeduplicateTypes() ? TypeDeduplication.build(this.api) : TypeDeduplication.none();
+        this.deltaMessages = deltaMessages(this.api);
+    }
+
+    /**
+     * Find the messages used by topics with delta encoding
+     */
+    private static Set<String> deltaMessages(final AsyncApi api) {
+        final Set<String> result = new LinkedHashSet<>();
+
+        for (final Topic topic : api.getTopics()) {
+            if (topic.getDelta() == null) {
+                continue;
+            }
+            if (topic.getPublish() != null) {
+                result.add(topic.getPublish().getName());
+            }
+            if (topic.getSubscribe() != null) {
+                result.add(topic.getSubscribe().getName());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the inline types which got merged
+     * <p>
+     * This is always empty, unless enabled by
+     * {@link Builder#deduplicateTypes(boolean)}.
+     * </p>
+     *
+     * @return the fully qualified names of the merged types, by the fully
+     *         qualified name of the type they were merged into
+     */
+    public Map<String, List<String>> getMergedTypes() {
+        final Map<String, List<String>> result = new LinkedHashMap<>();
+
+        for (final Map.Entry<Type, List<Type>> entry : this.typeDeduplication.getMerged().entrySet()) {
+            final List<String> names = new ArrayList<>(entry.getValue().size());
+            for (final Type type : entry.getValue()) {
+                names.add(resolveParentableTypeName(type));
+            }
+            result.put(resolveParentableTypeName(entry.getKey()), Collections.unmodifiableList(names));
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Generate the code
+     * <p>
+     * Compilation units are rendered in parallel, according to the
+     * configuration of the builder. Extensions are called in the order they
+     * were added, on the calling thread. However their hooks, like
+     * {@link GeneratorExtension#createdProperty(PropertyInformation, FieldDeclaration)},
+     * may be called concurrently, for different compilation units.
+     * </p>
+     * <p>
+     * This method must not be called concurrently on the same instance.
+     * </p>
+     * <p>
+     * Files which already have the expected content are not written again.
+     * The generated files are recorded in a manifest in the target path.
+     * Files which were recorded by the previous run, but are no longer
+     * generated, get deleted, unless they were modified since. Modified files
+     * are reported by {@link Result#getKept()}.
+     * </p>
+     *
+     * @return the result of the run
+     * @throws IOException
+     *             if writing the code failed
+     */
+    public Result generate() throws IOException {
+        if (this.options.getTargetPath() == null) {
+            throw new IllegalStateException("'targetPath' is not set");
+        }
+
+        final Path root = this.options.getTargetPath().toAbsolutePath().normalize();
+
+        Files.createDirectories(root);
+
+        final Manifest previous = Manifest.read(root);
+
+        try {
+            if (this.cache) {
+                this.settingsKey = settingsFingerprint();
+                this.modelKey = new Fingerprint().add(this.settingsKey).add(this.api).finish();
+
+                if (this.modelKey.equals(previous.getKey()) && isIntact(previous)) {
+                    final int count = previous.getEntries().size();
+                    return new Result(0, count, 0, count, Collections.emptyList());
+                }
+            }
+
+            final SourceFormatter formatter = this.options.createFormatter();
+
+            final Renderer renderer = render(executor -> {
+                final Renderer result;
+                if (executor != null) {
+                    result = Renderer.concurrent(root, this.options.getCharacterSet(), executor, formatter);
+                } else {
+                    result = Renderer.immediate(root, this.options.getCharacterSet(), formatter);
+                }
+                if (this.cache) {
+                    result.setPrevious(previous);
+                }
+                return result;
+            });
+
+            final List<Path> kept = new ArrayList<>();
+            final int deleted = previous.deleteStale(root, renderer.getPaths(), kept);
+            new Manifest(this.modelKey, renderer.getEntries()).write(root);
+
+            return new Result(renderer.getWritten(), renderer.getUnchanged(), deleted, renderer.getCached(), Collections.unmodifiableList(kept));
+        } finally {
+            this.settingsKey = null;
+            this.modelKey = null;
+        }
+    }
+
+    /**
+     * Generate the code into memory
+     * <p>
+     * This renders the same compilation units as {@link #generate()}, but
+     * does not write any files, and ignores the target path and the cache.
+     * The result can be compiled by
+     * {@link de.dentrassi.asyncapi.generator.java.compile.InMemoryCompiler}.
+     * </p>
+     *
+     * @return the sources, by the fully qualified name of the compilation
+     *         unit, sorted by name
+     */
+    public Map<String, String> generateSources() {
+        final SourceFormatter formatter = this.options.createFormatter();
+
+        try {
+            return render(executor -> Renderer.inMemory(executor, formatter)).getSources();
+        } catch (final IOException e) {
+            // we don't write any files
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Render all compilation units
+     *
+     * @param rendererFactory
+     *            the factory for the renderer, receiving the executor to use,
+     *            or {@code null} if units should be rendered on the calling
+     *            thread
+     * @return the renderer, after all units have been rendered
+     */
+    private Renderer render(final Function<Executor, Renderer> rendererFactory) throws IOException {
+        ExecutorService pool = null;
+
+        Executor executor = this.executor;
+        if (executor == null && this.parallelism > 1) {
+            pool = new ForkJoinPool(this.parallelism);
+            executor = pool;
+        }
+
+        try {
+            this.renderer = rendererFactory.apply(executor);
+
+            generateRoot();
+            generateMessages();
+            generateTypes();
+            generateTopics();
+
+            for (final GeneratorExtension extension : this.extensions) {
+                extension.generate(this.api, this.options, this.context);
+            }
+
+            this.renderer.finish();
+
+            return this.renderer;
+        } finally {
+            this.renderer = null;
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
     }
 
-    public void generate() throws IOException {
-        Files.createDirectories(this.options.getTargetPath());
+    private static boolean isIntact(final Manifest manifest) throws IOException {
+        if (manifest.getEntries().isEmpty()) {
+            return false;
+        }
 
-        generateRoot();
-        generateMessages();
-        generateTypes();
-        generateTopics();
+        for (final Path path : manifest.getEntries().keySet()) {
+            if (!manifest.isIntact(path)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Create a fingerprint of everything, other than the model, the output
+     * depends on
+     */
+    private String settingsFingerprint() {
+        final Fingerprint fingerprint = new Fingerprint();
+
+        fingerprint.add(Generator.class.getName());
+        fingerprint.add(Generator.class.getPackage().getImplementationVersion());
+
+        fingerprint.add(this.options.getCharacterSet().name());
+        fingerprint.add(this.options.getBasePackage());
+        fingerprint.add(Boolean.toString(this.options.isFormatCode()));
+        if (this.options.getFormatterOptions() != null) {
+            for (final Map.Entry<String, String> entry : new TreeMap<>(this.options.getFormatterOptions()).entrySet()) {
+                fingerprint.add(entry.getKey());
+                fingerprint.add(entry.getValue());
+            }
+        }
+        fingerprint.add(Boolean.toString(this.options.isImmutablePayloads()));
+        fingerprint.add(Boolean.toString(this.options.isDeduplicateTypes()));
+        fingerprint.add(Boolean.toString(this.validateTopicSyntax));
 
         for (final GeneratorExtension extension : this.extensions) {
-            extension.generate(this.api, this.options, this.context);
+            fingerprint.add(extension.getClass().getName());
+            fingerprint.add(extension.getVersion());
+        }
+
+        return fingerprint.finish();
+    }
+
+    /**
+     * Create a fingerprint of a message, and all types it uses
+     */
+    private String dependencies(final Message message) {
+        if (this.settingsKey == null) {
+            return null;
+        }
+
+        final Fingerprint fingerprint = new Fingerprint().add(this.settingsKey).add(message);
+        fingerprint.add(Boolean.toString(this.deltaMessages.contains(message.getName())));
+        addTypes(fingerprint, message.getPayload(), Collections.newSetFromMap(new IdentityHashMap<>()));
+        return fingerprint.finish();
+    }
+
+    /**
+     * Create a fingerprint of a type, and all types it uses
+     */
+    private String dependencies(final Type type) {
+        if (this.settingsKey == null) {
+            return null;
+        }
+
+        final Fingerprint fingerprint = new Fingerprint().add(this.settingsKey);
+        addTypes(fingerprint, type, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return fingerprint.finish();
+    }
+
+    private void addTypes(final Fingerprint fingerprint, final TypeReference typeRef, final Set<Type> visited) {
+        if (typeRef == null) {
+            return;
+        }
+
+        final Type type = typeRef instanceof Type ? (Type) typeRef : this.symbols.resolve(typeRef);
+        if (type == null || !visited.add(type)) {
+            return;
+        }
+
+        fingerprint.add(type);
+
+        // merged types refer to a type of another compilation unit
+
+        if (this.typeDeduplication.isMerged(type)) {
+            fingerprint.add(resolveParentableTypeName(this.typeDeduplication.canonical(type)));
+        }
+
+        if (type instanceof ObjectType) {
+            for (final Property property : ((ObjectType) type).getProperties()) {
+                addTypes(fingerprint, property.getType(), visited);
+            }
+        } else if (type instanceof ArrayType) {
+            addTypes(fingerprint, ((ArrayType) type).getItemType(), visited);
         }
     }
 
@@ -242,7 +864,7 @@ public class Generator {
     }
 
     private TypeBuilder createTypeBuilder(final String... localPackageName) {
-        return new PackageTypeBuilder(this.options.getTargetPath(), packageName(localPackageName), this.options.getCharacterSet(), type -> null, this::lookupType);
+        return new PackageTypeBuilder(this.renderer, packageName(localPackageName), type -> null, this::lookupType, null).dependsOn(this.modelKey);
     }
 
     private void renderConnector(final ConnectorType connectorType) {
@@ -421,12 +1043,26 @@ public class Generator {
 
             final String packageName = connectorType.getPackageName();
             final String version = makeVersion(versionEntry.getKey());
-            final TypeBuilder builder = new PackageTypeBuilder(this.options.getTargetPath(), packageName(packageName, version), this.options.getCharacterSet(), type -> null,
-                    this::lookupType);
+            final TypeBuilder builder = new PackageTypeBuilder(this.renderer, packageName(packageName, version), type -> null, this::lookupType, null)
+                    .dependsOn(this.modelKey);
 
             for (final Map.Entry<String, List<Topic>> serviceEntry : versionEntry.getValue().entrySet()) {
                 builder.createType(createServiceTypeInformation(serviceEntry), true, false, b -> {
 
+                    for (final Topic topic : serviceEntry.getValue()) {
+                        b.createBodyContent((ast, cu) -> {
+
+                            // public static final String TOPIC_EVENT_DEVICE_UPDATE = "devices.1.event.device.update";
+
+                            final TopicInformation ti = this.serviceDefinitions.getTopics().get(topic);
+
+                            final FieldDeclaration fd = JDTHelper.createField(ast, ast.newSimpleType(ast.newSimpleName("String")), makeTopicConstantName(ti),
+                                    newStringLiteral(ast, topic.getName()), ModifierKeyword.PUBLIC_KEYWORD, ModifierKeyword.STATIC_KEYWORD, ModifierKeyword.FINAL_KEYWORD);
+
+                            return Collections.singletonList(fd);
+                        });
+                    }
+
                     for (final Topic topic : serviceEntry.getValue()) {
                         b.createMethod((ast, cu) -> {
 
@@ -556,6 +1192,17 @@ public class Generator {
         return joinLowerCamelCase(s);
     }
 
+    /**
+     * Make the name of the constant holding the name of a topic
+     *
+     * @param ti
+     *            the topic information
+     * @return the name of the constant, e.g. {@code TOPIC_EVENT_DEVICE_UPDATE}
+     */
+    public static String makeTopicConstantName(final TopicInformation ti) {
+        return "TOPIC_" + Names.toUpperUnderscore(makeTopicMethodName(ti));
+    }
+
     private static String joinLowerCamelCase(final Stream<String> s) {
 
         boolean first = true;
@@ -580,17 +1227,96 @@ public class Generator {
     }
 
     private void generateMessages() {
-        final TypeBuilder builder = new PackageTypeBuilder(this.options.getTargetPath(), packageName("messages"), this.options.getCharacterSet(), this::resolveTypeName,
-                this::lookupType);
+        final PackageTypeBuilder builder = new PackageTypeBuilder(this.renderer, packageName("messages"), this::resolveTypeName,
+                this::lookupType, this::createdProperty);
 
         this.api.getMessages().forEach(message -> {
-            generateMessage(builder, message);
+            generateMessage(builder.dependsOn(dependencies(message)), message);
         });
+
+        generateMessageFactories(builder.dependsOn(this.modelKey));
     }
 
-    private Type lookupType(final String typeName) {
-        return this.api.getTypes().stream().filter(type -> type.getName().equals(typeName)).findFirst()
-                .orElseThrow(() -> new IllegalStateException(String.format("Unknown type '%s' referenced", typeName)));
+    /**
+     * Generate a registry of message factories
+     * <p>
+     * This allows payload formats to create new message instances without
+     * using reflection. The registry is built by a helper class, as the code
+     * formatter fails on nested type arguments.
+     * </p>
+     * <p>
+     * Every entry is registered by a statement of its own, a chained builder
+     * expression would overflow the stack of the parser and compiler for
+     * large documents. The statements are split into several methods, to
+     * stay below the size limit of a method.
+     * </p>
+     *
+     * @param builder
+     *            the type builder of the messages package
+     */
+    @SuppressWarnings("unchecked")
+    private void generateMessageFactories(final TypeBuilder builder) {
+
+        final TypeInformation ti = new TypeInformation("MessageFactories", "Factories for all message types", null);
+
+        builder.createType(ti, TypeBuilder.make(ModifierKeyword.FINAL_KEYWORD), b -> {
+            b.createBodyContent((ast, cu) -> {
+
+                final List<String> entries = new ArrayList<>();
+
+                for (final Message message : this.api.getMessages()) {
+                    final String typeName = packageName("messages", asTypeName(message.getName()));
+                    entries.add("builder.add(" + typeName + ".class, " + typeName + "::new);\n");
+                }
+
+                for (final Topic topic : this.api.getTopics()) {
+                    addTopicFactory(ast, entries, "publish", topic.getName(), topic.getPublish());
+                    addTopicFactory(ast, entries, "subscribe", topic.getName(), topic.getSubscribe());
+                }
+
+                final int chunks = (entries.size() + MESSAGE_FACTORIES_PER_METHOD - 1) / MESSAGE_FACTORIES_PER_METHOD;
+
+                final StringBuilder code = new StringBuilder();
+
+                code.append("private static final " + TYPE_NAME_MESSAGE_REGISTRY + " REGISTRY;\n");
+
+                code.append("static {\n");
+                code.append("final " + TYPE_NAME_MESSAGE_REGISTRY + ".Builder builder = " + TYPE_NAME_MESSAGE_REGISTRY + ".newBuilder();\n");
+                for (int i = 0; i < chunks; i++) {
+                    code.append("register" + i + "(builder);\n");
+                }
+                code.append("REGISTRY = builder.build();\n");
+                code.append("}\n");
+
+                for (int i = 0; i < chunks; i++) {
+                    code.append("private static void register" + i + "(final " + TYPE_NAME_MESSAGE_REGISTRY + ".Builder builder) {\n");
+                    for (final String entry : entries.subList(i * MESSAGE_FACTORIES_PER_METHOD, Math.min(entries.size(), (i + 1) * MESSAGE_FACTORIES_PER_METHOD))) {
+                        code.append(entry);
+                    }
+                    code.append("}\n");
+                }
+
+                code.append("private MessageFactories() {}\n");
+
+                code.append("/** Get the registry of all message types\n");
+                code.append(" * @return the registry, never {@code null} */\n");
+                code.append("public static " + TYPE_NAME_MESSAGE_REGISTRY + " registry() {\n");
+                code.append("return REGISTRY;\n");
+                code.append("}\n");
+
+                return Java.parse(ast, ASTParser.K_CLASS_BODY_DECLARATIONS, code.toString(), node -> ((TypeDeclaration) node).bodyDeclarations());
+            });
+        });
+    }
+
+    private void addTopicFactory(final AST ast, final List<String> entries, final String method, final String topicName, final MessageReference message) {
+        if (message == null || !this.symbols.lookupMessage(message.getName()).isPresent()) {
+            // inline messages are not being generated
+            return;
+        }
+
+        final String typeName = packageName("messages", asTypeName(message.getName()));
+        entries.add("builder." + method + "(" + newStringLiteral(ast, topicName).getEscapedValue() + ", " + typeName + "::new);\n");
     }
 
     private void generateMessage(final TypeBuilder builder, final Message message) {
@@ -611,6 +1337,8 @@ public class Generator {
 
         final TypeReference payloadType = message.getPayload();
 
+        final boolean delta = this.deltaMessages.contains(message.getName());
+
         builder.createType(ti, typeCustomizer, b -> {
 
             if (payloadType instanceof ObjectType) {
@@ -619,6 +1347,12 @@ public class Generator {
 
                 b.createProperty(new PropertyInformation((Type) payloadType, "payload", "Message payload", null));
 
+                if (delta) {
+                    generateDeltaCodec(b, message, (ObjectType) payloadType);
+                }
+
+            } else if (delta) {
+                throw new IllegalStateException(String.format("Delta encoding requires an inline object payload: %s", message.getName()));
             } else if (payloadType instanceof CoreType) {
 
                 b.createProperty(new PropertyInformation((CoreType) message.getPayload(), "payload", "Message payload", null));
@@ -632,13 +1366,63 @@ public class Generator {
         });
     }
 
+    private void generateDeltaCodec(final TypeBuilder builder, final Message message, final ObjectType payloadType) {
+
+        final List<PropertyInformation> properties = new ArrayList<>(payloadType.getProperties().size());
+        for (final Property property : payloadType.getProperties()) {
+            properties.add(createPropertyInformation(property));
+        }
+
+        if (properties.size() > 64) {
+            throw new IllegalStateException(String.format("Delta encoding supports at most 64 properties, message '%s' has %s", message.getName(), properties.size()));
+        }
+
+        // mutable nested objects could be modified in place, hiding the change
+
+        if (!this.options.isImmutablePayloads()) {
+            for (final Property property : payloadType.getProperties()) {
+                if (containsObject(property.getType())) {
+                    throw new IllegalStateException(String.format("Delta encoding of the nested object '%s' in message '%s' requires immutable payloads", property.getName(), message.getName()));
+                }
+            }
+        }
+
+        // the key must be a property of the payload
+
+        for (final Topic topic : this.api.getTopics()) {
+            if (topic.getDelta() == null || topic.getDelta().getKey() == null || !usesMessage(topic, message)) {
+                continue;
+            }
+
+            final String key = topic.getDelta().getKey();
+            if (payloadType.getProperties().stream().noneMatch(property -> key.equals(property.getName()))) {
+                throw new IllegalStateException(String.format("Delta key '%s' of topic '%s' is not a property of message '%s'", key, topic.getName(), message.getName()));
+            }
+        }
+
+        builder.createDeltaCodec("Payload", properties, this.options.isImmutablePayloads());
+    }
+
+    private boolean containsObject(final TypeReference typeRef) {
+        final Type type = lookupType(typeRef);
+        if (type instanceof ArrayType) {
+            return containsObject(((ArrayType) type).getItemType());
+        }
+        return type instanceof ObjectType;
+    }
+
+    private static boolean usesMessage(final Topic topic, final Message message) {
+        return topic.getPublish() != null && message.getName().equals(topic.getPublish().getName())
+                || topic.getSubscribe() != null && message.getName().equals(topic.getSubscribe().getName());
+    }
+
     private void generateTypes() {
 
-        final TypeBuilder builder = new PackageTypeBuilder(this.options.getTargetPath(), packageName("types"), this.options.getCharacterSet(), this::resolveTypeName,
-                this::lookupType);
+        final PackageTypeBuilder builder = new PackageTypeBuilder(this.renderer, packageName("types"), this::resolveTypeName,
+                this::lookupType, this::createdProperty);
 
         this.api.getTypes().forEach(type -> {
-            generateType(builder, type);
+            generateType(builder.dependsOn(dependencies(type)), type);
         });
     }
 
@@ -654,11 +1438,30 @@ public class Generator {
 
         final TypeInformation ti = new TypeInformation(asTypeName(type.getName()), type.getTitle(), type.getDescription());
 
-        builder.createType(ti, false, true, b -> {
+        if (this.options.isImmutablePayloads()) {
+
+            builder.createType(ti, false, true, TypeBuilder.make(ModifierKeyword.FINAL_KEYWORD), b -> {
+
+                final List<PropertyInformation> properties = new ArrayList<>(type.getProperties().size());
+                for (final Property property : type.getProperties()) {
+                    properties.add(createPropertyInformation(property, b));
+                }
+
+                b.createImmutableProperties(properties);
+            });
+
+            return;
+        }
+
+        final Consumer<TypeDeclaration> typeCustomizer = TypeBuilder.superInterfaces(Collections.singletonList(TYPE_NAME_RESETTABLE_INTERFACE));
+
+        builder.createType(ti, false, true, typeCustomizer, b -> {
 
             for (final Property property : type.getProperties()) {
                 generateProperty(property, b);
             }
+
+            b.createResetMethod();
         });
 
     }
@@ -712,7 +1515,7 @@ public class Generator {
 
         } else {
 
-            return resolveTypeName(lookupType(typeRef.getName()), allowPrimitives);
+            return resolveTypeName(lookupType(typeRef), allowPrimitives);
 
         }
     }
@@ -734,30 +1537,58 @@ public class Generator {
     }
 
     private Type lookupType(final TypeReference typeRef) {
-        if (typeRef instanceof Type) {
-            return (Type) typeRef;
+        final Type type = this.symbols.resolve(typeRef);
+        if (type == null) {
+            throw new IllegalStateException(String.format("Unknown type '%s' referenced", typeRef.getName()));
         }
-
-        return lookupType(typeRef.getName());
+        return type;
     }
 
     private void generateProperty(final Property property, final TypeBuilder builder) {
+        builder.createProperty(createPropertyInformation(property, builder));
+    }
+
+    private PropertyInformation createPropertyInformation(final Property property, final TypeBuilder builder) {
 
         // build local type
 
         final TypeReference type = property.getType();
-        if (type instanceof Type) {
+        if (type instanceof Type && !this.typeDeduplication.isMerged((Type) type)) {
             generateType(builder, (Type) type);
         }
 
-        // generate property
+        return createPropertyInformation(property);
+    }
+
+    private PropertyInformation createPropertyInformation(final Property property) {
+
+        final TypeReference type = property.getType();
 
         final String name = PackageTypeBuilder.asPropertyName(property.getName());
 
         final String summary = property.getDescription(); // FIXME: chase description
         final String description = null; // FIXME: chase description
 
-        builder.createProperty(new PropertyInformation(lookupType(type), name, summary, description));
+        final boolean intern = property.isIntern() && isString(type);
+
+        // required numbers are never null, so they can be primitives
+
+        Type propertyType = this.typeDeduplication.canonical(lookupType(type));
+        final Class<?> primitive = PackageTypeBuilder.primitiveNumberType(propertyType);
+        if (property.isRequired() && primitive != null) {
+            propertyType = new CoreType(propertyType.getName(), primitive);
+        }
+
+        return new PropertyInformation(propertyType, name, summary, description, intern);
+    }
+
+    private boolean isString(final TypeReference type) {
+        final Type resolved = lookupType(type);
+        return resolved instanceof CoreType && String.class.equals(((CoreType) resolved).getJavaType());
+    }
+
+    private void createdProperty(final PropertyInformation property, final FieldDeclaration fieldDeclaration) {
+        fireExtensions(extension -> extension.createdProperty(property, fieldDeclaration));
     }
 
     private void generateEnum(final EnumType type, final TypeBuilder builder) {
@@ -799,7 +1630,7 @@ public class Generator {
     @SuppressWarnings("unchecked")
     private void generateRoot() throws IOException {
 
-        PackageTypeBuilder.createCompilationUnit(this.options.getTargetPath(), packageName(), "package-info", this.options.getCharacterSet(), (ast, cu) -> {
+        this.renderer.render(packageName(), "package-info", this.modelKey, (ast, cu) -> {
             final Information info = this.api.getInformation();
 
             final Javadoc doc = ast.newJavadoc();
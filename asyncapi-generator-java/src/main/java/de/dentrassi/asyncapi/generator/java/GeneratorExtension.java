@@ -17,17 +17,48 @@
 package de.dentrassi.asyncapi.generator.java;
 
 import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
 
 import de.dentrassi.asyncapi.AsyncApi;
 import de.dentrassi.asyncapi.generator.java.Generator.Context;
 import de.dentrassi.asyncapi.generator.java.Generator.Options;
 
+/**
+ * An extension to the code generator
+ * <p>
+ * {@link #generate(AsyncApi, Options, Context)} is called once for each run,
+ * on the thread calling {@link Generator#generate()}. The hooks, like
+ * {@link #createdProperty(PropertyInformation, FieldDeclaration)}, are called
+ * while a compilation unit gets rendered, and may be called concurrently for
+ * different compilation units. Implementations must be thread safe and should
+ * only modify the nodes they are handed over.
+ * </p>
+ */
 public interface GeneratorExtension {
 
+    /**
+     * Get the version of the extension
+     * <p>
+     * The version is used by the cache of the generator. Whenever the output
+     * of an extension changes, its version must change as well. The default
+     * implementation returns the implementation version of the package of
+     * the extension, as recorded in the JAR manifest.
+     * </p>
+     *
+     * @return the version, may be {@code null} if unknown
+     */
+    public default String getVersion() {
+        final Package p = getClass().getPackage();
+        return p != null ? p.getImplementationVersion() : null;
+    }
+
     public default void generate(final AsyncApi api, final Options options, final Context context) {
     }
 
     public default void createdEnumLiteral(final String literal, final EnumConstantDeclaration enumConstantDeclaration) {
     }
 
+    public default void createdProperty(final PropertyInformation property, final FieldDeclaration fieldDeclaration) {
+    }
+
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The list of files written by a run of the generator
+ * <p>
+ * The manifest is stored in the target path. The first line holds the key of
+ * the run. Each following line holds the key of a compilation unit, the
+ * content hash and the path of its file. Paths are relative to the target
+ * path and use {@code /} as separator. A key of {@code -} means there was no
+ * key.
+ * </p>
+ * <p>
+ * The key of a compilation unit is a fingerprint of everything its content
+ * depends on. If neither the key, nor the file changed, the unit does not
+ * need to be rendered again.
+ * </p>
+ */
+final class Manifest {
+
+    static final String FILE_NAME = ".asyncapi-generator";
+
+    private static final String NO_KEY = "-";
+
+    static final class Entry {
+
+        private final String key;
+        private final String hash;
+
+        Entry(final String key, final String hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+
+        String getKey() {
+            return this.key;
+        }
+
+        String getHash() {
+            return this.hash;
+        }
+    }
+
+    private final String key;
+    private final Map<Path, Entry> entries;
+
+    Manifest(final String key, final Map<Path, Entry> entries) {
+        this.key = key;
+        this.entries = entries;
+    }
+
+    /**
+     * Get the key of the run
+     *
+     * @return the key, may be {@code null}
+     */
+    String getKey() {
+        return this.key;
+    }
+
+    Map<Path, Entry> getEntries() {
+        return this.entries;
+    }
+
+    /**
+     * Check if a file still has the content recorded in the manifest
+     */
+    boolean isIntact(final Path path) throws IOException {
+        final Entry entry = this.entries.get(path);
+        if (entry == null || !Files.isRegularFile(path)) {
+            return false;
+        }
+        return entry.getHash().equals(hash(Files.readAllBytes(path)));
+    }
+
+    static Manifest read(final Path root) throws IOException {
+        final Path file = root.resolve(FILE_NAME);
+
+        if (!Files.isRegularFile(file)) {
+            return new Manifest(null, Collections.emptyMap());
+        }
+
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return new Manifest(null, Collections.emptyMap());
+        }
+
+        final Map<Path, Entry> entries = new LinkedHashMap<>();
+
+        for (final String line : lines.subList(1, lines.size())) {
+            final String[] toks = line.split(" ", 3);
+            if (toks.length != 3) {
+                continue;
+            }
+
+            final Path path = root.resolve(toks[2].replace("/", root.getFileSystem().getSeparator())).normalize();
+            if (path.startsWith(root)) {
+                // never touch anything outside of the target path
+                entries.put(path, new Entry(fromKey(toks[0]), toks[1]));
+            }
+        }
+
+        return new Manifest(fromKey(lines.get(0)), entries);
+    }
+
+    void write(final Path root) throws IOException {
+        final Map<String, Entry> sorted = new TreeMap<>();
+        for (final Map.Entry<Path, Entry> entry : this.entries.entrySet()) {
+            sorted.put(root.relativize(entry.getKey()).toString().replace(root.getFileSystem().getSeparator(), "/"), entry.getValue());
+        }
+
+        final List<String> lines = new ArrayList<>(sorted.size() + 1);
+
+        lines.add(toKey(this.key));
+        for (final Map.Entry<String, Entry> entry : sorted.entrySet()) {
+            lines.add(toKey(entry.getValue().getKey()) + " " + entry.getValue().getHash() + " " + entry.getKey());
+        }
+
+        Files.write(root.resolve(FILE_NAME), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Delete all files of this manifest, which have not been generated again
+     * <p>
+     * Files which have been modified since they were generated are kept, as
+     * they may contain manual changes.
+     * </p>
+     *
+     * @param root
+     *            the target path
+     * @param current
+     *            the files of the current run
+     * @param kept
+     *            receives the files which were kept, as they have been
+     *            modified
+     * @return the number of deleted files
+     * @throws IOException
+     *             if deleting failed
+     */
+    int deleteStale(final Path root, final Set<Path> current, final Collection<Path> kept) throws IOException {
+        int deleted = 0;
+
+        for (final Path path : this.entries.keySet()) {
+            if (current.contains(path) || !Files.exists(path)) {
+                continue;
+            }
+
+            if (!isIntact(path)) {
+                kept.add(path);
+                continue;
+            }
+
+            if (Files.deleteIfExists(path)) {
+                deleted++;
+                deleteEmptyParents(root, path.getParent());
+            }
+        }
+
+        return deleted;
+    }
+
+    private static void deleteEmptyParents(final Path root, Path dir) throws IOException {
+        while (dir != null && dir.startsWith(root) && !dir.equals(root)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                if (stream.iterator().hasNext()) {
+                    return;
+                }
+            }
+
+            Files.delete(dir);
+            dir = dir.getParent();
+        }
+    }
+
+    private static String toKey(final String key) {
+        return key != null ? key : NO_KEY;
+    }
+
+    private static String fromKey(final String key) {
+        return NO_KEY.equals(key) ? null : key;
+    }
+
+    static String hash(final byte[] data) {
+        final byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-256 must be supported by every JVM
+            throw new IllegalStateException(e);
+        }
+
+        final StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (final byte b : hash) {
+            sb.append(Character.forDigit(b >> 4 & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
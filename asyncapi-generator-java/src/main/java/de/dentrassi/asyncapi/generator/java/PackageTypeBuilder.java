@@ -20,11 +20,9 @@ import static de.dentrassi.asyncapi.generator.java.util.JDTHelper.makePublic;
 import static de.dentrassi.asyncapi.generator.java.util.JDTHelper.makeStatic;
 import static de.dentrassi.asyncapi.generator.java.util.JDTHelper.newText;
 
-import java.io.File;
-import java.io.Writer;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -32,23 +30,25 @@ import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
-import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.Assignment;
 import org.eclipse.jdt.core.dom.Assignment.Operator;
 import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.BodyDeclaration;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
 import org.eclipse.jdt.core.dom.EnumDeclaration;
+import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.ExpressionStatement;
 import org.eclipse.jdt.core.dom.FieldAccess;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.eclipse.jdt.core.dom.Javadoc;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
 import org.eclipse.jdt.core.dom.Modifier.ModifierKeyword;
-import org.eclipse.jdt.core.dom.PackageDeclaration;
 import org.eclipse.jdt.core.dom.ParameterizedType;
 import org.eclipse.jdt.core.dom.PrimitiveType;
 import org.eclipse.jdt.core.dom.ReturnStatement;
@@ -57,11 +57,9 @@ import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.TagElement;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
-import org.eclipse.jdt.core.formatter.CodeFormatter;
-import org.eclipse.jface.text.Document;
-import org.eclipse.text.edits.TextEdit;
 
 import de.dentrassi.asyncapi.generator.java.util.JDTHelper;
+import de.dentrassi.asyncapi.generator.java.util.Java;
 import de.dentrassi.asyncapi.generator.java.util.Names;
 import de.dentrassi.asyncapi.type.ArrayType;
 import de.dentrassi.asyncapi.type.CoreType;
@@ -81,14 +79,16 @@ public class PackageTypeBuilder implements TypeBuilder {
         private final TypeDeclaration td;
         private final Function<Type, String> typeLookup;
         private final Function<TypeReference, Type> typeResolver;
+        private final BiConsumer<PropertyInformation, FieldDeclaration> propertyCustomizer;
 
         public ClassTypeBuilder(final AST ast, final CompilationUnit cu, final TypeDeclaration td, final Function<Type, String> typeLookup,
-                final Function<TypeReference, Type> typeResolver) {
+                final Function<TypeReference, Type> typeResolver, final BiConsumer<PropertyInformation, FieldDeclaration> propertyCustomizer) {
             this.ast = ast;
             this.cu = cu;
             this.td = td;
             this.typeLookup = typeLookup;
             this.typeResolver = typeResolver;
+            this.propertyCustomizer = propertyCustomizer;
         }
 
         @Override
@@ -104,7 +104,7 @@ public class PackageTypeBuilder implements TypeBuilder {
             final TypeDeclaration td = PackageTypeBuilder.createType(this.ast, this.cu, typeCustomizer, type);
             this.td.bodyDeclarations().add(td);
 
-            consumer.accept(new ClassTypeBuilder(this.ast, this.cu, td, this.typeLookup, this.typeResolver));
+            consumer.accept(new ClassTypeBuilder(this.ast, this.cu, td, this.typeLookup, this.typeResolver, this.propertyCustomizer));
         }
 
         @Override
@@ -117,24 +117,69 @@ public class PackageTypeBuilder implements TypeBuilder {
 
         @Override
         public void createProperty(final PropertyInformation property) {
-            PackageTypeBuilder.createProperty(this.ast, this.td, property, this.typeLookup, this.typeResolver);
+            PackageTypeBuilder.createProperty(this.ast, this.td, property, this.typeLookup, this.typeResolver, this.propertyCustomizer);
+        }
+
+        @Override
+        public void createResetMethod() {
+            PackageTypeBuilder.createResetMethod(this.ast, this.td);
+        }
+
+        @Override
+        public void createImmutableProperties(final List<PropertyInformation> properties) {
+            PackageTypeBuilder.createImmutableProperties(this.ast, this.td, properties, this.typeLookup, this.typeResolver, this.propertyCustomizer);
+        }
+
+        @Override
+        public void createDeltaCodec(final String typeName, final List<PropertyInformation> properties, final boolean immutable) {
+            PackageTypeBuilder.createDeltaCodec(this.ast, this.td, typeName, properties, immutable, this.typeLookup, this.typeResolver);
         }
 
     }
 
-    private final Charset charset;
+    private final Renderer renderer;
     private final String packageName;
-    private final Path rootPath;
     private final Function<Type, String> typeLookup;
     private final Function<TypeReference, Type> typeResolver;
+    private final BiConsumer<PropertyInformation, FieldDeclaration> propertyCustomizer;
+    private final String key;
 
     public PackageTypeBuilder(final Path root, final String packageName, final Charset charset, final Function<Type, String> typeLookup,
             final Function<TypeReference, Type> typeResolver) {
-        this.charset = charset;
+        this(root, packageName, charset, typeLookup, typeResolver, null);
+    }
+
+    public PackageTypeBuilder(final Path root, final String packageName, final Charset charset, final Function<Type, String> typeLookup,
+            final Function<TypeReference, Type> typeResolver, final BiConsumer<PropertyInformation, FieldDeclaration> propertyCustomizer) {
+        this(Renderer.immediate(root, charset), packageName, typeLookup, typeResolver, propertyCustomizer);
+    }
+
+    public PackageTypeBuilder(final Renderer renderer, final String packageName, final Function<Type, String> typeLookup,
+            final Function<TypeReference, Type> typeResolver, final BiConsumer<PropertyInformation, FieldDeclaration> propertyCustomizer) {
+        this(renderer, packageName, typeLookup, typeResolver, propertyCustomizer, null);
+    }
+
+    private PackageTypeBuilder(final Renderer renderer, final String packageName, final Function<Type, String> typeLookup,
+            final Function<TypeReference, Type> typeResolver, final BiConsumer<PropertyInformation, FieldDeclaration> propertyCustomizer, final String key) {
+        this.renderer = renderer;
         this.packageName = packageName;
-        this.rootPath = root;
         this.typeLookup = typeLookup;
         this.typeResolver = typeResolver;
+        this.propertyCustomizer = propertyCustomizer;
+        this.key = key;
+    }
+
+    /**
+     * Get a builder for compilation units with a known set of dependencies
+     *
+     * @param key
+     *            a fingerprint of everything the compilation units depend on,
+     *            may be {@code null} if unknown
+     * @return a new builder, for the same package
+     * @see Renderer#render(String, String, String, BiConsumer)
+     */
+    public PackageTypeBuilder dependsOn(final String key) {
+        return new PackageTypeBuilder(this.renderer, this.packageName, this.typeLookup, this.typeResolver, this.propertyCustomizer, key);
     }
 
     public static String asTypeName(final String name) {
@@ -149,54 +194,27 @@ public class PackageTypeBuilder implements TypeBuilder {
         return Names.toCamelCase(name, false);
     }
 
+    public static String asGetterName(final String name) {
+        return asMethodPropertyName("get", name);
+    }
+
     private static String asMethodPropertyName(final String prefix, final String name) {
         return prefix + Names.toCamelCase(name, true);
     }
 
     protected void createNew(final String name, final BiConsumer<AST, CompilationUnit> consumer) {
-        createCompilationUnit(this.rootPath, this.packageName, name, this.charset, consumer);
+        this.renderer.render(this.packageName, name, this.key, consumer);
     }
 
     public static void createCompilationUnit(final Path rootPath, final String packageName, final String name, final Charset charset,
             final BiConsumer<AST, CompilationUnit> consumer) {
-        final AST ast = AST.newAST(AST.JLS8);
-
-        final CompilationUnit cu = ast.newCompilationUnit();
-
-        final PackageDeclaration pkg = ast.newPackageDeclaration();
-        pkg.setName(ast.newName(packageName));
-        cu.setPackage(pkg);
-
-        final Path path = rootPath.resolve(packageName.replace(".", File.separator)).resolve(name + ".java");
-
-        consumer.accept(ast, cu);
-
-        try {
-            Files.createDirectories(path.getParent());
-
-            // format code
-
-            final CodeFormatter formatter = ToolFactory.createCodeFormatter(null);
-            final String s = cu.toString();
-            final TextEdit result = formatter.format(CodeFormatter.K_COMPILATION_UNIT, s, 0, s.length(), 0, null);
-
-            final Document doc = new Document(s);
-            result.apply(doc);
-
-            // write out
-
-            try (Writer writer = Files.newBufferedWriter(path, charset)) {
-                writer.append(doc.get());
-            }
-        } catch (final Exception e) {
-            throw new RuntimeException(e);
-        }
-
+        Renderer.immediate(rootPath, charset).render(packageName, name, consumer);
     }
 
     @Override
-    public void createType(final TypeInformation type, final boolean iface, final boolean serializable, final Consumer<TypeBuilder> consumer) {
-        createType(type, TypeBuilder.defaultTypeCustomizer(iface, serializable, false), consumer);
+    public void createType(final TypeInformation type, final boolean iface, final boolean serializable, final Consumer<TypeDeclaration> typeCustomizer,
+            final Consumer<TypeBuilder> consumer) {
+        createType(type, TypeBuilder.withCustomizer(TypeBuilder.defaultTypeCustomizer(iface, serializable, false), typeCustomizer), consumer);
     }
 
     @Override
@@ -204,7 +222,7 @@ public class PackageTypeBuilder implements TypeBuilder {
         createNew(type.getName(), (ast, cu) -> {
             final TypeDeclaration td = createType(ast, cu, typeCustomizer, type);
             cu.types().add(td);
-            consumer.accept(new ClassTypeBuilder(ast, cu, td, this.typeLookup, this.typeResolver));
+            consumer.accept(new ClassTypeBuilder(ast, cu, td, this.typeLookup, this.typeResolver, this.propertyCustomizer));
         });
     }
 
@@ -219,6 +237,21 @@ public class PackageTypeBuilder implements TypeBuilder {
         throw new IllegalStateException("Unable to create property on package level");
     }
 
+    @Override
+    public void createResetMethod() {
+        throw new IllegalStateException("Unable to create reset method on package level");
+    }
+
+    @Override
+    public void createImmutableProperties(final List<PropertyInformation> properties) {
+        throw new IllegalStateException("Unable to create properties on package level");
+    }
+
+    @Override
+    public void createDeltaCodec(final String typeName, final List<PropertyInformation> properties, final boolean immutable) {
+        throw new IllegalStateException("Unable to create delta codec on package level");
+    }
+
     @Override
     public void createBodyContent(final BiFunction<AST, CompilationUnit, List<ASTNode>> consumer) {
         throw new IllegalStateException("Unable to create body content on package level");
@@ -334,22 +367,15 @@ public class PackageTypeBuilder implements TypeBuilder {
 
     public static void createProperty(final AST ast, final TypeDeclaration td, final PropertyInformation property, final Function<Type, String> typeLookup,
             final Function<TypeReference, Type> typeResolver) {
+        createProperty(ast, td, property, typeLookup, typeResolver, null);
+    }
 
-        final String name = asPropertyName(property.getName());
-
-        final VariableDeclarationFragment fragment = ast.newVariableDeclarationFragment();
-        fragment.setName(ast.newSimpleName(name));
-
-        final FieldDeclaration fd = ast.newFieldDeclaration(fragment);
-        fd.modifiers().add(ast.newModifier(ModifierKeyword.PRIVATE_KEYWORD));
-        fd.setType(createPropertyType(ast, property.getType(), typeLookup, typeResolver));
+    public static void createProperty(final AST ast, final TypeDeclaration td, final PropertyInformation property, final Function<Type, String> typeLookup,
+            final Function<TypeReference, Type> typeResolver, final BiConsumer<PropertyInformation, FieldDeclaration> propertyCustomizer) {
 
-        final Javadoc doc = createJavadoc(ast, property.getSummary(), property.getDescription());
-        if (doc != null) {
-            fd.setJavadoc(doc);
-        }
+        final String name = asPropertyName(property.getName());
 
-        td.bodyDeclarations().add(fd);
+        createPropertyField(ast, td, property, name, typeLookup, typeResolver, propertyCustomizer, ModifierKeyword.PRIVATE_KEYWORD);
 
         // setter
 
@@ -404,6 +430,443 @@ public class PackageTypeBuilder implements TypeBuilder {
 
     }
 
+    private static FieldDeclaration createPropertyField(final AST ast, final TypeDeclaration td, final PropertyInformation property, final String name,
+            final Function<Type, String> typeLookup, final Function<TypeReference, Type> typeResolver,
+            final BiConsumer<PropertyInformation, FieldDeclaration> propertyCustomizer, final ModifierKeyword... modifiers) {
+
+        final VariableDeclarationFragment fragment = ast.newVariableDeclarationFragment();
+        fragment.setName(ast.newSimpleName(name));
+
+        final FieldDeclaration fd = ast.newFieldDeclaration(fragment);
+        for (final ModifierKeyword modifier : modifiers) {
+            fd.modifiers().add(ast.newModifier(modifier));
+        }
+        fd.setType(createPropertyType(ast, property.getType(), typeLookup, typeResolver));
+
+        final Javadoc doc = createJavadoc(ast, property.getSummary(), property.getDescription());
+        if (doc != null) {
+            fd.setJavadoc(doc);
+        }
+
+        td.bodyDeclarations().add(fd);
+
+        if (propertyCustomizer != null) {
+            propertyCustomizer.accept(property, fd);
+        }
+
+        return fd;
+    }
+
+    public static void createImmutableProperties(final AST ast, final TypeDeclaration td, final List<PropertyInformation> properties,
+            final Function<Type, String> typeLookup, final Function<TypeReference, Type> typeResolver,
+            final BiConsumer<PropertyInformation, FieldDeclaration> propertyCustomizer) {
+
+        final String typeName = td.getName().getIdentifier();
+
+        final List<String> names = new ArrayList<>(properties.size());
+        final List<org.eclipse.jdt.core.dom.Type> types = new ArrayList<>(properties.size());
+
+        for (final PropertyInformation property : properties) {
+            final String name = asPropertyName(property.getName());
+            final FieldDeclaration fd = createPropertyField(ast, td, property, name, typeLookup, typeResolver, propertyCustomizer, ModifierKeyword.PRIVATE_KEYWORD,
+                    ModifierKeyword.FINAL_KEYWORD);
+
+            names.add(name);
+            types.add(fd.getType());
+        }
+
+        final StringBuilder code = new StringBuilder();
+
+        // the hash code is calculated on first use, like String does
+
+        code.append("private transient int cachedHashCode;\n");
+
+        // constructors
+
+        code.append("/** Create an empty instance, used by payload formats when decoding */\n");
+        code.append("private ").append(typeName).append("() {\n");
+        for (int i = 0; i < names.size(); i++) {
+            code.append("this.").append(names.get(i)).append(" = ").append(createDefaultValue(ast, types.get(i))).append(";\n");
+        }
+        code.append("}\n");
+
+        code.append("private ").append(typeName).append("(final Builder builder) {\n");
+        for (int i = 0; i < names.size(); i++) {
+            code.append("this.").append(names.get(i)).append(" = ").append(copyValue(types.get(i), "builder." + names.get(i))).append(";\n");
+        }
+        code.append("}\n");
+
+        // getters
+
+        for (int i = 0; i < names.size(); i++) {
+            final String name = names.get(i);
+            final org.eclipse.jdt.core.dom.Type type = types.get(i);
+
+            if (type.isArrayType()) {
+                code.append("/** Get the value of the property\n<p>\nAs arrays cannot be made read-only, this returns a copy.\n</p>\n*/\n");
+            }
+            code.append("public ").append(type).append(' ').append(asMethodPropertyName("get", name)).append("() {\n");
+            if (type.isArrayType()) {
+                code.append("return this.").append(name).append(" != null ? this.").append(name).append(".clone() : null;\n");
+            } else {
+                code.append("return this.").append(name).append(";\n");
+            }
+            code.append("}\n");
+        }
+
+        // builder
+
+        code.append("/** Create a new builder */\n");
+        code.append("public static Builder newBuilder() {\n");
+        code.append("return new Builder();\n");
+        code.append("}\n");
+
+        code.append("/** Create a new builder, initialized with the values of this instance */\n");
+        code.append("public Builder toBuilder() {\n");
+        code.append("final Builder result = new Builder();\n");
+        for (final String name : names) {
+            code.append("result.").append(name).append(" = this.").append(name).append(";\n");
+        }
+        code.append("return result;\n");
+        code.append("}\n");
+
+        code.append("/** Builder for instances of {@link ").append(typeName).append("} */\n");
+        code.append("public static final class Builder {\n");
+        for (int i = 0; i < names.size(); i++) {
+            code.append("private ").append(types.get(i)).append(' ').append(names.get(i)).append(";\n");
+        }
+        code.append("private Builder() {\n");
+        code.append("}\n");
+        for (int i = 0; i < names.size(); i++) {
+            final String name = names.get(i);
+            code.append("public Builder ").append(name).append("(final ").append(types.get(i)).append(' ').append(name).append(") {\n");
+            code.append("this.").append(name).append(" = ").append(name).append(";\n");
+            code.append("return this;\n");
+            code.append("}\n");
+        }
+        code.append("/** Create a new instance, copying collections and arrays */\n");
+        code.append("public ").append(typeName).append(" build() {\n");
+        code.append("return new ").append(typeName).append("(this);\n");
+        code.append("}\n");
+        code.append("}\n");
+
+        // equals
+
+        code.append("@Override\n");
+        code.append("public boolean equals(final Object obj) {\n");
+        code.append("if (this == obj) {\n");
+        code.append("return true;\n");
+        code.append("}\n");
+        code.append("if (obj == null || getClass() != obj.getClass()) {\n");
+        code.append("return false;\n");
+        code.append("}\n");
+        if (names.isEmpty()) {
+            code.append("return true;\n");
+        } else {
+            code.append("final ").append(typeName).append(" other = (").append(typeName).append(") obj;\n");
+            code.append("return ");
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    code.append(" && ");
+                }
+                code.append(equalsValue(types.get(i), "this." + names.get(i), "other." + names.get(i)));
+            }
+            code.append(";\n");
+        }
+        code.append("}\n");
+
+        // hashCode
+
+        code.append("@Override\n");
+        code.append("public int hashCode() {\n");
+        code.append("int result = this.cachedHashCode;\n");
+        code.append("if (result == 0) {\n");
+        code.append("result = 1;\n");
+        for (int i = 0; i < names.size(); i++) {
+            code.append("result = 31 * result + ").append(hashValue(types.get(i), "this." + names.get(i))).append(";\n");
+        }
+        code.append("this.cachedHashCode = result;\n");
+        code.append("}\n");
+        code.append("return result;\n");
+        code.append("}\n");
+
+        // toString
+
+        code.append("@Override\n");
+        code.append("public String toString() {\n");
+        code.append("return \"").append(typeName).append(" [");
+        for (int i = 0; i < names.size(); i++) {
+            final String name = names.get(i);
+            code.append(i > 0 ? ", " : "").append(name).append("=\" + ");
+            if (types.get(i).isArrayType()) {
+                code.append("java.util.Arrays.toString(this.").append(name).append(')');
+            } else {
+                code.append("this.").append(name);
+            }
+            code.append(" + \"");
+        }
+        code.append("]\";\n");
+        code.append("}\n");
+
+        td.bodyDeclarations().addAll(Java.parse(ast, ASTParser.K_CLASS_BODY_DECLARATIONS, code.toString(), node -> ((TypeDeclaration) node).bodyDeclarations()));
+    }
+
+    public static void createDeltaCodec(final AST ast, final TypeDeclaration td, final String typeName, final List<PropertyInformation> properties,
+            final boolean immutable, final Function<Type, String> typeLookup, final Function<TypeReference, Type> typeResolver) {
+
+        if (properties.size() > 64) {
+            throw new IllegalStateException("Delta codecs support at most 64 properties");
+        }
+
+        final String codecType = "de.dentrassi.asyncapi.delta.DeltaCodec<" + typeName + ">";
+
+        final List<String> names = new ArrayList<>(properties.size());
+        final List<org.eclipse.jdt.core.dom.Type> types = new ArrayList<>(properties.size());
+
+        for (final PropertyInformation property : properties) {
+            names.add(asPropertyName(property.getName()));
+            types.add(createPropertyType(ast, property.getType(), typeLookup, typeResolver));
+        }
+
+        final StringBuilder code = new StringBuilder();
+
+        code.append("/** Field level differences of the payload, used by topics with delta encoding */\n");
+        code.append("public static final ").append(codecType).append(" DELTA_CODEC = new ").append(codecType).append("() {\n");
+
+        // changes
+
+        code.append("@Override\n");
+        code.append("public long changes(final ").append(typeName).append(" previous, final ").append(typeName).append(" current) {\n");
+        code.append("long result = 0L;\n");
+        for (int i = 0; i < names.size(); i++) {
+            final String name = names.get(i);
+            code.append("if (!(").append(equalsValue(types.get(i), "previous." + name, "current." + name)).append(")) {\n");
+            code.append("result |= ").append(deltaBit(i)).append(";\n");
+            code.append("}\n");
+        }
+        code.append("return result;\n");
+        code.append("}\n");
+
+        // extract
+
+        code.append("@Override\n");
+        code.append("public ").append(typeName).append(" extract(final ").append(typeName).append(" current, final long changes) {\n");
+        if (immutable) {
+            code.append("if (changes == ALL) {\n");
+            code.append("return current;\n");
+            code.append("}\n");
+            code.append("final ").append(typeName).append(".Builder result = ").append(typeName).append(".newBuilder();\n");
+        } else {
+            code.append("final ").append(typeName).append(" result = new ").append(typeName).append("();\n");
+        }
+        for (int i = 0; i < names.size(); i++) {
+            code.append("if ((changes & ").append(deltaBit(i)).append(") != 0) {\n");
+            code.append(deltaAssign(immutable, types.get(i), names.get(i), "current." + names.get(i)));
+            code.append("}\n");
+        }
+        code.append(immutable ? "return result.build();\n" : "return result;\n");
+        code.append("}\n");
+
+        // merge
+
+        code.append("@Override\n");
+        code.append("public ").append(typeName).append(" merge(final ").append(typeName).append(" state, final ").append(typeName).append(" delta, final long changes) {\n");
+        if (immutable) {
+            code.append("final ").append(typeName).append(".Builder result = ").append(typeName).append(".newBuilder();\n");
+        } else {
+            code.append("final ").append(typeName).append(" result = new ").append(typeName).append("();\n");
+        }
+        for (int i = 0; i < names.size(); i++) {
+            final String name = names.get(i);
+            code.append(deltaAssign(immutable, types.get(i), name, "((changes & " + deltaBit(i) + ") != 0 ? delta : state)." + name));
+        }
+        code.append(immutable ? "return result.build();\n" : "return result;\n");
+        code.append("}\n");
+
+        code.append("};\n");
+
+        td.bodyDeclarations().addAll(Java.parse(ast, ASTParser.K_CLASS_BODY_DECLARATIONS, code.toString(), node -> ((TypeDeclaration) node).bodyDeclarations()));
+    }
+
+    private static String deltaBit(final int index) {
+        return "(1L << " + index + ")";
+    }
+
+    private static String deltaAssign(final boolean immutable, final org.eclipse.jdt.core.dom.Type type, final String name, final String value) {
+        if (immutable) {
+            // the builder copies the value
+            return "result." + name + "(" + value + ");\n";
+        }
+
+        // mutable payloads must not share arrays and collections with the snapshot
+
+        final String rawType = rawTypeName(type);
+
+        if (type.isArrayType()) {
+            return "result." + name + " = " + value + " != null ? " + value + ".clone() : null;\n";
+        } else if (TYPE_NAME_LIST.equals(rawType)) {
+            return "result." + name + " = " + value + " != null ? new java.util.ArrayList<>(" + value + ") : null;\n";
+        } else if (TYPE_NAME_SET.equals(rawType)) {
+            return "result." + name + " = " + value + " != null ? new java.util.LinkedHashSet<>(" + value + ") : null;\n";
+        } else {
+            return "result." + name + " = " + value + ";\n";
+        }
+    }
+
+    private static String rawTypeName(final org.eclipse.jdt.core.dom.Type type) {
+        if (type.isParameterizedType()) {
+            return ((ParameterizedType) type).getType().toString();
+        }
+        return type.toString();
+    }
+
+    private static String copyValue(final org.eclipse.jdt.core.dom.Type type, final String value) {
+        final String rawType = rawTypeName(type);
+
+        if (type.isArrayType()) {
+            return value + " != null ? " + value + ".clone() : null";
+        } else if (TYPE_NAME_LIST.equals(rawType)) {
+            return value + " != null ? java.util.Collections.unmodifiableList(new java.util.ArrayList<>(" + value + ")) : null";
+        } else if (TYPE_NAME_SET.equals(rawType)) {
+            return value + " != null ? java.util.Collections.unmodifiableSet(new java.util.LinkedHashSet<>(" + value + ")) : null";
+        } else {
+            return value;
+        }
+    }
+
+    private static String equalsValue(final org.eclipse.jdt.core.dom.Type type, final String value, final String other) {
+        if (type.isArrayType()) {
+            return "java.util.Arrays.equals(" + value + ", " + other + ")";
+        } else if (!type.isPrimitiveType()) {
+            return "java.util.Objects.equals(" + value + ", " + other + ")";
+        }
+
+        final PrimitiveType.Code code = ((PrimitiveType) type).getPrimitiveTypeCode();
+
+        // compare floating point numbers like their boxed types do, consistent with hashCode()
+
+        if (code == PrimitiveType.FLOAT) {
+            return "Float.compare(" + value + ", " + other + ") == 0";
+        } else if (code == PrimitiveType.DOUBLE) {
+            return "Double.compare(" + value + ", " + other + ") == 0";
+        } else {
+            return value + " == " + other;
+        }
+    }
+
+    private static String hashValue(final org.eclipse.jdt.core.dom.Type type, final String value) {
+        if (type.isArrayType()) {
+            return "java.util.Arrays.hashCode(" + value + ")";
+        } else if (!type.isPrimitiveType()) {
+            return "java.util.Objects.hashCode(" + value + ")";
+        }
+
+        final PrimitiveType.Code code = ((PrimitiveType) type).getPrimitiveTypeCode();
+
+        if (code == PrimitiveType.BOOLEAN) {
+            return "Boolean.hashCode(" + value + ")";
+        } else if (code == PrimitiveType.LONG) {
+            return "Long.hashCode(" + value + ")";
+        } else if (code == PrimitiveType.FLOAT) {
+            return "Float.hashCode(" + value + ")";
+        } else if (code == PrimitiveType.DOUBLE) {
+            return "Double.hashCode(" + value + ")";
+        } else {
+            return value;
+        }
+    }
+
+    public static void createResetMethod(final AST ast, final TypeDeclaration td) {
+
+        /*
+         * @Override
+         * public void reset() {
+         *   this.field = null;
+         * }
+         */
+
+        final MethodDeclaration md = ast.newMethodDeclaration();
+        JDTHelper.addSimpleAnnotation(md, "Override");
+        makePublic(md);
+        md.setName(ast.newSimpleName("reset"));
+
+        final Block body = ast.newBlock();
+        md.setBody(body);
+
+        for (final FieldDeclaration fd : td.getFields()) {
+            if (Modifier.isStatic(fd.getModifiers()) || Modifier.isFinal(fd.getModifiers())) {
+                continue;
+            }
+
+            for (final VariableDeclarationFragment fragment : (List<VariableDeclarationFragment>) fd.fragments()) {
+                final FieldAccess fa = ast.newFieldAccess();
+                fa.setName(ast.newSimpleName(fragment.getName().getIdentifier()));
+                fa.setExpression(ast.newThisExpression());
+
+                final Assignment assign = ast.newAssignment();
+                assign.setLeftHandSide(fa);
+                assign.setOperator(Operator.ASSIGN);
+                assign.setRightHandSide(createDefaultValue(ast, fd.getType()));
+
+                body.statements().add(ast.newExpressionStatement(assign));
+            }
+        }
+
+        td.bodyDeclarations().add(md);
+    }
+
+    private static Expression createDefaultValue(final AST ast, final org.eclipse.jdt.core.dom.Type type) {
+        if (!type.isPrimitiveType()) {
+            return ast.newNullLiteral();
+        }
+
+        final PrimitiveType.Code code = ((PrimitiveType) type).getPrimitiveTypeCode();
+
+        if (code == PrimitiveType.BOOLEAN) {
+            return ast.newBooleanLiteral(false);
+        } else if (code == PrimitiveType.CHAR) {
+            final CharacterLiteral result = ast.newCharacterLiteral();
+            result.setCharValue('\0');
+            return result;
+        } else if (code == PrimitiveType.LONG) {
+            return ast.newNumberLiteral("0L");
+        } else if (code == PrimitiveType.FLOAT) {
+            return ast.newNumberLiteral("0.0f");
+        } else if (code == PrimitiveType.DOUBLE) {
+            return ast.newNumberLiteral("0.0");
+        } else {
+            return ast.newNumberLiteral("0");
+        }
+    }
+
+    /**
+     * Get the primitive type of a numeric type
+     *
+     * @param type
+     *            the type to check, may be {@code null}
+     * @return the primitive type, e.g. {@code double.class}, or {@code null}
+     *         if the type is not a boxed number
+     */
+    public static Class<?> primitiveNumberType(final Type type) {
+        if (!(type instanceof CoreType)) {
+            return null;
+        }
+
+        final Class<?> clazz = ((CoreType) type).getJavaType();
+
+        if (Integer.class.equals(clazz)) {
+            return int.class;
+        } else if (Long.class.equals(clazz)) {
+            return long.class;
+        } else if (Float.class.equals(clazz)) {
+            return float.class;
+        } else if (Double.class.equals(clazz)) {
+            return double.class;
+        }
+
+        return null;
+    }
+
     private static org.eclipse.jdt.core.dom.Type createPropertyType(final AST ast, final Type type, final Function<Type, String> typeLookup,
             final Function<TypeReference, Type> typeResolver) {
 
@@ -433,6 +896,15 @@ public class PackageTypeBuilder implements TypeBuilder {
         } else if (type instanceof ArrayType) {
 
             final boolean unique = ((ArrayType) type).isUnique();
+            final Type itemType = typeResolver.apply(((ArrayType) type).getItemType());
+
+            // lists of numbers become arrays of primitives, e.g. double[]
+
+            final Class<?> primitiveItemType = primitiveNumberType(itemType);
+            if (!unique && primitiveItemType != null) {
+                return ast.newArrayType(createPropertyType(ast, new CoreType(itemType.getName(), primitiveItemType), typeLookup, typeResolver));
+            }
+
             final SimpleType rawCollectionType;
             if (unique) {
                 rawCollectionType = ast.newSimpleType(ast.newName(TYPE_NAME_SET));
@@ -441,7 +913,7 @@ public class PackageTypeBuilder implements TypeBuilder {
             }
             final ParameterizedType collectionType = ast.newParameterizedType(rawCollectionType);
 
-            collectionType.typeArguments().add(createPropertyType(ast, typeResolver.apply(((ArrayType) type).getItemType()), typeLookup, typeResolver));
+            collectionType.typeArguments().add(createPropertyType(ast, itemType, typeLookup, typeResolver));
 
             return collectionType;
 
@@ -23,12 +23,18 @@ public class PropertyInformation {
     private final String name;
     private final String summary;
     private final String description;
+    private final boolean intern;
 
     public PropertyInformation(final Type type, final String name, final String summary, final String description) {
+        this(type, name, summary, description, false);
+    }
+
+    public PropertyInformation(final Type type, final String name, final String summary, final String description, final boolean intern) {
         this.type = type;
         this.name = name;
         this.summary = summary;
         this.description = description;
+        this.intern = intern;
     }
 
     public Type getType() {
@@ -47,4 +53,13 @@ public class PropertyInformation {
         return this.description;
     }
 
+    /**
+     * Check if decoded values should be de-duplicated
+     *
+     * @return {@code true} if the property is marked with {@code x-intern}
+     */
+    public boolean isIntern() {
+        return this.intern;
+    }
+
 }
@@ -0,0 +1,447 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+
+/**
+ * Render compilation units and write them to the target path
+ * <p>
+ * Each compilation unit gets its own {@link AST}, so units can be built,
+ * formatted and written independently of each other. If the renderer has an
+ * executor, this happens on the executor and {@link #finish()} must be called
+ * to wait for all units. Otherwise units are rendered on the calling thread,
+ * when they are submitted.
+ * </p>
+ * <p>
+ * Files which already exist with the same content are not written again, so
+ * their timestamps stay untouched.
+ * </p>
+ * <p>
+ * The output does not depend on the executor. Units targeting the same file
+ * are written in the order they were submitted, so the last one wins, just as
+ * with sequential rendering. Units should be submitted from a single thread,
+ * otherwise the submission order itself is undefined.
+ * </p>
+ */
+public final class Renderer {
+
+    /**
+     * The Eclipse formatter with default options, shared by all renderers
+     */
+    static final SourceFormatter DEFAULT_FORMATTER = SourceFormatter.eclipse(null);
+
+    private final Path rootPath;
+    private final Charset charset;
+    private final Executor executor;
+    private final SourceFormatter formatter;
+
+    /**
+     * The rendered sources, {@code null} if the units are written to files
+     */
+    private final Map<String, String> sources;
+
+    private final List<CompletableFuture<?>> units = new ArrayList<>();
+    private final Map<Path, CompletableFuture<?>> lastUnit = new HashMap<>();
+
+    private final Set<Path> paths = new LinkedHashSet<>();
+    private final Map<Path, Manifest.Entry> entries = new HashMap<>();
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final AtomicInteger cached = new AtomicInteger();
+
+    private Manifest previous;
+
+    private Renderer(final Path rootPath, final Charset charset, final Executor executor, final SourceFormatter formatter, final boolean inMemory) {
+        this.rootPath = Objects.requireNonNull(rootPath);
+        this.charset = Objects.requireNonNull(charset);
+        this.executor = executor;
+        this.formatter = Objects.requireNonNull(formatter);
+        this.sources = inMemory ? new TreeMap<>() : null;
+    }
+
+    /**
+     * Create a new renderer which renders units on the calling thread
+     *
+     * @param rootPath
+     *            the root of the source tree
+     * @param charset
+     *            the character set of the files
+     * @return the new renderer
+     */
+    public static Renderer immediate(final Path rootPath, final Charset charset) {
+        return immediate(rootPath, charset, DEFAULT_FORMATTER);
+    }
+
+    /**
+     * Create a new renderer which renders units on the calling thread
+     *
+     * @param rootPath
+     *            the root of the source tree
+     * @param charset
+     *            the character set of the files
+     * @param formatter
+     *            the formatter for the source code
+     * @return the new renderer
+     */
+    public static Renderer immediate(final Path rootPath, final Charset charset, final SourceFormatter formatter) {
+        return new Renderer(rootPath, charset, null, formatter, false);
+    }
+
+    /**
+     * Create a new renderer which renders units on an executor
+     *
+     * @param rootPath
+     *            the root of the source tree
+     * @param charset
+     *            the character set of the files
+     * @param executor
+     *            the executor to render units on
+     * @return the new renderer
+     */
+    public static Renderer concurrent(final Path rootPath, final Charset charset, final Executor executor) {
+        return concurrent(rootPath, charset, executor, DEFAULT_FORMATTER);
+    }
+
+    /**
+     * Create a new renderer which renders units on an executor
+     *
+     * @param rootPath
+     *            the root of the source tree
+     * @param charset
+     *            the character set of the files
+     * @param executor
+     *            the executor to render units on
+     * @param formatter
+     *            the formatter for the source code
+     * @return the new renderer
+     */
+    public static Renderer concurrent(final Path rootPath, final Charset charset, final Executor executor, final SourceFormatter formatter) {
+        return new Renderer(rootPath, charset, Objects.requireNonNull(executor), formatter, false);
+    }
+
+    /**
+     * Create a new renderer which keeps the rendered units in memory
+     * <p>
+     * No files will be written, the sources can be retrieved by
+     * {@link #getSources()} after calling {@link #finish()}.
+     * </p>
+     *
+     * @param executor
+     *            the executor to render units on, may be {@code null} to
+     *            render units on the calling thread
+     * @param formatter
+     *            the formatter for the source code
+     * @return the new renderer
+     */
+    public static Renderer inMemory(final Executor executor, final SourceFormatter formatter) {
+        return new Renderer(Paths.get(""), StandardCharsets.UTF_8, executor, formatter, true);
+    }
+
+    /**
+     * Set the manifest of the previous run
+     * <p>
+     * Units which have a key, which is equal to the key they had in the
+     * previous run, will not be rendered again, as long as their file is
+     * still intact.
+     * </p>
+     *
+     * @param previous
+     *            the manifest of the previous run, may be {@code null}
+     */
+    void setPrevious(final Manifest previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Submit a new compilation unit
+     *
+     * @param packageName
+     *            the name of the package
+     * @param name
+     *            the name of the unit, without the {@code .java} extension
+     * @param consumer
+     *            the consumer building the unit, may be called on a different
+     *            thread
+     */
+    public void render(final String packageName, final String name, final BiConsumer<AST, CompilationUnit> consumer) {
+        render(packageName, name, null, consumer);
+    }
+
+    /**
+     * Submit a new compilation unit
+     *
+     * @param packageName
+     *            the name of the package
+     * @param name
+     *            the name of the unit, without the {@code .java} extension
+     * @param key
+     *            a fingerprint of everything the unit depends on, may be
+     *            {@code null} if unknown
+     * @param consumer
+     *            the consumer building the unit, may be called on a different
+     *            thread
+     */
+    public void render(final String packageName, final String name, final String key, final BiConsumer<AST, CompilationUnit> consumer) {
+        final Path path = this.rootPath.resolve(packageName.replace(".", File.separator)).resolve(name + ".java");
+
+        synchronized (this.paths) {
+            this.paths.add(path);
+        }
+
+        if (this.executor == null) {
+            renderUnit(path, packageName, name, key, consumer);
+            return;
+        }
+
+        final Runnable task = () -> renderUnit(path, packageName, name, key, consumer);
+
+        synchronized (this) {
+            final CompletableFuture<?> previous = this.lastUnit.get(path);
+
+            final CompletableFuture<?> unit;
+            if (previous == null) {
+                unit = CompletableFuture.runAsync(task, this.executor);
+            } else {
+                // same file, write after the previous unit
+                unit = previous.handleAsync((result, error) -> {
+                    task.run();
+                    return null;
+                }, this.executor);
+            }
+
+            this.lastUnit.put(path, unit);
+            this.units.add(unit);
+        }
+    }
+
+    /**
+     * Wait for all submitted units to be written
+     * <p>
+     * If rendering failed for more than one unit, the error of the first
+     * submitted unit is reported.
+     * </p>
+     *
+     * @throws IOException
+     *             if writing a unit failed
+     */
+    public void finish() throws IOException {
+        final List<CompletableFuture<?>> units;
+        synchronized (this) {
+            units = new ArrayList<>(this.units);
+            this.units.clear();
+            this.lastUnit.clear();
+        }
+
+        Throwable error = null;
+
+        for (final CompletableFuture<?> unit : units) {
+            try {
+                unit.join();
+            } catch (final CompletionException e) {
+                if (error == null) {
+                    error = e.getCause() != null ? e.getCause() : e;
+                }
+            }
+        }
+
+        if (error instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) error).getCause();
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    /**
+     * Get the files of all submitted units
+     *
+     * @return the paths of the files, in the order they were submitted
+     */
+    public Set<Path> getPaths() {
+        synchronized (this.paths) {
+            return new LinkedHashSet<>(this.paths);
+        }
+    }
+
+    /**
+     * Get the rendered sources
+     * <p>
+     * This is only supported by renderers created by
+     * {@link #inMemory(Executor, SourceFormatter)}.
+     * </p>
+     *
+     * @return the sources, by the fully qualified name of the unit, sorted by
+     *         name
+     */
+    public Map<String, String> getSources() {
+        if (this.sources == null) {
+            throw new IllegalStateException("Renderer is not rendering into memory");
+        }
+
+        synchronized (this.sources) {
+            return Collections.unmodifiableMap(new TreeMap<>(this.sources));
+        }
+    }
+
+    /**
+     * Get the entries of all rendered units
+     *
+     * @return the entries, by path
+     */
+    Map<Path, Manifest.Entry> getEntries() {
+        synchronized (this.entries) {
+            return new HashMap<>(this.entries);
+        }
+    }
+
+    /**
+     * Get the number of units which have been skipped, as their key and file
+     * were unchanged since the previous run
+     * <p>
+     * These units are included in {@link #getUnchanged()}.
+     * </p>
+     *
+     * @return the number of skipped units
+     */
+    public int getCached() {
+        return this.cached.get();
+    }
+
+    /**
+     * Get the number of units which have been written
+     *
+     * @return the number of written units
+     */
+    public int getWritten() {
+        return this.written.get();
+    }
+
+    /**
+     * Get the number of units which have not been written, as the existing
+     * file already had the same content
+     *
+     * @return the number of unchanged units
+     */
+    public int getUnchanged() {
+        return this.unchanged.get();
+    }
+
+    private void renderUnit(final Path path, final String packageName, final String name, final String key, final BiConsumer<AST, CompilationUnit> consumer) {
+        try {
+            if (key != null && this.previous != null) {
+                final Manifest.Entry entry = this.previous.getEntries().get(path);
+                if (entry != null && key.equals(entry.getKey()) && this.previous.isIntact(path)) {
+                    record(path, new Manifest.Entry(key, entry.getHash()));
+                    this.cached.incrementAndGet();
+                    this.unchanged.incrementAndGet();
+                    return;
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final AST ast = AST.newAST(AST.JLS8);
+
+        final CompilationUnit cu = ast.newCompilationUnit();
+
+        final PackageDeclaration pkg = ast.newPackageDeclaration();
+        pkg.setName(ast.newName(packageName));
+        cu.setPackage(pkg);
+
+        consumer.accept(ast, cu);
+
+        final String content;
+        try {
+            content = this.formatter.format(cu.toString());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        if (this.sources != null) {
+            synchronized (this.sources) {
+                this.sources.put(packageName + "." + name, content);
+            }
+            return;
+        }
+
+        try {
+            final byte[] data = content.getBytes(this.charset);
+
+            record(path, new Manifest.Entry(key, Manifest.hash(data)));
+
+            if (isUnchanged(path, data)) {
+                this.unchanged.incrementAndGet();
+                return;
+            }
+
+            Files.createDirectories(path.getParent());
+            Files.write(path, data);
+
+            this.written.incrementAndGet();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void record(final Path path, final Manifest.Entry entry) {
+        synchronized (this.entries) {
+            this.entries.put(path, entry);
+        }
+    }
+
+    private static boolean isUnchanged(final Path path, final byte[] data) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) != data.length) {
+            return false;
+        }
+
+        return Arrays.equals(Files.readAllBytes(path), data);
+    }
+}
@@ -20,7 +20,6 @@ import static java.util.Arrays.asList;
 import static java.util.Optional.empty;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -75,7 +74,7 @@ public class ServiceDefinitions {
     public static ServiceDefinitions build(final AsyncApi api, final boolean validateTopicSyntax) {
 
         final Map<Topic, TopicInformation> topics = new LinkedHashMap<>();
-        final Map<String, Map<String, List<Topic>>> versions = new HashMap<>();
+        final Map<String, Map<String, List<Topic>>> versions = new LinkedHashMap<>();
 
         for (final Topic topic : api.getTopics()) {
 
@@ -94,7 +93,7 @@ public class ServiceDefinitions {
             topics.put(topic, ti);
         }
 
-        final Map<String, VersionedService> latest = new HashMap<>();
+        final Map<String, VersionedService> latest = new LinkedHashMap<>();
         for (final Map.Entry<String, Map<String, List<Topic>>> versionEntry : versions.entrySet()) {
             for (final Map.Entry<String, List<Topic>> serviceEntry : versionEntry.getValue().entrySet()) {
 
@@ -119,7 +118,7 @@ public class ServiceDefinitions {
 
         Map<String, List<Topic>> version = versions.get(ti.getVersion());
         if (version == null) {
-            version = new HashMap<>();
+            version = new LinkedHashMap<>();
             versions.put(ti.getVersion(), version);
         }
 
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+/**
+ * Re-indent Java source code by the nesting level of braces
+ * <p>
+ * This only replaces the leading whitespace of each line, and drops empty
+ * lines. String and character literals, as well as comments, are skipped
+ * when counting braces.
+ * </p>
+ */
+final class SimpleIndenter {
+
+    private static final String INDENT = "    ";
+
+    private SimpleIndenter() {
+    }
+
+    static String indent(final String source) {
+        final StringBuilder sb = new StringBuilder(source.length() + source.length() / 4);
+
+        int depth = 0;
+        boolean inComment = false;
+
+        for (final String rawLine : source.split("\\r?\\n")) {
+            final String line = rawLine.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            final int lineDepth;
+            if (!inComment && line.charAt(0) == '}') {
+                lineDepth = Math.max(0, depth - 1);
+            } else {
+                lineDepth = depth;
+            }
+
+            for (int i = 0; i < lineDepth; i++) {
+                sb.append(INDENT);
+            }
+            if (inComment && line.charAt(0) == '*') {
+                // align with the start of the comment
+                sb.append(' ');
+            }
+            sb.append(line).append('\n');
+
+            // update the state for the next line
+
+            char quote = 0;
+            for (int i = 0; i < line.length(); i++) {
+                final char c = line.charAt(i);
+
+                if (inComment) {
+                    if (c == '*' && i + 1 < line.length() && line.charAt(i + 1) == '/') {
+                        inComment = false;
+                        i++;
+                    }
+                } else if (quote != 0) {
+                    if (c == '\\') {
+                        i++;
+                    } else if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '/' && i + 1 < line.length() && line.charAt(i + 1) == '*') {
+                    inComment = true;
+                    i++;
+                } else if (c == '/' && i + 1 < line.length() && line.charAt(i + 1) == '/') {
+                    break;
+                } else if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth = Math.max(0, depth - 1);
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.formatter.CodeFormatter;
+import org.eclipse.jface.text.Document;
+import org.eclipse.text.edits.TextEdit;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Format the source code of a compilation unit
+ * <p>
+ * Implementations must be thread safe.
+ * </p>
+ */
+@FunctionalInterface
+public interface SourceFormatter {
+
+    public String format(String source) throws Exception;
+
+    /**
+     * A formatter which only indents the code
+     * <p>
+     * Lines are indented according to the nesting of braces. Other than the
+     * Eclipse formatter, this does not wrap lines and does not add blank
+     * lines. This is a lot faster than running the Eclipse formatter, and
+     * still deterministic.
+     * </p>
+     *
+     * @return the formatter, never {@code null}
+     */
+    public static SourceFormatter simple() {
+        return SimpleIndenter::indent;
+    }
+
+    /**
+     * A formatter using the Eclipse code formatter
+     * <p>
+     * Creating an Eclipse code formatter is expensive, so each thread
+     * re-uses its own instance.
+     * </p>
+     *
+     * @param options
+     *            the formatter options, may be {@code null} for the default
+     *            options
+     * @return the formatter, never {@code null}
+     */
+    public static SourceFormatter eclipse(final Map<String, String> options) {
+        final Map<String, String> copy = options != null ? new LinkedHashMap<>(options) : null;
+        final ThreadLocal<CodeFormatter> formatter = ThreadLocal.withInitial(() -> ToolFactory.createCodeFormatter(copy));
+
+        return source -> {
+            final TextEdit result = formatter.get().format(CodeFormatter.K_COMPILATION_UNIT, source, 0, source.length(), 0, null);
+
+            if (result == null) {
+                throw new IllegalStateException("Failed to format source code");
+            }
+
+            final Document doc = new Document(source);
+            result.apply(doc);
+
+            return doc.get();
+        };
+    }
+
+    /**
+     * Load the settings of an Eclipse code formatter profile
+     * <p>
+     * This reads the {@code setting} elements of the first profile, as
+     * exported by the Eclipse IDE.
+     * </p>
+     *
+     * @param path
+     *            the profile file
+     * @return the formatter options
+     * @throws IOException
+     *             if reading the profile failed
+     */
+    public static Map<String, String> loadProfile(final Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return loadProfile(in);
+        }
+    }
+
+    /**
+     * Load the settings of an Eclipse code formatter profile
+     *
+     * @param in
+     *            the profile content
+     * @return the formatter options
+     * @throws IOException
+     *             if reading the profile failed
+     * @see #loadProfile(Path)
+     */
+    public static Map<String, String> loadProfile(final InputStream in) throws IOException {
+        final org.w3c.dom.Document doc;
+
+        try {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            final DocumentBuilder builder = factory.newDocumentBuilder();
+            doc = builder.parse(in);
+        } catch (final ParserConfigurationException | SAXException e) {
+            throw new IOException("Failed to parse formatter profile", e);
+        }
+
+        final NodeList profiles = doc.getElementsByTagName("profile");
+        if (profiles.getLength() == 0) {
+            throw new IOException("Formatter profile is missing the 'profile' element");
+        }
+
+        final Map<String, String> result = new LinkedHashMap<>();
+
+        final NodeList settings = ((Element) profiles.item(0)).getElementsByTagName("setting");
+        for (int i = 0; i < settings.getLength(); i++) {
+            final Element setting = (Element) settings.item(i);
+            if (setting.hasAttribute("id")) {
+                result.put(setting.getAttribute("id"), setting.getAttribute("value"));
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -39,7 +39,12 @@ import de.dentrassi.asyncapi.generator.java.util.JDTHelper;
 public interface TypeBuilder {
 
     public default void createType(final TypeInformation type, final boolean iface, final boolean serializable, final Consumer<TypeBuilder> consumer) {
-        createType(type, defaultTypeCustomizer(iface, serializable, true), consumer);
+        createType(type, iface, serializable, null, consumer);
+    }
+
+    public default void createType(final TypeInformation type, final boolean iface, final boolean serializable, final Consumer<TypeDeclaration> typeCustomizer,
+            final Consumer<TypeBuilder> consumer) {
+        createType(type, withCustomizer(defaultTypeCustomizer(iface, serializable, true), typeCustomizer), consumer);
     }
 
     public void createType(TypeInformation type, Consumer<TypeDeclaration> typeCustomizer, Consumer<TypeBuilder> consumer);
@@ -48,6 +53,43 @@ public interface TypeBuilder {
 
     public void createProperty(PropertyInformation property);
 
+    /**
+     * Create a {@code reset()} method, setting all fields created so far to
+     * their default values
+     */
+    public void createResetMethod();
+
+    /**
+     * Create the content of an immutable type
+     * <p>
+     * This creates final fields and getters for all properties, constructors,
+     * a nested {@code Builder} class and {@code equals}, {@code hashCode} and
+     * {@code toString} methods, based on the values of the properties.
+     * </p>
+     *
+     * @param properties
+     *            the properties of the type
+     */
+    public void createImmutableProperties(List<PropertyInformation> properties);
+
+    /**
+     * Create a {@code DELTA_CODEC} constant, implementing
+     * {@code de.dentrassi.asyncapi.delta.DeltaCodec} for a nested type
+     * <p>
+     * The codec accesses the fields of the type directly, the properties must
+     * therefore match the properties the type was created with.
+     * </p>
+     *
+     * @param typeName
+     *            the name of the nested type
+     * @param properties
+     *            the properties of the nested type, at most 64
+     * @param immutable
+     *            {@code true} if the nested type was created with
+     *            {@link #createImmutableProperties(List)}
+     */
+    public void createDeltaCodec(String typeName, List<PropertyInformation> properties, boolean immutable);
+
     public void createBodyContent(BiFunction<AST, CompilationUnit, List<ASTNode>> consumer);
 
     public default void createMethod(final BiFunction<AST, CompilationUnit, MethodDeclaration> consumer) {
@@ -83,6 +125,13 @@ public interface TypeBuilder {
         return typeCustomizer;
     }
 
+    public static Consumer<TypeDeclaration> withCustomizer(final Consumer<TypeDeclaration> typeCustomizer, final Consumer<TypeDeclaration> additionalCustomizer) {
+        if (additionalCustomizer == null) {
+            return typeCustomizer;
+        }
+        return typeCustomizer.andThen(additionalCustomizer);
+    }
+
     @SuppressWarnings("unchecked")
     public static Consumer<TypeDeclaration> superInterfaces(final List<String> types) {
         return td -> {
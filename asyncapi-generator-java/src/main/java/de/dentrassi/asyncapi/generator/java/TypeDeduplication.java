@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.type.ArrayType;
+import de.dentrassi.asyncapi.type.CoreType;
+import de.dentrassi.asyncapi.type.EnumType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * Structurally equal inline types
+ * <p>
+ * Inline object and enum schemas become nested types of their parent, even if
+ * the same schema is used by different parents. This finds inline types which
+ * are structurally equal, so that only the first one gets generated, and all
+ * others refer to it.
+ * </p>
+ * <p>
+ * Object types are equal if they have the same properties, in the same
+ * order, and the properties have equal types and flags. Enum types are equal
+ * if they have the same literals. Names, titles and descriptions are not
+ * compared, the merged types use the ones of the first type.
+ * </p>
+ * <p>
+ * Types are compared by identity, as types with different parents may still
+ * be equal by name.
+ * </p>
+ */
+public class TypeDeduplication {
+
+    private final Map<Type, Type> canonical;
+    private final Map<Type, List<Type>> merged;
+
+    private TypeDeduplication(final Map<Type, Type> canonical, final Map<Type, List<Type>> merged) {
+        this.canonical = canonical;
+        this.merged = merged;
+    }
+
+    /**
+     * Get the type to use instead of the provided type
+     *
+     * @param type
+     *            the type to check
+     * @return the first structurally equal type, or the type itself if it was
+     *         not merged
+     */
+    public Type canonical(final Type type) {
+        final Type result = this.canonical.get(type);
+        return result != null ? result : type;
+    }
+
+    /**
+     * Check if a type was merged into another type
+     *
+     * @param type
+     *            the type to check
+     * @return {@code true} if the type was merged, and must not be generated
+     */
+    public boolean isMerged(final Type type) {
+        return this.canonical.containsKey(type);
+    }
+
+    /**
+     * Get the merged types
+     *
+     * @return the merged types, by the type they were merged into, in the
+     *         order they were found
+     */
+    public Map<Type, List<Type>> getMerged() {
+        return this.merged;
+    }
+
+    /**
+     * Create an instance which does not merge any types
+     *
+     * @return the new instance
+     */
+    public static TypeDeduplication none() {
+        return new TypeDeduplication(Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * Find structurally equal inline types
+     * <p>
+     * The types are visited in the order they get generated, messages first.
+     * Types nested in merged types are not visited, as they will not be
+     * generated.
+     * </p>
+     *
+     * @param api
+     *            the model to process
+     * @return the result, never {@code null}
+     */
+    public static TypeDeduplication build(final AsyncApi api) {
+        final Builder builder = new Builder();
+
+        for (final Message message : api.getMessages()) {
+            if (message.getPayload() instanceof ObjectType) {
+                builder.visitProperties((ObjectType) message.getPayload());
+            }
+        }
+
+        for (final Type type : api.getTypes()) {
+            if (type instanceof ObjectType) {
+                builder.visitProperties((ObjectType) type);
+            }
+        }
+
+        final Map<Type, List<Type>> merged = new IdentityHashMap<>(builder.merged.size());
+        for (final Map.Entry<Type, List<Type>> entry : builder.merged.entrySet()) {
+            merged.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+
+        // keep the order in which the types were found
+
+        final Map<Type, List<Type>> ordered = new LinkedHashMap<>();
+        for (final Type type : builder.order) {
+            final List<Type> types = merged.get(type);
+            if (types != null) {
+                ordered.put(type, types);
+            }
+        }
+
+        return new TypeDeduplication(builder.canonical, Collections.unmodifiableMap(ordered));
+    }
+
+    private static class Builder {
+        private final Map<String, Type> byKey = new HashMap<>();
+        private final Map<Type, String> keys = new IdentityHashMap<>();
+        private final Map<Type, Type> canonical = new IdentityHashMap<>();
+        private final Map<Type, List<Type>> merged = new IdentityHashMap<>();
+        private final List<Type> order = new ArrayList<>();
+        private int unknown;
+
+        void visitProperties(final ObjectType type) {
+            for (final Property property : type.getProperties()) {
+                final TypeReference propertyType = property.getType();
+                if (propertyType instanceof ObjectType || propertyType instanceof EnumType) {
+                    visit((Type) propertyType);
+                }
+            }
+        }
+
+        void visit(final Type type) {
+            final Type existing = this.byKey.putIfAbsent(key(type), type);
+
+            if (existing != null) {
+                this.canonical.put(type, existing);
+                this.merged.computeIfAbsent(existing, k -> new ArrayList<>()).add(type);
+                return;
+            }
+
+            this.order.add(type);
+
+            if (type instanceof ObjectType) {
+                visitProperties((ObjectType) type);
+            }
+        }
+
+        String key(final TypeReference typeRef) {
+            if (!(typeRef instanceof Type)) {
+                return "R" + quote(typeRef.getNamespace()) + quote(typeRef.getName());
+            }
+
+            final Type type = (Type) typeRef;
+
+            String key = this.keys.get(type);
+            if (key == null) {
+                key = createKey(type);
+                this.keys.put(type, key);
+            }
+            return key;
+        }
+
+        private String createKey(final Type type) {
+            final StringBuilder sb = new StringBuilder();
+
+            if (type instanceof ObjectType) {
+                sb.append("O{");
+                for (final Property property : ((ObjectType) type).getProperties()) {
+                    sb.append(quote(property.getName()));
+                    sb.append(property.isRequired() ? 'R' : 'O');
+                    sb.append(property.isIntern() ? 'I' : 'N');
+                    sb.append(key(property.getType()));
+                }
+                sb.append('}');
+            } else if (type instanceof EnumType) {
+                sb.append("E[");
+                for (final String literal : ((EnumType) type).getLiterals()) {
+                    sb.append(quote(literal));
+                }
+                sb.append(']');
+            } else if (type instanceof ArrayType) {
+                sb.append(((ArrayType) type).isUnique() ? "S" : "L");
+                sb.append(key(((ArrayType) type).getItemType()));
+            } else if (type instanceof CoreType) {
+                sb.append('C').append(quote(((CoreType) type).getJavaType().getName()));
+            } else {
+                // unknown types are never equal
+                sb.append('X').append(this.unknown++);
+            }
+
+            return sb.toString();
+        }
+
+        private static String quote(final String value) {
+            if (value == null) {
+                return "-";
+            }
+            return value.length() + ":" + value;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java.compile;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiling the generated sources failed
+ */
+public class CompilationException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> diagnostics;
+
+    public CompilationException(final List<String> diagnostics) {
+        super(String.format("Failed to compile generated sources: %s", diagnostics.isEmpty() ? "unknown error" : diagnostics.get(0)));
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
+    }
+
+    /**
+     * Get the errors reported by the compiler
+     *
+     * @return the formatted errors, never {@code null}
+     */
+    public List<String> getDiagnostics() {
+        return this.diagnostics;
+    }
+}
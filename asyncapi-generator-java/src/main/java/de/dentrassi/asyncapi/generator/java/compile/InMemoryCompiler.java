@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java.compile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compile generated sources in memory
+ * <p>
+ * The sources are compiled by the system Java compiler, without writing any
+ * files. The classes are loaded by a new class loader, so each compiled API
+ * is isolated from all others, and can be garbage collected when it is no
+ * longer used.
+ * </p>
+ * <p>
+ * The class path, as well as the parent class loader, must provide the
+ * runtime of the generated code, like {@code asyncapi}, {@code asyncapi-jms}
+ * and their dependencies. It must not contain {@code asyncapi-model}, which
+ * has classes of the same names, like {@code de.dentrassi.asyncapi.Message}.
+ * </p>
+ * <p>
+ * The compiler keeps the file manager of the Java compiler, so that the
+ * class path only gets indexed once. Re-using an instance is a lot faster
+ * than creating a new one for each compilation. Instances are thread safe,
+ * but compile one set of sources at a time.
+ * </p>
+ */
+public class InMemoryCompiler implements AutoCloseable {
+
+    private static class Source extends SimpleJavaFileObject {
+
+        private final String content;
+
+        Source(final String name, final String content) {
+            super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return this.content;
+        }
+    }
+
+    private static class ClassOutput extends SimpleJavaFileObject {
+
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+        ClassOutput(final String name) {
+            super(URI.create("mem:///" + name.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return this.data;
+        }
+
+        byte[] getData() {
+            return this.data.toByteArray();
+        }
+    }
+
+    private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, ClassOutput> classes = new HashMap<>();
+
+        MemoryFileManager(final StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(final JavaFileManager.Location location, final String className, final Kind kind, final FileObject sibling)
+                throws IOException {
+            if (kind != Kind.CLASS) {
+                return super.getJavaFileForOutput(location, className, kind, sibling);
+            }
+
+            final ClassOutput output = new ClassOutput(className);
+            this.classes.put(className, output);
+            return output;
+        }
+
+        Map<String, byte[]> getClasses() {
+            final Map<String, byte[]> result = new HashMap<>(this.classes.size());
+            for (final Map.Entry<String, ClassOutput> entry : this.classes.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().getData());
+            }
+            return result;
+        }
+    }
+
+    private final ClassLoader parent;
+    private final List<String> options;
+
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager fileManager;
+
+    /**
+     * Create a new compiler
+     *
+     * @param parent
+     *            the parent of the class loaders, which must be able to load
+     *            the runtime classes the generated code depends on
+     * @param classpath
+     *            the class path to compile against, must not be {@code null}
+     */
+    public InMemoryCompiler(final ClassLoader parent, final List<Path> classpath) {
+        this.parent = Objects.requireNonNull(parent);
+        Objects.requireNonNull(classpath);
+
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if (this.compiler == null) {
+            throw new IllegalStateException("No Java compiler available, running on a JRE?");
+        }
+
+        this.fileManager = this.compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+
+        // never fall back to the class path of the JVM, which contains the model
+
+        this.options = new ArrayList<>(Arrays.asList("-proc:none", "-nowarn"));
+        this.options.add("-classpath");
+        this.options.add(classpath.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator)));
+    }
+
+    /**
+     * Compile and load a set of sources
+     *
+     * @param sources
+     *            the sources, by fully qualified name of the compilation unit,
+     *            as returned by
+     *            {@link de.dentrassi.asyncapi.generator.java.Generator#generateSources()}
+     * @return the class loader for the compiled classes
+     * @throws CompilationException
+     *             if compiling failed
+     */
+    public synchronized ClassLoader compile(final Map<String, String> sources) throws CompilationException {
+        final List<Source> units = new ArrayList<>(sources.size());
+        for (final Map.Entry<String, String> entry : sources.entrySet()) {
+            units.add(new Source(entry.getKey(), entry.getValue()));
+        }
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final MemoryFileManager output = new MemoryFileManager(this.fileManager);
+
+        final Boolean result = this.compiler.getTask(null, output, diagnostics, this.options, null, units).call();
+
+        if (!Boolean.TRUE.equals(result)) {
+            final List<String> errors = diagnostics.getDiagnostics().stream()
+                    .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                    .map(InMemoryCompiler::format)
+                    .collect(Collectors.toList());
+            throw new CompilationException(errors);
+        }
+
+        return new MemoryClassLoader(this.parent, output.getClasses());
+    }
+
+    private static String format(final Diagnostic<? extends JavaFileObject> diagnostic) {
+        final String source = diagnostic.getSource() != null ? diagnostic.getSource().getName() : "<unknown>";
+        return String.format("%s:%s: %s", source, diagnostic.getLineNumber(), diagnostic.getMessage(null));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.fileManager.close();
+    }
+}
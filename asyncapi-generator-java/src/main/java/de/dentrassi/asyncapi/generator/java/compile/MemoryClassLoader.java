@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java.compile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class loader for classes compiled into memory
+ */
+final class MemoryClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Map<String, byte[]> classes;
+
+    MemoryClassLoader(final ClassLoader parent, final Map<String, byte[]> classes) {
+        super(parent);
+        this.classes = new HashMap<>(classes);
+    }
+
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException {
+        final byte[] data;
+        synchronized (this.classes) {
+            data = this.classes.remove(name);
+        }
+
+        if (data == null) {
+            throw new ClassNotFoundException(name);
+        }
+
+        return defineClass(name, data, 0, data.length);
+    }
+}
@@ -18,10 +18,15 @@ package de.dentrassi.asyncapi.generator.java.gson;
 
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.eclipse.jdt.core.dom.MemberValuePair;
+import org.eclipse.jdt.core.dom.Modifier;
 import org.eclipse.jdt.core.dom.NormalAnnotation;
+import org.eclipse.jdt.core.dom.SingleMemberAnnotation;
+import org.eclipse.jdt.core.dom.TypeLiteral;
 
 import de.dentrassi.asyncapi.generator.java.GeneratorExtension;
+import de.dentrassi.asyncapi.generator.java.PropertyInformation;
 import de.dentrassi.asyncapi.generator.java.util.JDTHelper;
 
 public class GsonGeneratorExtension implements GeneratorExtension {
@@ -41,4 +46,31 @@ public class GsonGeneratorExtension implements GeneratorExtension {
 
         enumConstantDeclaration.modifiers().add(an);
     }
+
+    @Override
+    public void createdProperty(final PropertyInformation property, final FieldDeclaration fieldDeclaration) {
+        if (property.isIntern()) {
+            addJsonAdapter(fieldDeclaration, "de.dentrassi.asyncapi.gson.InterningStringTypeAdapter");
+        } else if (Modifier.isFinal(fieldDeclaration.getModifiers()) && fieldDeclaration.getType().isParameterizedType()) {
+            // collections of immutable types must stay unmodifiable after decoding
+            addJsonAdapter(fieldDeclaration, "de.dentrassi.asyncapi.gson.UnmodifiableCollectionTypeAdapterFactory");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addJsonAdapter(final FieldDeclaration fieldDeclaration, final String adapterType) {
+
+        // @JsonAdapter(adapterType.class)
+
+        final AST ast = fieldDeclaration.getAST();
+
+        final TypeLiteral tl = ast.newTypeLiteral();
+        tl.setType(ast.newSimpleType(ast.newName(adapterType)));
+
+        final SingleMemberAnnotation an = ast.newSingleMemberAnnotation();
+        an.setTypeName(ast.newName("com.google.gson.annotations.JsonAdapter"));
+        an.setValue(tl);
+
+        fieldDeclaration.modifiers().add(0, an);
+    }
 }
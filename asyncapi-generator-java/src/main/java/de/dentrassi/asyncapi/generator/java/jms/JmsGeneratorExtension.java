@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.core.dom.AST;
@@ -31,6 +32,7 @@ import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
 import org.eclipse.jdt.core.dom.Assignment;
 import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CreationReference;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.FieldAccess;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
@@ -38,8 +40,10 @@ import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.jdt.core.dom.Modifier.ModifierKeyword;
 import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.PrimitiveType;
 import org.eclipse.jdt.core.dom.ReturnStatement;
 import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.SuperConstructorInvocation;
 import org.eclipse.jdt.core.dom.ThisExpression;
 import org.eclipse.jdt.core.dom.ThrowStatement;
@@ -49,6 +53,7 @@ import org.eclipse.jdt.core.dom.TypeLiteral;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 
 import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.DeltaEncoding;
 import de.dentrassi.asyncapi.MessageReference;
 import de.dentrassi.asyncapi.Topic;
 import de.dentrassi.asyncapi.generator.java.ConnectorType;
@@ -56,7 +61,9 @@ import de.dentrassi.asyncapi.generator.java.Generator;
 import de.dentrassi.asyncapi.generator.java.Generator.Context;
 import de.dentrassi.asyncapi.generator.java.Generator.Options;
 import de.dentrassi.asyncapi.generator.java.GeneratorExtension;
+import de.dentrassi.asyncapi.generator.java.PackageTypeBuilder;
 import de.dentrassi.asyncapi.generator.java.TypeBuilder;
+import de.dentrassi.asyncapi.generator.java.TopicInformation;
 import de.dentrassi.asyncapi.generator.java.TypeInformation;
 import de.dentrassi.asyncapi.generator.java.util.JDTHelper;
 import de.dentrassi.asyncapi.generator.java.util.Java;
@@ -90,7 +97,7 @@ public class JmsGeneratorExtension implements GeneratorExtension {
             createNewBuilderMethod(b);
 
             createServiceFields(b, context, connectorType);
-            createConstructor(b, context, connectorType);
+            createConstructor(b, connectorType);
             createVersions(b, context, connectorType);
 
         });
@@ -115,9 +122,33 @@ public class JmsGeneratorExtension implements GeneratorExtension {
 
                 builder.createType(new TypeInformation(implName, null, null), typeCustomizer, b -> {
 
-                    createServiceConstructor(b, implName);
+                    final List<Topic> topics = serviceEntry.getValue();
 
-                    for (final Topic topic : serviceEntry.getValue()) {
+                    // fields
+
+                    for (final Topic topic : topics) {
+                        final String name = Generator.makeTopicMethodName(context.getServiceDefinitions().getTopics().get(topic));
+
+                        b.createBodyContent((ast, cu) -> {
+                            final FieldDeclaration fd = JDTHelper.createField(ast, Generator.evalEventMethodType(ast, topic, context, connectorType), name, null,
+                                    ModifierKeyword.PRIVATE_KEYWORD, ModifierKeyword.FINAL_KEYWORD);
+                            return Collections.singletonList(fd);
+                        });
+                    }
+
+                    // constructor
+
+                    createServiceConstructor(b, implName, (ast, body) -> {
+                        for (final Topic topic : topics) {
+                            final TopicInformation ti = context.getServiceDefinitions().getTopics().get(topic);
+                            body.statements().add(ast.newExpressionStatement(assignField(ast, Generator.makeTopicMethodName(ti),
+                                    createTopicInstance(ast, context, connectorType, topic, Generator.makeTopicConstantName(ti)))));
+                        }
+                    });
+
+                    // methods
+
+                    for (final Topic topic : topics) {
                         final String name = Generator.makeTopicMethodName(context.getServiceDefinitions().getTopics().get(topic));
 
                         b.createMethod((ast, cu) -> {
@@ -135,24 +166,10 @@ public class JmsGeneratorExtension implements GeneratorExtension {
                             final Block body = ast.newBlock();
                             md.setBody(body);
 
-                            // return
+                            // return this.eventDeviceUpdate
 
                             final ReturnStatement ret = ast.newReturnStatement();
-
-                            final MessageReference pubMsg = connectorType.getPublish(topic);
-                            final MessageReference subMsg = connectorType.getSubscribe(topic);
-
-                            if (pubMsg != null && subMsg != null) {
-                                ret.setExpression(
-                                        aggregate(ast,
-                                                publisher(ast, topic.getName()),
-                                                subscriber(ast, topic.getName(), Generator.messageTypeName(subMsg, context))));
-                            } else if (pubMsg != null) {
-                                ret.setExpression(publisher(ast, topic.getName()));
-                            } else if (subMsg != null) {
-                                ret.setExpression(subscriber(ast, topic.getName(), Generator.messageTypeName(subMsg, context)));
-                            }
-
+                            ret.setExpression(thisField(ast, name));
                             body.statements().add(ret);
 
                             return md;
@@ -165,6 +182,84 @@ public class JmsGeneratorExtension implements GeneratorExtension {
         }
     }
 
+    private Expression createTopicInstance(final AST ast, final Context context, final ConnectorType connectorType, final Topic topic, final String topicConstant) {
+        final MessageReference pubMsg = connectorType.getPublish(topic);
+        final MessageReference subMsg = connectorType.getSubscribe(topic);
+
+        if (topic.getDelta() != null) {
+            return createDeltaTopicInstance(ast, context, topic, topicConstant, pubMsg, subMsg);
+        }
+
+        if (pubMsg != null && subMsg != null) {
+            return aggregate(ast,
+                    publisher(ast, topicConstant),
+                    subscriber(ast, topicConstant, Generator.messageTypeName(subMsg, context)));
+        } else if (pubMsg != null) {
+            return publisher(ast, topicConstant);
+        } else if (subMsg != null) {
+            return subscriber(ast, topicConstant, Generator.messageTypeName(subMsg, context));
+        }
+
+        return ast.newNullLiteral();
+    }
+
+    private Expression createDeltaTopicInstance(final AST ast, final Context context, final Topic topic, final String topicConstant, final MessageReference pubMsg,
+            final MessageReference subMsg) {
+
+        final DeltaEncoding delta = topic.getDelta();
+
+        if (pubMsg != null && subMsg != null) {
+            return aggregate(ast,
+                    deltaPublisher(ast, topicConstant, Generator.messageTypeName(pubMsg, context), delta),
+                    deltaSubscriber(ast, topicConstant, Generator.messageTypeName(subMsg, context)));
+        } else if (pubMsg != null) {
+            return deltaPublisher(ast, topicConstant, Generator.messageTypeName(pubMsg, context), delta);
+        } else if (subMsg != null) {
+            return deltaSubscriber(ast, topicConstant, Generator.messageTypeName(subMsg, context));
+        }
+
+        return ast.newNullLiteral();
+    }
+
+    private Expression deltaPublisher(final AST ast, final String topicConstant, final String messageTypeName, final DeltaEncoding delta) {
+        // createDeltaPublisher(TOPIC_EVENT_DEVICE_STATE, DeviceState::new, DeviceState.DELTA_CODEC, payload -> String.valueOf(payload.getDeviceId()), 10)
+
+        final String key;
+        if (delta.getKey() != null) {
+            key = "payload -> String.valueOf(payload." + PackageTypeBuilder.asGetterName(PackageTypeBuilder.asPropertyName(delta.getKey())) + "())";
+        } else {
+            key = "null";
+        }
+
+        final String code = String.format("createDeltaPublisher(%s, %s::new, %s.DELTA_CODEC, %s, %s)", topicConstant, messageTypeName, messageTypeName, key,
+                delta.getKeyframeInterval());
+
+        return (Expression) Java.parseSingle(ast, ASTParser.K_EXPRESSION, code, null);
+    }
+
+    private Expression deltaSubscriber(final AST ast, final String topicConstant, final String messageTypeName) {
+        // createDeltaSubscriber(TOPIC_EVENT_DEVICE_STATE, DeviceState::new, DeviceState.Payload.class, DeviceState.DELTA_CODEC)
+
+        final String code = String.format("createDeltaSubscriber(%s, %s::new, %s.Payload.class, %s.DELTA_CODEC)", topicConstant, messageTypeName, messageTypeName,
+                messageTypeName);
+
+        return (Expression) Java.parseSingle(ast, ASTParser.K_EXPRESSION, code, null);
+    }
+
+    private static FieldAccess thisField(final AST ast, final String name) {
+        final FieldAccess fa = ast.newFieldAccess();
+        fa.setExpression(ast.newThisExpression());
+        fa.setName(ast.newSimpleName(name));
+        return fa;
+    }
+
+    private static Assignment assignField(final AST ast, final String name, final Expression value) {
+        final Assignment as = ast.newAssignment();
+        as.setLeftHandSide(thisField(ast, name));
+        as.setRightHandSide(value);
+        return as;
+    }
+
     @SuppressWarnings("unchecked")
     private Expression aggregate(final AST ast, final Expression publisher, final Expression subscriber) {
         // new AggregatePublishSubscriber<>(publish, subscribe)
@@ -182,18 +277,18 @@ public class JmsGeneratorExtension implements GeneratorExtension {
     }
 
     @SuppressWarnings("unchecked")
-    private Expression subscriber(final AST ast, final String topicName, final String messageTypeName) {
-        // createSubscriber(TOPIC_EVENT_DEVICE_ADDED, DeviceEvent.class, DeviceEvent.Payload.class)
+    private Expression subscriber(final AST ast, final String topicConstant, final String messageTypeName) {
+        // createSubscriber(TOPIC_EVENT_DEVICE_ADDED, DeviceEvent::new, DeviceEvent.Payload.class)
         final MethodInvocation mi = ast.newMethodInvocation();
         mi.setName(ast.newSimpleName("createSubscriber"));
 
-        mi.arguments().add(JDTHelper.newStringLiteral(ast, topicName));
+        mi.arguments().add(ast.newSimpleName(topicConstant));
 
         {
-            final TypeLiteral tl = ast.newTypeLiteral();
-            tl.setType(ast.newSimpleType(ast.newName(messageTypeName)));
+            final CreationReference cr = ast.newCreationReference();
+            cr.setType(ast.newSimpleType(ast.newName(messageTypeName)));
 
-            mi.arguments().add(tl);
+            mi.arguments().add(cr);
         }
 
         {
@@ -207,21 +302,22 @@ public class JmsGeneratorExtension implements GeneratorExtension {
     }
 
     @SuppressWarnings("unchecked")
-    private Expression publisher(final AST ast, final String topicName) {
+    private Expression publisher(final AST ast, final String topicConstant) {
         // createPublisher(TOPIC_EVENT_DEVICE_UPDATE)
 
         final MethodInvocation mi = ast.newMethodInvocation();
         mi.setName(ast.newSimpleName("createPublisher"));
-        mi.arguments().add(JDTHelper.newStringLiteral(ast, topicName));
+        mi.arguments().add(ast.newSimpleName(topicConstant));
 
         return mi;
     }
 
     @SuppressWarnings("unchecked")
-    private void createServiceConstructor(final TypeBuilder b, final String implName) {
+    private void createServiceConstructor(final TypeBuilder b, final String implName, final BiConsumer<AST, Block> initializer) {
         /*
-         * public DevicesImpl(final Connection connection, final Executor executor, final JmsPayloadFormat payloadFormat, final String baseTopic) {
-         *   super(connection, executor, payloadFormat, baseTopic);
+         * public DevicesImpl(final Connection connection, final Executor executor, final JmsPayloadFormat payloadFormat, final String baseTopic, final boolean reuseMessages) {
+         *   super(connection, executor, payloadFormat, baseTopic, reuseMessages);
+         *   this.eventDeviceUpdate = createSubscriber(TOPIC_EVENT_DEVICE_UPDATE, DeviceUpdate::new, DeviceUpdate.Payload.class);
          * }
          */
 
@@ -239,6 +335,14 @@ public class JmsGeneratorExtension implements GeneratorExtension {
             md.parameters().add(JDTHelper.createParameter(ast, "de.dentrassi.asyncapi.jms.JmsPayloadFormat", "payloadFormat", ModifierKeyword.FINAL_KEYWORD));
             md.parameters().add(JDTHelper.createParameter(ast, "String", "baseTopic", ModifierKeyword.FINAL_KEYWORD));
 
+            {
+                final SingleVariableDeclaration arg = ast.newSingleVariableDeclaration();
+                arg.setName(ast.newSimpleName("reuseMessages"));
+                arg.setType(ast.newPrimitiveType(PrimitiveType.BOOLEAN));
+                JDTHelper.make(arg, ModifierKeyword.FINAL_KEYWORD);
+                md.parameters().add(arg);
+            }
+
             // body
 
             final Block body = ast.newBlock();
@@ -253,6 +357,11 @@ public class JmsGeneratorExtension implements GeneratorExtension {
             sci.arguments().add(ast.newSimpleName("executor"));
             sci.arguments().add(ast.newSimpleName("payloadFormat"));
             sci.arguments().add(ast.newSimpleName("baseTopic"));
+            sci.arguments().add(ast.newSimpleName("reuseMessages"));
+
+            // publishers and subscribers
+
+            initializer.accept(ast, body);
 
             return md;
         });
@@ -266,28 +375,9 @@ public class JmsGeneratorExtension implements GeneratorExtension {
             final String version = Names.makeVersion(entry.getKey());
             final String versionTypeName = version.toUpperCase();
 
-            builder.createMethod((ast, cu) -> {
-
-                // create v1() method
-
-                final MethodDeclaration md = ast.newMethodDeclaration();
-                md.setName(ast.newSimpleName(version));
-                md.setReturnType2(ast.newSimpleType(ast.newName(versionTypeName)));
-
-                JDTHelper.addSimpleAnnotation(md, "Override");
-                JDTHelper.makePublic(md);
-
-                // body
-
-                final Block body = ast.newBlock();
-                md.setBody(body);
-
-                // return
-
-                final ReturnStatement ret = ast.newReturnStatement();
-                body.statements().add(ret);
+            builder.createBodyContent((ast, cu) -> {
 
-                // new V1 type
+                // private final V1 v1 = new V1() { ... };
 
                 final AnonymousClassDeclaration cd = ast.newAnonymousClassDeclaration();
 
@@ -295,7 +385,8 @@ public class JmsGeneratorExtension implements GeneratorExtension {
                 ci.setAnonymousClassDeclaration(cd);
                 ci.setType(ast.newSimpleType(ast.newName(versionTypeName)));
 
-                ret.setExpression(ci);
+                final FieldDeclaration fd = JDTHelper.createField(ast, ast.newSimpleType(ast.newName(versionTypeName)), version, ci, ModifierKeyword.PRIVATE_KEYWORD,
+                        ModifierKeyword.FINAL_KEYWORD);
 
                 // create V1 methods
 
@@ -318,7 +409,7 @@ public class JmsGeneratorExtension implements GeneratorExtension {
                     final Block sbody = ast.newBlock();
                     smd.setBody(sbody);
 
-                    // > return JmsClient.this.v1Service
+                    // > return JmsClient.this.v1Service()
 
                     final ReturnStatement ret2 = ast.newReturnStatement();
                     sbody.statements().add(ret2);
@@ -326,13 +417,36 @@ public class JmsGeneratorExtension implements GeneratorExtension {
                     final ThisExpression te = ast.newThisExpression();
                     te.setQualifier(ast.newSimpleName("Jms" + connectorType.getSimpleTypeName()));
 
-                    final FieldAccess fa = ast.newFieldAccess();
-                    fa.setExpression(te);
-                    fa.setName(ast.newSimpleName(serviceInstanceField));
+                    final MethodInvocation mi = ast.newMethodInvocation();
+                    mi.setExpression(te);
+                    mi.setName(ast.newSimpleName(serviceInstanceField));
 
-                    ret2.setExpression(fa);
+                    ret2.setExpression(mi);
                 }
 
+                return Collections.singletonList(fd);
+            });
+
+            builder.createMethod((ast, cu) -> {
+
+                // create v1() method
+
+                final MethodDeclaration md = ast.newMethodDeclaration();
+                md.setName(ast.newSimpleName(version));
+                md.setReturnType2(ast.newSimpleType(ast.newName(versionTypeName)));
+
+                JDTHelper.addSimpleAnnotation(md, "Override");
+                JDTHelper.makePublic(md);
+
+                // return this.v1
+
+                final Block body = ast.newBlock();
+                md.setBody(body);
+
+                final ReturnStatement ret = ast.newReturnStatement();
+                ret.setExpression(thisField(ast, version));
+                body.statements().add(ret);
+
                 return md;
             });
 
@@ -456,17 +570,45 @@ public class JmsGeneratorExtension implements GeneratorExtension {
 
                     fd.setType(ast.newSimpleType(ast.newName(serviceTypeName)));
 
-                    JDTHelper.make(fd, ModifierKeyword.PRIVATE_KEYWORD, ModifierKeyword.FINAL_KEYWORD);
+                    JDTHelper.make(fd, ModifierKeyword.PRIVATE_KEYWORD, ModifierKeyword.VOLATILE_KEYWORD);
 
                     return Collections.singletonList(fd);
 
                 });
+
+                createServiceAccessor(builder, serviceInstanceField, serviceTypeName);
             }
         }
     }
 
+    private void createServiceAccessor(final TypeBuilder builder, final String serviceInstanceField, final String serviceTypeName) {
+
+        // services get created on first use, by double-checked locking on the volatile field
+
+        final StringBuilder code = new StringBuilder();
+
+        code.append("/** Get the service instance, create it on first use */\n");
+        code.append("private " + serviceTypeName + " " + serviceInstanceField + "() {\n");
+        code.append(serviceTypeName + " result = this." + serviceInstanceField + ";\n");
+        code.append("if (result == null) {\n");
+        code.append("synchronized (this) {\n");
+        code.append("result = this." + serviceInstanceField + ";\n");
+        code.append("if (result == null) {\n");
+        code.append("result = new " + serviceTypeName + "(this.connection, this.executor, this.payloadFormat, this.baseTopic, this.reuseMessages);\n");
+        code.append("this." + serviceInstanceField + " = result;\n");
+        code.append("}\n");
+        code.append("}\n");
+        code.append("}\n");
+        code.append("return result;\n");
+        code.append("}\n");
+
+        builder.createBodyContent((ast, cu) -> {
+            return Java.parseSingleList(ast, ASTParser.K_CLASS_BODY_DECLARATIONS, code.toString(), Java::firstBodyDeclaration);
+        });
+    }
+
     @SuppressWarnings("unchecked")
-    private void createConstructor(final TypeBuilder builder, final Context context, final ConnectorType connectorType) {
+    private void createConstructor(final TypeBuilder builder, final ConnectorType connectorType) {
         builder.createMethod((ast, cu) -> {
             final MethodDeclaration md = ast.newMethodDeclaration();
 
@@ -487,22 +629,6 @@ public class JmsGeneratorExtension implements GeneratorExtension {
             // add throws
             md.thrownExceptionTypes().add(ast.newSimpleType(ast.newName("javax.jms.JMSException")));
 
-            // add service field instances
-
-            for (final Map.Entry<String, Map<String, List<Topic>>> entry : context.getServiceDefinitions().getVersions().entrySet()) {
-
-                final String version = Names.makeVersion(entry.getKey());
-
-                for (final Map.Entry<String, List<Topic>> serviceEntry : entry.getValue().entrySet()) {
-                    final String serviceName = Names.toCamelCase(serviceEntry.getKey(), false);
-                    final String serviceInstanceField = version + Names.toCamelCase(serviceName, true);
-                    final String serviceTypeName = makeServiceType(context, connectorType, version, serviceEntry, true);
-
-                    createServiceInstance(md, serviceInstanceField, serviceTypeName);
-
-                }
-            }
-
             // return
 
             return md;
@@ -518,61 +644,4 @@ public class JmsGeneratorExtension implements GeneratorExtension {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void createServiceInstance(final MethodDeclaration md, final String serviceInstanceField, final String serviceTypeName) {
-        final AST ast = md.getAST();
-        final Block body = md.getBody();
-
-        final Assignment as = ast.newAssignment();
-
-        // assign to
-
-        final FieldAccess fa = ast.newFieldAccess();
-        fa.setName(ast.newSimpleName(serviceInstanceField));
-        fa.setExpression(ast.newThisExpression());
-        as.setLeftHandSide(fa);
-
-        // create instance
-
-        final ClassInstanceCreation cic = ast.newClassInstanceCreation();
-        cic.setType(ast.newSimpleType(ast.newName(serviceTypeName)));
-
-        // parameters
-
-        // new DevicesImpl(this.connection, this.executor, builder.payloadFormat(), builder.baseTopic());
-
-        {
-            final FieldAccess t = ast.newFieldAccess();
-            t.setExpression(ast.newThisExpression());
-            t.setName(ast.newSimpleName("connection"));
-            cic.arguments().add(t);
-        }
-        {
-            final FieldAccess t = ast.newFieldAccess();
-            t.setExpression(ast.newThisExpression());
-            t.setName(ast.newSimpleName("executor"));
-            cic.arguments().add(t);
-        }
-        {
-            final MethodInvocation mi = ast.newMethodInvocation();
-            mi.setExpression(ast.newSimpleName("builder"));
-            mi.setName(ast.newSimpleName("payloadFormat"));
-            cic.arguments().add(mi);
-        }
-        {
-            final MethodInvocation mi = ast.newMethodInvocation();
-            mi.setExpression(ast.newSimpleName("builder"));
-            mi.setName(ast.newSimpleName("baseTopic"));
-            cic.arguments().add(mi);
-        }
-
-        // set
-
-        as.setRightHandSide(cic);
-
-        // add
-
-        body.statements().add(ast.newExpressionStatement(as));
-    }
-
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompiler;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompilerTest;
+import de.dentrassi.asyncapi.generator.java.gson.GsonGeneratorExtension;
+import de.dentrassi.asyncapi.generator.java.jms.JmsGeneratorExtension;
+import de.dentrassi.asyncapi.generator.java.jms.JmsGeneratorExtensionTest;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+/**
+ * Measure the time it takes to create a JMS client for a large API, and to
+ * create its services on first use
+ * <p>
+ * The client is connected to a JMS connection which does nothing, so only the
+ * cost of the generated code is measured.
+ * </p>
+ */
+public class ConnectorStartupBenchmark {
+
+    private static final int SERVICES = 100;
+    private static final int TOPICS = 2;
+    private static final int PROPERTIES = 2;
+
+    public static void main(final String[] args) throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(GeneratorBenchmark.createDocument(SERVICES, TOPICS, PROPERTIES))).parse();
+
+        final Generator.Builder builder = Generator.newBuilder();
+        builder.formatCode(false);
+        builder.addExtension(new JmsGeneratorExtension());
+        builder.addExtension(new GsonGeneratorExtension());
+        final Map<String, String> sources = builder.build(api).generateSources();
+
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+
+            final ClassLoader loader = compiler.compile(sources);
+
+            final Class<?> clientClass = loader.loadClass("benchmark.jms.client.JmsClient");
+            final Class<?> builderClass = loader.loadClass("benchmark.jms.client.JmsClient$Builder");
+            final Class<?> profileClass = runtime.loadClass("de.dentrassi.asyncapi.jms.JmsProfile");
+
+            final Object profile = JmsGeneratorExtensionTest.createProfile(runtime);
+
+            final Method[] services = new Method[SERVICES];
+            for (int i = 0; i < SERVICES; i++) {
+                services[i] = loader.loadClass("benchmark.Client").getMethod("service" + i);
+            }
+
+            for (int i = 0; i < 20; i++) {
+
+                final long start = System.nanoTime();
+
+                final Object clientBuilder = clientClass.getMethod("newBuilder").invoke(null);
+                builderClass.getMethod("profile", profileClass).invoke(clientBuilder, profile);
+                final AutoCloseable client = (AutoCloseable) builderClass.getMethod("build").invoke(clientBuilder);
+
+                final long built = System.nanoTime();
+
+                services[0].invoke(client);
+
+                final long first = System.nanoTime();
+
+                for (final Method service : services) {
+                    service.invoke(client);
+                }
+
+                final long all = System.nanoTime();
+
+                client.close();
+
+                System.out.format("run %2d: build %7.3f ms, first service %7.3f ms, all %d services %7.3f ms%n", i, (built - start) / 1_000_000.0,
+                        (first - built) / 1_000_000.0, SERVICES, (all - first) / 1_000_000.0);
+            }
+        }
+    }
+}
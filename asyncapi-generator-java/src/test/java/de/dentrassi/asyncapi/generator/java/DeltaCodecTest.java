@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.StringReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompiler;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompilerTest;
+import de.dentrassi.asyncapi.generator.java.gson.GsonGeneratorExtension;
+import de.dentrassi.asyncapi.generator.java.jms.JmsGeneratorExtension;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class DeltaCodecTest {
+
+    private static final String DOCUMENT = String.join("\n",
+            "asyncapi: 1.0.0",
+            "info:",
+            "  version: 1.0.0",
+            "baseTopic: delta",
+            "host: localhost",
+            "schemes: [ amqp ]",
+            "topics:",
+            "  devices.1.event.device.state:",
+            "    x-delta:",
+            "      key: deviceId",
+            "      keyframeInterval: 3",
+            "    subscribe: { $ref: '#/components/messages/State' }",
+            "components:",
+            "  messages:",
+            "    State:",
+            "      payload:",
+            "        type: object",
+            "        required: [ temperature ]",
+            "        properties:",
+            "          deviceId: { type: string }",
+            "          temperature: { type: number }",
+            "          values:",
+            "            type: array",
+            "            items: { type: number }",
+            "");
+
+    private static final String NESTED_DOCUMENT = DOCUMENT.replace(String.join("\n",
+            "          values:",
+            "            type: array",
+            "            items: { type: number }"), String.join("\n",
+                    "          location:",
+                    "            type: object",
+                    "            required: [ lat ]",
+                    "            properties:",
+                    "              lat: { type: number }"));
+
+    private static Map<String, String> generate(final String document, final boolean immutable) throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(document)).parse();
+
+        final Generator.Builder builder = Generator.newBuilder();
+        builder.formatCode(false);
+        builder.immutablePayloads(immutable);
+        builder.addExtension(new GsonGeneratorExtension());
+        builder.addExtension(new JmsGeneratorExtension());
+        return builder.build(api).generateSources();
+    }
+
+    @Test
+    public void testEncodeDecode() throws Exception {
+        final Map<String, String> sources = generate(DOCUMENT, false);
+
+        final String client = sources.get("delta.jms.client.v1.DevicesImpl");
+        Assert.assertTrue(client.contains("createDeltaSubscriber("));
+        final String server = sources.get("delta.jms.server.v1.DevicesImpl");
+        Assert.assertTrue(server.contains("createDeltaPublisher("));
+        Assert.assertTrue(server.contains("String.valueOf(payload.getDeviceId())"));
+
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+
+            final ClassLoader loader = compiler.compile(sources);
+
+            final Class<?> payloadClass = loader.loadClass("delta.messages.State$Payload");
+            final Object codec = loader.loadClass("delta.messages.State").getField("DELTA_CODEC").get(null);
+
+            final Method getDeviceId = payloadClass.getMethod("getDeviceId");
+            final Method getTemperature = payloadClass.getMethod("getTemperature");
+            final Method getValues = payloadClass.getMethod("getValues");
+
+            final Function<Object, String> keyFunction = payload -> (String) invoke(getDeviceId, payload);
+
+            // encode
+
+            final Class<?> encoderClass = runtime.loadClass("de.dentrassi.asyncapi.delta.DeltaEncoder");
+            final Class<?> senderClass = runtime.loadClass("de.dentrassi.asyncapi.delta.DeltaEncoder$Sender");
+            final Class<?> codecClass = runtime.loadClass("de.dentrassi.asyncapi.delta.DeltaCodec");
+
+            final Object encoder = encoderClass.getConstructor(codecClass, Function.class, int.class).newInstance(codec, keyFunction, 3);
+
+            final List<Object> frames = new ArrayList<>();
+            final Object sender = Proxy.newProxyInstance(runtime, new Class<?>[] { senderClass }, (proxy, method, args) -> frames.add(args[0]));
+            final Method encode = encoderClass.getMethod("encode", Object.class, senderClass);
+
+            final double[] values = new double[] { 1.0 };
+
+            encode.invoke(encoder, payload(payloadClass, "dev1", 1.0, values), sender);
+            encode.invoke(encoder, payload(payloadClass, "dev1", 2.0, values), sender);
+            encode.invoke(encoder, payload(payloadClass, "dev1", 2.0, new double[] { 1.0 }), sender);
+            encode.invoke(encoder, payload(payloadClass, "dev1", 3.0, values), sender);
+
+            Assert.assertEquals(4, frames.size());
+
+            assertFrame(frames.get(0), 1, true, -1L);
+            assertFrame(frames.get(1), 2, false, 1L << 1);
+            // arrays are compared by content
+            assertFrame(frames.get(2), 3, false, 0L);
+            // keyframe interval
+            assertFrame(frames.get(3), 4, true, -1L);
+
+            // the delta only contains the changed properties
+
+            final Object partial = property(frames.get(1), "getPayload");
+            Assert.assertNull(getDeviceId.invoke(partial));
+            Assert.assertEquals(2.0, getTemperature.invoke(partial));
+            Assert.assertNull(getValues.invoke(partial));
+
+            // requesting a keyframe
+
+            encode.invoke(encoder, payload(payloadClass, "dev1", 4.0, values), sender);
+            encoderClass.getMethod("requestKeyframe", String.class).invoke(encoder, "dev1");
+            encode.invoke(encoder, payload(payloadClass, "dev1", 5.0, values), sender);
+
+            assertFrame(frames.get(4), 5, false, 1L << 1);
+            assertFrame(frames.get(5), 6, true, -1L);
+
+            // decode
+
+            final Class<?> decoderClass = runtime.loadClass("de.dentrassi.asyncapi.delta.DeltaDecoder");
+            final List<String> requests = new ArrayList<>();
+            final Object decoder = decoderClass.getConstructor(codecClass, Consumer.class).newInstance(codec, (Consumer<String>) requests::add);
+            final Method decode = decoderClass.getMethod("decode", runtime.loadClass("de.dentrassi.asyncapi.delta.DeltaFrame"));
+
+            Object state = decode.invoke(decoder, frames.get(0));
+            Assert.assertEquals(1.0, getTemperature.invoke(state));
+
+            state = decode.invoke(decoder, frames.get(1));
+            Assert.assertEquals("dev1", getDeviceId.invoke(state));
+            Assert.assertEquals(2.0, getTemperature.invoke(state));
+            Assert.assertArrayEquals(values, (double[]) getValues.invoke(state), 0.0);
+
+            // duplicates are dropped
+
+            Assert.assertNull(decode.invoke(decoder, frames.get(1)));
+
+            // a gap requests a keyframe, once
+
+            Assert.assertNull(decode.invoke(decoder, frames.get(4)));
+            Assert.assertNull(decode.invoke(decoder, frames.get(4)));
+            Assert.assertEquals(Arrays.asList("dev1"), requests);
+
+            state = decode.invoke(decoder, frames.get(5));
+            Assert.assertEquals(5.0, getTemperature.invoke(state));
+
+            // late keyframes are dropped
+
+            Assert.assertNull(decode.invoke(decoder, frames.get(3)));
+        }
+    }
+
+    @Test
+    public void testImmutable() throws Exception {
+        final Map<String, String> sources = generate(DOCUMENT, true);
+
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+
+            final ClassLoader loader = compiler.compile(sources);
+
+            final Class<?> payloadClass = loader.loadClass("delta.messages.State$Payload");
+            final Object codec = loader.loadClass("delta.messages.State").getField("DELTA_CODEC").get(null);
+            final Class<?> codecClass = runtime.loadClass("de.dentrassi.asyncapi.delta.DeltaCodec");
+
+            final Object builder = payloadClass.getMethod("newBuilder").invoke(null);
+            builder.getClass().getMethod("deviceId", String.class).invoke(builder, "dev1");
+            builder.getClass().getMethod("temperature", double.class).invoke(builder, 1.0);
+            final Object first = builder.getClass().getMethod("build").invoke(builder);
+
+            builder.getClass().getMethod("temperature", double.class).invoke(builder, 2.0);
+            final Object second = builder.getClass().getMethod("build").invoke(builder);
+
+            // immutable values are not copied
+
+            Assert.assertSame(first, codecClass.getMethod("extract", Object.class, long.class).invoke(codec, first, -1L));
+
+            final long changes = (Long) codecClass.getMethod("changes", Object.class, Object.class).invoke(codec, first, second);
+            Assert.assertEquals(1L << 1, changes);
+
+            final Object delta = codecClass.getMethod("extract", Object.class, long.class).invoke(codec, second, changes);
+            Assert.assertEquals(second, codecClass.getMethod("merge", Object.class, Object.class, long.class).invoke(codec, first, delta, changes));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMutableNestedObject() throws Exception {
+        // a mutable nested object could be modified in place
+        generate(NESTED_DOCUMENT, false);
+    }
+
+    @Test
+    public void testImmutableNestedObject() throws Exception {
+        final Map<String, String> sources = generate(NESTED_DOCUMENT, true);
+
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+
+            final ClassLoader loader = compiler.compile(sources);
+
+            final Class<?> payloadClass = loader.loadClass("delta.messages.State$Payload");
+            final Class<?> locationClass = loader.loadClass("delta.messages.State$Payload$Location");
+            final Object codec = loader.loadClass("delta.messages.State").getField("DELTA_CODEC").get(null);
+            final Method changes = runtime.loadClass("de.dentrassi.asyncapi.delta.DeltaCodec").getMethod("changes", Object.class, Object.class);
+
+            final Object first = nestedPayload(payloadClass, locationClass, 1.0);
+
+            // nested objects are compared by value
+
+            Assert.assertEquals(0L, changes.invoke(codec, first, nestedPayload(payloadClass, locationClass, 1.0)));
+            Assert.assertEquals(1L << 2, changes.invoke(codec, first, nestedPayload(payloadClass, locationClass, 2.0)));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownKey() throws Exception {
+        generate(DOCUMENT.replace("key: deviceId", "key: unknown"), false);
+    }
+
+    private static Object nestedPayload(final Class<?> payloadClass, final Class<?> locationClass, final double lat) throws Exception {
+        final Object location = locationClass.getMethod("newBuilder").invoke(null);
+        location.getClass().getMethod("lat", double.class).invoke(location, lat);
+
+        final Object builder = payloadClass.getMethod("newBuilder").invoke(null);
+        builder.getClass().getMethod("deviceId", String.class).invoke(builder, "dev1");
+        builder.getClass().getMethod("location", locationClass).invoke(builder, location.getClass().getMethod("build").invoke(location));
+        return builder.getClass().getMethod("build").invoke(builder);
+    }
+
+    private static Object payload(final Class<?> payloadClass, final String deviceId, final double temperature, final double[] values) throws Exception {
+        final Constructor<?> constructor = payloadClass.getConstructor();
+        final Object result = constructor.newInstance();
+        payloadClass.getMethod("setDeviceId", String.class).invoke(result, deviceId);
+        payloadClass.getMethod("setTemperature", double.class).invoke(result, temperature);
+        payloadClass.getMethod("setValues", double[].class).invoke(result, (Object) values);
+        return result;
+    }
+
+    private static void assertFrame(final Object frame, final long sequence, final boolean keyframe, final long changes) throws Exception {
+        Assert.assertEquals("dev1", property(frame, "getKey"));
+        Assert.assertEquals(sequence, property(frame, "getSequence"));
+        Assert.assertEquals(keyframe, property(frame, "isKeyframe"));
+        Assert.assertEquals(changes, property(frame, "getChanges"));
+    }
+
+    private static Object property(final Object object, final String getter) throws Exception {
+        return object.getClass().getMethod(getter).invoke(object);
+    }
+
+    private static Object invoke(final Method method, final Object object) {
+        try {
+            return method.invoke(object);
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
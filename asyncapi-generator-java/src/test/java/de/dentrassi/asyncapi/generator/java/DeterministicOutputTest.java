@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Topic;
+import de.dentrassi.asyncapi.generator.java.gson.GsonGeneratorExtension;
+import de.dentrassi.asyncapi.generator.java.jms.JmsGeneratorExtension;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class DeterministicOutputTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Generate the same document twice, from two separately parsed models, and
+     * expect the same bytes, including the manifest
+     */
+    @Test
+    public void testRepeatable() throws Exception {
+        final Path first = this.folder.newFolder().toPath();
+        final Path second = this.folder.newFolder().toPath();
+
+        generate(first);
+        generate(second);
+
+        final Map<Path, byte[]> expected = read(first);
+        final Map<Path, byte[]> actual = read(second);
+
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+
+        for (final Map.Entry<Path, byte[]> entry : expected.entrySet()) {
+            Assert.assertArrayEquals(entry.getKey().toString(), entry.getValue(), actual.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Topics and services must follow the order of the document, not the order
+     * of their hash codes
+     */
+    @Test
+    public void testDocumentOrder() throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(GeneratorBenchmark.createDocument(12, 3, 1))).parse();
+
+        final List<String> expectedTopics = new ArrayList<>();
+        final List<String> expectedServices = new ArrayList<>();
+        for (int s = 0; s < 12; s++) {
+            expectedServices.add("service" + s);
+            for (int t = 0; t < 3; t++) {
+                expectedTopics.add("service" + s + ".1.event.item" + t + ".update");
+            }
+        }
+
+        Assert.assertEquals(expectedTopics, names(api.getTopics().stream()));
+
+        final ServiceDefinitions definitions = ServiceDefinitions.build(api, true);
+
+        Assert.assertEquals(expectedTopics, names(definitions.getTopics().keySet().stream()));
+        Assert.assertEquals(expectedServices, new ArrayList<>(definitions.getVersions().get("1").keySet()));
+    }
+
+    private static List<String> names(final Stream<Topic> topics) {
+        return topics.map(Topic::getName).collect(Collectors.toList());
+    }
+
+    private static void generate(final Path target) throws Exception {
+        try (InputStream in = DeterministicOutputTest.class.getResourceAsStream("/sample.yaml")) {
+            final AsyncApi api = new YamlParser(in).parse();
+
+            final Generator.Builder builder = Generator.newBuilder();
+            builder.targetPath(target);
+            builder.cache(true);
+            builder.addExtension(new JmsGeneratorExtension());
+            builder.addExtension(new GsonGeneratorExtension());
+            builder.build(api).generate();
+        }
+    }
+
+    private static Map<Path, byte[]> read(final Path root) throws IOException {
+        final Map<Path, byte[]> result = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (final Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                result.put(root.relativize(file), Files.readAllBytes(file));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.formatter.CodeFormatter;
+import org.eclipse.jface.text.Document;
+import org.eclipse.text.edits.TextEdit;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+/**
+ * Compare the time it takes to format the sources of a large, synthetic API,
+ * creating a new formatter for each file, re-using the formatter, and only
+ * indenting
+ */
+public class FormatterBenchmark {
+
+    public static void main(final String[] args) throws Exception {
+        final List<String> sources = createSources();
+
+        final SourceFormatter perFile = source -> {
+            final CodeFormatter formatter = ToolFactory.createCodeFormatter(null);
+            final TextEdit result = formatter.format(CodeFormatter.K_COMPILATION_UNIT, source, 0, source.length(), 0, null);
+            final Document doc = new Document(source);
+            result.apply(doc);
+            return doc.get();
+        };
+
+        for (int i = 0; i < 3; i++) {
+            run("new formatter", sources, perFile);
+            run("re-used", sources, SourceFormatter.eclipse(null));
+            run("simple", sources, SourceFormatter.simple());
+        }
+    }
+
+    private static void run(final String label, final List<String> sources, final SourceFormatter formatter) throws Exception {
+        final long start = System.nanoTime();
+
+        long length = 0;
+        for (final String source : sources) {
+            length += formatter.format(source).length();
+        }
+
+        final long time = System.nanoTime() - start;
+
+        System.out.format("%-15s %8.1f ms (%s files, %s chars)%n", label, time / 1_000_000.0, sources.size(), length);
+    }
+
+    private static List<String> createSources() throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(GeneratorBenchmark.createDocument(20, 10, 10))).parse();
+
+        final Path target = Files.createTempDirectory("formatter-benchmark");
+        try {
+            Generator.newBuilder().targetPath(target).formatCode(false).build(api).generate();
+
+            final List<String> result = new ArrayList<>();
+            try (Stream<Path> stream = Files.walk(target)) {
+                for (final Path file : (Iterable<Path>) stream.filter(p -> p.toString().endsWith(".java")).sorted()::iterator) {
+                    result.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                }
+            }
+            return result;
+        } finally {
+            GeneratorBenchmark.delete(target);
+        }
+    }
+}
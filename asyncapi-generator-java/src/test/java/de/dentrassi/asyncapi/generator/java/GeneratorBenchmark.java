@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.generator.java.gson.GsonGeneratorExtension;
+import de.dentrassi.asyncapi.generator.java.jms.JmsGeneratorExtension;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+/**
+ * Compare the time it takes to generate the code of a large, synthetic API,
+ * with a different number of threads
+ */
+public class GeneratorBenchmark {
+
+    private static final int SERVICES = 50;
+
+    private static final int TOPICS = 10;
+
+    private static final int PROPERTIES = 10;
+
+    public static void main(final String[] args) throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(createDocument(SERVICES, TOPICS, PROPERTIES))).parse();
+
+        final int processors = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < 3; i++) {
+            run(api, 1, true);
+            if (processors > 1) {
+                run(api, processors, true);
+            }
+            run(api, 1, false);
+        }
+
+        runCached();
+    }
+
+    /**
+     * Run the generator with the cache enabled: cold, without any change, and
+     * after one type changed
+     */
+    private static void runCached() throws Exception {
+        final Path target = Files.createTempDirectory("generator-benchmark");
+
+        try {
+            final String document = createDocument(SERVICES, TOPICS, PROPERTIES);
+
+            for (int i = 0; i < 3; i++) {
+                final AsyncApi api = new YamlParser(new StringReader(document)).parse();
+                if (i == 2) {
+                    api.getTypes().iterator().next().setDescription("Changed");
+                }
+
+                final Generator.Builder builder = Generator.newBuilder();
+                builder.targetPath(target);
+                builder.parallelism(1);
+                builder.cache(true);
+                builder.addExtension(new JmsGeneratorExtension());
+                builder.addExtension(new GsonGeneratorExtension());
+                final Generator generator = builder.build(api);
+
+                final long start = System.nanoTime();
+                final Generator.Result result = generator.generate();
+                final long time = System.nanoTime() - start;
+
+                System.out.format("cache run %d: %8.1f ms %s%n", i, time / 1_000_000.0, result);
+            }
+        } finally {
+            delete(target);
+        }
+    }
+
+    private static void run(final AsyncApi api, final int parallelism, final boolean formatCode) throws Exception {
+        final Path target = Files.createTempDirectory("generator-benchmark");
+
+        try {
+            final Generator.Builder builder = Generator.newBuilder();
+            builder.targetPath(target);
+            builder.parallelism(parallelism);
+            builder.formatCode(formatCode);
+            builder.addExtension(new JmsGeneratorExtension());
+            builder.addExtension(new GsonGeneratorExtension());
+            final Generator generator = builder.build(api);
+
+            final long start = System.nanoTime();
+            generator.generate();
+            final long time = System.nanoTime() - start;
+
+            final long files;
+            try (Stream<Path> stream = Files.walk(target)) {
+                files = stream.filter(Files::isRegularFile).count();
+            }
+
+            System.out.format("parallelism %3d, format %-5s: %8.1f ms (%s files)%n", parallelism, formatCode, time / 1_000_000.0, files);
+        } finally {
+            delete(target);
+        }
+    }
+
+    /**
+     * Create an API with an event topic per message and a type per message
+     *
+     * @param services
+     *            the number of services
+     * @param topics
+     *            the number of topics per service
+     * @param properties
+     *            the number of properties per message and type
+     * @return the YAML document
+     */
+    static String createDocument(final int services, final int topics, final int properties) {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("asyncapi: \"1.0.0\"\n");
+        sb.append("info:\n  title: Benchmark API\n  version: \"1.0.0\"\n");
+        sb.append("baseTopic: benchmark\n");
+        sb.append("host: localhost\n");
+        sb.append("schemes:\n  - amqp\n");
+        sb.append("topics:\n");
+
+        for (int s = 0; s < services; s++) {
+            for (int t = 0; t < topics; t++) {
+                sb.append("  service").append(s).append(".1.event.item").append(t).append(".update:\n");
+                sb.append("    subscribe:\n");
+                sb.append("      $ref: \"#/components/messages/Message").append(s).append('_').append(t).append("\"\n");
+            }
+        }
+
+        sb.append("components:\n");
+        sb.append("  messages:\n");
+
+        for (int s = 0; s < services; s++) {
+            for (int t = 0; t < topics; t++) {
+                sb.append("    Message").append(s).append('_').append(t).append(":\n");
+                sb.append("      payload:\n");
+                sb.append("        type: object\n");
+                sb.append("        properties:\n");
+                for (int p = 0; p < properties; p++) {
+                    sb.append("          property").append(p).append(":\n");
+                    sb.append("            type: string\n");
+                }
+                sb.append("          value:\n");
+                sb.append("            $ref: \"#/components/schemas/Type").append(s).append('_').append(t).append("\"\n");
+            }
+        }
+
+        sb.append("  schemas:\n");
+
+        for (int s = 0; s < services; s++) {
+            for (int t = 0; t < topics; t++) {
+                sb.append("    Type").append(s).append('_').append(t).append(":\n");
+                sb.append("      type: object\n");
+                sb.append("      properties:\n");
+                for (int p = 0; p < properties; p++) {
+                    sb.append("        property").append(p).append(":\n");
+                    sb.append("          type: ").append(p % 2 == 0 ? "string" : "integer").append('\n');
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+
+    static void delete(final Path path) throws IOException {
+        try (Stream<Path> stream = Files.walk(path)) {
+            for (final Path file : (Iterable<Path>) stream.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
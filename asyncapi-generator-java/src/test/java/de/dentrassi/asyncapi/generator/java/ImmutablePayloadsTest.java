@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompiler;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompilerTest;
+import de.dentrassi.asyncapi.generator.java.gson.GsonGeneratorExtension;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class ImmutablePayloadsTest {
+
+    private static final String DOCUMENT = String.join("\n",
+            "asyncapi: 1.0.0",
+            "info:",
+            "  version: 1.0.0",
+            "baseTopic: immutables",
+            "host: localhost",
+            "schemes: [ amqp ]",
+            "topics: {}",
+            "components:",
+            "  schemas:",
+            "    Sample:",
+            "      type: object",
+            "      required: [ count, ratio ]",
+            "      properties:",
+            "        count: { type: integer }",
+            "        ratio: { type: number }",
+            "        name: { type: string }",
+            "        values:",
+            "          type: array",
+            "          items: { type: number }",
+            "        tags:",
+            "          type: array",
+            "          items: { type: string }",
+            "        location:",
+            "          type: object",
+            "          properties:",
+            "            lat: { type: number }",
+            "            lon: { type: number }",
+            "");
+
+    @Test
+    public void testImmutable() throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(DOCUMENT)).parse();
+
+        final Generator.Builder builder = Generator.newBuilder();
+        builder.formatCode(false);
+        builder.immutablePayloads(true);
+        builder.addExtension(new GsonGeneratorExtension());
+        final Map<String, String> sources = builder.build(api).generateSources();
+
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+
+            final ClassLoader loader = compiler.compile(sources);
+            final Class<?> sample = loader.loadClass("immutables.types.Sample");
+            final Class<?> location = loader.loadClass("immutables.types.Sample$Location");
+
+            // final, without setters
+
+            Assert.assertTrue(Modifier.isFinal(sample.getModifiers()));
+            Assert.assertTrue(Modifier.isFinal(location.getModifiers()));
+            Assert.assertTrue(Modifier.isFinal(sample.getDeclaredField("count").getModifiers()));
+            for (final Method method : sample.getMethods()) {
+                Assert.assertFalse(method.getName(), method.getName().startsWith("set"));
+            }
+
+            // build
+
+            final Object loc = build(location, new Object[][] { { "lat", Double.class, 1.0 }, { "lon", Double.class, 2.0 } });
+
+            final double[] values = { 1.0, 2.0 };
+            final Object a = build(sample, new Object[][] {
+                    { "count", int.class, 42 },
+                    { "ratio", double.class, 0.5 },
+                    { "name", String.class, "foo" },
+                    { "values", double[].class, values },
+                    { "tags", List.class, Arrays.asList("a", "b") },
+                    { "location", location, loc } });
+
+            // arrays are copied
+
+            values[0] = 10.0;
+            Assert.assertArrayEquals(new double[] { 1.0, 2.0 }, (double[]) sample.getMethod("getValues").invoke(a), 0.0);
+
+            // collections are unmodifiable
+
+            assertUnmodifiable((List<?>) sample.getMethod("getTags").invoke(a));
+
+            // value semantics
+
+            final Object b = rebuild(a);
+
+            Assert.assertNotSame(a, b);
+            Assert.assertEquals(a, b);
+            Assert.assertEquals(a.hashCode(), b.hashCode());
+            Assert.assertEquals(a.toString(), b.toString());
+            Assert.assertEquals("Sample [count=42, ratio=0.5, name=foo, values=[1.0, 2.0], tags=[a, b], location=Location [lat=1.0, lon=2.0]]", a.toString());
+
+            final Object c = invoke(invoke(a, "toBuilder"), "count", int.class, 43);
+            Assert.assertNotEquals(a, invoke(c, "build"));
+
+            // decoding
+
+            final Class<?> gsonClass = loader.loadClass("com.google.gson.Gson");
+            final Object gson = gsonClass.getDeclaredConstructor().newInstance();
+            final String json = (String) gsonClass.getMethod("toJson", Object.class).invoke(gson, a);
+            final Object decoded = gsonClass.getMethod("fromJson", String.class, Class.class).invoke(gson, json, sample);
+
+            Assert.assertEquals(a, decoded);
+            assertUnmodifiable((List<?>) sample.getMethod("getTags").invoke(decoded));
+        }
+    }
+
+    private static Object build(final Class<?> type, final Object[][] values) throws Exception {
+        Object builder = type.getMethod("newBuilder").invoke(null);
+        for (final Object[] value : values) {
+            builder = invoke(builder, (String) value[0], (Class<?>) value[1], value[2]);
+        }
+        return invoke(builder, "build");
+    }
+
+    private static Object rebuild(final Object value) throws Exception {
+        return invoke(invoke(value, "toBuilder"), "build");
+    }
+
+    private static Object invoke(final Object target, final String name) throws Exception {
+        return target.getClass().getMethod(name).invoke(target);
+    }
+
+    private static Object invoke(final Object target, final String name, final Class<?> type, final Object value) throws Exception {
+        return target.getClass().getMethod(name, type).invoke(target, value);
+    }
+
+    private static void assertUnmodifiable(final List<?> list) {
+        try {
+            list.clear();
+            Assert.fail("List must not be modifiable");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.generator.java.jms.JmsGeneratorExtension;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class IncrementalGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testUnchanged() throws Exception {
+        final Path target = this.folder.getRoot().toPath();
+
+        final Generator.Result first = generate(target, null);
+
+        Assert.assertTrue(first.getWritten() > 0);
+        Assert.assertEquals(0, first.getUnchanged());
+        Assert.assertEquals(0, first.getDeleted());
+
+        final Path file = target.resolve("sample/messages/DeviceUpdate.java");
+        final FileTime past = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(file, past);
+
+        final Generator.Result second = generate(target, null);
+
+        Assert.assertEquals(0, second.getWritten());
+        Assert.assertEquals(first.getWritten(), second.getUnchanged());
+        Assert.assertEquals(0, second.getDeleted());
+
+        Assert.assertEquals(past, Files.getLastModifiedTime(file));
+    }
+
+    @Test
+    public void testModified() throws Exception {
+        final Path target = this.folder.getRoot().toPath();
+
+        final Generator.Result first = generate(target, null);
+
+        final Path file = target.resolve("sample/messages/DeviceUpdate.java");
+        Files.write(file, new byte[] { 1, 2, 3 });
+
+        final Generator.Result second = generate(target, null);
+
+        Assert.assertEquals(1, second.getWritten());
+        Assert.assertEquals(first.getWritten() - 1, second.getUnchanged());
+        Assert.assertNotEquals(3, Files.size(file));
+    }
+
+    @Test
+    public void testStale() throws Exception {
+        final Path target = this.folder.getRoot().toPath();
+
+        final Generator.Result first = generate(target, null);
+
+        final Path other = target.resolve("other.txt");
+        Files.write(other, new byte[] { 1 });
+
+        final Generator.Result second = generate(target, "other");
+
+        Assert.assertEquals(first.getWritten(), second.getWritten());
+        Assert.assertEquals(first.getWritten(), second.getDeleted());
+
+        Assert.assertFalse(Files.exists(target.resolve("sample")));
+        Assert.assertTrue(Files.exists(target.resolve("other/messages/DeviceUpdate.java")));
+
+        // not generated by us
+
+        Assert.assertTrue(Files.exists(other));
+    }
+
+    @Test
+    public void testStaleModified() throws Exception {
+        final Path target = this.folder.getRoot().toPath();
+
+        final Generator.Result first = generate(target, null);
+
+        final Path file = target.resolve("sample/messages/DeviceUpdate.java");
+        Files.write(file, new byte[] { 1, 2, 3 });
+
+        final Generator.Result second = generate(target, "other");
+
+        Assert.assertEquals(first.getWritten() - 1, second.getDeleted());
+        Assert.assertEquals(Collections.singletonList(file.toAbsolutePath().normalize()), second.getKept());
+
+        // the modified file is kept, and no longer tracked
+
+        Assert.assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(file));
+
+        final Generator.Result third = generate(target, null);
+
+        Assert.assertTrue(third.getKept().isEmpty());
+        Assert.assertNotEquals(3, Files.size(file));
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        final Path target = this.folder.getRoot().toPath();
+
+        final Generator.Result first = generate(target, load(), true);
+
+        Assert.assertEquals(0, first.getCached());
+
+        // nothing changed
+
+        final Generator.Result second = generate(target, load(), true);
+
+        Assert.assertEquals(0, second.getWritten());
+        Assert.assertEquals(first.getWritten(), second.getCached());
+
+        // a modified file breaks a full hit, but only gets rendered again
+
+        final Path file = target.resolve("sample/types/State.java");
+        final byte[] content = Files.readAllBytes(file);
+        Files.write(file, new byte[] { 1, 2, 3 });
+
+        final Generator.Result third = generate(target, load(), true);
+
+        Assert.assertEquals(1, third.getWritten());
+        Assert.assertEquals(first.getWritten() - 1, third.getCached());
+        Assert.assertArrayEquals(content, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void testCachePartial() throws Exception {
+        final Path target = this.folder.getRoot().toPath();
+
+        final Generator.Result first = generate(target, load(), true);
+
+        // "Value" is used by "Configuration" and the message "DeviceConfigure"
+
+        final AsyncApi api = load();
+        api.getTypes().stream().filter(type -> type.getName().equals("Value")).findFirst().get().setDescription("Changed");
+
+        final Generator.Result second = generate(target, api, true);
+
+        Assert.assertEquals(1, second.getWritten());
+        Assert.assertEquals(first.getWritten() - 1, second.getUnchanged());
+
+        // "State" and "DeviceUpdate" are not affected
+
+        Assert.assertEquals(2, second.getCached());
+    }
+
+    private static Generator.Result generate(final Path target, final String basePackage) throws Exception {
+        final Generator.Builder builder = Generator.newBuilder();
+        builder.basePackage(basePackage);
+        return generate(target, load(), builder);
+    }
+
+    private static Generator.Result generate(final Path target, final AsyncApi api, final boolean cache) throws Exception {
+        return generate(target, api, Generator.newBuilder().cache(cache));
+    }
+
+    private static Generator.Result generate(final Path target, final AsyncApi api, final Generator.Builder builder) throws Exception {
+        builder.targetPath(target);
+        builder.addExtension(new JmsGeneratorExtension());
+        return builder.build(api).generate();
+    }
+
+    private static AsyncApi load() throws Exception {
+        try (InputStream in = IncrementalGeneratorTest.class.getResourceAsStream("/sample.yaml")) {
+            return new YamlParser(in).parse();
+        }
+    }
+}
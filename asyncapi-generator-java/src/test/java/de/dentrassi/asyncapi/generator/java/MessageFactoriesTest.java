@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompiler;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompilerTest;
+import de.dentrassi.asyncapi.generator.java.jms.JmsGeneratorExtension;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class MessageFactoriesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFactories() throws Exception {
+        final Path target = this.folder.getRoot().toPath();
+
+        generate(target);
+
+        final String factories = read(target.resolve("sample/messages/MessageFactories.java"));
+
+        Assert.assertTrue(factories.contains("builder.add(sample.messages.DeviceUpdate.class, sample.messages.DeviceUpdate::new);"));
+        Assert.assertTrue(factories.contains("builder.subscribe(\"devices.1.event.device.update\", sample.messages.DeviceUpdate::new);"));
+        Assert.assertTrue(factories.contains("builder.publish(\"devices.1.action.device.configure\", sample.messages.DeviceConfigure::new);"));
+
+        final String impl = read(target.resolve("sample/jms/client/v1/DevicesImpl.java"));
+
+        Assert.assertTrue(impl.contains("sample.messages.DeviceUpdate::new"));
+        Assert.assertFalse(impl.contains("sample.messages.DeviceUpdate.class"));
+    }
+
+    /**
+     * Test that large documents can be compiled
+     * <p>
+     * Each message registers a class and a topic factory, which used to
+     * overflow the stack of the compiler, when registered by a single
+     * expression.
+     * </p>
+     */
+    @Test
+    public void testManyMessages() throws Exception {
+        final int count = 2_000;
+
+        final StringBuilder document = new StringBuilder();
+        document.append("asyncapi: 1.0.0\n");
+        document.append("info:\n  version: 1.0.0\n");
+        document.append("baseTopic: many\n");
+        document.append("host: localhost\n");
+        document.append("schemes: [ amqp ]\n");
+        document.append("topics:\n");
+        for (int i = 0; i < count; i++) {
+            document.append(String.format("  service%s.1.event.message%s.update:%n", i % 50, i));
+            document.append(String.format("    subscribe: { $ref: '#/components/messages/Message%s' }%n", i));
+        }
+        document.append("components:\n");
+        document.append("  messages:\n");
+        for (int i = 0; i < count; i++) {
+            document.append(String.format("    Message%s:%n", i));
+            document.append("      payload: { type: object, properties: { value: { type: string } } }\n");
+        }
+
+        final AsyncApi api = new YamlParser(new StringReader(document.toString())).parse();
+
+        final Generator.Builder builder = Generator.newBuilder();
+        builder.formatCode(false);
+        final Map<String, String> sources = builder.build(api).generateSources();
+
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+
+            final ClassLoader loader = compiler.compile(sources);
+
+            final Object registry = loader.loadClass("many.messages.MessageFactories").getMethod("registry").invoke(null);
+
+            final Class<?> last = loader.loadClass("many.messages.Message" + (count - 1));
+            final Supplier<?> factory = (Supplier<?>) registry.getClass().getMethod("forSubscribeTopic", String.class).invoke(registry,
+                    "service" + ((count - 1) % 50) + ".1.event.message" + (count - 1) + ".update");
+
+            Assert.assertEquals(last, factory.get().getClass());
+        }
+    }
+
+    private static void generate(final Path target) throws Exception {
+        try (InputStream in = MessageFactoriesTest.class.getResourceAsStream("/sample.yaml")) {
+            final AsyncApi api = new YamlParser(in).parse();
+
+            final Generator.Builder builder = Generator.newBuilder();
+            builder.targetPath(target);
+            builder.addExtension(new JmsGeneratorExtension());
+            builder.build(api).generate();
+        }
+    }
+
+    private static String read(final Path path) throws Exception {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.generator.java.jms.JmsGeneratorExtension;
+import de.dentrassi.asyncapi.generator.java.gson.GsonGeneratorExtension;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class ParallelGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameOutput() throws Exception {
+        final Path sequential = this.folder.newFolder().toPath();
+        final Path parallel = this.folder.newFolder().toPath();
+
+        generate(sequential, Generator.newBuilder().parallelism(1));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            generate(parallel, Generator.newBuilder().executor(executor));
+        } finally {
+            executor.shutdown();
+        }
+
+        final Map<Path, byte[]> expected = read(sequential);
+        final Map<Path, byte[]> actual = read(parallel);
+
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+
+        for (final Map.Entry<Path, byte[]> entry : expected.entrySet()) {
+            Assert.assertArrayEquals(entry.getKey().toString(), entry.getValue(), actual.get(entry.getKey()));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailure() throws Exception {
+        final Generator.Builder builder = Generator.newBuilder().parallelism(4);
+        builder.addExtension(new GeneratorExtension() {
+            @Override
+            public void generate(final AsyncApi api, final Generator.Options options, final Generator.Context context) {
+                context.createTypeBuilder("failing").createType(new TypeInformation("Failing", null, null), false, false, null, b -> {
+                    throw new IllegalStateException();
+                });
+            }
+        });
+        generate(this.folder.newFolder().toPath(), builder);
+    }
+
+    private static void generate(final Path target, final Generator.Builder builder) throws Exception {
+        try (InputStream in = ParallelGeneratorTest.class.getResourceAsStream("/sample.yaml")) {
+            final AsyncApi api = new YamlParser(in).parse();
+
+            builder.targetPath(target);
+            builder.addExtension(new JmsGeneratorExtension());
+            builder.addExtension(new GsonGeneratorExtension());
+            builder.build(api).generate();
+        }
+    }
+
+    private static Map<Path, byte[]> read(final Path root) throws IOException {
+        final Map<Path, byte[]> result = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (final Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                result.put(root.relativize(file), Files.readAllBytes(file));
+            }
+        }
+        return result;
+    }
+}
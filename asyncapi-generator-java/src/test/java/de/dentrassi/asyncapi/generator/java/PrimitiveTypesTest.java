@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompiler;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompilerTest;
+import de.dentrassi.asyncapi.generator.java.gson.GsonGeneratorExtension;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class PrimitiveTypesTest {
+
+    private static final String DOCUMENT = String.join("\n",
+            "asyncapi: 1.0.0",
+            "info:",
+            "  version: 1.0.0",
+            "baseTopic: primitives",
+            "host: localhost",
+            "schemes: [ amqp ]",
+            "topics: {}",
+            "components:",
+            "  schemas:",
+            "    Sample:",
+            "      type: object",
+            "      required: [ count, total, ratio, value, flag ]",
+            "      properties:",
+            "        count: { type: integer }",
+            "        total: { type: integer, format: int64 }",
+            "        ratio: { type: number, format: float }",
+            "        value: { type: number }",
+            "        flag: { type: boolean }",
+            "        optional: { type: number }",
+            "        values:",
+            "          type: array",
+            "          items: { type: number }",
+            "        samples:",
+            "          type: array",
+            "          items: { type: integer, format: int64 }",
+            "        unique:",
+            "          type: array",
+            "          uniqueItems: true",
+            "          items: { type: integer }",
+            "");
+
+    @Test
+    public void testFieldTypes() throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(DOCUMENT)).parse();
+
+        final Generator.Builder builder = Generator.newBuilder();
+        builder.formatCode(false);
+        builder.addExtension(new GsonGeneratorExtension());
+        final Map<String, String> sources = builder.build(api).generateSources();
+
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+
+            final Class<?> sample = compiler.compile(sources).loadClass("primitives.types.Sample");
+
+            // required numbers
+
+            Assert.assertEquals(int.class, sample.getDeclaredField("count").getType());
+            Assert.assertEquals(long.class, sample.getDeclaredField("total").getType());
+            Assert.assertEquals(float.class, sample.getDeclaredField("ratio").getType());
+            Assert.assertEquals(double.class, sample.getDeclaredField("value").getType());
+
+            // booleans and optional numbers stay boxed
+
+            Assert.assertEquals(Boolean.class, sample.getDeclaredField("flag").getType());
+            Assert.assertEquals(Double.class, sample.getDeclaredField("optional").getType());
+
+            // arrays of numbers, unless they are sets
+
+            Assert.assertEquals(double[].class, sample.getDeclaredField("values").getType());
+            Assert.assertEquals(long[].class, sample.getDeclaredField("samples").getType());
+            Assert.assertEquals(Set.class, sample.getDeclaredField("unique").getType());
+
+            Assert.assertEquals(double.class, sample.getMethod("getValue").getReturnType());
+            Assert.assertNotNull(sample.getMethod("setValues", double[].class));
+        }
+    }
+}
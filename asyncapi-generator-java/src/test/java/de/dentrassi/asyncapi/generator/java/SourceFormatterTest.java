@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class SourceFormatterTest {
+
+    private static final String SOURCE = "package a; class A { void f() { int a; } }";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testProfile() throws Exception {
+        final Map<String, String> options;
+        try (InputStream in = SourceFormatterTest.class.getResourceAsStream("/formatter-profile.xml")) {
+            options = SourceFormatter.loadProfile(in);
+        }
+
+        Assert.assertEquals(4, options.size());
+        Assert.assertEquals("tab", options.get("org.eclipse.jdt.core.formatter.tabulation.char"));
+
+        final SourceFormatter formatter = SourceFormatter.eclipse(options);
+
+        // run twice, re-using the formatter
+
+        for (int i = 0; i < 2; i++) {
+            final String result = formatter.format(SOURCE);
+            Assert.assertTrue(result.contains("\n\tvoid f() {\n\t\tint a;"));
+        }
+    }
+
+    @Test
+    public void testSimple() throws Exception {
+        final String source = "package a;\nclass A {\nvoid f() {\n/**\n* }\n*/\nString s = \"{\";\n// {\n}\n}\n";
+        final String expected = "package a;\nclass A {\n    void f() {\n        /**\n         * }\n         */\n        String s = \"{\";\n        // {\n    }\n}\n";
+
+        Assert.assertEquals(expected, SourceFormatter.simple().format(source));
+    }
+
+    @Test
+    public void testGenerateUnformatted() throws Exception {
+        final Path formatted = this.folder.newFolder().toPath();
+        final Path unformatted = this.folder.newFolder().toPath();
+
+        generate(Generator.newBuilder().targetPath(formatted));
+        generate(Generator.newBuilder().targetPath(unformatted).formatCode(false));
+
+        final Path file = Paths.get("sample", "messages", "DeviceUpdate.java");
+
+        final String expected = read(formatted.resolve(file));
+        final String actual = read(unformatted.resolve(file));
+
+        Assert.assertNotEquals(expected, actual);
+        Assert.assertEquals(strip(expected), strip(actual));
+    }
+
+    private static void generate(final Generator.Builder builder) throws Exception {
+        try (InputStream in = SourceFormatterTest.class.getResourceAsStream("/sample.yaml")) {
+            final AsyncApi api = new YamlParser(in).parse();
+            builder.build(api).generate();
+        }
+    }
+
+    private static String read(final Path path) throws Exception {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Remove all whitespace, which is the only thing the formatter may change
+     */
+    private static String strip(final String source) {
+        return source.replaceAll("\\s+", "");
+    }
+}
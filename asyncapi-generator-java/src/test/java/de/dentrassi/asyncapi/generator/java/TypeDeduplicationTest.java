@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java;
+
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompiler;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompilerTest;
+import de.dentrassi.asyncapi.generator.java.gson.GsonGeneratorExtension;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class TypeDeduplicationTest {
+
+    private static final String DOCUMENT = String.join("\n",
+            "asyncapi: 1.0.0",
+            "info:",
+            "  version: 1.0.0",
+            "baseTopic: dedup",
+            "host: localhost",
+            "schemes: [ amqp ]",
+            "topics: {}",
+            "components:",
+            "  messages:",
+            "    First:",
+            "      payload:",
+            "        type: object",
+            "        properties:",
+            "          location:",
+            "            type: object",
+            "            properties:",
+            "              lat: { type: number }",
+            "              lon: { type: number }",
+            "          mode: { type: string, enum: [ low, high ] }",
+            "    Second:",
+            "      payload:",
+            "        type: object",
+            "        properties:",
+            "          position:",
+            "            description: Same structure, other name",
+            "            type: object",
+            "            properties:",
+            "              lat: { type: number }",
+            "              lon: { type: number }",
+            "          other:",
+            "            type: object",
+            "            properties:",
+            "              lat: { type: number }",
+            "              lon: { type: number }",
+            "              alt: { type: number }",
+            "  schemas:",
+            "    Device:",
+            "      type: object",
+            "      properties:",
+            "        location:",
+            "          type: object",
+            "          required: [ lat ]",
+            "          properties:",
+            "            lat: { type: number }",
+            "            lon: { type: number }",
+            "        mode: { type: string, enum: [ low, high ] }",
+            "        holder:",
+            "          type: object",
+            "          properties:",
+            "            location:",
+            "              type: object",
+            "              properties:",
+            "                lat: { type: number }",
+            "                lon: { type: number }",
+            "");
+
+    @Test
+    public void testMerge() throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(DOCUMENT)).parse();
+
+        final Generator.Builder builder = Generator.newBuilder();
+        builder.formatCode(false);
+        builder.deduplicateTypes(true);
+        builder.addExtension(new GsonGeneratorExtension());
+        final Generator generator = builder.build(api);
+        final Map<String, String> sources = generator.generateSources();
+
+        // the location, with a required property, and the extended type are kept
+
+        final Map<String, List<String>> merged = generator.getMergedTypes();
+        Assert.assertEquals(2, merged.size());
+        Assert.assertEquals(Arrays.asList("dedup.messages.Second.Payload.Position", "dedup.types.Device.Holder.Location"),
+                merged.get("dedup.messages.First.Payload.Location"));
+        Assert.assertEquals(Arrays.asList("dedup.types.Device.Mode"), merged.get("dedup.messages.First.Payload.Mode"));
+
+        final String second = sources.get("dedup.messages.Second");
+        Assert.assertFalse(second.contains("class Position"));
+        Assert.assertTrue(second.contains("class Other"));
+        Assert.assertTrue(second.contains("dedup.messages.First.Payload.Location position"));
+
+        final String device = sources.get("dedup.types.Device");
+        Assert.assertTrue(device.contains("class Location"));
+        Assert.assertFalse(device.contains("enum Mode"));
+
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+
+            final ClassLoader loader = compiler.compile(sources);
+            final Class<?> location = loader.loadClass("dedup.messages.First$Payload$Location");
+
+            Assert.assertEquals(location, loader.loadClass("dedup.messages.Second$Payload").getMethod("getPosition").getReturnType());
+            Assert.assertEquals(location, loader.loadClass("dedup.types.Device$Holder").getMethod("getLocation").getReturnType());
+        }
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(DOCUMENT)).parse();
+
+        final Generator generator = Generator.newBuilder().formatCode(false).build(api);
+        final Map<String, String> sources = generator.generateSources();
+
+        Assert.assertTrue(generator.getMergedTypes().isEmpty());
+        Assert.assertTrue(sources.get("dedup.messages.Second").contains("class Position"));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java.compile;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measure the time it takes to generate, compile and load a client for the
+ * sample API, re-using the compiler
+ */
+public class InMemoryCompilerBenchmark {
+
+    public static void main(final String[] args) throws Exception {
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+
+            for (int i = 0; i < 20; i++) {
+                final long start = System.nanoTime();
+
+                final Map<String, String> sources = InMemoryCompilerTest.generate();
+                final long generated = System.nanoTime();
+
+                final ClassLoader loader = compiler.compile(sources);
+                final long compiled = System.nanoTime();
+
+                loader.loadClass("sample.jms.client.JmsClient").getMethods();
+                final long loaded = System.nanoTime();
+
+                System.out.format("run %2d: generate %7.1f ms, compile %7.1f ms, load %5.1f ms (%s units)%n", i, (generated - start) / 1_000_000.0,
+                        (compiled - generated) / 1_000_000.0, (loaded - compiled) / 1_000_000.0, sources.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java.compile;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.jms.Connection;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Publish;
+import de.dentrassi.asyncapi.generator.java.Generator;
+import de.dentrassi.asyncapi.generator.java.gson.GsonGeneratorExtension;
+import de.dentrassi.asyncapi.generator.java.jms.JmsGeneratorExtension;
+import de.dentrassi.asyncapi.gson.GsonPayloadFormat;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+import de.dentrassi.asyncapi.jms.AbstractJmsConnector;
+import de.dentrassi.asyncapi.util.MessageRegistry;
+
+public class InMemoryCompilerTest {
+
+    @Test
+    public void testCompile() throws Exception {
+        final Map<String, String> sources = generate();
+
+        Assert.assertTrue(sources.containsKey("sample.jms.client.JmsClient"));
+        Assert.assertTrue(sources.containsKey("sample.package-info"));
+
+        final List<Path> classpath = runtimeClasspath();
+
+        // the model has classes of the same name as the runtime, so we need a clean class loader
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+            final ClassLoader first = compiler.compile(sources);
+            final ClassLoader second = compiler.compile(sources);
+
+            final Class<?> client = first.loadClass("sample.jms.client.JmsClient");
+            Assert.assertEquals(first, client.getClassLoader());
+
+            // each compilation is isolated
+
+            Assert.assertNotEquals(client, second.loadClass("sample.jms.client.JmsClient"));
+
+            // the generated code is usable
+
+            final Class<?> factories = first.loadClass("sample.messages.MessageFactories");
+            final Object registry = factories.getMethod("registry").invoke(null);
+            Assert.assertEquals(runtime.loadClass(MessageRegistry.class.getName()), registry.getClass());
+        }
+    }
+
+    @Test
+    public void testError() throws Exception {
+        try (InMemoryCompiler compiler = new InMemoryCompiler(InMemoryCompilerTest.class.getClassLoader(), Collections.emptyList())) {
+            compiler.compile(Collections.singletonMap("a.A", "package a; class A { B b; }"));
+            Assert.fail("Compilation must fail");
+        } catch (final CompilationException e) {
+            Assert.assertEquals(1, e.getDiagnostics().size());
+            Assert.assertTrue(e.getDiagnostics().get(0).startsWith("/a/A.java:1:"));
+        }
+    }
+
+    /**
+     * Get the class path of the runtime of the generated code
+     */
+    public static List<Path> runtimeClasspath() throws Exception {
+        final List<Path> result = new ArrayList<>();
+
+        for (final Class<?> clazz : new Class<?>[] { Publish.class, AbstractJmsConnector.class, GsonPayloadFormat.class, Connection.class, Gson.class,
+                LoggerFactory.class }) {
+            result.add(Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()));
+        }
+
+        return result;
+    }
+
+    public static Map<String, String> generate() throws Exception {
+        try (InputStream in = InMemoryCompilerTest.class.getResourceAsStream("/sample.yaml")) {
+            final AsyncApi api = new YamlParser(in).parse();
+
+            final Generator.Builder builder = Generator.newBuilder();
+            builder.formatCode(false);
+            builder.addExtension(new JmsGeneratorExtension());
+            builder.addExtension(new GsonGeneratorExtension());
+            return builder.build(api).generateSources();
+        }
+    }
+}
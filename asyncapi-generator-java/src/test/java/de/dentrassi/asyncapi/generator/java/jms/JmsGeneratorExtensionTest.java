@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.generator.java.jms;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompiler;
+import de.dentrassi.asyncapi.generator.java.compile.InMemoryCompilerTest;
+
+public class JmsGeneratorExtensionTest {
+
+    /**
+     * Service implementations must create their publishers and subscribers
+     * only once
+     */
+    @Test
+    public void testServiceInstances() throws Exception {
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+            final ClassLoader loader = compiler.compile(InMemoryCompilerTest.generate());
+
+            // topic name constants
+
+            final Class<?> service = loader.loadClass("sample.client.v1.Devices");
+            Assert.assertEquals("devices.1.event.device.update", service.getField("TOPIC_EVENT_DEVICE_UPDATE").get(null));
+            Assert.assertEquals("devices.1.action.device.configure", service.getField("TOPIC_ACTION_DEVICE_CONFIGURE").get(null));
+
+            // no broker required, as long as nothing gets published or subscribed
+
+            final Constructor<?> constructor = loader.loadClass("sample.jms.client.v1.DevicesImpl").getConstructors()[0];
+            final Object impl = constructor.newInstance(null, null, null, "sample", false);
+
+            for (final String name : new String[] { "eventDeviceUpdate", "actionDeviceConfigure" }) {
+                final Object first = service.getMethod(name).invoke(impl);
+                Assert.assertNotNull(name, first);
+                Assert.assertSame(name, first, service.getMethod(name).invoke(impl));
+            }
+        }
+    }
+
+    /**
+     * Services of a connector must be created on first use, and only once
+     */
+    @Test
+    public void testLazyServices() throws Exception {
+        final List<Path> classpath = InMemoryCompilerTest.runtimeClasspath();
+
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classpath.get(i).toUri().toURL();
+        }
+
+        try (URLClassLoader runtime = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+                InMemoryCompiler compiler = new InMemoryCompiler(runtime, classpath)) {
+            final ClassLoader loader = compiler.compile(InMemoryCompilerTest.generate());
+
+            final Class<?> clientClass = loader.loadClass("sample.jms.client.JmsClient");
+            final Class<?> builderClass = loader.loadClass("sample.jms.client.JmsClient$Builder");
+            final Class<?> profileClass = runtime.loadClass("de.dentrassi.asyncapi.jms.JmsProfile");
+
+            final Object builder = clientClass.getMethod("newBuilder").invoke(null);
+            builderClass.getMethod("profile", profileClass).invoke(builder, createProfile(runtime));
+
+            try (AutoCloseable client = (AutoCloseable) builderClass.getMethod("build").invoke(builder)) {
+                final Field field = clientClass.getDeclaredField("v1Devices");
+                field.setAccessible(true);
+
+                Assert.assertNull(field.get(client));
+
+                final Object devices = loader.loadClass("sample.Client").getMethod("devices").invoke(client);
+
+                Assert.assertNotNull(devices);
+                Assert.assertSame(devices, field.get(client));
+                Assert.assertSame(devices, loader.loadClass("sample.Client").getMethod("devices").invoke(client));
+            }
+        }
+    }
+
+    /**
+     * Create a JMS profile, providing a connection which does nothing
+     *
+     * @param runtime
+     *            the class loader of the runtime of the generated code
+     * @return the profile, an instance of the runtime's {@code JmsProfile}
+     */
+    public static Object createProfile(final ClassLoader runtime) throws Exception {
+        final Class<?> profileClass = runtime.loadClass("de.dentrassi.asyncapi.jms.JmsProfile");
+        final Class<?> connectionClass = runtime.loadClass("javax.jms.Connection");
+        final Class<?> factoryClass = runtime.loadClass("javax.jms.ConnectionFactory");
+
+        final Object connection = Proxy.newProxyInstance(runtime, new Class<?>[] { connectionClass }, (proxy, method, args) -> null);
+        final Object factory = Proxy.newProxyInstance(runtime, new Class<?>[] { factoryClass }, (proxy, method, args) -> connection);
+        final Function<Object, Object> connectionFactory = builder -> factory;
+
+        return Proxy.newProxyInstance(runtime, new Class<?>[] { profileClass }, (proxy, method, args) -> connectionFactory);
+    }
+}
@@ -16,27 +16,105 @@
 
 package de.dentrassi.asyncapi.gson;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.InstanceCreator;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.Resettable;
 import de.dentrassi.asyncapi.format.TextPayloadFormat;
 import de.dentrassi.asyncapi.gson.time.DateTimeAdapterFactory;
 import de.dentrassi.asyncapi.gson.time.DateTimeStrategy;
+import de.dentrassi.asyncapi.util.Factories;
 
 public class GsonPayloadFormat implements TextPayloadFormat {
 
     private static final Logger logger = LoggerFactory.getLogger(GsonPayloadFormat.class);
 
+    /**
+     * The instance to decode into, per thread
+     */
+    private static final ThreadLocal<Object[]> TARGET = ThreadLocal.withInitial(() -> new Object[1]);
+
+    /**
+     * Items of a JSON array, decoded one by one
+     */
+    private static class ItemSpliterator<T> implements Spliterator<T> {
+
+        private final TypeAdapter<T> adapter;
+        private final JsonReader reader;
+        private boolean done;
+
+        ItemSpliterator(final TypeAdapter<T> adapter, final JsonReader reader) {
+            this.adapter = adapter;
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (this.done) {
+                return false;
+            }
+
+            final T item;
+            try {
+                if (!this.reader.hasNext()) {
+                    this.done = true;
+                    this.reader.endArray();
+                    return false;
+                }
+                item = this.adapter.read(this.reader);
+            } catch (final IOException e) {
+                this.done = true;
+                throw new UncheckedIOException(e);
+            }
+
+            action.accept(item);
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            // splitting would require buffering items
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.done ? 0 : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+    }
+
     private final Gson gson;
 
+    private final Supplier<GsonBuilder> builderFactory;
+
+    private final ConcurrentMap<Class<?>, Optional<Gson>> reusing = new ConcurrentHashMap<>();
+
     public GsonPayloadFormat() {
         this((Consumer<GsonBuilder>) null);
     }
@@ -52,8 +130,30 @@ public class GsonPayloadFormat implements TextPayloadFormat {
     public GsonPayloadFormat(final DateTimeStrategy dateTimeStrategy, final Consumer<GsonBuilder> customizer) {
         Objects.requireNonNull(dateTimeStrategy);
 
+        this.builderFactory = () -> createBuilder(dateTimeStrategy, customizer);
+        this.gson = this.builderFactory.get().create();
+    }
+
+    /**
+     * Create a new instance from a builder
+     * <p>
+     * <b>Note:</b> As the builder cannot be re-created, instances created this
+     * way will not decode into existing payload instances.
+     * </p>
+     *
+     * @param builder
+     *            the builder to create the {@link Gson} instance from
+     */
+    public GsonPayloadFormat(final GsonBuilder builder) {
+        this.builderFactory = null;
+        this.gson = builder.create();
+    }
+
+    private static GsonBuilder createBuilder(final DateTimeStrategy dateTimeStrategy, final Consumer<GsonBuilder> customizer) {
         final GsonBuilder builder = new GsonBuilder();
 
+        builder.registerTypeAdapterFactory(new PrimitiveArrayTypeAdapterFactory());
+
         switch (dateTimeStrategy) {
 
         case ISO_8601_UTC:
@@ -64,6 +164,14 @@ public class GsonPayloadFormat implements TextPayloadFormat {
             DateTimeAdapterFactory.iso8601WithTimezone().accept(builder);
             break;
 
+        case EPOCH_MILLIS:
+            DateTimeAdapterFactory.epochMillis().accept(builder);
+            break;
+
+        case EPOCH_MICROS:
+            DateTimeAdapterFactory.epochMicros().accept(builder);
+            break;
+
         default:
             throw new IllegalArgumentException("Unknown date time strategy: " + dateTimeStrategy);
         }
@@ -72,11 +180,7 @@ public class GsonPayloadFormat implements TextPayloadFormat {
             customizer.accept(builder);
         }
 
-        this.gson = builder.create();
-    }
-
-    public GsonPayloadFormat(final GsonBuilder builder) {
-        this.gson = builder.create();
+        return builder;
     }
 
     @Override
@@ -86,10 +190,113 @@ public class GsonPayloadFormat implements TextPayloadFormat {
 
     @Override
     public <M extends Message<P>, P extends Serializable> M decode(final Class<M> clazz, final Class<P> payloadClazz, final String message) throws Exception {
+        return decode(Factories.reflective(clazz), payloadClazz, message);
+    }
+
+    @Override
+    public <M extends Message<P>, P extends Serializable> M decode(final Supplier<M> messageFactory, final Class<P> payloadClazz, final String message) throws Exception {
         logger.debug("Decoding JSON: {}", message);
-        final M m = clazz.newInstance();
+        final M m = messageFactory.get();
         m.setPayload(this.gson.fromJson(message, payloadClazz));
         return m;
     }
 
+    /**
+     * Decode into an existing message
+     * <p>
+     * If the current payload of the message implements {@link Resettable},
+     * then it will be reset and the message will be decoded into this
+     * instance. Nested objects will still be created for each message.
+     * Otherwise a new message gets decoded.
+     * </p>
+     * <p>
+     * For decoding in place, an additional {@link Gson} instance is created for
+     * each payload class. This will call the customizer provided to the
+     * constructor again.
+     * </p>
+     */
+    @Override
+    public <M extends Message<P>, P extends Serializable> M decodeInto(final M target, final Class<P> payloadClazz, final String message) throws Exception {
+        final P payload = target.getPayload();
+
+        if (!(payload instanceof Resettable) || !payloadClazz.isInstance(payload)) {
+            return TextPayloadFormat.super.decodeInto(target, payloadClazz, message);
+        }
+
+        final Gson gson = reusingGson(payloadClazz);
+        if (gson == null) {
+            return TextPayloadFormat.super.decodeInto(target, payloadClazz, message);
+        }
+
+        logger.debug("Decoding JSON in place: {}", message);
+
+        ((Resettable) payload).reset();
+
+        final Object[] holder = TARGET.get();
+        holder[0] = payload;
+        try {
+            target.setPayload(gson.fromJson(message, payloadClazz));
+        } finally {
+            holder[0] = null;
+        }
+
+        return target;
+    }
+
+    /**
+     * Decode the items of a JSON array, one by one
+     * <p>
+     * Only the current item is decoded, using the same {@link Gson} instance
+     * as {@link #decode(Supplier, Class, String)}. A JSON {@code null}
+     * results in no items.
+     * </p>
+     */
+    @Override
+    public <T> Spliterator<T> decodeItems(final Class<T> itemClazz, final Reader reader) throws Exception {
+        final TypeAdapter<T> adapter = this.gson.getAdapter(itemClazz);
+        final JsonReader in = this.gson.newJsonReader(reader);
+
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return Spliterators.emptySpliterator();
+        }
+
+        in.beginArray();
+
+        return new ItemSpliterator<>(adapter, in);
+    }
+
+    private Gson reusingGson(final Class<?> payloadClazz) {
+        if (this.builderFactory == null) {
+            return null;
+        }
+
+        return this.reusing.computeIfAbsent(payloadClazz, this::createReusingGson).orElse(null);
+    }
+
+    private Optional<Gson> createReusingGson(final Class<?> payloadClazz) {
+        final Supplier<?> factory;
+        try {
+            factory = Factories.reflective(payloadClazz);
+        } catch (final IllegalArgumentException e) {
+            logger.debug("Unable to decode into existing instances of {}", payloadClazz, e);
+            return Optional.empty();
+        }
+
+        final InstanceCreator<Object> creator = type -> {
+            final Object[] holder = TARGET.get();
+            final Object result = holder[0];
+
+            if (result != null) {
+                // hand out only once, nested objects of the same type need a new instance
+                holder[0] = null;
+                return result;
+            }
+
+            return factory.get();
+        };
+
+        return Optional.of(this.builderFactory.get().registerTypeAdapter(payloadClazz, creator).create());
+    }
+
 }
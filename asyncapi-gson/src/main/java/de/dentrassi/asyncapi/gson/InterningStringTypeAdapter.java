@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import de.dentrassi.asyncapi.util.StringCache;
+
+/**
+ * A type adapter for strings, de-duplicating decoded values
+ * <p>
+ * Decoded values are passed through the {@link StringCache#shared() shared
+ * string cache}. This is intended for fields with a low number of distinct
+ * values, and is used by generated code for properties marked with
+ * {@code x-intern}.
+ * </p>
+ */
+public class InterningStringTypeAdapter extends TypeAdapter<String> {
+
+    private final StringCache cache;
+
+    public InterningStringTypeAdapter() {
+        this(StringCache.shared());
+    }
+
+    public InterningStringTypeAdapter(final StringCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void write(final JsonWriter out, final String value) throws IOException {
+        out.value(value);
+    }
+
+    @Override
+    public String read(final JsonReader in) throws IOException {
+        final JsonToken next = in.peek();
+
+        if (next == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        // same as Gson, booleans are accepted as strings
+
+        if (next == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+
+        return this.cache.intern(in.nextString());
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Encode and decode arrays of primitive numbers without boxing
+ * <p>
+ * Gson processes arrays element by element, boxing each value, and collects
+ * decoded values in a list before creating the array. This factory handles
+ * {@code int[]}, {@code long[]}, {@code float[]} and {@code double[]}
+ * directly, decoding into a buffer kept per thread. Only the resulting array
+ * gets allocated.
+ * </p>
+ * <p>
+ * This factory is registered by default with instances of
+ * {@link GsonPayloadFormat}, unless the format is created from a custom
+ * {@link com.google.gson.GsonBuilder}.
+ * </p>
+ */
+public class PrimitiveArrayTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final int INITIAL_BUFFER_SIZE = 64;
+
+    /**
+     * Buffers larger than this will not be kept after decoding
+     */
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    private static final class Buffer {
+        private long[] longs = new long[INITIAL_BUFFER_SIZE];
+        private double[] doubles = new double[INITIAL_BUFFER_SIZE];
+
+        long[] longs(final int size) {
+            if (size > this.longs.length) {
+                this.longs = Arrays.copyOf(this.longs, Math.max(size, this.longs.length * 2));
+            }
+            return this.longs;
+        }
+
+        double[] doubles(final int size) {
+            if (size > this.doubles.length) {
+                this.doubles = Arrays.copyOf(this.doubles, Math.max(size, this.doubles.length * 2));
+            }
+            return this.doubles;
+        }
+
+        void trim() {
+            if (this.longs.length > MAX_BUFFER_SIZE) {
+                this.longs = new long[INITIAL_BUFFER_SIZE];
+            }
+            if (this.doubles.length > MAX_BUFFER_SIZE) {
+                this.doubles = new double[INITIAL_BUFFER_SIZE];
+            }
+        }
+    }
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private static final TypeAdapter<int[]> INT_ARRAY = new TypeAdapter<int[]>() {
+
+        @Override
+        public void write(final JsonWriter out, final int[] value) throws IOException {
+            out.beginArray();
+            for (final int v : value) {
+                out.value(v);
+            }
+            out.endArray();
+        }
+
+        @Override
+        public int[] read(final JsonReader in) throws IOException {
+            final Buffer buffer = BUFFER.get();
+
+            int size = 0;
+            long[] values = buffer.longs(size);
+
+            in.beginArray();
+            while (in.hasNext()) {
+                values = buffer.longs(size + 1);
+                values[size++] = in.nextInt();
+            }
+            in.endArray();
+
+            final int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = (int) values[i];
+            }
+
+            buffer.trim();
+            return result;
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<long[]> LONG_ARRAY = new TypeAdapter<long[]>() {
+
+        @Override
+        public void write(final JsonWriter out, final long[] value) throws IOException {
+            out.beginArray();
+            for (final long v : value) {
+                out.value(v);
+            }
+            out.endArray();
+        }
+
+        @Override
+        public long[] read(final JsonReader in) throws IOException {
+            final Buffer buffer = BUFFER.get();
+
+            int size = 0;
+            long[] values = buffer.longs(size);
+
+            in.beginArray();
+            while (in.hasNext()) {
+                values = buffer.longs(size + 1);
+                values[size++] = in.nextLong();
+            }
+            in.endArray();
+
+            final long[] result = Arrays.copyOf(values, size);
+
+            buffer.trim();
+            return result;
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<float[]> FLOAT_ARRAY = new TypeAdapter<float[]>() {
+
+        @Override
+        public void write(final JsonWriter out, final float[] value) throws IOException {
+            out.beginArray();
+            for (final float v : value) {
+                if (Float.isNaN(v) || Float.isInfinite(v)) {
+                    // let the writer decide if this is allowed
+                    out.value(v);
+                } else {
+                    // same as Gson, without widening to double
+                    out.jsonValue(Float.toString(v));
+                }
+            }
+            out.endArray();
+        }
+
+        @Override
+        public float[] read(final JsonReader in) throws IOException {
+            final Buffer buffer = BUFFER.get();
+
+            int size = 0;
+            double[] values = buffer.doubles(size);
+
+            in.beginArray();
+            while (in.hasNext()) {
+                values = buffer.doubles(size + 1);
+                values[size++] = in.nextDouble();
+            }
+            in.endArray();
+
+            final float[] result = new float[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = (float) values[i];
+            }
+
+            buffer.trim();
+            return result;
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<double[]> DOUBLE_ARRAY = new TypeAdapter<double[]>() {
+
+        @Override
+        public void write(final JsonWriter out, final double[] value) throws IOException {
+            out.beginArray();
+            for (final double v : value) {
+                out.value(v);
+            }
+            out.endArray();
+        }
+
+        @Override
+        public double[] read(final JsonReader in) throws IOException {
+            final Buffer buffer = BUFFER.get();
+
+            int size = 0;
+            double[] values = buffer.doubles(size);
+
+            in.beginArray();
+            while (in.hasNext()) {
+                values = buffer.doubles(size + 1);
+                values[size++] = in.nextDouble();
+            }
+            in.endArray();
+
+            final double[] result = Arrays.copyOf(values, size);
+
+            buffer.trim();
+            return result;
+        }
+    }.nullSafe();
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> token) {
+        final Class<? super T> clazz = token.getRawType();
+
+        if (int[].class.equals(clazz)) {
+            return (TypeAdapter<T>) INT_ARRAY;
+        } else if (long[].class.equals(clazz)) {
+            return (TypeAdapter<T>) LONG_ARRAY;
+        } else if (float[].class.equals(clazz)) {
+            return (TypeAdapter<T>) FLOAT_ARRAY;
+        } else if (double[].class.equals(clazz)) {
+            return (TypeAdapter<T>) DOUBLE_ARRAY;
+        }
+
+        return null;
+    }
+
+}
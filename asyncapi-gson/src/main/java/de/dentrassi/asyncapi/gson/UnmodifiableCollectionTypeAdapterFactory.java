@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Decode lists and sets into unmodifiable collections
+ * <p>
+ * This wraps the collection created by the default adapter of the
+ * {@link Gson} instance. It is used by generated code for collections of
+ * immutable payload types, which must not be modifiable after decoding
+ * either.
+ * </p>
+ * <p>
+ * <b>Note:</b> This factory is meant to be used with
+ * {@link com.google.gson.annotations.JsonAdapter} on fields. It must not be
+ * registered with a {@link com.google.gson.GsonBuilder}, as it looks up the
+ * default adapter by the same type.
+ * </p>
+ */
+public class UnmodifiableCollectionTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final class UnmodifiableTypeAdapter<T> extends TypeAdapter<T> {
+
+        private final TypeAdapter<T> delegate;
+        private final Function<T, T> wrapper;
+
+        UnmodifiableTypeAdapter(final TypeAdapter<T> delegate, final Function<T, T> wrapper) {
+            this.delegate = delegate;
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public void write(final JsonWriter out, final T value) throws IOException {
+            this.delegate.write(out, value);
+        }
+
+        @Override
+        public T read(final JsonReader in) throws IOException {
+            final T result = this.delegate.read(in);
+            return result != null ? this.wrapper.apply(result) : null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+        final Class<? super T> rawType = type.getRawType();
+
+        final Function<T, T> wrapper;
+        if (List.class.equals(rawType)) {
+            wrapper = value -> (T) Collections.unmodifiableList((List<?>) value);
+        } else if (Set.class.equals(rawType)) {
+            wrapper = value -> (T) Collections.unmodifiableSet((Set<?>) value);
+        } else {
+            return null;
+        }
+
+        return new UnmodifiableTypeAdapter<>(gson.getAdapter(type), wrapper);
+    }
+
+}
@@ -37,6 +37,8 @@ import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 
+import de.dentrassi.asyncapi.gson.time.Iso8601.Layout;
+
 public class DateTimeAdapterFactory implements TypeAdapterFactory {
 
     private static final String ISO_8601_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
@@ -46,11 +48,16 @@ public class DateTimeAdapterFactory implements TypeAdapterFactory {
         private final DateTimeFormatter formatter;
         private final TemporalQuery<T> query;
         private final Function<T, ? extends TemporalAccessor> whenWriting;
+        private final Layout layout;
+        private final Function<Instant, ? extends T> fromInstant;
 
-        public TemporalAccessorTypeAdapter(final DateTimeFormatter formatter, final TemporalQuery<T> query, final Function<T, ? extends TemporalAccessor> whenWriting) {
+        public TemporalAccessorTypeAdapter(final DateTimeFormatter formatter, final TemporalQuery<T> query, final Function<T, ? extends TemporalAccessor> whenWriting,
+                final Layout layout, final Function<Instant, ? extends T> fromInstant) {
             this.formatter = formatter;
             this.query = query;
             this.whenWriting = whenWriting;
+            this.layout = layout;
+            this.fromInstant = fromInstant;
         }
 
         @Override
@@ -58,8 +65,45 @@ public class DateTimeAdapterFactory implements TypeAdapterFactory {
             if (value == null) {
                 out.nullValue();
             } else {
-                out.value(this.formatter.format(this.whenWriting.apply(value)));
+                final String fast = formatFast(value);
+                if (fast != null) {
+                    out.value(fast);
+                } else {
+                    out.value(this.formatter.format(this.whenWriting.apply(value)));
+                }
+            }
+        }
+
+        private String formatFast(final T value) {
+            if (this.layout == null) {
+                return null;
+            }
+
+            if (value instanceof Instant) {
+                final Instant instant = (Instant) value;
+                return Iso8601.format(instant.getEpochSecond(), instant.getNano(), this.layout);
+            }
+
+            if (value instanceof ZonedDateTime) {
+                final ZonedDateTime zoned = (ZonedDateTime) value;
+                if (this.layout == Layout.DATE_TIME && !ZoneOffset.UTC.equals(zoned.getZone())) {
+                    // the time zone must be retained
+                    return null;
+                }
+                return Iso8601.format(zoned.toEpochSecond(), zoned.getNano(), this.layout);
+            }
+
+            return null;
+        }
+
+        private T parse(final String value) {
+            if (this.layout != null) {
+                final Instant instant = Iso8601.parse(value);
+                if (instant != null) {
+                    return this.fromInstant.apply(instant);
+                }
             }
+            return this.formatter.parse(value, this.query);
         }
 
         @Override
@@ -68,8 +112,7 @@ public class DateTimeAdapterFactory implements TypeAdapterFactory {
 
             switch (next) {
             case STRING: {
-                final String value = in.nextString();
-                return this.formatter.parse(value, this.query);
+                return parse(in.nextString());
             }
             case NULL:
                 in.nextNull();
@@ -83,10 +126,28 @@ public class DateTimeAdapterFactory implements TypeAdapterFactory {
 
     private final DateTimeFormatter formatter;
     private final Function<TemporalAccessor, ? extends TemporalAccessor> whenWriting;
+    private final Layout layout;
 
     public DateTimeAdapterFactory(final DateTimeFormatter formatter, final Function<TemporalAccessor, ? extends TemporalAccessor> whenWriting) {
+        this(formatter, whenWriting, null);
+    }
+
+    /**
+     * Create a new factory
+     *
+     * @param formatter
+     *            the formatter to use
+     * @param whenWriting
+     *            the conversion to apply before formatting
+     * @param layout
+     *            the fixed layout for UTC timestamps, which the formatter
+     *            would produce as well, or {@code null} to always use the
+     *            formatter
+     */
+    private DateTimeAdapterFactory(final DateTimeFormatter formatter, final Function<TemporalAccessor, ? extends TemporalAccessor> whenWriting, final Layout layout) {
         this.formatter = formatter;
         this.whenWriting = whenWriting;
+        this.layout = layout;
     }
 
     @Override
@@ -96,11 +157,13 @@ public class DateTimeAdapterFactory implements TypeAdapterFactory {
 
         if (Instant.class.isAssignableFrom(clazz)) {
             @SuppressWarnings("unchecked")
-            final TypeAdapter<T> result = (TypeAdapter<T>) new TemporalAccessorTypeAdapter<>(this.formatter, Instant::from, this.whenWriting);
+            final TypeAdapter<T> result = (TypeAdapter<T>) new TemporalAccessorTypeAdapter<>(this.formatter, Instant::from, this.whenWriting, this.layout,
+                    Function.identity());
             return result;
         } else if (ZonedDateTime.class.isAssignableFrom(clazz)) {
             @SuppressWarnings("unchecked")
-            final TypeAdapter<T> result = (TypeAdapter<T>) new TemporalAccessorTypeAdapter<>(this.formatter, ZonedDateTime::from, this.whenWriting);
+            final TypeAdapter<T> result = (TypeAdapter<T>) new TemporalAccessorTypeAdapter<>(this.formatter, ZonedDateTime::from, this.whenWriting,
+                    this.layout, DateTimeAdapterFactory::atUtc);
             return result;
         }
 
@@ -109,18 +172,54 @@ public class DateTimeAdapterFactory implements TypeAdapterFactory {
 
     public static Consumer<GsonBuilder> iso8601() {
         return builder -> {
-            builder.registerTypeAdapterFactory(new DateTimeAdapterFactory(DateTimeFormatter.ISO_INSTANT.withZone(ZoneOffset.UTC), value -> value));
+            builder.registerTypeAdapterFactory(new DateTimeAdapterFactory(DateTimeFormatter.ISO_INSTANT.withZone(ZoneOffset.UTC), value -> value, Layout.INSTANT));
             builder.setDateFormat(ISO_8601_DATE_FORMAT);
         };
     }
 
     public static Consumer<GsonBuilder> iso8601WithTimezone() {
         return builder -> {
-            builder.registerTypeAdapterFactory(new DateTimeAdapterFactory(DateTimeFormatter.ISO_DATE_TIME, DateTimeAdapterFactory::makeZoned));
+            builder.registerTypeAdapterFactory(new DateTimeAdapterFactory(DateTimeFormatter.ISO_DATE_TIME, DateTimeAdapterFactory::makeZoned, Layout.DATE_TIME));
             builder.setDateFormat(ISO_8601_DATE_FORMAT);
         };
     }
 
+    /**
+     * Encode timestamps as the number of milliseconds since the epoch
+     * <p>
+     * <b>Note:</b> This only applies to {@link Instant} and
+     * {@link ZonedDateTime}. The time zone will be lost, decoded values are in
+     * UTC.
+     * </p>
+     *
+     * @return the customizer for the builder
+     */
+    public static Consumer<GsonBuilder> epochMillis() {
+        return builder -> {
+            builder.registerTypeAdapterFactory(new EpochAdapterFactory(EpochAdapterFactory.Resolution.MILLIS));
+        };
+    }
+
+    /**
+     * Encode timestamps as the number of microseconds since the epoch
+     * <p>
+     * <b>Note:</b> This only applies to {@link Instant} and
+     * {@link ZonedDateTime}. The time zone will be lost, decoded values are in
+     * UTC.
+     * </p>
+     *
+     * @return the customizer for the builder
+     */
+    public static Consumer<GsonBuilder> epochMicros() {
+        return builder -> {
+            builder.registerTypeAdapterFactory(new EpochAdapterFactory(EpochAdapterFactory.Resolution.MICROS));
+        };
+    }
+
+    static ZonedDateTime atUtc(final Instant instant) {
+        return instant.atZone(ZoneOffset.UTC);
+    }
+
     public static TemporalAccessor makeZoned(final TemporalAccessor value) {
         if (value == null) {
             return null;
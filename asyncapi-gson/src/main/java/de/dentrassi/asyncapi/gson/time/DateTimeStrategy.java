@@ -17,5 +17,5 @@
 package de.dentrassi.asyncapi.gson.time;
 
 public enum DateTimeStrategy {
-    ISO_8601_UTC, ISO_8601_ZONED,
+    ISO_8601_UTC, ISO_8601_ZONED, EPOCH_MILLIS, EPOCH_MICROS,
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson.time;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Encode timestamps as numeric values relative to the epoch
+ */
+class EpochAdapterFactory implements TypeAdapterFactory {
+
+    enum Resolution {
+        MILLIS {
+            @Override
+            long encode(final long epochSecond, final int nano) {
+                return Math.addExact(Math.multiplyExact(epochSecond, 1_000L), nano / 1_000_000);
+            }
+
+            @Override
+            Instant decode(final long value) {
+                return Instant.ofEpochSecond(Math.floorDiv(value, 1_000L), Math.floorMod(value, 1_000L) * 1_000_000L);
+            }
+        },
+        MICROS {
+            @Override
+            long encode(final long epochSecond, final int nano) {
+                return Math.addExact(Math.multiplyExact(epochSecond, 1_000_000L), nano / 1_000);
+            }
+
+            @Override
+            Instant decode(final long value) {
+                return Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L), Math.floorMod(value, 1_000_000L) * 1_000L);
+            }
+        };
+
+        abstract long encode(long epochSecond, int nano);
+
+        abstract Instant decode(long value);
+    }
+
+    private static class EpochTypeAdapter<T> extends TypeAdapter<T> {
+
+        private final Resolution resolution;
+        private final Function<Instant, T> fromInstant;
+
+        public EpochTypeAdapter(final Resolution resolution, final Function<Instant, T> fromInstant) {
+            this.resolution = resolution;
+            this.fromInstant = fromInstant;
+        }
+
+        @Override
+        public void write(final JsonWriter out, final T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else if (value instanceof Instant) {
+                final Instant instant = (Instant) value;
+                out.value(this.resolution.encode(instant.getEpochSecond(), instant.getNano()));
+            } else if (value instanceof ZonedDateTime) {
+                final ZonedDateTime zoned = (ZonedDateTime) value;
+                out.value(this.resolution.encode(zoned.toEpochSecond(), zoned.getNano()));
+            } else {
+                throw new IllegalArgumentException("Unable to process date time type: " + value.getClass());
+            }
+        }
+
+        @Override
+        public T read(final JsonReader in) throws IOException {
+            final JsonToken next = in.peek();
+
+            switch (next) {
+            case NUMBER:
+            case STRING:
+                try {
+                    return this.fromInstant.apply(this.resolution.decode(in.nextLong()));
+                } catch (final NumberFormatException e) {
+                    throw new JsonSyntaxException("Invalid content for timestamp", e);
+                }
+            case NULL:
+                in.nextNull();
+                return null;
+            default:
+                throw new JsonSyntaxException("Invalid content for timestamp");
+            }
+        }
+
+    }
+
+    private final Resolution resolution;
+
+    public EpochAdapterFactory(final Resolution resolution) {
+        this.resolution = resolution;
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> token) {
+
+        final Class<? super T> clazz = token.getRawType();
+
+        if (Instant.class.isAssignableFrom(clazz)) {
+            @SuppressWarnings("unchecked")
+            final TypeAdapter<T> result = (TypeAdapter<T>) new EpochTypeAdapter<>(this.resolution, Function.identity());
+            return result;
+        } else if (ZonedDateTime.class.isAssignableFrom(clazz)) {
+            @SuppressWarnings("unchecked")
+            final TypeAdapter<T> result = (TypeAdapter<T>) new EpochTypeAdapter<>(this.resolution, DateTimeAdapterFactory::atUtc);
+            return result;
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson.time;
+
+import java.time.Instant;
+
+/**
+ * Fixed layout ISO 8601 encoding and decoding of UTC timestamps
+ * <p>
+ * This handles the common case of timestamps in the years 0000 to 9999 with a
+ * UTC offset of {@code Z}, without going through a
+ * {@link java.time.format.DateTimeFormatter}. All methods return {@code null}
+ * in case the value cannot be handled, in which case the caller has to fall
+ * back to the formatter.
+ * </p>
+ */
+final class Iso8601 {
+
+    /**
+     * The layout of the fraction of second
+     */
+    enum Layout {
+        /**
+         * Print the fraction in groups of three digits, like
+         * {@link java.time.format.DateTimeFormatter#ISO_INSTANT}
+         */
+        INSTANT,
+        /**
+         * Print the fraction with as few digits as possible, like
+         * {@link java.time.format.DateTimeFormatter#ISO_DATE_TIME}
+         */
+        DATE_TIME;
+    }
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int DAYS_PER_CYCLE = 146_097;
+    private static final long DAYS_0000_TO_1970 = DAYS_PER_CYCLE * 5L - (30L * 365L + 7L);
+
+    /**
+     * The longest possible result: {@code 0000-00-00T00:00:00.000000000Z}
+     */
+    private static final int MAX_LENGTH = 30;
+
+    private Iso8601() {
+    }
+
+    static String format(final long epochSecond, final int nano, final Layout layout) {
+
+        final long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        final int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // convert epoch day into year, month, day ... see LocalDate.ofEpochDay
+
+        long zeroDay = epochDay + DAYS_0000_TO_1970;
+        zeroDay -= 60; // adjust to 0000-03-01 so leap day is at end of four year cycle
+
+        if (zeroDay < -60) {
+            // before year zero, which we don't handle
+            return null;
+        }
+
+        long adjust = 0;
+        if (zeroDay < 0) {
+            // January and February of year zero, shift by one cycle
+            adjust = -400;
+            zeroDay += DAYS_PER_CYCLE;
+        }
+
+        long year = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+        long doy = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+        if (doy < 0) {
+            year--;
+            doy = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+        }
+
+        final int marchDoy0 = (int) doy;
+        final int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        final int month = (marchMonth0 + 2) % 12 + 1;
+        final int day = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+        year += marchMonth0 / 10 + adjust;
+
+        if (year > 9999) {
+            return null;
+        }
+
+        final char[] buffer = new char[MAX_LENGTH];
+
+        int pos = 0;
+
+        pos = digits(buffer, pos, (int) year / 100);
+        pos = digits(buffer, pos, (int) year % 100);
+        buffer[pos++] = '-';
+        pos = digits(buffer, pos, month);
+        buffer[pos++] = '-';
+        pos = digits(buffer, pos, day);
+        buffer[pos++] = 'T';
+        pos = digits(buffer, pos, secondOfDay / 3600);
+        buffer[pos++] = ':';
+        pos = digits(buffer, pos, secondOfDay / 60 % 60);
+        buffer[pos++] = ':';
+        pos = digits(buffer, pos, secondOfDay % 60);
+
+        if (nano > 0) {
+            buffer[pos++] = '.';
+            pos = fraction(buffer, pos, nano, layout);
+        }
+
+        buffer[pos++] = 'Z';
+
+        return new String(buffer, 0, pos);
+    }
+
+    private static int digits(final char[] buffer, final int pos, final int value) {
+        buffer[pos] = (char) ('0' + value / 10);
+        buffer[pos + 1] = (char) ('0' + value % 10);
+        return pos + 2;
+    }
+
+    private static int fraction(final char[] buffer, int pos, final int nano, final Layout layout) {
+        final int len;
+
+        switch (layout) {
+        case INSTANT:
+            if (nano % 1_000_000 == 0) {
+                len = 3;
+            } else if (nano % 1_000 == 0) {
+                len = 6;
+            } else {
+                len = 9;
+            }
+            break;
+        default:
+            int value = nano;
+            int trailing = 0;
+            while (value % 10 == 0) {
+                value /= 10;
+                trailing++;
+            }
+            len = 9 - trailing;
+            break;
+        }
+
+        int divisor = 100_000_000;
+        for (int i = 0; i < len; i++) {
+            buffer[pos++] = (char) ('0' + nano / divisor % 10);
+            divisor /= 10;
+        }
+
+        return pos;
+    }
+
+    static Instant parse(final String value) {
+        final int len = value.length();
+
+        // "yyyy-MM-ddTHH:mm:ssZ" is the shortest accepted form
+
+        if (len < 20 || len > MAX_LENGTH || value.charAt(len - 1) != 'Z') {
+            return null;
+        }
+
+        if (value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T' || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return null;
+        }
+
+        final int year = number(value, 0, 4);
+        final int month = number(value, 5, 7);
+        final int day = number(value, 8, 10);
+        final int hour = number(value, 11, 13);
+        final int minute = number(value, 14, 16);
+        final int second = number(value, 17, 19);
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0
+                || second > 59) {
+            return null;
+        }
+
+        int nano = 0;
+
+        if (len > 20) {
+            // fraction of second, 1 to 9 digits
+            if (value.charAt(19) != '.' || len == 21) {
+                return null;
+            }
+            final int fraction = number(value, 20, len - 1);
+            if (fraction < 0) {
+                return null;
+            }
+            nano = fraction;
+            for (int i = len - 1 - 20; i < 9; i++) {
+                nano *= 10;
+            }
+        }
+
+        final long epochSecond = toEpochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+
+        return Instant.ofEpochSecond(epochSecond, nano);
+    }
+
+    /**
+     * Parse a sequence of ASCII digits
+     *
+     * @return the value, or {@code -1} if there was any other character
+     */
+    private static int number(final String value, final int from, final int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isLeapYear(final long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+        case 2:
+            return isLeapYear(year) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    private static long toEpochDay(final long year, final int month, final int day) {
+        // see LocalDate.toEpochDay, for positive years only
+        long total = 365 * year;
+        total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
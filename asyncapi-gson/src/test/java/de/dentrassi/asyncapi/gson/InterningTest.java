@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.JsonAdapter;
+
+import de.dentrassi.asyncapi.util.StringCache;
+
+public class InterningTest {
+
+    public static class TestPayload {
+
+        @JsonAdapter(InterningStringTypeAdapter.class)
+        private String name;
+
+        private String other;
+    }
+
+    @Test
+    public void testAdapter() {
+        final Gson gson = new Gson();
+
+        final TestPayload p1 = gson.fromJson("{\"name\":\"device-1\",\"other\":\"device-1\"}", TestPayload.class);
+        final TestPayload p2 = gson.fromJson("{\"name\":\"device-1\",\"other\":\"device-1\"}", TestPayload.class);
+
+        Assert.assertEquals("device-1", p1.name);
+        Assert.assertSame(p1.name, p2.name);
+        Assert.assertNotSame(p1.other, p2.other);
+    }
+
+    @Test
+    public void testAdapterNull() {
+        final TestPayload p = new Gson().fromJson("{\"name\":null}", TestPayload.class);
+        Assert.assertNull(p.name);
+    }
+
+    @Test
+    public void testCharBuffer() {
+        final StringCache cache = new StringCache(16, 8);
+
+        final char[] buffer = "xxfooxx".toCharArray();
+
+        final String s1 = cache.intern(buffer, 2, 3);
+        final String s2 = cache.intern(buffer, 2, 3);
+
+        Assert.assertEquals("foo", s1);
+        Assert.assertSame(s1, s2);
+        Assert.assertSame(s1, cache.intern(new String("foo")));
+    }
+
+    @Test
+    public void testMaxLength() {
+        final StringCache cache = new StringCache(16, 4);
+
+        final String s1 = cache.intern(new String("too long"));
+        final String s2 = cache.intern(new String("too long"));
+
+        Assert.assertEquals(s1, s2);
+        Assert.assertNotSame(s1, s2);
+    }
+}
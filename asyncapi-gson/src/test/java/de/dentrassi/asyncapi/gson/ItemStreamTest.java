@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson;
+
+import java.io.Serializable;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.format.TextPayloadFormat;
+
+public class ItemStreamTest {
+
+    public static class Reading {
+        private String sensor;
+        private double[] values;
+    }
+
+    private final GsonPayloadFormat format = new GsonPayloadFormat();
+
+    @Test
+    public void testDecode() throws Exception {
+        final Spliterator<Reading> items = this.format.decodeItems(Reading.class, new StringReader("[{\"sensor\":\"a\",\"values\":[1,2]},null,{\"sensor\":\"b\"}]"));
+
+        final List<Reading> result = StreamSupport.stream(items, false).collect(Collectors.toList());
+
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals("a", result.get(0).sensor);
+        Assert.assertArrayEquals(new double[] { 1, 2 }, result.get(0).values, 0.0);
+        Assert.assertNull(result.get(1));
+        Assert.assertEquals("b", result.get(2).sensor);
+        Assert.assertNull(result.get(2).values);
+
+        Assert.assertFalse(items.tryAdvance(item -> Assert.fail()));
+        Assert.assertNull(items.trySplit());
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        Assert.assertEquals(0, StreamSupport.stream(this.format.decodeItems(Reading.class, new StringReader("[]")), false).count());
+        Assert.assertEquals(0, StreamSupport.stream(this.format.decodeItems(Reading.class, new StringReader("null")), false).count());
+    }
+
+    /**
+     * Formats which do not decode items one by one, decode the whole array
+     */
+    @Test
+    public void testDefault() throws Exception {
+        final TextPayloadFormat delegating = new TextPayloadFormat() {
+
+            @Override
+            public String encode(final Message<?> message) throws Exception {
+                return ItemStreamTest.this.format.encode(message);
+            }
+
+            @Override
+            public <M extends Message<P>, P extends Serializable> M decode(final Class<M> clazz, final Class<P> payloadClazz, final String message) throws Exception {
+                return ItemStreamTest.this.format.decode(clazz, payloadClazz, message);
+            }
+        };
+
+        final List<Reading> result = StreamSupport.stream(delegating.decodeItems(Reading.class, new StringReader("[{\"sensor\":\"a\"},{\"sensor\":\"b\"}]")), false)
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals("a", result.get(0).sensor);
+        Assert.assertEquals("b", result.get(1).sensor);
+
+        Assert.assertEquals(0, StreamSupport.stream(delegating.decodeItems(Reading.class, new StringReader("null")), false).count());
+    }
+
+    /**
+     * Items are decoded one by one, so the first items can be processed even
+     * if the array is broken at the end
+     */
+    @Test
+    public void testIncremental() throws Exception {
+        final int count = 100_000;
+
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            sb.append("{\"sensor\":\"s").append(i).append("\",\"values\":[").append(i).append("]},");
+        }
+        sb.append("{\"sensor\":");
+
+        final Spliterator<Reading> items = this.format.decodeItems(Reading.class, new StringReader(sb.toString()));
+
+        final List<String> first = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(items.tryAdvance(item -> first.add(item.sensor)));
+        }
+        Assert.assertEquals(3, first.size());
+        Assert.assertEquals("s2", first.get(2));
+
+        final int[] processed = new int[1];
+        try {
+            items.forEachRemaining(item -> processed[0]++);
+            Assert.fail("Must fail on the broken item");
+        } catch (final RuntimeException e) {
+            // expected
+        }
+
+        Assert.assertEquals(count - 3, processed[0]);
+    }
+}
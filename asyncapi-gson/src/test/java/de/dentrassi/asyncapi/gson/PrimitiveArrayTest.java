@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson;
+
+import java.io.Serializable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import de.dentrassi.asyncapi.Message;
+
+public class PrimitiveArrayTest {
+
+    public static class TestPayload implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int[] ints;
+        private long[] longs;
+        private float[] floats;
+        private double[] doubles;
+    }
+
+    public static class TestMessage implements Message<TestPayload> {
+
+        private TestPayload payload;
+
+        @Override
+        public void setPayload(final TestPayload payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public TestPayload getPayload() {
+            return this.payload;
+        }
+
+    }
+
+    private static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new PrimitiveArrayTypeAdapterFactory()).create();
+
+    @Test
+    public void testEncode() throws Exception {
+        final TestPayload payload = new TestPayload();
+        payload.ints = new int[] { 1, -2 };
+        payload.longs = new long[] { Long.MAX_VALUE };
+        payload.floats = new float[] { 0.1f, 2f };
+        payload.doubles = new double[] {};
+
+        Assert.assertEquals("{\"ints\":[1,-2],\"longs\":[9223372036854775807],\"floats\":[0.1,2.0],\"doubles\":[]}", GSON.toJson(payload));
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        final TestPayload payload = GSON.fromJson("{\"ints\":[1,-2],\"longs\":[9223372036854775807],\"floats\":[0.1,2],\"doubles\":null}", TestPayload.class);
+
+        Assert.assertArrayEquals(new int[] { 1, -2 }, payload.ints);
+        Assert.assertArrayEquals(new long[] { Long.MAX_VALUE }, payload.longs);
+        Assert.assertArrayEquals(new float[] { 0.1f, 2f }, payload.floats, 0f);
+        Assert.assertNull(payload.doubles);
+    }
+
+    /**
+     * Decode arrays larger than the initial buffer, one after the other
+     */
+    @Test
+    public void testDecodeLarge() throws Exception {
+        for (final int size : new int[] { 1_000, 10, 100_000, 0 }) {
+            final StringBuilder json = new StringBuilder("{\"doubles\":[");
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append(i).append(".5");
+            }
+            json.append("]}");
+
+            final double[] doubles = GSON.fromJson(json.toString(), TestPayload.class).doubles;
+
+            Assert.assertEquals(size, doubles.length);
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals(i + 0.5, doubles[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testPayloadFormat() throws Exception {
+        final GsonPayloadFormat format = new GsonPayloadFormat();
+
+        final TestMessage message = format.decode(TestMessage::new, TestPayload.class, "{\"doubles\":[1.5,2.5]}");
+        Assert.assertArrayEquals(new double[] { 1.5, 2.5 }, message.getPayload().doubles, 0.0);
+
+        Assert.assertEquals("{\"doubles\":[1.5,2.5]}", format.encode(message));
+    }
+}
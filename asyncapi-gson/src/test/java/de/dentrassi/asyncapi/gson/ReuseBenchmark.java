@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson;
+
+import java.lang.management.ManagementFactory;
+
+import de.dentrassi.asyncapi.gson.ReuseTest.TestMessage;
+import de.dentrassi.asyncapi.gson.ReuseTest.TestPayload;
+
+/**
+ * Compare the allocation rate of decoding into new instances with decoding
+ * into existing instances
+ */
+public class ReuseBenchmark {
+
+    private static final String JSON = "{\"name\":\"foo\",\"value\":42}";
+
+    private static final int WARMUP = 200_000;
+
+    private static final int ITERATIONS = 1_000_000;
+
+    public static void main(final String[] args) throws Exception {
+        final GsonPayloadFormat format = new GsonPayloadFormat();
+
+        // warm up
+
+        run(format, false, WARMUP);
+        run(format, true, WARMUP);
+
+        // measure
+
+        for (int i = 0; i < 3; i++) {
+            measure("new instances", format, false);
+            measure("re-used instances", format, true);
+        }
+    }
+
+    private static void measure(final String label, final GsonPayloadFormat format, final boolean reuse) throws Exception {
+        final long start = allocatedBytes();
+        final long startTime = System.nanoTime();
+
+        run(format, reuse, ITERATIONS);
+
+        final long duration = System.nanoTime() - startTime;
+        final long allocated = allocatedBytes() - start;
+
+        System.out.format("%-20s %8.1f bytes/msg %8.1f ns/msg%n", label, (double) allocated / ITERATIONS, (double) duration / ITERATIONS);
+    }
+
+    private static long run(final GsonPayloadFormat format, final boolean reuse, final int iterations) throws Exception {
+        long sum = 0;
+
+        TestMessage message = format.decode(TestMessage.class, TestPayload.class, JSON);
+
+        for (int i = 0; i < iterations; i++) {
+            if (reuse) {
+                message = format.decodeInto(message, TestPayload.class, JSON);
+            } else {
+                message = format.decode(TestMessage.class, TestPayload.class, JSON);
+            }
+            sum += message.getPayload().getValue();
+        }
+
+        return sum;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson;
+
+import java.io.Serializable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.Resettable;
+
+public class ReuseTest {
+
+    public static class TestPayload implements Serializable, Resettable {
+        private static final long serialVersionUID = 1L;
+
+        private String name;
+
+        private Integer value;
+
+        private TestPayload child;
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public Integer getValue() {
+            return this.value;
+        }
+
+        public void setValue(final Integer value) {
+            this.value = value;
+        }
+
+        public TestPayload getChild() {
+            return this.child;
+        }
+
+        public void setChild(final TestPayload child) {
+            this.child = child;
+        }
+
+        @Override
+        public void reset() {
+            this.name = null;
+            this.value = null;
+            this.child = null;
+        }
+    }
+
+    public static class TestMessage implements Message<TestPayload> {
+
+        private TestPayload payload;
+
+        @Override
+        public void setPayload(final TestPayload payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public TestPayload getPayload() {
+            return this.payload;
+        }
+
+    }
+
+    @Test
+    public void testDecodeInto() throws Exception {
+        final GsonPayloadFormat format = new GsonPayloadFormat();
+
+        final TestMessage message = format.decode(TestMessage.class, TestPayload.class, "{\"name\":\"foo\",\"value\":1}");
+        final TestPayload payload = message.getPayload();
+
+        final TestMessage result = format.decodeInto(message, TestPayload.class, "{\"name\":\"bar\",\"child\":{\"name\":\"baz\"}}");
+
+        // message and payload are re-used
+
+        Assert.assertSame(message, result);
+        Assert.assertSame(payload, result.getPayload());
+
+        // values are replaced, missing values are reset
+
+        Assert.assertEquals("bar", payload.getName());
+        Assert.assertNull(payload.getValue());
+
+        // nested objects of the same type are new instances
+
+        Assert.assertNotNull(payload.getChild());
+        Assert.assertNotSame(payload, payload.getChild());
+        Assert.assertEquals("baz", payload.getChild().getName());
+    }
+
+    @Test
+    public void testDecodeIntoWithoutPayload() throws Exception {
+        final GsonPayloadFormat format = new GsonPayloadFormat();
+
+        final TestMessage message = new TestMessage();
+
+        final TestMessage result = format.decodeInto(message, TestPayload.class, "{\"name\":\"bar\"}");
+
+        Assert.assertEquals("bar", result.getPayload().getName());
+    }
+}
@@ -16,6 +16,8 @@
 
 package de.dentrassi.asyncapi.gson;
 
+import static de.dentrassi.asyncapi.gson.time.DateTimeStrategy.EPOCH_MICROS;
+import static de.dentrassi.asyncapi.gson.time.DateTimeStrategy.EPOCH_MILLIS;
 import static de.dentrassi.asyncapi.gson.time.DateTimeStrategy.ISO_8601_UTC;
 import static de.dentrassi.asyncapi.gson.time.DateTimeStrategy.ISO_8601_ZONED;
 
@@ -24,6 +26,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -143,6 +146,48 @@ public class TimeTests {
         Assert.assertEquals(zonedDateTime, decode.getPayload().getZonedDateTime());
     }
 
+    @Test
+    public void testEpochMillis() throws Exception {
+        assertEpoch(new GsonPayloadFormat(EPOCH_MILLIS), ChronoUnit.MILLIS);
+    }
+
+    @Test
+    public void testEpochMicros() throws Exception {
+        assertEpoch(new GsonPayloadFormat(EPOCH_MICROS), ChronoUnit.MICROS);
+    }
+
+    private void assertEpoch(final GsonPayloadFormat format, final ChronoUnit unit) throws Exception {
+
+        // setup
+
+        final Instant instant = Instant.parse("1969-12-31T23:59:59.123456789Z");
+        final ZonedDateTime zonedDateTime = Instant.now().atZone(ZoneId.of("CET"));
+
+        final TestMessage message = createMessage(instant, zonedDateTime);
+
+        // encode
+
+        final String json = format.encode(message);
+
+        // decode
+
+        final TestMessage decode = format.decode(TestMessage.class, TestPayload.class, json);
+
+        // assert
+
+        /*
+         * Values get truncated to the resolution of the encoding
+         */
+
+        Assert.assertEquals(instant.truncatedTo(unit), decode.getPayload().getInstant());
+
+        /*
+         * The zoned date time will loose its timezone and fall back to UTC
+         */
+
+        Assert.assertEquals(zonedDateTime.withZoneSameInstant(ZoneOffset.UTC).truncatedTo(unit), decode.getPayload().getZonedDateTime());
+    }
+
     private TestMessage createMessage(final Instant instant, final ZonedDateTime zonedDateTime) {
         final TestPayload payload = new TestPayload();
         payload.setInstant(instant);
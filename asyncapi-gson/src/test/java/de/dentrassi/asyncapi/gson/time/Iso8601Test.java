@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.gson.time;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.gson.time.Iso8601.Layout;
+
+public class Iso8601Test {
+
+    private static final long MIN_SECOND = Instant.parse("0000-01-01T00:00:00Z").getEpochSecond();
+
+    private static final long MAX_SECOND = Instant.parse("9999-12-31T23:59:59Z").getEpochSecond();
+
+    @Test
+    public void testFormatInstant() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            final Instant instant = randomInstant(random);
+            Assert.assertEquals(DateTimeFormatter.ISO_INSTANT.format(instant), Iso8601.format(instant.getEpochSecond(), instant.getNano(), Layout.INSTANT));
+        }
+    }
+
+    @Test
+    public void testFormatDateTime() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            final ZonedDateTime value = randomInstant(random).atZone(ZoneOffset.UTC);
+            Assert.assertEquals(DateTimeFormatter.ISO_DATE_TIME.format(value), Iso8601.format(value.toEpochSecond(), value.getNano(), Layout.DATE_TIME));
+        }
+    }
+
+    @Test
+    public void testParse() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            final Instant instant = randomInstant(random);
+            Assert.assertEquals(instant, Iso8601.parse(DateTimeFormatter.ISO_INSTANT.format(instant)));
+            Assert.assertEquals(instant, Iso8601.parse(DateTimeFormatter.ISO_DATE_TIME.format(instant.atZone(ZoneOffset.UTC))));
+        }
+    }
+
+    @Test
+    public void testOutOfRange() {
+        Assert.assertNull(Iso8601.format(MAX_SECOND + 1, 0, Layout.INSTANT));
+        Assert.assertNull(Iso8601.format(MIN_SECOND - 1, 0, Layout.INSTANT));
+    }
+
+    @Test
+    public void testParseFallback() {
+        // not handled by the fast path, left to the formatter
+
+        Assert.assertNull(Iso8601.parse("2017-01-01T00:00:00+01:00"));
+        Assert.assertNull(Iso8601.parse("2017-01-01T00:00Z"));
+        Assert.assertNull(Iso8601.parse("+12017-01-01T00:00:00Z"));
+        Assert.assertNull(Iso8601.parse("2017-01-01T00:00:00.Z"));
+        Assert.assertNull(Iso8601.parse("2017-01-01T00:00:00.1234567890Z"));
+
+        // invalid values
+
+        Assert.assertNull(Iso8601.parse("2017-02-29T00:00:00Z"));
+        Assert.assertNull(Iso8601.parse("2017-01-01T24:00:00Z"));
+        Assert.assertNull(Iso8601.parse("2017-01-01T00:60:00Z"));
+        Assert.assertNull(Iso8601.parse("2017-13-01T00:00:00Z"));
+        Assert.assertNull(Iso8601.parse("2017-01-0aT00:00:00Z"));
+    }
+
+    private static Instant randomInstant(final Random random) {
+        final long second = MIN_SECOND + (long) (random.nextDouble() * (MAX_SECOND - MIN_SECOND));
+
+        final int nano;
+        switch (random.nextInt(4)) {
+        case 0:
+            nano = 0;
+            break;
+        case 1:
+            nano = random.nextInt(1_000) * 1_000_000;
+            break;
+        case 2:
+            nano = random.nextInt(1_000_000) * 1_000;
+            break;
+        default:
+            nano = random.nextInt(1_000_000_000);
+            break;
+        }
+
+        return Instant.ofEpochSecond(second, nano);
+    }
+}
@@ -17,14 +17,23 @@
 package de.dentrassi.asyncapi.jms;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
 import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
 
 import de.dentrassi.asyncapi.Connector;
+import de.dentrassi.asyncapi.ListenerHandle;
+import de.dentrassi.asyncapi.Subscribe;
 import de.dentrassi.asyncapi.format.TextPayloadFormat;
 
 public class AbstractJmsConnector implements Connector, AutoCloseable {
@@ -37,6 +46,8 @@ public class AbstractJmsConnector implements Connector, AutoCloseable {
         private String username;
         private String password;
 
+        private boolean reuseMessages;
+
         protected Builder() {
         }
 
@@ -89,11 +100,136 @@ public class AbstractJmsConnector implements Connector, AutoCloseable {
         public String password() {
             return this.password;
         }
+
+        /**
+         * Re-use message instances when receiving
+         * <p>
+         * If enabled, each subscription will decode received messages into the
+         * same message and payload instance, as far as the payload format
+         * supports this. This reduces the number of allocated objects, but
+         * requires subscribers to copy all information they want to keep
+         * beyond the invocation of their handler.
+         * </p>
+         * <p>
+         * This is disabled by default.
+         * </p>
+         *
+         * @param reuseMessages
+         *            {@code true} to re-use message instances
+         * @return the builder instance
+         */
+        public Builder<C> reuseMessages(final boolean reuseMessages) {
+            this.reuseMessages = reuseMessages;
+            return this;
+        }
+
+        public boolean reuseMessages() {
+            return this.reuseMessages;
+        }
+    }
+
+    /**
+     * Publishes the messages of a single forwarding subscription
+     * <p>
+     * Messages of a subscription are handled one after the other, so the
+     * session and the producer are created once, and re-used for all
+     * messages. If sending fails, they get re-created for the next message.
+     * </p>
+     */
+    private class Forwarder implements Consumer<Message>, AutoCloseable {
+
+        private final String topic;
+
+        private Session session;
+        private MessageProducer producer;
+        private boolean closed;
+
+        public Forwarder(final String topic) {
+            this.topic = topic;
+        }
+
+        @Override
+        public synchronized void accept(final Message message) {
+            if (this.closed) {
+                throw new IllegalStateException("Forwarding is closed");
+            }
+
+            try {
+                if (this.producer == null) {
+                    this.session = AbstractJmsConnector.this.connection.createSession();
+                    this.producer = this.session.createProducer(this.session.createTopic(this.topic));
+                }
+
+                send(this.producer, message);
+            } catch (final JMSException e) {
+                closeSession();
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            this.closed = true;
+            closeSession();
+        }
+
+        private void closeSession() {
+            final Session session = this.session;
+
+            this.session = null;
+            this.producer = null;
+
+            if (session != null) {
+                try {
+                    // also closes the producer
+                    session.close();
+                } catch (final JMSException e) {
+                    // nothing we can do about it
+                }
+            }
+        }
+    }
+
+    /**
+     * The handle of a forwarding subscription, also closing the forwarder
+     */
+    private static class ForwardHandle extends CompletableFuture<Void> implements ListenerHandle {
+
+        private final ListenerHandle subscription;
+        private final Forwarder forwarder;
+
+        public ForwardHandle(final ListenerHandle subscription, final Forwarder forwarder) {
+            this.subscription = subscription;
+            this.forwarder = forwarder;
+
+            subscription.whenComplete((v, e) -> {
+                if (e != null) {
+                    completeExceptionally(e);
+                } else {
+                    complete(null);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws Exception {
+            try {
+                this.subscription.close();
+            } finally {
+                this.forwarder.close();
+            }
+        }
     }
 
     protected final Connection connection;
     protected final ExecutorService executor;
 
+    protected final JmsPayloadFormat payloadFormat;
+    protected final String baseTopic;
+    protected final boolean reuseMessages;
+
+    private final Function<String, String> topicMapper;
+
     protected AbstractJmsConnector(final AbstractJmsConnector.Builder<?> builder) throws JMSException {
 
         Objects.requireNonNull(builder.profile(), "JMS profile is not set");
@@ -112,6 +248,132 @@ public class AbstractJmsConnector implements Connector, AutoCloseable {
         this.connection.start();
 
         this.executor = Executors.newCachedThreadPool();
+
+        // keep what is required to create services later on
+
+        this.payloadFormat = builder.payloadFormat();
+        this.baseTopic = builder.baseTopic();
+        this.reuseMessages = builder.reuseMessages();
+
+        this.topicMapper = AbstractJmsServiceImpl.topicMapper(this.baseTopic);
+    }
+
+    /**
+     * Subscribe to the encoded messages of a topic
+     * <p>
+     * The messages will be handed over as they were received, without being
+     * decoded by the payload format.
+     * </p>
+     *
+     * @param localTopicName
+     *            the topic name, as defined in the API, without the base topic
+     * @return the subscriber, never {@code null}
+     */
+    public Subscribe<Message> subscribeRaw(final String localTopicName) {
+        return new JmsRawSubscriber(fullTopic(localTopicName), this.connection, this.executor);
+    }
+
+    /**
+     * Publish an encoded message to a topic
+     * <p>
+     * The message is sent as it is, it will not be re-encoded. Payload,
+     * properties, delivery mode, priority and the remaining time to live are
+     * taken from the provided message.
+     * </p>
+     * <p>
+     * This method will block until the message has been sent. It creates a
+     * new session for every message, use
+     * {@link #forward(String, AbstractJmsConnector, String)} for forwarding a
+     * stream of messages.
+     * </p>
+     *
+     * @param localTopicName
+     *            the topic name, as defined in the API, without the base topic
+     * @param message
+     *            the message to send, e.g. received from
+     *            {@link #subscribeRaw(String)}
+     * @throws JMSException
+     *             if sending the message failed
+     */
+    public void publishRaw(final String localTopicName, final Message message) throws JMSException {
+        Objects.requireNonNull(message);
+
+        try (final Session session = this.connection.createSession()) {
+
+            final Destination destination = session.createTopic(fullTopic(localTopicName));
+
+            try (final MessageProducer producer = session.createProducer(destination)) {
+                send(producer, message);
+            }
+        }
+    }
+
+    private static void send(final MessageProducer producer, final Message message) throws JMSException {
+        final long expiration = message.getJMSExpiration();
+        final long timeToLive;
+        if (expiration > 0) {
+            timeToLive = Math.max(1, expiration - System.currentTimeMillis());
+        } else {
+            timeToLive = Message.DEFAULT_TIME_TO_LIVE;
+        }
+
+        producer.send(message, message.getJMSDeliveryMode(), message.getJMSPriority(), timeToLive);
+    }
+
+    /**
+     * Forward all messages of a topic to another connector
+     * <p>
+     * This is the same as calling {@link #forward(String, AbstractJmsConnector,
+     * String)} with the same topic name for both connectors.
+     * </p>
+     *
+     * @param localTopicName
+     *            the topic name, as defined in the API, without the base topic
+     * @param target
+     *            the connector to forward messages to
+     * @return the handle of the subscription, closing it stops forwarding
+     */
+    public ListenerHandle forward(final String localTopicName, final AbstractJmsConnector target) {
+        return forward(localTopicName, target, localTopicName);
+    }
+
+    /**
+     * Forward all messages of a topic to another connector
+     * <p>
+     * Messages are received and published in their encoded form, they are not
+     * decoded or re-encoded by the payload formats of the connectors. Only the
+     * topic name gets mapped, according to the base topic of each connector.
+     * </p>
+     * <p>
+     * A message gets acknowledged after it was sent by the target connector.
+     * If sending fails, the message will be redelivered.
+     * </p>
+     * <p>
+     * The target connector uses a single session for all messages of a
+     * forwarding subscription, which gets closed with the returned handle.
+     * </p>
+     *
+     * @param localTopicName
+     *            the topic name to subscribe to, as defined in the API, without
+     *            the base topic
+     * @param target
+     *            the connector to forward messages to
+     * @param targetLocalTopicName
+     *            the topic name to publish to, as defined in the API, without
+     *            the base topic
+     * @return the handle of the subscription, closing it stops forwarding
+     */
+    public ListenerHandle forward(final String localTopicName, final AbstractJmsConnector target, final String targetLocalTopicName) {
+        Objects.requireNonNull(target);
+        Objects.requireNonNull(targetLocalTopicName);
+
+        final Forwarder forwarder = target.new Forwarder(target.fullTopic(targetLocalTopicName));
+
+        return new ForwardHandle(subscribeRaw(localTopicName).subscribe(forwarder), forwarder);
+    }
+
+    protected String fullTopic(final String topic) {
+        return this.topicMapper.apply(topic);
     }
 
     @Override
@@ -21,6 +21,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.jms.Connection;
 import javax.jms.Destination;
@@ -29,6 +30,8 @@ import javax.jms.Session;
 
 import de.dentrassi.asyncapi.Message;
 import de.dentrassi.asyncapi.Publish;
+import de.dentrassi.asyncapi.delta.DeltaCodec;
+import de.dentrassi.asyncapi.util.Factories;
 
 public abstract class AbstractJmsServiceImpl {
 
@@ -36,20 +39,33 @@ public abstract class AbstractJmsServiceImpl {
     private final Executor executor;
     private final JmsPayloadFormat payloadFormat;
     private final Function<String, String> topicMapper;
+    private final boolean reuseMessages;
 
     public AbstractJmsServiceImpl(final Connection connection, final Executor executor, final JmsPayloadFormat payloadFormat, final String baseTopic) {
+        this(connection, executor, payloadFormat, baseTopic, false);
+    }
+
+    public AbstractJmsServiceImpl(final Connection connection, final Executor executor, final JmsPayloadFormat payloadFormat, final String baseTopic,
+            final boolean reuseMessages) {
         this.connection = connection;
         this.executor = executor;
         this.payloadFormat = payloadFormat;
-        this.topicMapper = baseTopic == null || baseTopic.isEmpty() ? topic -> topic : topic -> baseTopic + "." + topic;
+        this.topicMapper = topicMapper(baseTopic);
+        this.reuseMessages = reuseMessages;
+    }
+
+    static Function<String, String> topicMapper(final String baseTopic) {
+        return baseTopic == null || baseTopic.isEmpty() ? topic -> topic : topic -> baseTopic + "." + topic;
     }
 
     protected <T extends Message<?>> Publish<T> createPublisher(final String localTopicName) {
+        final String topic = fullTopic(localTopicName);
+
         return new Publish<T>() {
 
             @Override
             public CompletionStage<?> publish(final T message) {
-                return publishMessage(fullTopic(localTopicName), message);
+                return publishMessage(topic, message);
             }
         };
     }
@@ -84,7 +100,26 @@ public abstract class AbstractJmsServiceImpl {
     }
 
     protected <M extends Message<P>, P extends Serializable> JmsSubscriber<M, P> createSubscriber(final String localTopicName, final Class<M> clazz, final Class<P> payloadClazz) {
-        return new JmsSubscriber<>(clazz, payloadClazz, this.payloadFormat, fullTopic(localTopicName), this.connection, this.executor);
+        return createSubscriber(localTopicName, Factories.reflective(clazz), payloadClazz);
+    }
+
+    protected <M extends Message<P>, P extends Serializable> JmsSubscriber<M, P> createSubscriber(final String localTopicName, final Supplier<M> messageFactory,
+            final Class<P> payloadClazz) {
+        return new JmsSubscriber<>(messageFactory, payloadClazz, this.payloadFormat, fullTopic(localTopicName), this.connection, this.executor, this.reuseMessages);
+    }
+
+    protected <T> JmsItemSubscriber<T> createItemSubscriber(final String localTopicName, final Class<T> itemClazz) {
+        return new JmsItemSubscriber<>(itemClazz, this.payloadFormat, fullTopic(localTopicName), this.connection, this.executor);
+    }
+
+    protected <M extends Message<P>, P extends Serializable> JmsDeltaPublisher<M, P> createDeltaPublisher(final String localTopicName, final Supplier<M> messageFactory,
+            final DeltaCodec<P> codec, final Function<P, String> keyFunction, final int keyframeInterval) {
+        return new JmsDeltaPublisher<>(messageFactory, codec, keyFunction, keyframeInterval, this.payloadFormat, fullTopic(localTopicName), this.connection, this.executor);
+    }
+
+    protected <M extends Message<P>, P extends Serializable> JmsDeltaSubscriber<M, P> createDeltaSubscriber(final String localTopicName, final Supplier<M> messageFactory,
+            final Class<P> payloadClazz, final DeltaCodec<P> codec) {
+        return new JmsDeltaSubscriber<>(messageFactory, payloadClazz, codec, this.payloadFormat, fullTopic(localTopicName), this.connection, this.executor);
     }
 
     protected String fullTopic(final String topic) {
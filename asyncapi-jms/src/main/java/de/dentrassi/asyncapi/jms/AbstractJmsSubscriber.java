@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.jms;
+
+import java.util.LinkedList;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.dentrassi.asyncapi.ListenerHandle;
+import de.dentrassi.asyncapi.Subscribe;
+
+/**
+ * Common base for JMS based subscribers
+ * <p>
+ * Implementations only need to convert the received JMS message into the
+ * type handed over to the consumer.
+ * </p>
+ *
+ * @param <T>
+ *            The type handed over to the consumer
+ */
+public abstract class AbstractJmsSubscriber<T> implements Subscribe<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractJmsSubscriber.class);
+
+    private class HandleImpl extends CompletableFuture<Void> implements ListenerHandle {
+
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private Session session;
+        private MessageConsumer consumer;
+        private final BiConsumer<Session, T> handler;
+        private T last;
+
+        public HandleImpl(final BiConsumer<Session, T> consumer) {
+            this.handler = consumer;
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (this.closed.compareAndSet(false, true)) {
+                whenComplete((v, e) -> {
+                    try {
+                        internalClose();
+                    } catch (final Exception e1) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            }
+        }
+
+        private void internalClose() throws Exception {
+            LinkedList<Exception> errors = null;
+
+            if (this.consumer != null) {
+                try {
+                    this.consumer.close();
+                } catch (final Exception e) {
+                    if (errors == null) {
+                        errors = new LinkedList<>();
+                    }
+                    errors.add(e);
+                }
+            }
+            if (this.session != null) {
+                try {
+                    this.session.close();
+                } catch (final Exception e) {
+                    if (errors == null) {
+                        errors = new LinkedList<>();
+                    }
+                    errors.add(e);
+                }
+            }
+
+            if (errors != null && !errors.isEmpty()) {
+                final Exception e = errors.pollFirst();
+                errors.stream().forEach(e::addSuppressed);
+                throw e;
+            }
+        }
+
+        protected void subscribe() {
+            try {
+                this.session = AbstractJmsSubscriber.this.connection.createSession(Session.CLIENT_ACKNOWLEDGE);
+                final Destination destination = this.session.createTopic(AbstractJmsSubscriber.this.topic);
+                this.consumer = this.session.createConsumer(destination);
+                this.consumer.setMessageListener(this::processMessage);
+
+                complete(null);
+            } catch (final Exception e) {
+                completeExceptionally(e);
+            }
+        }
+
+        protected void processMessage(final Message message) {
+            logger.debug("Received message: {}", message);
+
+            try {
+                final T m = decode(message, this.last);
+                if (m != null) {
+                    if (keepPrevious()) {
+                        this.last = m;
+                    }
+                    this.handler.accept(this.session, m);
+                }
+                message.acknowledge();
+            } catch (final Exception e) {
+                logger.debug("Failed to handle message", e);
+                try {
+                    this.session.recover();
+                } catch (final JMSException e1) {
+                    // FIXME: we need to handle this somehow
+                    // possible solution, re-create session
+                }
+            }
+        }
+
+    };
+
+    private final String topic;
+    private final Connection connection;
+    private final Executor executor;
+
+    public AbstractJmsSubscriber(final String topic, final Connection connection, final Executor executor) {
+        this.topic = topic;
+        this.connection = connection;
+        this.executor = executor;
+    }
+
+    /**
+     * Convert a received JMS message
+     *
+     * @param message
+     *            the received message, never {@code null}
+     * @return the value to hand over to the consumer, may be {@code null} in
+     *         which case the message gets acknowledged but not processed
+     * @throws Exception
+     *             if anything goes wrong, the session will be recovered in
+     *             this case
+     */
+    protected abstract T decode(Message message) throws Exception;
+
+    /**
+     * Convert a received JMS message, possibly re-using a previous result
+     * <p>
+     * Messages of one handle are processed one after the other, so the
+     * previous result is no longer used by the consumer when this method gets
+     * called. The default implementation ignores the previous result and calls
+     * {@link #decode(Message)}.
+     * </p>
+     *
+     * @param message
+     *            the received message, never {@code null}
+     * @param previous
+     *            the last value which was handed over to the consumer of the
+     *            same handle, may be {@code null}
+     * @return the value to hand over to the consumer, may be {@code null} in
+     *         which case the message gets acknowledged but not processed
+     * @throws Exception
+     *             if anything goes wrong, the session will be recovered in
+     *             this case
+     */
+    protected T decode(final Message message, final T previous) throws Exception {
+        return decode(message);
+    }
+
+    /**
+     * Check if the last value should be kept, for being handed over to
+     * {@link #decode(Message, Object)}
+     * <p>
+     * The default implementation returns {@code true}.
+     * </p>
+     *
+     * @return {@code true} if the last value should be kept
+     */
+    protected boolean keepPrevious() {
+        return true;
+    }
+
+    @Override
+    public ListenerHandle subscribe(final Consumer<T> consumer) {
+        Objects.requireNonNull(consumer);
+
+        return subscribeWithSession((session, value) -> consumer.accept(value));
+    }
+
+    /**
+     * Subscribe, handing over the session of the subscription as well
+     * <p>
+     * The consumer gets called from the thread of control of the session, so
+     * it may use the session, e.g. for sending messages. It must not close the
+     * session.
+     * </p>
+     *
+     * @param consumer
+     *            the consumer of the session and the converted values
+     * @return the handle of the subscription
+     */
+    protected ListenerHandle subscribeWithSession(final BiConsumer<Session, T> consumer) {
+        Objects.requireNonNull(consumer);
+
+        final HandleImpl handle = new HandleImpl(consumer);
+
+        this.executor.execute(() -> {
+            handle.subscribe();
+        });
+
+        return handle;
+    }
+
+}
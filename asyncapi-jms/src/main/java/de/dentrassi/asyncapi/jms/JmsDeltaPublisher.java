@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.jms;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import de.dentrassi.asyncapi.ListenerHandle;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.Publish;
+import de.dentrassi.asyncapi.delta.DeltaCodec;
+import de.dentrassi.asyncapi.delta.DeltaEncoder;
+import de.dentrassi.asyncapi.delta.DeltaFrame;
+
+/**
+ * Publish delta encoded messages
+ * <p>
+ * The payload of a message contains only the changed properties, the frame
+ * information is carried as JMS properties. Keyframe requests of subscribers
+ * are received on the topic {@link #keyframeTopic(String)}, once the first
+ * message was published.
+ * </p>
+ *
+ * @param <M>
+ *            The message type
+ * @param <P>
+ *            The payload type
+ */
+public class JmsDeltaPublisher<M extends Message<P>, P extends Serializable> implements Publish<M> {
+
+    public static final String PROPERTY_KEY = "AsyncApiDeltaKey";
+    public static final String PROPERTY_SEQUENCE = "AsyncApiDeltaSequence";
+    public static final String PROPERTY_KEYFRAME = "AsyncApiDeltaKeyframe";
+    public static final String PROPERTY_CHANGES = "AsyncApiDeltaChanges";
+
+    private final Supplier<M> messageFactory;
+    private final JmsPayloadFormat payloadFormat;
+    private final String topic;
+    private final Connection connection;
+    private final Executor executor;
+
+    private final DeltaEncoder<P> encoder;
+
+    private ListenerHandle keyframeRequests;
+
+    public JmsDeltaPublisher(final Supplier<M> messageFactory, final DeltaCodec<P> codec, final Function<P, String> keyFunction, final int keyframeInterval,
+            final JmsPayloadFormat payloadFormat, final String topic, final Connection connection, final Executor executor) {
+        this.messageFactory = Objects.requireNonNull(messageFactory);
+        this.payloadFormat = payloadFormat;
+        this.topic = topic;
+        this.connection = connection;
+        this.executor = executor;
+        this.encoder = new DeltaEncoder<>(codec, keyFunction, keyframeInterval);
+    }
+
+    /**
+     * Get the topic used for requesting keyframes
+     *
+     * @param topic
+     *            the topic of the delta encoded messages
+     * @return the topic for requesting keyframes
+     */
+    public static String keyframeTopic(final String topic) {
+        return topic + ".keyframes";
+    }
+
+    @Override
+    public CompletionStage<?> publish(final M message) {
+        Objects.requireNonNull(message);
+
+        listenForKeyframeRequests();
+
+        final CompletableFuture<?> future = new CompletableFuture<>();
+
+        this.executor.execute(() -> {
+            try {
+                processPublishMessage(message.getPayload());
+                future.complete(null);
+            } catch (final Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    private synchronized void listenForKeyframeRequests() {
+        if (this.keyframeRequests != null) {
+            return;
+        }
+
+        final AbstractJmsSubscriber<String> subscriber = new AbstractJmsSubscriber<String>(keyframeTopic(this.topic), this.connection, this.executor) {
+
+            @Override
+            protected String decode(final javax.jms.Message message) throws Exception {
+                return message.getStringProperty(PROPERTY_KEY);
+            }
+        };
+
+        this.keyframeRequests = subscriber.subscribe(this.encoder::requestKeyframe);
+    }
+
+    protected void processPublishMessage(final P payload) throws Exception {
+        try (final Session session = this.connection.createSession()) {
+
+            final Destination destination = session.createTopic(this.topic);
+
+            try (final MessageProducer producer = session.createProducer(destination)) {
+                this.encoder.encode(payload, frame -> producer.send(encode(session, frame)));
+            }
+        }
+    }
+
+    private javax.jms.Message encode(final Session session, final DeltaFrame<P> frame) throws Exception {
+        final M message = this.messageFactory.get();
+        message.setPayload(frame.getPayload());
+
+        final javax.jms.Message result = this.payloadFormat.encode(session, message);
+
+        result.setStringProperty(PROPERTY_KEY, frame.getKey());
+        result.setLongProperty(PROPERTY_SEQUENCE, frame.getSequence());
+        result.setBooleanProperty(PROPERTY_KEYFRAME, frame.isKeyframe());
+        result.setLongProperty(PROPERTY_CHANGES, frame.getChanges());
+
+        return result;
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.jms;
+
+import static de.dentrassi.asyncapi.jms.JmsDeltaPublisher.PROPERTY_CHANGES;
+import static de.dentrassi.asyncapi.jms.JmsDeltaPublisher.PROPERTY_KEY;
+import static de.dentrassi.asyncapi.jms.JmsDeltaPublisher.PROPERTY_KEYFRAME;
+import static de.dentrassi.asyncapi.jms.JmsDeltaPublisher.PROPERTY_SEQUENCE;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.dentrassi.asyncapi.ListenerHandle;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.Subscribe;
+import de.dentrassi.asyncapi.delta.DeltaCodec;
+import de.dentrassi.asyncapi.delta.DeltaDecoder;
+import de.dentrassi.asyncapi.delta.DeltaEncoder;
+import de.dentrassi.asyncapi.delta.DeltaFrame;
+
+/**
+ * Subscribe to delta encoded messages
+ * <p>
+ * Every subscription reconstructs the full state on its own, and requests a
+ * keyframe from the publisher when it detects a gap. Messages without frame
+ * information are handled as keyframes.
+ * </p>
+ *
+ * @param <M>
+ *            The message type
+ * @param <P>
+ *            The payload type
+ * @see JmsDeltaPublisher
+ */
+public class JmsDeltaSubscriber<M extends Message<P>, P extends Serializable> implements Subscribe<M> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JmsDeltaSubscriber.class);
+
+    /**
+     * Sends keyframe requests of a single subscription
+     * <p>
+     * Gaps are detected while handling a received message, so requests are
+     * sent from the thread of control of the subscription's session, using
+     * that session.
+     * </p>
+     */
+    private class KeyframeRequester implements Consumer<String> {
+
+        private Session session;
+        private MessageProducer producer;
+
+        private void setSession(final Session session) {
+            if (this.session != session) {
+                // a new session, the producer of the old session is gone
+                this.session = session;
+                this.producer = null;
+            }
+        }
+
+        @Override
+        public void accept(final String key) {
+            logger.debug("Requesting keyframe - topic: {}, key: {}", JmsDeltaSubscriber.this.topic, key);
+
+            try {
+                if (this.producer == null) {
+                    final Destination destination = this.session.createTopic(JmsDeltaPublisher.keyframeTopic(JmsDeltaSubscriber.this.topic));
+                    this.producer = this.session.createProducer(destination);
+                }
+
+                final javax.jms.Message request = this.session.createMessage();
+                request.setStringProperty(PROPERTY_KEY, key);
+
+                this.producer.send(request);
+            } catch (final Exception e) {
+                // the next periodic keyframe will recover the state
+                logger.info("Failed to request keyframe", e);
+            }
+        }
+    }
+
+    private final Supplier<M> messageFactory;
+    private final Class<P> payloadClazz;
+    private final DeltaCodec<P> codec;
+    private final JmsPayloadFormat payloadFormat;
+    private final String topic;
+
+    private final AbstractJmsSubscriber<DeltaFrame<P>> frames;
+
+    public JmsDeltaSubscriber(final Supplier<M> messageFactory, final Class<P> payloadClazz, final DeltaCodec<P> codec, final JmsPayloadFormat payloadFormat,
+            final String topic, final Connection connection, final Executor executor) {
+        this.messageFactory = Objects.requireNonNull(messageFactory);
+        this.payloadClazz = payloadClazz;
+        this.codec = Objects.requireNonNull(codec);
+        this.payloadFormat = payloadFormat;
+        this.topic = topic;
+
+        this.frames = new AbstractJmsSubscriber<DeltaFrame<P>>(topic, connection, executor) {
+
+            @Override
+            protected DeltaFrame<P> decode(final javax.jms.Message message) throws Exception {
+                return decodeFrame(message);
+            }
+
+            @Override
+            protected boolean keepPrevious() {
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public ListenerHandle subscribe(final Consumer<M> consumer) {
+        Objects.requireNonNull(consumer);
+
+        final KeyframeRequester requester = new KeyframeRequester();
+        final DeltaDecoder<P> decoder = new DeltaDecoder<>(this.codec, requester);
+
+        return this.frames.subscribeWithSession((session, frame) -> {
+            requester.setSession(session);
+
+            final P state = decoder.decode(frame);
+            if (state != null) {
+                final M message = this.messageFactory.get();
+                message.setPayload(state);
+                consumer.accept(message);
+            }
+        });
+    }
+
+    protected DeltaFrame<P> decodeFrame(final javax.jms.Message message) throws Exception {
+        final M decoded = this.payloadFormat.decode(this.messageFactory, this.payloadClazz, message);
+        if (decoded == null || decoded.getPayload() == null) {
+            return null;
+        }
+
+        if (!message.propertyExists(PROPERTY_SEQUENCE)) {
+            // not delta encoded
+            return new DeltaFrame<>(DeltaEncoder.DEFAULT_KEY, 0, true, DeltaCodec.ALL, decoded.getPayload());
+        }
+
+        final String key = message.propertyExists(PROPERTY_KEY) ? message.getStringProperty(PROPERTY_KEY) : DeltaEncoder.DEFAULT_KEY;
+
+        return new DeltaFrame<>(key, message.getLongProperty(PROPERTY_SEQUENCE), message.getBooleanProperty(PROPERTY_KEYFRAME),
+                message.getLongProperty(PROPERTY_CHANGES), decoded.getPayload());
+    }
+
+}
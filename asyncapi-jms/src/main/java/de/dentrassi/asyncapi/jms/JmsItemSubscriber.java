@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.jms;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
+
+import javax.jms.Connection;
+import javax.jms.Message;
+
+/**
+ * Subscriber decoding the items of array payloads one by one
+ * <p>
+ * Instead of the decoded message, the consumer receives a {@link Spliterator}
+ * over the items of the array, which decodes items as it gets advanced. So the
+ * consumer can start processing before the last item is decoded, and only
+ * needs to keep the items it is interested in. A {@link java.util.stream.Stream}
+ * can be created using
+ * {@link java.util.stream.StreamSupport#stream(Spliterator, boolean)}.
+ * </p>
+ * <p>
+ * The spliterator is only valid during the call to
+ * {@link java.util.function.Consumer#accept(Object)}. The message gets
+ * acknowledged once the consumer returns. If decoding an item fails, the
+ * exception is thrown to the consumer and, unless handled, the session will
+ * be recovered, like for any other subscriber.
+ * </p>
+ *
+ * @param <T>
+ *            The item type
+ */
+public class JmsItemSubscriber<T> extends AbstractJmsSubscriber<Spliterator<T>> {
+
+    private final Class<T> itemClazz;
+    private final JmsPayloadFormat payloadFormat;
+
+    public JmsItemSubscriber(final Class<T> itemClazz, final JmsPayloadFormat payloadFormat, final String topic, final Connection connection,
+            final Executor executor) {
+        super(topic, connection, executor);
+        this.itemClazz = Objects.requireNonNull(itemClazz);
+        this.payloadFormat = payloadFormat;
+    }
+
+    @Override
+    protected Spliterator<T> decode(final Message message) throws Exception {
+        return this.payloadFormat.decodeItems(this.itemClazz, message);
+    }
+
+    @Override
+    protected boolean keepPrevious() {
+        // the spliterator holds on to the whole message
+        return false;
+    }
+
+}
@@ -17,18 +17,113 @@
 package de.dentrassi.asyncapi.jms;
 
 import java.io.Serializable;
+import java.io.StringReader;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Supplier;
 
 import javax.jms.Session;
 import javax.jms.TextMessage;
 
 import de.dentrassi.asyncapi.Message;
 import de.dentrassi.asyncapi.format.TextPayloadFormat;
+import de.dentrassi.asyncapi.util.ArrayMessage;
+import de.dentrassi.asyncapi.util.Factories;
 
 public interface JmsPayloadFormat {
 
+    /**
+     * Decode a message
+     *
+     * @param clazz
+     *            the expected message class
+     * @param payloadClazz
+     *            the expected payload class
+     * @param message
+     *            the received message
+     * @return the decoded message, may be {@code null} if the message could
+     *         not be processed by this format
+     * @throws Exception
+     *             if anything goes wrong
+     */
     public <M extends Message<P>, P extends Serializable> M decode(Class<M> clazz, Class<P> payloadClazz, javax.jms.Message message) throws Exception;
 
+    /**
+     * Decode a message
+     * <p>
+     * The default implementation creates a single message using the factory,
+     * and decodes into it using
+     * {@link #decodeInto(Message, Class, javax.jms.Message)}. Implementations
+     * should override that method, or this one, so that decoding a message
+     * does not require reflection.
+     * </p>
+     *
+     * @param messageFactory
+     *            the factory for new message instances
+     * @param payloadClazz
+     *            the expected payload class
+     * @param message
+     *            the received message
+     * @return the decoded message, may be {@code null} if the message could
+     *         not be processed by this format
+     * @throws Exception
+     *             if anything goes wrong
+     */
+    public default <M extends Message<P>, P extends Serializable> M decode(final Supplier<M> messageFactory, final Class<P> payloadClazz, final javax.jms.Message message)
+            throws Exception {
+        return decodeInto(messageFactory.get(), payloadClazz, message);
+    }
+
+    /**
+     * Decode a message, re-using an existing message
+     * <p>
+     * Implementations may decode into the provided message, and its payload,
+     * instead of creating new instances. The default implementation simply
+     * calls {@link #decode(Class, Class, javax.jms.Message)}.
+     * </p>
+     *
+     * @param target
+     *            the message to re-use, must not be {@code null}
+     * @param payloadClazz
+     *            the expected payload class
+     * @param message
+     *            the received message
+     * @return the decoded message, may be {@code null} if the message could
+     *         not be processed by this format
+     * @throws Exception
+     *             if anything goes wrong
+     * @see TextPayloadFormat#decodeInto(Message, Class, String)
+     */
+    public default <M extends Message<P>, P extends Serializable> M decodeInto(final M target, final Class<P> payloadClazz, final javax.jms.Message message) throws Exception {
+        @SuppressWarnings("unchecked")
+        final Class<M> clazz = (Class<M>) target.getClass();
+        return decode(clazz, payloadClazz, message);
+    }
+
+    /**
+     * Decode the items of an encoded array, one by one
+     * <p>
+     * The default implementation decodes the message as an array, using
+     * {@link #decode(Supplier, Class, javax.jms.Message)}. So all items are
+     * held in memory.
+     * </p>
+     *
+     * @param itemClazz
+     *            the expected item class
+     * @param message
+     *            the received message
+     * @return the items, decoded while the spliterator is advanced, may be
+     *         {@code null} if the message could not be processed by this
+     *         format
+     * @throws Exception
+     *             if anything goes wrong
+     * @see TextPayloadFormat#decodeItems(Class, java.io.Reader)
+     */
+    public default <T> Spliterator<T> decodeItems(final Class<T> itemClazz, final javax.jms.Message message) throws Exception {
+        final ArrayMessage result = decode(ArrayMessage::new, ArrayMessage.payloadClass(itemClazz), message);
+        return result != null ? result.items() : null;
+    }
+
     public javax.jms.Message encode(Session session, Message<?> message) throws Exception;
 
     public static JmsPayloadFormat textMessageFormat(final TextPayloadFormat textPayloadFormat) {
@@ -48,6 +143,31 @@ public interface JmsPayloadFormat {
                 }
                 return null;
             }
+
+            @Override
+            public <M extends Message<P>, P extends Serializable> M decode(final Supplier<M> messageFactory, final Class<P> payloadClazz, final javax.jms.Message message)
+                    throws Exception {
+                if (message instanceof TextMessage) {
+                    return textPayloadFormat.decode(messageFactory, payloadClazz, ((TextMessage) message).getText());
+                }
+                return null;
+            }
+
+            @Override
+            public <M extends Message<P>, P extends Serializable> M decodeInto(final M target, final Class<P> payloadClazz, final javax.jms.Message message) throws Exception {
+                if (message instanceof TextMessage) {
+                    return textPayloadFormat.decodeInto(target, payloadClazz, ((TextMessage) message).getText());
+                }
+                return null;
+            }
+
+            @Override
+            public <T> Spliterator<T> decodeItems(final Class<T> itemClazz, final javax.jms.Message message) throws Exception {
+                if (message instanceof TextMessage) {
+                    return textPayloadFormat.decodeItems(itemClazz, new StringReader(((TextMessage) message).getText()));
+                }
+                return null;
+            }
         };
     }
 
@@ -61,15 +181,34 @@ public interface JmsPayloadFormat {
 
             @Override
             public <M extends Message<P>, P extends Serializable> M decode(final Class<M> clazz, final Class<P> payloadClazz, final javax.jms.Message message) throws Exception {
+                return decode(Factories.reflective(clazz), payloadClazz, message);
+            }
+
+            @Override
+            public <M extends Message<P>, P extends Serializable> M decode(final Supplier<M> messageFactory, final Class<P> payloadClazz, final javax.jms.Message message)
+                    throws Exception {
                 if (message.isBodyAssignableTo(payloadClazz)) {
 
-                    final M m = clazz.newInstance();
+                    final M m = messageFactory.get();
                     m.setPayload(message.getBody(payloadClazz));
 
                     return m;
                 }
                 return null;
             }
+
+            @Override
+            public <M extends Message<P>, P extends Serializable> M decodeInto(final M target, final Class<P> payloadClazz, final javax.jms.Message message) throws Exception {
+                if (message.isBodyAssignableTo(payloadClazz)) {
+
+                    // the payload always gets de-serialized into a new instance
+
+                    target.setPayload(message.getBody(payloadClazz));
+
+                    return target;
+                }
+                return null;
+            }
         };
 
     }
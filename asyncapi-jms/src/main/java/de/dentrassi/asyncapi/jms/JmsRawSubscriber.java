@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.jms;
+
+import java.util.concurrent.Executor;
+
+import javax.jms.Connection;
+import javax.jms.Message;
+
+/**
+ * A subscriber handing over the received JMS messages as they are
+ * <p>
+ * The message is neither decoded nor copied. The message is only valid
+ * during the call to the consumer, it gets acknowledged once the consumer
+ * returns.
+ * </p>
+ */
+public class JmsRawSubscriber extends AbstractJmsSubscriber<Message> {
+
+    public JmsRawSubscriber(final String topic, final Connection connection, final Executor executor) {
+        super(topic, connection, executor);
+    }
+
+    @Override
+    protected Message decode(final Message message) {
+        return message;
+    }
+
+}
@@ -17,148 +17,67 @@
 package de.dentrassi.asyncapi.jms;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.jms.Connection;
-import javax.jms.Destination;
-import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.MessageConsumer;
-import javax.jms.Session;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import de.dentrassi.asyncapi.ListenerHandle;
-import de.dentrassi.asyncapi.Subscribe;
-
-public class JmsSubscriber<T extends de.dentrassi.asyncapi.Message<P>, P extends Serializable> implements Subscribe<T> {
-
-    private static final Logger logger = LoggerFactory.getLogger(JmsSubscriber.class);
-
-    private class HandleImpl extends CompletableFuture<Void> implements ListenerHandle {
-
-        private final AtomicBoolean closed = new AtomicBoolean(false);
-        private Session session;
-        private MessageConsumer consumer;
-        private final Consumer<T> handler;
-
-        public HandleImpl(final Consumer<T> consumer) {
-            this.handler = consumer;
-        }
-
-        @Override
-        public void close() throws Exception {
-            if (this.closed.compareAndSet(false, true)) {
-                whenComplete((v, e) -> {
-                    try {
-                        internalClose();
-                    } catch (final Exception e1) {
-                        throw new RuntimeException(e);
-                    }
-                });
-            }
-        }
-
-        private void internalClose() throws Exception {
-            LinkedList<Exception> errors = null;
-
-            if (this.consumer != null) {
-                try {
-                    this.consumer.close();
-                } catch (final Exception e) {
-                    if (errors == null) {
-                        errors = new LinkedList<>();
-                    }
-                    errors.add(e);
-                }
-            }
-            if (this.session != null) {
-                try {
-                    this.session.close();
-                } catch (final Exception e) {
-                    if (errors == null) {
-                        errors = new LinkedList<>();
-                    }
-                    errors.add(e);
-                }
-            }
-
-            if (errors != null && !errors.isEmpty()) {
-                final Exception e = errors.pollFirst();
-                errors.stream().forEach(e::addSuppressed);
-                throw e;
-            }
-        }
-
-        protected void subscribe() {
-            try {
-                this.session = JmsSubscriber.this.connection.createSession(Session.CLIENT_ACKNOWLEDGE);
-                final Destination destination = this.session.createTopic(JmsSubscriber.this.topic);
-                this.consumer = this.session.createConsumer(destination);
-                this.consumer.setMessageListener(this::processMessage);
-
-                complete(null);
-            } catch (final Exception e) {
-                completeExceptionally(e);
-            }
-        }
-
-        protected void processMessage(final Message message) {
-            logger.debug("Received message: {}", message);
-
-            try {
-                final T m = JmsSubscriber.this.payloadFormat.decode(JmsSubscriber.this.clazz, JmsSubscriber.this.payloadClazz, message);
-                if (m != null) {
-                    this.handler.accept(m);
-                }
-                message.acknowledge();
-            } catch (final Exception e) {
-                logger.debug("Failed to handle message", e);
-                try {
-                    this.session.recover();
-                } catch (final JMSException e1) {
-                    // FIXME: we need to handle this somehow
-                    // possible solution, re-create session
-                }
-            }
-        }
-
-    };
+import de.dentrassi.asyncapi.util.Factories;
+
+/**
+ * Subscriber decoding messages using a {@link JmsPayloadFormat}
+ * <p>
+ * When re-using messages is enabled, each listener handle keeps a single
+ * message instance, which gets decoded into for every received message. The
+ * consumer must then copy everything it wants to keep beyond the call to
+ * {@link java.util.function.Consumer#accept(Object)}, as the message and its
+ * payload will be overwritten by the next message.
+ * </p>
+ *
+ * @param <T>
+ *            The message type
+ * @param <P>
+ *            The payload type
+ */
+public class JmsSubscriber<T extends de.dentrassi.asyncapi.Message<P>, P extends Serializable> extends AbstractJmsSubscriber<T> {
 
-    private final Class<T> clazz;
+    private final Supplier<T> messageFactory;
     private final Class<P> payloadClazz;
     private final JmsPayloadFormat payloadFormat;
-    private final String topic;
-    private final Connection connection;
-    private final Executor executor;
+    private final boolean reuseMessages;
 
     public JmsSubscriber(final Class<T> clazz, final Class<P> payloadClazz, final JmsPayloadFormat payloadFormat, final String topic, final Connection connection,
             final Executor executor) {
-        this.clazz = clazz;
+        this(clazz, payloadClazz, payloadFormat, topic, connection, executor, false);
+    }
+
+    public JmsSubscriber(final Class<T> clazz, final Class<P> payloadClazz, final JmsPayloadFormat payloadFormat, final String topic, final Connection connection,
+            final Executor executor, final boolean reuseMessages) {
+        this(Factories.reflective(clazz), payloadClazz, payloadFormat, topic, connection, executor, reuseMessages);
+    }
+
+    public JmsSubscriber(final Supplier<T> messageFactory, final Class<P> payloadClazz, final JmsPayloadFormat payloadFormat, final String topic,
+            final Connection connection, final Executor executor, final boolean reuseMessages) {
+        super(topic, connection, executor);
+        this.messageFactory = Objects.requireNonNull(messageFactory);
         this.payloadClazz = payloadClazz;
         this.payloadFormat = payloadFormat;
-        this.topic = topic;
-        this.connection = connection;
-        this.executor = executor;
+        this.reuseMessages = reuseMessages;
     }
 
     @Override
-    public ListenerHandle subscribe(final Consumer<T> consumer) {
-        Objects.requireNonNull(consumer);
-
-        final HandleImpl handle = new HandleImpl(consumer);
-
-        this.executor.execute(() -> {
-            handle.subscribe();
-        });
+    protected T decode(final Message message) throws Exception {
+        return this.payloadFormat.decode(this.messageFactory, this.payloadClazz, message);
+    }
 
-        return handle;
+    @Override
+    protected T decode(final Message message, final T previous) throws Exception {
+        if (this.reuseMessages && previous != null) {
+            return this.payloadFormat.decodeInto(previous, this.payloadClazz, message);
+        }
+        return decode(message);
     }
 
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.jms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.Topic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.ListenerHandle;
+
+public class ForwardTest {
+
+    /**
+     * A minimal in-memory JMS provider, recording what happens
+     */
+    private static class Broker {
+
+        private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, MessageListener> listeners = Collections.synchronizedMap(new HashMap<>());
+        private final List<Message> sent = Collections.synchronizedList(new ArrayList<>());
+
+        private int failures;
+
+        public AbstractJmsConnector connector(final String baseTopic) throws JMSException {
+            final ConnectionFactory factory = proxy(ConnectionFactory.class, (proxy, method, args) -> {
+                return connection(baseTopic);
+            });
+
+            final AbstractJmsConnector.Builder<AbstractJmsConnector> builder = new AbstractJmsConnector.Builder<AbstractJmsConnector>() {
+
+                @Override
+                public AbstractJmsConnector build() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+
+            builder.profile(() -> b -> factory);
+            builder.baseTopic(baseTopic);
+
+            return new AbstractJmsConnector(builder);
+        }
+
+        private Connection connection(final String name) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "createSession":
+                    this.events.add("createSession:" + name);
+                    return session(name);
+                case "start":
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        private Session session(final String name) {
+            return proxy(Session.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "createTopic":
+                    final String topicName = (String) args[0];
+                    return proxy(Topic.class, (p, m, a) -> topicName);
+                case "createConsumer":
+                    return consumer(((Topic) args[0]).getTopicName());
+                case "createProducer":
+                    return producer(((Topic) args[0]).getTopicName());
+                case "recover":
+                case "close":
+                    this.events.add(method.getName() + ":" + name);
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        private MessageConsumer consumer(final String topic) {
+            return proxy(MessageConsumer.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "setMessageListener":
+                    this.listeners.put(topic, (MessageListener) args[0]);
+                    return null;
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        private MessageProducer producer(final String topic) {
+            return proxy(MessageProducer.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "send":
+                    if (this.failures > 0) {
+                        this.failures--;
+                        throw new JMSException("Failed to send");
+                    }
+                    final Message message = (Message) args[0];
+                    this.events.add(String.format("send:%s:%s:%s:%s:%s", topic, message.getStringProperty("id"), args[1], args[2], args[3]));
+                    this.sent.add(message);
+                    return null;
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        public Message message(final String id) {
+            final Map<String, String> properties = new HashMap<>();
+            properties.put("id", id);
+            properties.put("foo", "bar");
+
+            return proxy(Message.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "getStringProperty":
+                    return properties.get(args[0]);
+                case "getJMSExpiration":
+                    return 0L;
+                case "getJMSDeliveryMode":
+                    return DeliveryMode.NON_PERSISTENT;
+                case "getJMSPriority":
+                    return 7;
+                case "acknowledge":
+                    this.events.add("ack:" + id);
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        public void deliver(final String topic, final Message message) {
+            final MessageListener listener = this.listeners.get(topic);
+            Assert.assertNotNull("No listener for: " + topic, listener);
+            listener.onMessage(message);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<T> clazz, final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ForwardTest.class.getClassLoader(), new Class<?>[] { clazz }, handler);
+    }
+
+    private static void await(final ListenerHandle handle) throws Exception {
+        handle.toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testForward() throws Exception {
+        final Broker broker = new Broker();
+
+        try (AbstractJmsConnector source = broker.connector("source");
+                AbstractJmsConnector target = broker.connector("target")) {
+
+            final ListenerHandle handle = source.forward("foo", target, "bar");
+            await(handle);
+            broker.events.clear();
+
+            final Message first = broker.message("1");
+            final Message second = broker.message("2");
+
+            broker.deliver("source.foo", first);
+            broker.deliver("source.foo", second);
+
+            // sent with the mapped topic name, the headers of the message and a single session
+
+            Assert.assertEquals(Arrays.asList(
+                    "createSession:target",
+                    "send:target.bar:1:1:7:0",
+                    "ack:1",
+                    "send:target.bar:2:1:7:0",
+                    "ack:2"), broker.events);
+
+            // the message itself is sent, including its properties
+
+            Assert.assertSame(first, broker.sent.get(0));
+            Assert.assertEquals("bar", broker.sent.get(1).getStringProperty("foo"));
+
+            handle.close();
+
+            Assert.assertTrue(broker.events.contains("close:target"));
+        }
+    }
+
+    @Test
+    public void testForwardSameTopic() throws Exception {
+        final Broker broker = new Broker();
+
+        try (AbstractJmsConnector source = broker.connector("source");
+                AbstractJmsConnector target = broker.connector("target")) {
+
+            try (ListenerHandle handle = source.forward("foo", target)) {
+                await(handle);
+
+                broker.deliver("source.foo", broker.message("1"));
+
+                Assert.assertTrue(broker.events.contains("send:target.foo:1:1:7:0"));
+            }
+        }
+    }
+
+    @Test
+    public void testForwardFailure() throws Exception {
+        final Broker broker = new Broker();
+
+        try (AbstractJmsConnector source = broker.connector("source");
+                AbstractJmsConnector target = broker.connector("target")) {
+
+            try (ListenerHandle handle = source.forward("foo", target, "bar")) {
+                await(handle);
+                broker.events.clear();
+
+                broker.failures = 1;
+
+                final Message message = broker.message("1");
+
+                // not acknowledged when sending failed
+
+                broker.deliver("source.foo", message);
+
+                Assert.assertEquals(Arrays.asList(
+                        "createSession:target",
+                        "close:target",
+                        "recover:source"), broker.events);
+
+                // the redelivery is sent using a new session
+
+                broker.events.clear();
+                broker.deliver("source.foo", message);
+
+                Assert.assertEquals(Arrays.asList(
+                        "createSession:target",
+                        "send:target.bar:1:1:7:0",
+                        "ack:1"), broker.events);
+            }
+        }
+    }
+}
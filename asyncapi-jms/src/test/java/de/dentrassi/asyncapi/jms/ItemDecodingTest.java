@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.jms;
+
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import javax.jms.ObjectMessage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ItemDecodingTest {
+
+    private final JmsPayloadFormat format = JmsPayloadFormat.objectMessageFormat();
+
+    @Test
+    public void testObjectMessage() throws Exception {
+        final Spliterator<String> items = this.format.decodeItems(String.class, objectMessage(new String[] { "a", "b", null }));
+
+        final List<String> result = StreamSupport.stream(items, false).collect(Collectors.toList());
+
+        Assert.assertEquals(Arrays.asList("a", "b", null), result);
+    }
+
+    @Test
+    public void testObjectMessageOtherBody() throws Exception {
+        Assert.assertNull(this.format.decodeItems(String.class, objectMessage(42)));
+    }
+
+    private static ObjectMessage objectMessage(final Serializable body) {
+        return (ObjectMessage) Proxy.newProxyInstance(ItemDecodingTest.class.getClassLoader(), new Class<?>[] { ObjectMessage.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "isBodyAssignableTo":
+                return ((Class<?>) args[0]).isInstance(body);
+            case "getBody":
+                return ((Class<?>) args[0]).cast(body);
+            case "getObject":
+                return body;
+            default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
@@ -16,18 +16,18 @@
 
 package de.dentrassi.asyncapi;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import de.dentrassi.asyncapi.internal.parser.JsonParser;
+import de.dentrassi.asyncapi.internal.parser.ModelBuilder;
 import de.dentrassi.asyncapi.internal.parser.ParserException;
 import de.dentrassi.asyncapi.internal.parser.YamlParser;
 import de.dentrassi.asyncapi.meta.Information;
+import de.dentrassi.asyncapi.snapshot.SnapshotCache;
 import de.dentrassi.asyncapi.type.Type;
 import de.dentrassi.asyncapi.validate.ValidationException;
 import de.dentrassi.asyncapi.validate.Validator;
@@ -40,7 +40,7 @@ public class AsyncApi {
 
     private String baseTopic;
 
-    private Set<String> schemes = new HashSet<>();
+    private Set<String> schemes = new LinkedHashSet<>();
 
     private String host;
 
@@ -50,6 +50,8 @@ public class AsyncApi {
 
     private Set<Type> types = new LinkedHashSet<>();
 
+    private volatile SymbolTable symbols;
+
     public Set<Topic> getTopics() {
         return this.topics;
     }
@@ -106,6 +108,61 @@ public class AsyncApi {
         this.types = types;
     }
 
+    /**
+     * Build the symbol table of this model
+     * <p>
+     * The parser calls this method once the model is complete. When the model
+     * gets modified afterwards, this method must be called again in order to
+     * update the symbol table.
+     * </p>
+     *
+     * @return the new symbol table
+     */
+    public SymbolTable index() {
+        final SymbolTable result = SymbolTable.build(this);
+        this.symbols = result;
+        return result;
+    }
+
+    /**
+     * Get the symbol table of this model
+     * <p>
+     * If the table was not built yet, it will be built by this call.
+     * </p>
+     *
+     * @return the symbol table, never {@code null}
+     */
+    public SymbolTable getSymbols() {
+        final SymbolTable result = this.symbols;
+        if (result != null) {
+            return result;
+        }
+        return index();
+    }
+
+    /**
+     * Create an immutable copy of this model
+     * <p>
+     * The copy uses interned names, array backed sets and shared instances
+     * for equal references, which makes it considerably smaller than the
+     * mutable model. All setters of the copy, and of all instances reachable
+     * from it, fail with an {@link IllegalStateException}. The copy can be
+     * shared between threads without further synchronization.
+     * </p>
+     * <p>
+     * Calling this method on a frozen model returns the model itself.
+     * </p>
+     *
+     * @return the immutable copy, never {@code null}
+     */
+    public AsyncApi freeze() {
+        return new Freezer().freeze(this);
+    }
+
+    public boolean isFrozen() {
+        return false;
+    }
+
     /**
      * Load an AsyncAPI specification encoded in YAML
      *
@@ -134,6 +191,13 @@ public class AsyncApi {
 
     /**
      * Load an AsyncAPI specification encoded in YAML
+     * <p>
+     * References to other files are resolved relative to the provided file.
+     * </p>
+     * <p>
+     * This uses the {@link SnapshotCache#defaultCache() default snapshot
+     * cache}, if it was enabled.
+     * </p>
      *
      * @param path
      *            the file system resource to read from
@@ -142,11 +206,119 @@ public class AsyncApi {
      *             in case the document cannot be parsed
      */
     public static AsyncApi parseYaml(final Path path) throws ParserException {
-        try (final InputStream in = Files.newInputStream(path)) {
-            return validate(new YamlParser(in).parse());
-        } catch (final IOException e) {
-            throw new ParserException("Failed to read file", e);
+        return parseYaml(path, SnapshotCache.defaultCache());
+    }
+
+    /**
+     * Load an AsyncAPI specification encoded in YAML
+     * <p>
+     * References to other files are resolved relative to the provided file.
+     * If there is an up-to-date snapshot of the file, the model is loaded from
+     * the snapshot instead. Otherwise the sources get parsed and a new
+     * snapshot gets stored. In both cases the model gets validated.
+     * </p>
+     *
+     * @param path
+     *            the file system resource to read from
+     * @param snapshots
+     *            the snapshot cache to use, may be {@code null} to always
+     *            parse the sources
+     * @return the model
+     * @throws ParserException
+     *             in case the document cannot be parsed
+     */
+    public static AsyncApi parseYaml(final Path path, final SnapshotCache snapshots) throws ParserException {
+        return parse(path, snapshots, YamlParser::new);
+    }
+
+    /**
+     * Load an AsyncAPI specification encoded in JSON
+     *
+     * @param in
+     *            the stream to read from
+     * @return the model
+     * @throws ParserException
+     *             in case the document cannot be parsed
+     */
+    public static AsyncApi parseJson(final InputStream in) throws ParserException {
+        return validate(new JsonParser(in).parse());
+    }
+
+    /**
+     * Load an AsyncAPI specification encoded in JSON
+     *
+     * @param reader
+     *            the reader to read from
+     * @return the model
+     * @throws ParserException
+     *             in case the document cannot be parsed
+     */
+    public static AsyncApi parseJson(final Reader reader) throws ParserException {
+        return validate(new JsonParser(reader).parse());
+    }
+
+    /**
+     * Load an AsyncAPI specification encoded in JSON
+     * <p>
+     * References to other files are resolved relative to the provided file.
+     * Referenced files ending with {@code .json} are read as JSON, all others
+     * as YAML.
+     * </p>
+     * <p>
+     * This uses the {@link SnapshotCache#defaultCache() default snapshot
+     * cache}, if it was enabled.
+     * </p>
+     *
+     * @param path
+     *            the file system resource to read from
+     * @return the model
+     * @throws ParserException
+     *             in case the document cannot be parsed
+     */
+    public static AsyncApi parseJson(final Path path) throws ParserException {
+        return parseJson(path, SnapshotCache.defaultCache());
+    }
+
+    /**
+     * Load an AsyncAPI specification encoded in JSON
+     * <p>
+     * This works the same way as {@link #parseYaml(Path, SnapshotCache)}.
+     * </p>
+     *
+     * @param path
+     *            the file system resource to read from
+     * @param snapshots
+     *            the snapshot cache to use, may be {@code null} to always
+     *            parse the sources
+     * @return the model
+     * @throws ParserException
+     *             in case the document cannot be parsed
+     */
+    public static AsyncApi parseJson(final Path path, final SnapshotCache snapshots) throws ParserException {
+        return parse(path, snapshots, JsonParser::new);
+    }
+
+    @FunctionalInterface
+    private interface ParserFactory {
+        public ModelBuilder create(Path path) throws ParserException;
+    }
+
+    private static AsyncApi parse(final Path path, final SnapshotCache snapshots, final ParserFactory factory) throws ParserException {
+        if (snapshots != null) {
+            final AsyncApi result = snapshots.load(path);
+            if (result != null) {
+                return validate(result);
+            }
         }
+
+        final ModelBuilder parser = factory.create(path);
+        final AsyncApi result = validate(parser.parse());
+
+        if (snapshots != null) {
+            snapshots.store(path, parser.getSources(), result);
+        }
+
+        return result;
     }
 
     public static AsyncApi validate(final AsyncApi api) {
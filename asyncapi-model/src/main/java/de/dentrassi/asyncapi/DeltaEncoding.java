@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Delta encoding of a topic
+ * <p>
+ * This is set by the {@code x-delta} extension of a topic, and is intended
+ * for topics publishing the full state of something, like a device, where
+ * only a few properties change between two messages. Publishers only send
+ * the changed properties, and a full keyframe from time to time. Subscribers
+ * reconstruct the full state.
+ * </p>
+ * <p>
+ * Instances are immutable.
+ * </p>
+ */
+public class DeltaEncoding {
+
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 10;
+
+    private final String key;
+
+    private final int keyframeInterval;
+
+    /**
+     * Create a new instance
+     *
+     * @param key
+     *            the name of the payload property, identifying the state
+     *            which is published, may be {@code null} if there is only one
+     * @param keyframeInterval
+     *            the number of messages, per key, after which a full keyframe
+     *            is sent, must be greater than zero
+     */
+    public DeltaEncoding(final String key, final int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("'keyframeInterval' must be greater than zero");
+        }
+
+        this.key = key;
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public int getKeyframeInterval() {
+        return this.keyframeInterval;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + (this.key == null ? 0 : this.key.hashCode());
+        result = prime * result + this.keyframeInterval;
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final DeltaEncoding other = (DeltaEncoding) obj;
+        if (this.key == null) {
+            if (other.key != null) {
+                return false;
+            }
+        } else if (!this.key.equals(other.key)) {
+            return false;
+        }
+        return this.keyframeInterval == other.keyframeInterval;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
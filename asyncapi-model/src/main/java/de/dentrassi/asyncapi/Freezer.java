@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import de.dentrassi.asyncapi.internal.util.ArraySet;
+import de.dentrassi.asyncapi.meta.Information;
+import de.dentrassi.asyncapi.meta.License;
+import de.dentrassi.asyncapi.type.ArrayType;
+import de.dentrassi.asyncapi.type.CoreType;
+import de.dentrassi.asyncapi.type.EnumType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * Create an immutable, compact copy of a model
+ * <p>
+ * Names, namespaces and literals are interned using {@link String#intern()},
+ * so that they are shared between all frozen models. Other texts, equal type
+ * and message references, parent lists and equal core types are shared
+ * within the copy. Sets are replaced by {@link ArraySet}s. Instances which are
+ * referenced more than once in the source model are copied once.
+ * </p>
+ */
+final class Freezer {
+
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+    private final Map<String, String> texts = new HashMap<>();
+    private final Map<List<String>, List<String>> parents = new HashMap<>();
+    private final Map<TypeReference, TypeReference> typeReferences = new HashMap<>();
+    private final Map<MessageReference, MessageReference> messageReferences = new HashMap<>();
+    private final Map<List<Object>, CoreType> coreTypes = new HashMap<>();
+
+    AsyncApi freeze(final AsyncApi api) {
+        final Set<Type> types = freezeAll(api.getTypes(), this::freezeType);
+        final Set<Message> messages = freezeAll(api.getMessages(), this::freezeMessage);
+        final Set<Topic> topics = freezeAll(api.getTopics(), this::freezeTopic);
+
+        return new FrozenAsyncApi(freezeInformation(api.getInformation()), intern(api.getBaseTopic()), freezeAll(api.getSchemes(), Freezer::intern), intern(api.getHost()),
+                topics, messages, types);
+    }
+
+    private static <T> Set<T> freezeAll(final Collection<T> source, final Function<T, T> freezer) {
+        if (source == null) {
+            return null;
+        }
+
+        final List<T> result = new ArrayList<>(source.size());
+        for (final T element : source) {
+            result.add(freezer.apply(element));
+        }
+
+        // copies are equal if and only if their sources are
+
+        return ArraySet.ofDistinct(result);
+    }
+
+    private static String intern(final String value) {
+        return value == null ? null : value.intern();
+    }
+
+    private String text(final String value) {
+        if (value == null) {
+            return null;
+        }
+        final String result = this.texts.putIfAbsent(value, value);
+        return result != null ? result : value;
+    }
+
+    private List<String> parents(final List<String> parents) {
+        return this.parents.computeIfAbsent(parents, key -> {
+            final String[] result = new String[key.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = intern(key.get(i));
+            }
+            return Arrays.asList(result);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T copied(final T source) {
+        return (T) this.copies.get(source);
+    }
+
+    private <T> T remember(final Object source, final T copy) {
+        this.copies.put(source, copy);
+        return copy;
+    }
+
+    private Information freezeInformation(final Information info) {
+        if (info == null) {
+            return null;
+        }
+
+        final Information result = new Information();
+        result.setTitle(text(info.getTitle()));
+        result.setVersion(intern(info.getVersion()));
+        result.setDescription(text(info.getDescription()));
+        result.setTermsOfService(info.getTermsOfService());
+
+        final License license = info.getLicense();
+        if (license != null) {
+            final License resultLicense = new License();
+            resultLicense.setName(text(license.getName()));
+            resultLicense.setUrl(license.getUrl());
+            resultLicense.freeze();
+            result.setLicense(resultLicense);
+        }
+
+        result.freeze();
+        return result;
+    }
+
+    private Topic freezeTopic(final Topic topic) {
+        final Topic result = new Topic();
+        result.setName(intern(topic.getName()));
+        result.setPublish(freezeMessageReference(topic.getPublish()));
+        result.setSubscribe(freezeMessageReference(topic.getSubscribe()));
+        result.setDeprecated(topic.isDeprecated());
+        result.setDelta(topic.getDelta());
+        result.freeze();
+        return result;
+    }
+
+    private MessageReference freezeMessageReference(final MessageReference reference) {
+        if (reference == null) {
+            return null;
+        }
+        if (reference instanceof Message) {
+            return freezeMessage((Message) reference);
+        }
+        return this.messageReferences.computeIfAbsent(reference, key -> new MessageReference(intern(key.getName())));
+    }
+
+    private Message freezeMessage(final Message message) {
+        final Message existing = copied(message);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Message result = new Message(intern(message.getName()));
+        result.setSummary(text(message.getSummary()));
+        result.setDescription(text(message.getDescription()));
+        result.setPayload(freezeTypeReference(message.getPayload()));
+        result.setDeprecated(message.isDeprecated());
+        result.freeze();
+
+        return remember(message, result);
+    }
+
+    private TypeReference freezeTypeReference(final TypeReference reference) {
+        if (reference == null) {
+            return null;
+        }
+        if (reference instanceof Type) {
+            return freezeType((Type) reference);
+        }
+        return this.typeReferences.computeIfAbsent(reference, key -> new TypeReference(intern(key.getNamespace()), intern(key.getName())));
+    }
+
+    private Type freezeType(final Type type) {
+        final Type existing = copied(type);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Type result;
+
+        if (type instanceof ObjectType) {
+            result = freezeObjectType((ObjectType) type);
+        } else if (type instanceof EnumType) {
+            result = freezeEnumType((EnumType) type);
+        } else if (type instanceof ArrayType) {
+            final ArrayType array = (ArrayType) type;
+            result = new ArrayType(intern(array.getName()), freezeTypeReference(array.getItemType()), array.isUnique());
+        } else if (type instanceof CoreType) {
+            return remember(type, freezeCoreType((CoreType) type));
+        } else {
+            throw new IllegalArgumentException(String.format("Unsupported type: %s", type.getClass().getName()));
+        }
+
+        result.setTitle(text(type.getTitle()));
+        result.setDescription(text(type.getDescription()));
+        result.freeze();
+
+        return remember(type, result);
+    }
+
+    private ObjectType freezeObjectType(final ObjectType type) {
+        final ObjectType result = new ObjectType(intern(type.getNamespace()), parents(type.getParents()), intern(type.getName()));
+        result.setProperties(freezeAll(type.getProperties(), this::freezeProperty));
+        return result;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private EnumType freezeEnumType(final EnumType type) {
+        final EnumType result = new EnumType(intern(type.getNamespace()), parents(type.getParents()), intern(type.getName()));
+
+        // literals may be other scalars than strings, like YAML booleans
+
+        final Set<Object> literals = (Set) type.getLiterals();
+        result.setLiterals((Set) freezeAll(literals, literal -> literal instanceof String ? intern((String) literal) : literal));
+
+        return result;
+    }
+
+    private CoreType freezeCoreType(final CoreType type) {
+        // core types only differ by these values, so equal ones can be shared
+
+        final List<Object> key = Arrays.asList(type.getName(), type.getJavaType(), type.getTitle(), type.getDescription());
+
+        return this.coreTypes.computeIfAbsent(key, k -> {
+            final CoreType result = new CoreType(intern(type.getName()), type.getJavaType());
+            result.setTitle(text(type.getTitle()));
+            result.setDescription(text(type.getDescription()));
+            result.freeze();
+            return result;
+        });
+    }
+
+    private Property freezeProperty(final Property property) {
+        final Property result = new Property();
+        result.setName(intern(property.getName()));
+        result.setType(freezeTypeReference(property.getType()));
+        result.setRequired(property.isRequired());
+        result.setDescription(text(property.getDescription()));
+        result.setIntern(property.isIntern());
+        result.freeze();
+        return result;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi;
+
+import java.util.Set;
+
+import de.dentrassi.asyncapi.meta.Information;
+import de.dentrassi.asyncapi.type.Type;
+
+/**
+ * An immutable model, created by {@link AsyncApi#freeze()}
+ * <p>
+ * All content is held in final fields, and everything reachable from them is
+ * immutable and complete before the constructor finishes. So an instance can
+ * be handed to other threads without any further synchronization.
+ * </p>
+ */
+final class FrozenAsyncApi extends AsyncApi {
+
+    private final Information information;
+    private final String baseTopic;
+    private final Set<String> schemes;
+    private final String host;
+    private final Set<Topic> topics;
+    private final Set<Message> messages;
+    private final Set<Type> types;
+
+    private final SymbolTable symbols;
+
+    FrozenAsyncApi(final Information information, final String baseTopic, final Set<String> schemes, final String host, final Set<Topic> topics, final Set<Message> messages,
+            final Set<Type> types) {
+        this.information = information;
+        this.baseTopic = baseTopic;
+        this.schemes = schemes;
+        this.host = host;
+        this.topics = topics;
+        this.messages = messages;
+        this.types = types;
+
+        this.symbols = SymbolTable.build(this);
+    }
+
+    @Override
+    public Set<Topic> getTopics() {
+        return this.topics;
+    }
+
+    @Override
+    public void setTopics(final Set<Topic> topics) {
+        throw frozen();
+    }
+
+    @Override
+    public String getHost() {
+        return this.host;
+    }
+
+    @Override
+    public void setHost(final String host) {
+        throw frozen();
+    }
+
+    @Override
+    public String getBaseTopic() {
+        return this.baseTopic;
+    }
+
+    @Override
+    public void setBaseTopic(final String baseTopic) {
+        throw frozen();
+    }
+
+    @Override
+    public Set<String> getSchemes() {
+        return this.schemes;
+    }
+
+    @Override
+    public void setSchemes(final Set<String> schemes) {
+        throw frozen();
+    }
+
+    @Override
+    public Information getInformation() {
+        return this.information;
+    }
+
+    @Override
+    public void setInformation(final Information info) {
+        throw frozen();
+    }
+
+    @Override
+    public Set<Message> getMessages() {
+        return this.messages;
+    }
+
+    @Override
+    public void setMessages(final Set<Message> messages) {
+        throw frozen();
+    }
+
+    @Override
+    public Set<Type> getTypes() {
+        return this.types;
+    }
+
+    @Override
+    public void setTypes(final Set<Type> types) {
+        throw frozen();
+    }
+
+    @Override
+    public SymbolTable index() {
+        // the model cannot change
+        return this.symbols;
+    }
+
+    @Override
+    public SymbolTable getSymbols() {
+        return this.symbols;
+    }
+
+    @Override
+    public AsyncApi freeze() {
+        return this;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    private static IllegalStateException frozen() {
+        return new IllegalStateException("Instance is frozen");
+    }
+}
@@ -28,6 +28,8 @@ public class Message extends MessageReference {
 
     private boolean deprecated;
 
+    private boolean frozen;
+
     public Message(final String name) {
         super(name);
     }
@@ -37,6 +39,7 @@ public class Message extends MessageReference {
     }
 
     public void setSummary(final String summary) {
+        checkMutable();
         this.summary = summary;
     }
 
@@ -45,6 +48,7 @@ public class Message extends MessageReference {
     }
 
     public void setDescription(final String description) {
+        checkMutable();
         this.description = description;
     }
 
@@ -53,6 +57,7 @@ public class Message extends MessageReference {
     }
 
     public void setPayload(final TypeReference payload) {
+        checkMutable();
         this.payload = payload;
     }
 
@@ -61,9 +66,31 @@ public class Message extends MessageReference {
     }
 
     public void setDeprecated(final boolean deprecated) {
+        checkMutable();
         this.deprecated = deprecated;
     }
 
+    /**
+     * Make this instance immutable
+     * <p>
+     * Any further call to a setter fails with an {@link IllegalStateException}.
+     * This does not freeze referenced instances, see {@link AsyncApi#freeze()}.
+     * </p>
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new IllegalStateException("Instance is frozen");
+        }
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
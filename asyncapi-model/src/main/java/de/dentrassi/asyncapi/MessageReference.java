@@ -21,8 +21,11 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 public class MessageReference {
     private final String name;
 
+    private final transient int hash;
+
     public MessageReference(final String name) {
         this.name = name;
+        this.hash = 31 + (name == null ? 0 : name.hashCode());
     }
 
     public String getName() {
@@ -31,10 +34,7 @@ public class MessageReference {
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + (this.name == null ? 0 : this.name.hashCode());
-        return result;
+        return this.hash;
     }
 
     @Override
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import de.dentrassi.asyncapi.type.ArrayType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * An index of the named elements of an {@link AsyncApi} model
+ * <p>
+ * The table is built once for a model and allows to look up types, messages
+ * and topics by name in constant time. When being built, all type and message
+ * references of the model get resolved. References which could not be
+ * resolved, and cycles of type references which never reach a type definition,
+ * are recorded in the table instead of failing, so that they can be reported
+ * by the {@link de.dentrassi.asyncapi.validate.Validator}.
+ * </p>
+ * <p>
+ * The table is immutable. It does not reflect changes made to the model after
+ * it was built, see {@link AsyncApi#index()}.
+ * </p>
+ */
+public final class SymbolTable {
+
+    /**
+     * The namespace of the types defined in the "schemas" section
+     */
+    public static final String TYPES_NAMESPACE = "types";
+
+    private final Map<TypeReference, Type> types;
+    private final Map<String, Message> messages;
+    private final Map<String, Topic> topics;
+
+    private final Set<TypeReference> unresolvedTypes;
+    private final Set<MessageReference> unresolvedMessages;
+    private final List<List<Type>> cycles;
+
+    private SymbolTable(final Builder builder) {
+        this.types = Collections.unmodifiableMap(builder.types);
+        this.messages = Collections.unmodifiableMap(builder.messages);
+        this.topics = Collections.unmodifiableMap(builder.topics);
+        this.unresolvedTypes = Collections.unmodifiableSet(builder.unresolvedTypes);
+        this.unresolvedMessages = Collections.unmodifiableSet(builder.unresolvedMessages);
+        this.cycles = Collections.unmodifiableList(builder.cycles);
+    }
+
+    /**
+     * Build a new symbol table
+     *
+     * @param api
+     *            the model to index
+     * @return the new table, never {@code null}
+     */
+    public static SymbolTable build(final AsyncApi api) {
+        final Builder builder = new Builder();
+        builder.index(api);
+        builder.resolve(api);
+        return new SymbolTable(builder);
+    }
+
+    /**
+     * Look up a named type
+     *
+     * @param namespace
+     *            the namespace of the type
+     * @param name
+     *            the name of the type
+     * @return the type, or {@link Optional#empty()} if there is no such type
+     */
+    public Optional<Type> lookupType(final String namespace, final String name) {
+        return Optional.ofNullable(this.types.get(new TypeReference(namespace, name)));
+    }
+
+    /**
+     * Resolve a type reference
+     *
+     * @param reference
+     *            the reference to resolve
+     * @return the type, or {@code null} if the reference cannot be resolved.
+     *         If the reference already is a type, the reference itself gets
+     *         returned.
+     */
+    public Type resolve(final TypeReference reference) {
+        if (reference instanceof Type) {
+            return (Type) reference;
+        }
+        return this.types.get(reference);
+    }
+
+    /**
+     * Look up a message defined in the "messages" section
+     *
+     * @param name
+     *            the name of the message
+     * @return the message, or {@link Optional#empty()} if there is no such
+     *         message
+     */
+    public Optional<Message> lookupMessage(final String name) {
+        return Optional.ofNullable(this.messages.get(name));
+    }
+
+    /**
+     * Resolve a message reference
+     *
+     * @param reference
+     *            the reference to resolve
+     * @return the message, or {@code null} if the reference cannot be
+     *         resolved. If the reference already is a message, the reference
+     *         itself gets returned.
+     */
+    public Message resolve(final MessageReference reference) {
+        if (reference instanceof Message) {
+            return (Message) reference;
+        }
+        return this.messages.get(reference.getName());
+    }
+
+    /**
+     * Look up a topic
+     *
+     * @param name
+     *            the name of the topic, without the base topic
+     * @return the topic, or {@link Optional#empty()} if there is no such topic
+     */
+    public Optional<Topic> lookupTopic(final String name) {
+        return Optional.ofNullable(this.topics.get(name));
+    }
+
+    public Set<TypeReference> getUnresolvedTypes() {
+        return this.unresolvedTypes;
+    }
+
+    public Set<MessageReference> getUnresolvedMessages() {
+        return this.unresolvedMessages;
+    }
+
+    /**
+     * Get the cycles of type references
+     * <p>
+     * A cycle is a chain of array types, each one having the next one as item
+     * type. Such a chain never reaches a type which could be generated. Cycles
+     * which pass an object type are fine, as the object type breaks the chain.
+     * </p>
+     *
+     * @return the list of cycles, each one listing the types in order
+     */
+    public List<List<Type>> getCycles() {
+        return this.cycles;
+    }
+
+    private static class Builder {
+
+        private final Map<TypeReference, Type> types = new LinkedHashMap<>();
+        private final Map<String, Message> messages = new LinkedHashMap<>();
+        private final Map<String, Topic> topics = new LinkedHashMap<>();
+
+        private final Set<TypeReference> unresolvedTypes = new LinkedHashSet<>();
+        private final Set<MessageReference> unresolvedMessages = new LinkedHashSet<>();
+        private final List<List<Type>> cycles = new ArrayList<>();
+
+        private final List<ArrayType> arrays = new ArrayList<>();
+
+        void index(final AsyncApi api) {
+            for (final Type type : api.getTypes()) {
+                // core and array types have an empty namespace, so use the one of the section
+                this.types.putIfAbsent(new TypeReference(TYPES_NAMESPACE, type.getName()), type);
+            }
+            for (final Message message : api.getMessages()) {
+                this.messages.putIfAbsent(message.getName(), message);
+            }
+            for (final Topic topic : api.getTopics()) {
+                this.topics.putIfAbsent(topic.getName(), topic);
+            }
+        }
+
+        void resolve(final AsyncApi api) {
+            for (final Type type : api.getTypes()) {
+                resolveType(type);
+            }
+            for (final Message message : api.getMessages()) {
+                resolveType(message.getPayload());
+            }
+            for (final Topic topic : api.getTopics()) {
+                resolveMessage(topic.getPublish());
+                resolveMessage(topic.getSubscribe());
+            }
+
+            detectCycles();
+        }
+
+        private void resolveMessage(final MessageReference reference) {
+            if (reference == null) {
+                return;
+            }
+
+            if (reference instanceof Message) {
+                // inline message
+                resolveType(((Message) reference).getPayload());
+            } else if (!this.messages.containsKey(reference.getName())) {
+                this.unresolvedMessages.add(reference);
+            }
+        }
+
+        private void resolveType(final TypeReference reference) {
+            if (reference == null) {
+                return;
+            }
+
+            if (!(reference instanceof Type)) {
+                if (!this.types.containsKey(reference)) {
+                    this.unresolvedTypes.add(reference);
+                }
+                return;
+            }
+
+            // inline types form a tree, so this terminates
+
+            if (reference instanceof ObjectType) {
+                for (final Property property : ((ObjectType) reference).getProperties()) {
+                    resolveType(property.getType());
+                }
+            } else if (reference instanceof ArrayType) {
+                this.arrays.add((ArrayType) reference);
+                resolveType(((ArrayType) reference).getItemType());
+            }
+        }
+
+        private Type lookup(final TypeReference reference) {
+            if (reference instanceof Type) {
+                return (Type) reference;
+            }
+            return this.types.get(reference);
+        }
+
+        private void detectCycles() {
+            final Map<Type, Boolean> reported = new IdentityHashMap<>();
+
+            for (final ArrayType array : this.arrays) {
+
+                final Map<Type, Integer> chain = new IdentityHashMap<>();
+                final List<Type> path = new ArrayList<>();
+
+                Type current = array;
+                while (current instanceof ArrayType) {
+                    final Integer index = chain.putIfAbsent(current, path.size());
+                    if (index != null) {
+                        final List<Type> cycle = path.subList(index, path.size());
+                        if (!reported.containsKey(current)) {
+                            cycle.forEach(type -> reported.put(type, Boolean.TRUE));
+                            this.cycles.add(Collections.unmodifiableList(new ArrayList<>(cycle)));
+                        }
+                        break;
+                    }
+                    path.add(current);
+                    current = lookup(((ArrayType) current).getItemType());
+                }
+            }
+        }
+    }
+}
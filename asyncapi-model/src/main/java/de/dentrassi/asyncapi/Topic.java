@@ -28,11 +28,16 @@ public class Topic {
 
     private boolean deprecated;
 
+    private DeltaEncoding delta;
+
+    private boolean frozen;
+
     public String getName() {
         return this.name;
     }
 
     public void setName(final String name) {
+        checkMutable();
         this.name = name;
     }
 
@@ -41,6 +46,7 @@ public class Topic {
     }
 
     public void setPublish(final MessageReference publish) {
+        checkMutable();
         this.publish = publish;
     }
 
@@ -49,6 +55,7 @@ public class Topic {
     }
 
     public void setSubscribe(final MessageReference subscribe) {
+        checkMutable();
         this.subscribe = subscribe;
     }
 
@@ -57,9 +64,46 @@ public class Topic {
     }
 
     public void setDeprecated(final boolean deprecated) {
+        checkMutable();
         this.deprecated = deprecated;
     }
 
+    /**
+     * Get the delta encoding of the topic
+     *
+     * @return the delta encoding, or {@code null} if messages are always sent
+     *         in full
+     */
+    public DeltaEncoding getDelta() {
+        return this.delta;
+    }
+
+    public void setDelta(final DeltaEncoding delta) {
+        checkMutable();
+        this.delta = delta;
+    }
+
+    /**
+     * Make this instance immutable
+     * <p>
+     * Any further call to a setter fails with an {@link IllegalStateException}.
+     * This does not freeze referenced instances, see {@link AsyncApi#freeze()}.
+     * </p>
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new IllegalStateException("Instance is frozen");
+        }
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -93,7 +137,7 @@ public class Topic {
     @Override
     public String toString() {
         return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE).append("name", this.name)
-                .append("publish", this.publish).append("subscribe", this.subscribe).toString();
+                .append("publish", this.publish).append("subscribe", this.subscribe).append("delta", this.delta).toString();
     }
 
 }
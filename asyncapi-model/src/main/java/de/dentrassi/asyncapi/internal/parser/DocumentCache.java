@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+/**
+ * A cache of parsed documents
+ * <p>
+ * Documents are keyed by their canonical path. A cached document is re-used
+ * as long as the modification time and size of the file did not change. If
+ * they did change, the file is read again, but only parsed again if its
+ * content hash changed as well.
+ * </p>
+ * <p>
+ * Documents are held by soft references, so that they can be reclaimed when
+ * memory gets low. The cached documents are shared, and must not be modified.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public final class DocumentCache {
+
+    private static final DocumentCache SHARED = new DocumentCache();
+
+    private static class Entry {
+        private final FileTime modified;
+        private final long size;
+        private final byte[] hash;
+        private final Format format;
+        private final Limits limits;
+        private final SoftReference<Object> document;
+
+        Entry(final FileTime modified, final long size, final byte[] hash, final Format format, final Limits limits, final Object document) {
+            this.modified = modified;
+            this.size = size;
+            this.hash = hash;
+            this.format = format;
+            this.limits = limits;
+            this.document = new SoftReference<>(document);
+        }
+
+        boolean isCompatible(final Format format, final Limits limits) {
+            return this.format == format && this.limits.equals(limits);
+        }
+
+        boolean isUnchanged(final BasicFileAttributes attributes, final Format format, final Limits limits) {
+            return this.modified.equals(attributes.lastModifiedTime()) && this.size == attributes.size() && isCompatible(format, limits);
+        }
+    }
+
+    private final ConcurrentMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong parsed = new AtomicLong();
+
+    /**
+     * Get the shared default instance
+     *
+     * @return the shared instance, never {@code null}
+     */
+    public static DocumentCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Load a document
+     *
+     * @param path
+     *            the canonical path of the document
+     * @param format
+     *            the format of the document
+     * @param limits
+     *            the limits to apply when parsing the document
+     * @return the content of the document, may be {@code null} if the
+     *         document is empty
+     * @throws IOException
+     *             if reading the file fails
+     */
+    public Object load(final Path path, final Format format, final Limits limits) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+        final Entry entry = this.entries.get(path);
+
+        if (entry != null && entry.isUnchanged(attributes, format, limits)) {
+            final Object document = entry.document.get();
+            if (document != null) {
+                return document;
+            }
+        }
+
+        final byte[] data = Files.readAllBytes(path);
+        final byte[] hash = hash(data);
+
+        if (entry != null && Arrays.equals(entry.hash, hash) && entry.isCompatible(format, limits)) {
+            final Object document = entry.document.get();
+            if (document != null) {
+                // only touched, update meta data
+                this.entries.put(path, new Entry(attributes.lastModifiedTime(), attributes.size(), hash, format, limits, document));
+                return document;
+            }
+        }
+
+        final Object document = format.read(new UnicodeReader(new ByteArrayInputStream(data)), limits);
+        this.parsed.incrementAndGet();
+
+        this.entries.put(path, new Entry(attributes.lastModifiedTime(), attributes.size(), hash, format, limits, document));
+
+        return document;
+    }
+
+    /**
+     * Get the number of times a document was actually parsed by this cache
+     *
+     * @return the number of parsed documents
+     */
+    public long getParsedCount() {
+        return this.parsed.get();
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+    private static byte[] hash(final byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-256 must be supported by every JVM
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+
+/**
+ * Document formats which can be read into the generic document structure
+ */
+public enum Format {
+    YAML {
+        @Override
+        public Object read(final Reader reader, final Limits limits) {
+            return new YamlReader(limits).read(reader);
+        }
+    },
+    JSON {
+        @Override
+        public Object read(final Reader reader, final Limits limits) throws IOException {
+            return new JsonReader(limits).read(reader);
+        }
+    };
+
+    /**
+     * Read a document
+     *
+     * @param reader
+     *            the reader to read from
+     * @param limits
+     *            the limits to apply
+     * @return the content of the document
+     * @throws IOException
+     *             if reading fails
+     */
+    public abstract Object read(Reader reader, Limits limits) throws IOException;
+
+    /**
+     * Get the format of a file, based on its name
+     *
+     * @param path
+     *            the file
+     * @return {@link #JSON} for files ending with {@code .json}, {@link #YAML}
+     *         otherwise
+     */
+    public static Format forPath(final Path path) {
+        final Path name = path.getFileName();
+        if (name != null && name.toString().toLowerCase().endsWith(".json")) {
+            return JSON;
+        }
+        return YAML;
+    }
+}
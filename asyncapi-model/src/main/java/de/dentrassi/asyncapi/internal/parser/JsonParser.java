@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+/**
+ * Parser for AsyncAPI definitions encoded as JSON
+ */
+public class JsonParser extends ModelBuilder {
+
+    public JsonParser(final InputStream in) throws ParserException {
+        this(in, Limits.DEFAULT);
+    }
+
+    public JsonParser(final InputStream in, final Limits limits) throws ParserException {
+        this(new UnicodeReader(in), limits);
+    }
+
+    public JsonParser(final Reader reader) throws ParserException {
+        this(reader, Limits.DEFAULT);
+    }
+
+    public JsonParser(final Reader reader, final Limits limits) throws ParserException {
+        super(Format.JSON, reader, limits);
+    }
+
+    public JsonParser(final Path path) throws ParserException {
+        this(path, Limits.DEFAULT, DocumentCache.shared());
+    }
+
+    public JsonParser(final Path path, final Limits limits, final DocumentCache cache) throws ParserException {
+        super(Format.JSON, path, limits, cache);
+    }
+}
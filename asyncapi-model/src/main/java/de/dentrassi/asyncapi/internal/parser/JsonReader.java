@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read a JSON document into maps, lists and scalar values
+ * <p>
+ * The result has the same structure as the result of the {@link YamlReader}
+ * for the same content. Integral numbers are read as {@link Integer},
+ * {@link Long} or {@link BigInteger}, depending on their size, all other
+ * numbers as {@link Double}.
+ * </p>
+ */
+public class JsonReader {
+
+    private final Limits limits;
+
+    public JsonReader(final Limits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Read a single document
+     *
+     * @param reader
+     *            the reader to read from
+     * @return the content of the document, may be {@code null} if the stream
+     *         is empty
+     * @throws IOException
+     *             if reading or parsing fails
+     */
+    public Object read(final Reader reader) throws IOException {
+        final com.google.gson.stream.JsonReader in = new com.google.gson.stream.JsonReader(reader);
+
+        try {
+            in.peek();
+        } catch (final EOFException e) {
+            // empty document
+            return null;
+        }
+
+        final Object result = readValue(in, 0);
+
+        // the reader is strict, so peeking at further content fails with a MalformedJsonException
+
+        in.peek();
+
+        return result;
+    }
+
+    private Object readValue(final com.google.gson.stream.JsonReader in, final int depth) throws IOException {
+        switch (in.peek()) {
+        case BEGIN_OBJECT:
+            return readObject(in, checkDepth(in, depth));
+        case BEGIN_ARRAY:
+            return readArray(in, checkDepth(in, depth));
+        case STRING:
+            return in.nextString();
+        case NUMBER:
+            return toNumber(in.nextString());
+        case BOOLEAN:
+            return in.nextBoolean();
+        case NULL:
+            in.nextNull();
+            return null;
+        default:
+            throw new IllegalStateException(String.format("Unexpected token %s at %s", in.peek(), in.getPath()));
+        }
+    }
+
+    private int checkDepth(final com.google.gson.stream.JsonReader in, final int depth) {
+        if (depth >= this.limits.getMaxDepth()) {
+            throw new IllegalStateException(String.format("Document exceeds maximum depth of %s (%s)", this.limits.getMaxDepth(), in.getPath()));
+        }
+        return depth + 1;
+    }
+
+    private Map<Object, Object> readObject(final com.google.gson.stream.JsonReader in, final int depth) throws IOException {
+        final Map<Object, Object> result = new LinkedHashMap<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            final String name = in.nextName();
+            result.put(name, readValue(in, depth));
+        }
+        in.endObject();
+
+        return result;
+    }
+
+    private List<Object> readArray(final com.google.gson.stream.JsonReader in, final int depth) throws IOException {
+        final List<Object> result = new ArrayList<>();
+
+        in.beginArray();
+        while (in.hasNext()) {
+            result.add(readValue(in, depth));
+        }
+        in.endArray();
+
+        return result;
+    }
+
+    private static Number toNumber(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') {
+                return Double.valueOf(value);
+            }
+        }
+
+        // same as SnakeYAML: use the smallest type which fits
+
+        if (value.length() < 10) {
+            return Integer.valueOf(value);
+        }
+
+        final BigInteger result = new BigInteger(value);
+        if (result.bitLength() < 32) {
+            return result.intValue();
+        }
+        if (result.bitLength() < 64) {
+            return result.longValue();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+/**
+ * Limits applied when reading a document
+ * <p>
+ * These limits protect against documents which are small in size, but
+ * expand to huge structures, like documents with nested aliases.
+ * </p>
+ */
+public final class Limits {
+
+    /**
+     * The default limits, allowing 1000 aliases and a depth of 128
+     */
+    public static final Limits DEFAULT = new Limits(1_000, 128);
+
+    private final int maxAliases;
+
+    private final int maxDepth;
+
+    /**
+     * Create new limits
+     *
+     * @param maxAliases
+     *            the maximum number of aliases in a document
+     * @param maxDepth
+     *            the maximum nesting depth of collections
+     */
+    public Limits(final int maxAliases, final int maxDepth) {
+        if (maxAliases < 0) {
+            throw new IllegalArgumentException("Maximum number of aliases must not be negative");
+        }
+        if (maxDepth <= 0) {
+            throw new IllegalArgumentException("Maximum depth must be greater than zero");
+        }
+
+        this.maxAliases = maxAliases;
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxAliases() {
+        return this.maxAliases;
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + this.maxAliases;
+        result = prime * result + this.maxDepth;
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final Limits other = (Limits) obj;
+        return this.maxAliases == other.maxAliases && this.maxDepth == other.maxDepth;
+    }
+}
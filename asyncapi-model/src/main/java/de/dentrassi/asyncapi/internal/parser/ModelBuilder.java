@@ -0,0 +1,849 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import static de.dentrassi.asyncapi.AsyncApi.VERSION;
+import static de.dentrassi.asyncapi.internal.parser.Consume.asBoolean;
+import static de.dentrassi.asyncapi.internal.parser.Consume.asMap;
+import static de.dentrassi.asyncapi.internal.parser.Consume.asOptionalMap;
+import static de.dentrassi.asyncapi.internal.parser.Consume.asOptionalSet;
+import static de.dentrassi.asyncapi.internal.parser.Consume.asOptionalString;
+import static de.dentrassi.asyncapi.internal.parser.Consume.asSet;
+import static de.dentrassi.asyncapi.internal.parser.Consume.asString;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.DeltaEncoding;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.MessageReference;
+import de.dentrassi.asyncapi.SymbolTable;
+import de.dentrassi.asyncapi.Topic;
+import de.dentrassi.asyncapi.meta.Information;
+import de.dentrassi.asyncapi.meta.License;
+import de.dentrassi.asyncapi.type.ArrayType;
+import de.dentrassi.asyncapi.type.CoreType;
+import de.dentrassi.asyncapi.type.EnumType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * Build the AsyncAPI model from a parsed document
+ * <p>
+ * This works on the generic structure of maps, lists and scalar values, as
+ * produced by the readers of the different {@link Format}s. So the model and
+ * all error messages are the same, no matter which format the document was
+ * encoded in.
+ * </p>
+ * <p>
+ * References to other files are supported when the document is loaded from a
+ * {@link Path}. Referenced documents are loaded through a
+ * {@link DocumentCache}, independent documents are loaded in parallel. Types
+ * and messages from other documents are added to the model by the last
+ * segment of their reference, or by the base name of the file if the whole
+ * file is referenced.
+ * </p>
+ */
+public class ModelBuilder {
+
+    private static class Document {
+        private final Path path;
+        private final Map<String, ?> content;
+
+        Document(final Path path, final Map<String, ?> content) {
+            this.path = path;
+            this.content = content;
+        }
+
+        Object resolve(final Reference reference) {
+            Object current = this.content;
+
+            for (final String token : reference.getPointer()) {
+                if (!(current instanceof Map<?, ?>)) {
+                    current = null;
+                    break;
+                }
+                current = ((Map<?, ?>) current).get(token);
+            }
+
+            if (current == null) {
+                throw new IllegalStateException(String.format("Unable to resolve reference '%s' in: %s", reference, this.path));
+            }
+
+            return current;
+        }
+    }
+
+    private final Limits limits;
+
+    private final DocumentCache cache;
+
+    private final Document root;
+
+    private Document current;
+
+    private final Map<Path, Document> documents = new LinkedHashMap<>();
+
+    private final Map<String, TypeReference> importedTypes = new HashMap<>();
+
+    private final Map<String, MessageReference> importedMessages = new HashMap<>();
+
+    private final Map<String, String> typeNames = new HashMap<>();
+
+    private final Map<String, String> messageNames = new HashMap<>();
+
+    private final Set<String> resolving = new HashSet<>();
+
+    private final Set<Type> externalTypes = new LinkedHashSet<>();
+
+    private final Set<Message> externalMessages = new LinkedHashSet<>();
+
+    private final Map<String, Message> messages = new HashMap<>();
+
+    /**
+     * Create a new builder for a document
+     *
+     * @param format
+     *            the format of the document
+     * @param reader
+     *            the reader to read the document from
+     * @param limits
+     *            the limits to apply to the document
+     * @throws ParserException
+     *             if the document cannot be parsed
+     */
+    protected ModelBuilder(final Format format, final Reader reader, final Limits limits) throws ParserException {
+        this.limits = limits;
+        this.cache = null;
+
+        try {
+            this.root = new Document(null, asMap(format.read(reader, limits)));
+        } catch (final Exception e) {
+            throw new ParserException(String.format("Failed to parse %s document", format), e);
+        }
+
+        this.current = this.root;
+    }
+
+    /**
+     * Create a new builder for a file
+     *
+     * @param format
+     *            the format of the file, referenced files use the format
+     *            {@link Format#forPath(Path) matching their name}
+     * @param path
+     *            the file to parse, references to other files are resolved
+     *            relative to this file
+     * @param limits
+     *            the limits to apply to this and all referenced documents
+     * @param cache
+     *            the cache to load documents through
+     * @throws ParserException
+     *             if the document, or one of the referenced documents,
+     *             cannot be parsed
+     */
+    protected ModelBuilder(final Format format, final Path path, final Limits limits, final DocumentCache cache) throws ParserException {
+        this.limits = limits;
+        this.cache = cache;
+
+        try {
+            final Path canonical = path.toRealPath();
+            this.root = new Document(canonical, asMap(cache.load(canonical, format, limits)));
+        } catch (final Exception e) {
+            throw new ParserException(String.format("Failed to parse %s document", format), e);
+        }
+
+        this.current = this.root;
+
+        try {
+            preload();
+        } catch (final Exception e) {
+            throw new ParserException("Failed to load referenced documents", e);
+        }
+    }
+
+    /**
+     * Get the files this parser has read
+     * <p>
+     * After the model has been parsed, this contains the main file and all
+     * referenced files.
+     * </p>
+     *
+     * @return the files, empty if the document was not loaded from a file
+     */
+    public Set<Path> getSources() {
+        if (this.root.path == null) {
+            return Collections.emptySet();
+        }
+
+        final Set<Path> result = new LinkedHashSet<>();
+        result.add(this.root.path);
+        result.addAll(this.documents.keySet());
+        return result;
+    }
+
+    /**
+     * Load all documents referenced by the root document
+     * <p>
+     * All documents referenced by one document get loaded in parallel, before
+     * the documents referenced by those get loaded.
+     * </p>
+     */
+    private void preload() {
+        final Set<Path> seen = new HashSet<>();
+        seen.add(this.root.path);
+
+        Set<Path> next = references(this.root, seen);
+
+        while (!next.isEmpty()) {
+
+            final List<Document> loaded = next.parallelStream()
+                    .map(this::loadDocument)
+                    .collect(Collectors.toList());
+
+            next = new LinkedHashSet<>();
+            for (final Document document : loaded) {
+                this.documents.put(document.path, document);
+                next.addAll(references(document, seen));
+            }
+        }
+    }
+
+    private Set<Path> references(final Document document, final Set<Path> seen) {
+        final Set<Path> result = new LinkedHashSet<>();
+        collectReferences(document, document.content, seen, result);
+        return result;
+    }
+
+    private static void collectReferences(final Document document, final Object value, final Set<Path> seen, final Set<Path> result) {
+        if (value instanceof Map<?, ?>) {
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if ("$ref".equals(entry.getKey()) && entry.getValue() instanceof String) {
+                    final String file = Reference.parse((String) entry.getValue()).getFile();
+                    if (!file.isEmpty() && !isUrl(file)) {
+                        final Path path = document.path.resolveSibling(file);
+                        try {
+                            final Path canonical = path.toRealPath();
+                            if (seen.add(canonical)) {
+                                result.add(canonical);
+                            }
+                        } catch (final IOException e) {
+                            // will be reported when the reference gets resolved
+                        }
+                    }
+                } else {
+                    collectReferences(document, entry.getValue(), seen, result);
+                }
+            }
+        } else if (value instanceof Collection<?>) {
+            for (final Object entry : (Collection<?>) value) {
+                collectReferences(document, entry, seen, result);
+            }
+        }
+    }
+
+    private static boolean isUrl(final String file) {
+        return file.contains("://");
+    }
+
+    private Document loadDocument(final Path path) {
+        try {
+            return new Document(path, asMap(this.cache.load(path, Format.forPath(path), this.limits)));
+        } catch (final IOException e) {
+            throw new IllegalStateException(String.format("Failed to load referenced document: %s", path), e);
+        }
+    }
+
+    private Document resolveDocument(final Reference reference) {
+        final String file = reference.getFile();
+
+        if (file.isEmpty()) {
+            return this.current;
+        }
+
+        if (isUrl(file)) {
+            throw new IllegalStateException(String.format("Only references to local files are supported: %s", reference));
+        }
+
+        if (this.current.path == null) {
+            throw new IllegalStateException(String.format("Unable to resolve reference '%s', the document was not loaded from a file", reference));
+        }
+
+        final Path path;
+        try {
+            path = this.current.path.resolveSibling(file).toRealPath();
+        } catch (final IOException e) {
+            throw new IllegalStateException(String.format("Failed to resolve reference '%s' from: %s", reference, this.current.path), e);
+        }
+
+        if (path.equals(this.root.path)) {
+            return this.root;
+        }
+
+        return this.documents.computeIfAbsent(path, this::loadDocument);
+    }
+
+    private <T> T within(final Document document, final Supplier<T> supplier) {
+        final Document previous = this.current;
+        this.current = document;
+        try {
+            return supplier.get();
+        } finally {
+            this.current = previous;
+        }
+    }
+
+    private static void claimName(final Map<String, String> names, final String kind, final String name, final String key) {
+        final String existing = names.putIfAbsent(name, key);
+        if (existing != null && !existing.equals(key)) {
+            throw new IllegalStateException(String.format("%s '%s' referenced by '%s' conflicts with an existing %s of the same name, defined by: %s", kind, name, key,
+                    kind.toLowerCase(), existing));
+        }
+    }
+
+    private static String baseName(final Path path) {
+        final String name = path.getFileName().toString();
+        final int idx = name.lastIndexOf('.');
+        return idx > 0 ? name.substring(0, idx) : name;
+    }
+
+    public AsyncApi parse() {
+        final Map<String, ?> document = this.root.content;
+
+        final String version = asString("asyncapi", document);
+
+        if (!VERSION.equals(version)) {
+            throw new IllegalStateException(String.format("Only version '%s' is supported, this is version '%s'", VERSION, version));
+        }
+
+        final AsyncApi api = new AsyncApi();
+
+        final Map<String, ?> components = asMap("components", document);
+        final Optional<Map<String, ?>> messages = asOptionalMap("messages", components);
+        final Optional<Map<String, ?>> schemas = asOptionalMap("schemas", components);
+
+        // local names take precedence over imported ones
+
+        messages.ifPresent(map -> map.keySet().forEach(name -> this.messageNames.put(name, "#/components/messages/" + name)));
+        schemas.ifPresent(map -> map.keySet().forEach(name -> this.typeNames.put(name, "#/components/schemas/" + name)));
+
+        api.setBaseTopic(asOptionalString("baseTopic", document).orElse(null));
+        api.setHost(asOptionalString("host", document).orElse("localhost"));
+        api.setSchemes(asSet("schemes", document));
+        api.setInformation(parseInfo(asMap("info", document)));
+        api.setTopics(parseTopics(asMap("topics", document)));
+
+        api.setMessages(withExternal(parseMessages(messages.orElse(null)), this.externalMessages));
+        api.setTypes(withExternal(parseTypes(schemas.orElse(null)), this.externalTypes));
+
+        api.index();
+
+        return api;
+    }
+
+    private static <T> Set<T> withExternal(final Set<T> local, final Set<T> external) {
+        if (external.isEmpty()) {
+            return local;
+        }
+
+        final Set<T> result = new LinkedHashSet<>(local);
+        result.addAll(external);
+        return result;
+    }
+
+    private Set<Type> parseTypes(final Map<String, ?> map) {
+        if (map == null || map.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final Set<Type> result = new LinkedHashSet<>();
+
+        for (final Map.Entry<String, ?> entry : map.entrySet()) {
+            final String name = entry.getKey();
+            result.add(parseExplicitType(SymbolTable.TYPES_NAMESPACE, Collections.emptyList(), name, asMap(entry.getValue())));
+        }
+
+        return result;
+    }
+
+    private Set<Message> parseMessages(final Map<String, ?> map) {
+        if (map == null || map.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final Set<Message> result = new LinkedHashSet<>();
+
+        for (final Map.Entry<String, ?> entry : map.entrySet()) {
+            final String name = entry.getKey();
+            result.add(parseExplicitMessage(name, asMap(entry.getValue())));
+        }
+
+        return result;
+    }
+
+    private static class Reference implements Iterable<String> {
+
+        private final String ref;
+
+        private final String file;
+
+        private final List<String> tokens;
+
+        private final List<String> pointer;
+
+        public Reference(final String ref, final String file, final List<String> tokens, final List<String> pointer) {
+            this.ref = ref;
+            this.file = file;
+            this.tokens = tokens;
+            this.pointer = pointer;
+            if (tokens.isEmpty()) {
+                throw new IllegalArgumentException("Reference must not be empty");
+            }
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return this.tokens.iterator();
+        }
+
+        public static Reference parse(final String ref) {
+            final int idx = ref.indexOf('#');
+
+            final String file = idx < 0 ? ref : ref.substring(0, idx);
+            final String fragment = idx < 0 ? "" : ref.substring(idx + 1);
+
+            final List<String> pointer = new ArrayList<>();
+            for (final String token : fragment.split("/+")) {
+                if (!token.isEmpty()) {
+                    // JSON pointer escaping
+                    pointer.add(token.replace("~1", "/").replace("~0", "~"));
+                }
+            }
+
+            return new Reference(ref, file, Arrays.asList(ref.split("/+")), pointer);
+        }
+
+        /**
+         * Get the file part of the reference
+         *
+         * @return the file part, empty if the reference is local to the
+         *         document
+         */
+        public String getFile() {
+            return this.file;
+        }
+
+        /**
+         * Get the tokens of the fragment, pointing to the target inside the
+         * document
+         *
+         * @return the tokens, empty if the whole document is referenced
+         */
+        public List<String> getPointer() {
+            return this.pointer;
+        }
+
+        public boolean isExternal() {
+            return !this.file.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return this.ref;
+        }
+
+        public String last() {
+            return last(0);
+        }
+
+        public String last(final int reverseIndex) {
+            return this.tokens.get(this.tokens.size() - (reverseIndex + 1));
+        }
+
+    }
+
+    private TypeReference parseType(final String namespace, final List<String> parents, final String name, final Map<String, ?> map) {
+        final Optional<String> ref = asOptionalString("$ref", map);
+
+        if (ref.isPresent()) {
+            return parseTypeReference(Reference.parse(ref.get()));
+        } else {
+            return parseExplicitType(namespace, parents, name, map);
+        }
+    }
+
+    private TypeReference parseTypeReference(final Reference to) {
+        final Document document = resolveDocument(to);
+
+        if (document == this.root && !to.getPointer().isEmpty()) {
+
+            // FIXME: validate full ref syntax
+
+            return new TypeReference(mapPackageName(to.last(1)), to.last());
+        }
+
+        final String key = key(document, to);
+
+        final TypeReference existing = this.importedTypes.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Map<String, ?> map = asMap(document.resolve(to));
+
+        final Optional<String> ref = asOptionalString("$ref", map);
+        if (ref.isPresent()) {
+            // reference to a reference
+            if (!this.resolving.add(key)) {
+                throw new IllegalStateException(String.format("Circular reference: %s", key));
+            }
+            try {
+                final TypeReference result = within(document, () -> parseTypeReference(Reference.parse(ref.get())));
+                this.importedTypes.put(key, result);
+                return result;
+            } finally {
+                this.resolving.remove(key);
+            }
+        }
+
+        final String name = to.getPointer().isEmpty() ? baseName(document.path) : to.last();
+        claimName(this.typeNames, "Type", name, key);
+
+        // register before parsing, the type may reference itself
+
+        final TypeReference result = new TypeReference(SymbolTable.TYPES_NAMESPACE, name);
+        this.importedTypes.put(key, result);
+
+        this.externalTypes.add(within(document, () -> parseExplicitType(SymbolTable.TYPES_NAMESPACE, Collections.emptyList(), name, map)));
+
+        return result;
+    }
+
+    private static String key(final Document document, final Reference to) {
+        return document.path + "#/" + String.join("/", to.getPointer());
+    }
+
+    private String mapPackageName(final String type) {
+        if ("schemas".equals(type)) {
+            return SymbolTable.TYPES_NAMESPACE;
+        }
+        return type;
+    }
+
+    private Type parseExplicitType(final String namespace, final List<String> parents, final String name, final Map<String, ?> map) {
+
+        final String type = asString("type", map);
+        switch (type) {
+        case "boolean":
+            return addCommonTypeInfo(new CoreType(name, Boolean.class), map);
+        case "integer":
+            return addCommonTypeInfo(parseNumberType(name, map, Integer.class), map);
+        case "number":
+            return addCommonTypeInfo(parseNumberType(name, map, Double.class), map);
+        case "string": {
+            if (map.containsKey("enum")) {
+                return addCommonTypeInfo(parseEnumType(namespace, parents, name, map), map);
+            }
+            return addCommonTypeInfo(parseCoreType(name, map), map);
+        }
+        case "array":
+            return addCommonTypeInfo(parseArrayType(namespace, parents, name, map), map);
+        case "object":
+            return addCommonTypeInfo(parseObjectType(namespace, parents, name, map), map);
+        default:
+            throw new IllegalStateException(String.format("Unsupported type: %s", type));
+        }
+    }
+
+    private static List<String> push(final List<String> parents, final String name) {
+        final List<String> result = new ArrayList<>(parents);
+        result.add(name);
+        return result;
+    }
+
+    private Type parseArrayType(final String namespace, final List<String> parents, final String name, final Map<String, ?> map) {
+
+        final boolean uniqueItems = Consume.asBoolean(map, "uniqueItems");
+
+        final TypeReference itemType = parseType(namespace, parents, name + "Item", asMap("items", map));
+
+        final ArrayType type = new ArrayType(name, itemType, uniqueItems);
+
+        return type;
+    }
+
+    private Type parseEnumType(final String namespace, final List<String> parents, final String name, final Map<String, ?> map) {
+        final EnumType type = new EnumType(namespace, parents, name);
+
+        type.setLiterals(asSet("enum", map));
+
+        return type;
+    }
+
+    private CoreType parseCoreType(final String name, final Map<String, ?> map) {
+
+        final String format = asOptionalString("format", map).orElse(null);
+
+        if (format == null) {
+            return new CoreType(name, String.class);
+        }
+
+        switch (format) {
+        case "date-time":
+            return new CoreType(name, ZonedDateTime.class);
+        default:
+            throw new IllegalStateException(String.format("Unknown data format: " + format));
+        }
+    }
+
+    private CoreType parseNumberType(final String name, final Map<String, ?> map, final Class<?> defaultType) {
+
+        final String format = asOptionalString("format", map).orElse(null);
+
+        if (format == null) {
+            return new CoreType(name, defaultType);
+        }
+
+        if (Integer.class.equals(defaultType)) {
+            switch (format) {
+            case "int32":
+                return new CoreType(name, Integer.class);
+            case "int64":
+                return new CoreType(name, Long.class);
+            }
+        } else {
+            switch (format) {
+            case "float":
+                return new CoreType(name, Float.class);
+            case "double":
+                return new CoreType(name, Double.class);
+            }
+        }
+
+        // the format of numbers used to be ignored, so keep it that way for unknown formats
+
+        return new CoreType(name, defaultType);
+    }
+
+    private Type parseObjectType(final String namespace, final List<String> parents, final String name, final Map<String, ?> map) {
+        final ObjectType type = new ObjectType(namespace, parents, name);
+
+        final Set<String> required = asOptionalSet("required", map).orElse(Collections.emptySet());
+
+        final Map<String, ?> prop = asMap("properties", map);
+
+        for (final Map.Entry<String, ?> entry : prop.entrySet()) {
+            final Property p = new Property();
+
+            final String propName = entry.getKey();
+            final Map<String, ?> propValues = asMap(entry.getValue());
+
+            p.setName(propName);
+            p.setDescription(asOptionalString("description", propValues).orElse(null));
+            p.setRequired(required.contains(propName));
+            p.setIntern(asBoolean(propValues, "x-intern"));
+            p.setType(parseType(namespace, push(parents, name), entry.getKey(), propValues));
+
+            type.getProperties().add(p);
+        }
+
+        return type;
+    }
+
+    private Type addCommonTypeInfo(final Type type, final Map<String, ?> map) {
+        type.setTitle(asOptionalString("title", map).orElse(null));
+        type.setDescription(asOptionalString("description", map).orElse(null));
+        return type;
+    }
+
+    private Set<Topic> parseTopics(final Map<String, ?> topics) {
+        final Set<Topic> result = new LinkedHashSet<>();
+
+        for (final Map.Entry<String, ?> entry : topics.entrySet()) {
+            result.add(parseTopic(entry.getKey(), entry.getValue()));
+        }
+
+        return result;
+    }
+
+    private Topic parseTopic(final String key, final Object value) {
+        final Map<String, ?> map = asMap(value);
+
+        final Topic result = new Topic();
+
+        result.setName(key);
+        result.setPublish(asOptionalMap("publish", map).map(v -> parseMessage("Publish. " + key, v)).orElse(null));
+        result.setSubscribe(asOptionalMap("subscribe", map).map(v -> parseMessage("Subscribe." + key, v)).orElse(null));
+        result.setDeprecated(asBoolean(map, "deprecated"));
+        result.setDelta(parseDelta(key, map.get("x-delta")));
+
+        return result;
+    }
+
+    /**
+     * Parse the {@code x-delta} extension of a topic
+     * <p>
+     * This is either a boolean, or a map with the optional fields {@code key}
+     * and {@code keyframeInterval}.
+     * </p>
+     */
+    private static DeltaEncoding parseDelta(final String topic, final Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return null;
+        }
+        if (Boolean.TRUE.equals(value)) {
+            return new DeltaEncoding(null, DeltaEncoding.DEFAULT_KEYFRAME_INTERVAL);
+        }
+
+        final Map<String, ?> map = asMap(value);
+
+        final Object interval = map.get("keyframeInterval");
+        if (interval != null && !(interval instanceof Number)) {
+            throw new IllegalStateException(String.format("'keyframeInterval' of topic '%s' must be a number", topic));
+        }
+
+        return new DeltaEncoding(asOptionalString("key", map).orElse(null),
+                interval != null ? ((Number) interval).intValue() : DeltaEncoding.DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    private MessageReference parseMessage(final String name, final Map<String, ?> map) {
+        final Optional<String> ref = asOptionalString("$ref", map);
+
+        if (ref.isPresent()) {
+            return parseMessageReference(Reference.parse(ref.get()));
+        } else {
+            return parseExplicitMessage(name, map);
+        }
+    }
+
+    private MessageReference parseMessageReference(final Reference to) {
+        final Document document = resolveDocument(to);
+
+        if (document == this.root && !to.getPointer().isEmpty()) {
+            final String refName = to.last();
+            return new MessageReference(refName);
+        }
+
+        final String key = key(document, to);
+
+        final MessageReference existing = this.importedMessages.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Map<String, ?> map = asMap(document.resolve(to));
+
+        final Optional<String> ref = asOptionalString("$ref", map);
+        if (ref.isPresent()) {
+            if (!this.resolving.add(key)) {
+                throw new IllegalStateException(String.format("Circular reference: %s", key));
+            }
+            try {
+                final MessageReference result = within(document, () -> parseMessageReference(Reference.parse(ref.get())));
+                this.importedMessages.put(key, result);
+                return result;
+            } finally {
+                this.resolving.remove(key);
+            }
+        }
+
+        final String name = to.getPointer().isEmpty() ? baseName(document.path) : to.last();
+        claimName(this.messageNames, "Message", name, key);
+
+        final MessageReference result = new MessageReference(name);
+        this.importedMessages.put(key, result);
+
+        this.externalMessages.add(within(document, () -> parseExplicitMessage(name, map)));
+
+        return result;
+    }
+
+    private Message parseExplicitMessage(final String name, final Map<String, ?> map) {
+
+        final Message message = new Message(name);
+
+        message.setDescription(asOptionalString("description", map).orElse(null));
+        message.setSummary(asOptionalString("summary", map).orElse(null));
+
+        message.setPayload(parseType("messages", Collections.singletonList(name), "payload", asMap("payload", map)));
+
+        message.setDeprecated(asBoolean(map, "deprecated"));
+
+        this.messages.put(name, message);
+
+        return message;
+    }
+
+    private Information parseInfo(final Map<String, ?> map) {
+        final Information result = new Information();
+
+        result.setTitle(asOptionalString("title", map).orElse(null));
+        result.setVersion(asString("version", map));
+        result.setDescription(asOptionalString("description", map).orElse(null));
+        result.setTermsOfService(asOptionalString("termsOfService", map)
+                .map(ModelBuilder::toUri)
+                .orElse(null));
+
+        result.setLicense(asOptionalMap("license", map).map(this::parseLicense).orElse(null));
+
+        return result;
+    }
+
+    private License parseLicense(final Map<String, ?> map) {
+
+        final License result = new License();
+
+        result.setName(asString("name", map));
+        result.setUrl(asOptionalString("url", map)
+                .map(ModelBuilder::toUri)
+                .orElse(null));
+
+        return result;
+
+    }
+
+    private static URI toUri(final String string) {
+        try {
+            return new URI(string);
+        } catch (final URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
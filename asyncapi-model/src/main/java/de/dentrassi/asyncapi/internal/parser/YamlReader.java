@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Read a YAML document into maps, lists and scalar values
+ * <p>
+ * This produces the same result as {@link org.yaml.snakeyaml.Yaml#load(Reader)}
+ * but works on the event stream of the YAML parser. It does not build the
+ * intermediate node graph of SnakeYAML, which would otherwise be held in
+ * memory in addition to the resulting objects.
+ * </p>
+ * <p>
+ * Aliases are resolved to the same instance as the anchored value, like
+ * SnakeYAML does. Recursive aliases are rejected, as well as documents
+ * exceeding the provided {@link Limits}.
+ * </p>
+ */
+public class YamlReader {
+
+    private static class ScalarConstructor extends SafeConstructor {
+        Object construct(final ScalarNode node) {
+            return getConstructor(node).construct(node);
+        }
+    }
+
+    private final Limits limits;
+
+    private final Resolver resolver = new Resolver();
+
+    private final ScalarConstructor constructor = new ScalarConstructor();
+
+    private final Map<String, Object> anchors = new HashMap<>();
+
+    private final Set<String> pending = new HashSet<>();
+
+    private int aliases;
+
+    public YamlReader(final Limits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Read a single document
+     *
+     * @param reader
+     *            the reader to read from
+     * @return the content of the document, may be {@code null} if the stream
+     *         is empty
+     */
+    public Object read(final Reader reader) {
+        final Parser parser = new ParserImpl(new StreamReader(reader));
+
+        expect(parser, Event.ID.StreamStart);
+
+        if (parser.checkEvent(Event.ID.StreamEnd)) {
+            return null;
+        }
+
+        expect(parser, Event.ID.DocumentStart);
+        final Object result = readNode(parser, 0);
+        expect(parser, Event.ID.DocumentEnd);
+
+        if (!parser.checkEvent(Event.ID.StreamEnd)) {
+            final Event event = parser.getEvent();
+            throw new IllegalStateException(String.format("Expected a single document in the stream, but found another document (%s)", event.getStartMark()));
+        }
+
+        return result;
+    }
+
+    private static Event expect(final Parser parser, final Event.ID id) {
+        final Event event = parser.getEvent();
+        if (!event.is(id)) {
+            throw new IllegalStateException(String.format("Expected event %s, but found: %s", id, event));
+        }
+        return event;
+    }
+
+    private Object readNode(final Parser parser, final int depth) {
+        final Event event = parser.getEvent();
+
+        if (event instanceof AliasEvent) {
+            return alias((AliasEvent) event);
+        }
+
+        final String anchor = ((NodeEvent) event).getAnchor();
+
+        if (event instanceof ScalarEvent) {
+            return anchor(anchor, scalar((ScalarEvent) event));
+        }
+
+        if (depth >= this.limits.getMaxDepth()) {
+            throw new IllegalStateException(String.format("Document exceeds maximum depth of %s (%s)", this.limits.getMaxDepth(), event.getStartMark()));
+        }
+
+        if (anchor != null) {
+            this.pending.add(anchor);
+        }
+
+        final Object result;
+
+        if (event instanceof MappingStartEvent) {
+            result = mapping(parser, depth + 1);
+        } else if (event instanceof SequenceStartEvent) {
+            result = sequence(parser, depth + 1);
+        } else {
+            throw new IllegalStateException(String.format("Unexpected event: %s", event));
+        }
+
+        if (anchor != null) {
+            this.pending.remove(anchor);
+        }
+
+        checkTag((CollectionStartEvent) event);
+
+        return anchor(anchor, result);
+    }
+
+    private void checkTag(final CollectionStartEvent event) {
+        final String tag = event.getTag();
+
+        if (tag == null || "!".equals(tag)) {
+            return;
+        }
+
+        if (event instanceof MappingStartEvent && Tag.MAP.getValue().equals(tag)) {
+            return;
+        }
+        if (event instanceof SequenceStartEvent && Tag.SEQ.getValue().equals(tag)) {
+            return;
+        }
+
+        throw new IllegalStateException(String.format("Unsupported tag: %s (%s)", tag, event.getStartMark()));
+    }
+
+    private Object anchor(final String anchor, final Object value) {
+        if (anchor != null) {
+            this.anchors.put(anchor, value);
+        }
+        return value;
+    }
+
+    private Object alias(final AliasEvent event) {
+        final String anchor = event.getAnchor();
+
+        if (++this.aliases > this.limits.getMaxAliases()) {
+            throw new IllegalStateException(String.format("Document exceeds maximum number of %s aliases (%s)", this.limits.getMaxAliases(), event.getStartMark()));
+        }
+        if (this.pending.contains(anchor)) {
+            throw new IllegalStateException(String.format("Recursive alias '%s' is not supported (%s)", anchor, event.getStartMark()));
+        }
+        if (!this.anchors.containsKey(anchor)) {
+            throw new IllegalStateException(String.format("Found undefined alias '%s' (%s)", anchor, event.getStartMark()));
+        }
+
+        return this.anchors.get(anchor);
+    }
+
+    private Object scalar(final ScalarEvent event) {
+        final String tagName = event.getTag();
+
+        final Tag tag;
+        if (tagName == null || "!".equals(tagName)) {
+            tag = this.resolver.resolve(NodeId.scalar, event.getValue(), event.getImplicit().canOmitTagInPlainScalar());
+        } else {
+            tag = new Tag(tagName);
+        }
+
+        // fast path for the most common cases
+
+        if (Tag.STR.equals(tag)) {
+            return event.getValue();
+        }
+        if (Tag.NULL.equals(tag)) {
+            return null;
+        }
+
+        return this.constructor.construct(new ScalarNode(tag, event.getValue(), event.getStartMark(), event.getEndMark(), event.getStyle()));
+    }
+
+    private List<Object> sequence(final Parser parser, final int depth) {
+        final List<Object> result = new ArrayList<>();
+
+        while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+            result.add(readNode(parser, depth));
+        }
+        parser.getEvent();
+
+        return result;
+    }
+
+    private Map<Object, Object> mapping(final Parser parser, final int depth) {
+        Map<Object, Object> result = new LinkedHashMap<>();
+        List<Map<?, ?>> merges = null;
+
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+
+            if (isMergeKey(parser.peekEvent())) {
+                parser.getEvent();
+                if (merges == null) {
+                    merges = new ArrayList<>();
+                }
+                addMerge(merges, readNode(parser, depth));
+                continue;
+            }
+
+            final Object key = readNode(parser, depth);
+            final Object value = readNode(parser, depth);
+
+            result.put(key, value);
+        }
+        parser.getEvent();
+
+        if (merges != null) {
+            result = merge(merges, result);
+        }
+
+        return result;
+    }
+
+    private boolean isMergeKey(final Event event) {
+        if (!(event instanceof ScalarEvent)) {
+            return false;
+        }
+
+        final ScalarEvent scalar = (ScalarEvent) event;
+        if (scalar.getTag() != null) {
+            return Tag.MERGE.getValue().equals(scalar.getTag());
+        }
+
+        return scalar.getImplicit().canOmitTagInPlainScalar() && "<<".equals(scalar.getValue());
+    }
+
+    private static void addMerge(final List<Map<?, ?>> merges, final Object value) {
+        if (value instanceof Map<?, ?>) {
+            merges.add((Map<?, ?>) value);
+            return;
+        }
+
+        if (value instanceof Collection<?>) {
+            for (final Object entry : (Collection<?>) value) {
+                if (!(entry instanceof Map<?, ?>)) {
+                    throw new IllegalStateException("Expected a mapping for merging, but found: " + entry);
+                }
+                merges.add((Map<?, ?>) entry);
+            }
+            return;
+        }
+
+        throw new IllegalStateException("Expected a mapping or list of mappings for merging, but found: " + value);
+    }
+
+    private static Map<Object, Object> merge(final List<Map<?, ?>> merges, final Map<Object, Object> explicit) {
+
+        // like SnakeYAML: explicit keys come first and take precedence, then earlier merges win over later ones
+
+        final Map<Object, Object> result = new LinkedHashMap<>(explicit);
+
+        for (int i = merges.size() - 1; i >= 0; i--) {
+            for (final Map.Entry<?, ?> entry : merges.get(i).entrySet()) {
+                if (!explicit.containsKey(entry.getKey())) {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        return result;
+    }
+}
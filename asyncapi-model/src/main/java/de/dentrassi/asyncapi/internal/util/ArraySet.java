@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.util;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable set, backed by an array
+ * <p>
+ * The set keeps the iteration order of the source collection. It stores the
+ * hash code of each element, and of the set itself, when it gets created.
+ * Small sets are searched linearly, comparing the stored hash codes first.
+ * Larger sets additionally keep an open addressing table of positions.
+ * </p>
+ * <p>
+ * Compared to a {@link java.util.LinkedHashSet}, this needs about a fifth of
+ * the memory for each element. As it cannot be modified, it is safe to share
+ * between threads.
+ * </p>
+ *
+ * @param <E>
+ *            the element type
+ */
+public final class ArraySet<E> extends AbstractSet<E> {
+
+    /**
+     * Sets up to this size are searched linearly
+     */
+    private static final int LINEAR = 8;
+
+    private final Object[] elements;
+    private final int[] hashes;
+    private final int[] table;
+    private final int hash;
+
+    private ArraySet(final Collection<? extends E> source) {
+        final int size = source.size();
+
+        this.elements = new Object[size];
+        this.hashes = new int[size];
+
+        int i = 0;
+        int sum = 0;
+        for (final E element : source) {
+            this.elements[i] = element;
+            this.hashes[i] = hash(element);
+            sum += this.hashes[i];
+            i++;
+        }
+
+        this.hash = sum;
+
+        if (size > LINEAR) {
+            // power of two, at most half full
+            this.table = new int[Integer.highestOneBit(size - 1) << 2];
+            final int mask = this.table.length - 1;
+            for (i = 0; i < size; i++) {
+                int slot = spread(this.hashes[i]) & mask;
+                while (this.table[slot] != 0) {
+                    slot = slot + 1 & mask;
+                }
+                // position plus one, zero marks an empty slot
+                this.table[slot] = i + 1;
+            }
+        } else {
+            this.table = null;
+        }
+    }
+
+    /**
+     * Create an immutable copy of a set
+     *
+     * @param source
+     *            the set to copy
+     * @return the copy, either an {@link ArraySet} or an empty set
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> Set<E> copyOf(final Set<? extends E> source) {
+        if (source instanceof ArraySet<?>) {
+            return (Set<E>) source;
+        }
+        if (source.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new ArraySet<>(source);
+    }
+
+    /**
+     * Create an immutable set from a collection of distinct elements
+     *
+     * @param source
+     *            the elements, which must not contain duplicates
+     * @return the new set, either an {@link ArraySet} or an empty set
+     */
+    public static <E> Set<E> ofDistinct(final Collection<? extends E> source) {
+        if (source.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new ArraySet<>(source);
+    }
+
+    private static int hash(final Object element) {
+        return element == null ? 0 : element.hashCode();
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    @Override
+    public int size() {
+        return this.elements.length;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        final int h = hash(o);
+
+        if (this.table == null) {
+            for (int i = 0; i < this.elements.length; i++) {
+                if (this.hashes[i] == h && equal(this.elements[i], o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        final int mask = this.table.length - 1;
+        int slot = spread(h) & mask;
+        int entry;
+        while ((entry = this.table[slot]) != 0) {
+            if (this.hashes[entry - 1] == h && equal(this.elements[entry - 1], o)) {
+                return true;
+            }
+            slot = slot + 1 & mask;
+        }
+        return false;
+    }
+
+    private static boolean equal(final Object a, final Object b) {
+        return a == b || a != null && a.equals(b);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < ArraySet.this.elements.length;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public E next() {
+                if (this.next >= ArraySet.this.elements.length) {
+                    throw new NoSuchElementException();
+                }
+                return (E) ArraySet.this.elements[this.next++];
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        return this.elements.clone();
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+}
@@ -27,11 +27,14 @@ public class Information {
     private URI termsOfService;
     private License license;
 
+    private boolean frozen;
+
     public String getTitle() {
         return this.title;
     }
 
     public void setTitle(final String title) {
+        checkMutable();
         this.title = title;
     }
 
@@ -40,6 +43,7 @@ public class Information {
     }
 
     public void setVersion(final String version) {
+        checkMutable();
         this.version = version;
     }
 
@@ -48,6 +52,7 @@ public class Information {
     }
 
     public void setDescription(final String description) {
+        checkMutable();
         this.description = description;
     }
 
@@ -56,6 +61,7 @@ public class Information {
     }
 
     public void setTermsOfService(final URI termsOfService) {
+        checkMutable();
         this.termsOfService = termsOfService;
     }
 
@@ -64,9 +70,32 @@ public class Information {
     }
 
     public void setLicense(final License license) {
+        checkMutable();
         this.license = license;
     }
 
+    /**
+     * Make this instance immutable
+     * <p>
+     * Any further call to a setter fails with an {@link IllegalStateException}.
+     * This does not freeze referenced instances, see
+     * {@link de.dentrassi.asyncapi.AsyncApi#freeze()}.
+     * </p>
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new IllegalStateException("Instance is frozen");
+        }
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
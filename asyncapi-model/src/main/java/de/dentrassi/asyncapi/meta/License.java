@@ -22,6 +22,8 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 
 public class License {
     private String name;
+
+    private boolean frozen;
     private URI url;
 
     public String getName() {
@@ -29,6 +31,7 @@ public class License {
     }
 
     public void setName(final String name) {
+        checkMutable();
         this.name = name;
     }
 
@@ -37,9 +40,32 @@ public class License {
     }
 
     public void setUrl(final URI url) {
+        checkMutable();
         this.url = url;
     }
 
+    /**
+     * Make this instance immutable
+     * <p>
+     * Any further call to a setter fails with an {@link IllegalStateException}.
+     * This does not freeze referenced instances, see
+     * {@link de.dentrassi.asyncapi.AsyncApi#freeze()}.
+     * </p>
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new IllegalStateException("Instance is frozen");
+        }
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.Topic;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * A content hash of a model, or parts of it
+ * <p>
+ * The hash is calculated over the binary snapshot encoding of the added
+ * elements, so two fingerprints are equal if the same elements, with the same
+ * content, have been added in the same order. The fingerprint also covers the
+ * version of the snapshot format.
+ * </p>
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ */
+public final class Fingerprint {
+
+    private final MessageDigest digest;
+    private final SnapshotWriter writer;
+
+    private String result;
+
+    public Fingerprint() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-256 must be supported by every JVM
+            throw new IllegalStateException(e);
+        }
+
+        this.writer = new SnapshotWriter(new DigestOutputStream(new NullOutputStream(), this.digest));
+
+        add(Integer.toString(SnapshotFormat.VERSION));
+    }
+
+    /**
+     * Add a string value
+     *
+     * @param value
+     *            the value, may be {@code null}
+     * @return the fingerprint instance
+     */
+    public Fingerprint add(final String value) {
+        return write(() -> this.writer.writeString(value));
+    }
+
+    /**
+     * Add the full model
+     *
+     * @param api
+     *            the model
+     * @return the fingerprint instance
+     */
+    public Fingerprint add(final AsyncApi api) {
+        return write(() -> this.writer.writeModel(api));
+    }
+
+    /**
+     * Add the information of the model
+     * <p>
+     * This covers the information block, the base topic, the host and the
+     * schemes, but none of the topics, messages or types.
+     * </p>
+     *
+     * @param api
+     *            the model
+     * @return the fingerprint instance
+     */
+    public Fingerprint addInformation(final AsyncApi api) {
+        return write(() -> {
+            this.writer.writeInformation(api.getInformation());
+            this.writer.writeString(api.getBaseTopic());
+            this.writer.writeString(api.getHost());
+            this.writer.writeStrings(api.getSchemes());
+        });
+    }
+
+    public Fingerprint add(final Topic topic) {
+        return write(() -> this.writer.writeTopic(topic));
+    }
+
+    public Fingerprint add(final Message message) {
+        return write(() -> this.writer.writeMessage(message));
+    }
+
+    /**
+     * Add a type
+     * <p>
+     * If the type is only a reference, then only the reference is added, not
+     * the type it refers to.
+     * </p>
+     *
+     * @param type
+     *            the type
+     * @return the fingerprint instance
+     */
+    public Fingerprint add(final TypeReference type) {
+        return write(() -> this.writer.writeType(type));
+    }
+
+    /**
+     * Finish the fingerprint
+     * <p>
+     * Once finished, no more elements can be added.
+     * </p>
+     *
+     * @return the fingerprint, as hex encoded string
+     */
+    public String finish() {
+        if (this.result == null) {
+            this.result = SnapshotCache.toHex(this.digest.digest());
+        }
+        return this.result;
+    }
+
+    @Override
+    public String toString() {
+        return finish();
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        public void write() throws IOException;
+    }
+
+    private Fingerprint write(final Write write) {
+        if (this.result != null) {
+            throw new IllegalStateException("Fingerprint is already finished");
+        }
+
+        try {
+            write.write();
+            this.writer.flush();
+        } catch (final IOException e) {
+            // we are not doing any I/O
+            throw new UncheckedIOException(e);
+        }
+
+        return this;
+    }
+
+    private static class NullOutputStream extends OutputStream {
+
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.dentrassi.asyncapi.AsyncApi;
+
+/**
+ * A cache of binary snapshots of parsed models
+ * <p>
+ * A snapshot stores a model, together with the content hashes of all files
+ * it was parsed from. Loading a snapshot is a lot faster than parsing the
+ * YAML sources again. A snapshot is only used if none of its sources have
+ * changed, and it was written by the same version of the snapshot format.
+ * In all other cases, and if the snapshot cannot be read for any other
+ * reason, {@link #load(Path)} returns {@code null} and the caller has to fall
+ * back to parsing the sources.
+ * </p>
+ * <p>
+ * Snapshots are only written for models which passed validation. Loaded
+ * models are still validated again by {@link AsyncApi}, as the cache
+ * directory may have been modified by someone else.
+ * </p>
+ * <p>
+ * The snapshot of a source file is stored in the cache directory, named by the
+ * hash of its canonical path. Snapshots are written to a temporary file first
+ * and then moved, so concurrent readers never see partial snapshots. If the
+ * file system supports it, a newly created cache directory is only
+ * accessible by its owner, and snapshots owned by other users are ignored.
+ * </p>
+ */
+public final class SnapshotCache {
+
+    /**
+     * System property to enable the default cache
+     * <p>
+     * The value is the directory to use. If unset, empty or {@code false},
+     * there is no default cache.
+     * </p>
+     */
+    public static final String PROPERTY = "asyncapi.snapshots";
+
+    private static final String SUFFIX = ".snapshot";
+
+    private final Path directory;
+
+    /**
+     * Create a new cache
+     *
+     * @param directory
+     *            the directory to store snapshots in, will be created when
+     *            required
+     */
+    public SnapshotCache(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get the default cache, as configured by the system property
+     * {@value #PROPERTY}
+     *
+     * @return the default cache, or {@code null} if it is not enabled
+     */
+    public static SnapshotCache defaultCache() {
+        final String value = System.getProperty(PROPERTY);
+
+        if (value == null || value.isEmpty() || "false".equalsIgnoreCase(value)) {
+            return null;
+        }
+
+        return new SnapshotCache(Paths.get(value));
+    }
+
+    /**
+     * Load the snapshot of a file
+     *
+     * @param source
+     *            the main source file
+     * @return the model, or {@code null} if there is no up-to-date snapshot
+     */
+    public AsyncApi load(final Path source) {
+        try {
+            final Path file = snapshotFile(source.toRealPath());
+            if (!Files.isRegularFile(file) || !isOwnedByCurrentUser(file)) {
+                return null;
+            }
+
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                final SnapshotReader reader = new SnapshotReader(in);
+
+                for (final Map.Entry<String, byte[]> entry : reader.readHeader().entrySet()) {
+                    final Path path = Paths.get(entry.getKey());
+                    if (!Files.isRegularFile(path) || !Arrays.equals(entry.getValue(), hash(Files.readAllBytes(path)))) {
+                        // stale
+                        return null;
+                    }
+                }
+
+                final AsyncApi api = reader.readModel();
+                api.index();
+                return api;
+            }
+        } catch (final Exception e) {
+            // incompatible or broken snapshot, parse again
+            return null;
+        }
+    }
+
+    /**
+     * Store the snapshot of a file
+     * <p>
+     * Failing to write the snapshot is not considered an error, the snapshot
+     * will simply be missing.
+     * </p>
+     *
+     * @param source
+     *            the main source file
+     * @param sources
+     *            all files the model was parsed from, including the main
+     *            source file
+     * @param api
+     *            the parsed model, which must have passed validation
+     */
+    public void store(final Path source, final Collection<Path> sources, final AsyncApi api) {
+        Path temp = null;
+
+        try {
+            final Map<String, byte[]> hashes = new LinkedHashMap<>();
+            for (final Path path : sources) {
+                final Path canonical = path.toRealPath();
+                hashes.put(canonical.toString(), hash(Files.readAllBytes(canonical)));
+            }
+
+            final Path file = snapshotFile(source.toRealPath());
+
+            createDirectory();
+            temp = Files.createTempFile(this.directory, file.getFileName().toString(), ".tmp");
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                final SnapshotWriter writer = new SnapshotWriter(out);
+                writer.writeHeader(hashes);
+                writer.writeModel(api);
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+
+        } catch (final Exception e) {
+            // ignore, we will parse again next time
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (final IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private void createDirectory() throws IOException {
+        if (Files.isDirectory(this.directory)) {
+            return;
+        }
+
+        if (this.directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(this.directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else {
+            Files.createDirectories(this.directory);
+        }
+    }
+
+    private static boolean isOwnedByCurrentUser(final Path file) throws IOException {
+        if (!file.getFileSystem().supportedFileAttributeViews().contains("owner")) {
+            return true;
+        }
+        return Files.getOwner(file).getName().equals(System.getProperty("user.name"));
+    }
+
+    private Path snapshotFile(final Path canonicalSource) {
+        return this.directory.resolve(toHex(hash(canonicalSource.toString().getBytes(StandardCharsets.UTF_8))) + SUFFIX);
+    }
+
+    private static byte[] hash(final byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-256 must be supported by every JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(final byte[] data) {
+        final StringBuilder sb = new StringBuilder(data.length * 2);
+        for (final byte b : data) {
+            sb.append(Character.forDigit(b >> 4 & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.snapshot;
+
+/**
+ * Constants of the binary snapshot format
+ * <p>
+ * A snapshot starts with the {@link #MAGIC} bytes and the {@link #VERSION}
+ * of the format, followed by the list of source files and their content
+ * hashes. The rest of the file is the encoded model.
+ * </p>
+ * <p>
+ * The version must be increased with every change to the encoding, and with
+ * every change to the model or the parser which would lead to a different
+ * model for the same source.
+ * </p>
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x41415350; // "AASP"
+
+    static final int VERSION = 3;
+
+    static final int STRING_NULL = 0;
+    static final int STRING_NEW = 1;
+    static final int STRING_INDEX_OFFSET = 2;
+
+    static final int MESSAGE_NULL = 0;
+    static final int MESSAGE_REFERENCE = 1;
+    static final int MESSAGE_INLINE = 2;
+
+    static final int TYPE_NULL = 0;
+    static final int TYPE_REFERENCE = 1;
+    static final int TYPE_CORE = 2;
+    static final int TYPE_ARRAY = 3;
+    static final int TYPE_ENUM = 4;
+    static final int TYPE_OBJECT = 5;
+
+    private SnapshotFormat() {
+    }
+}
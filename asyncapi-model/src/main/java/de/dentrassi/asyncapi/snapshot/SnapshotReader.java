@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.snapshot;
+
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.MAGIC;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.MESSAGE_INLINE;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.MESSAGE_NULL;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.MESSAGE_REFERENCE;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.STRING_INDEX_OFFSET;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.STRING_NEW;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.STRING_NULL;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_ARRAY;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_CORE;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_ENUM;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_NULL;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_OBJECT;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_REFERENCE;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.VERSION;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.DeltaEncoding;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.MessageReference;
+import de.dentrassi.asyncapi.Topic;
+import de.dentrassi.asyncapi.meta.Information;
+import de.dentrassi.asyncapi.meta.License;
+import de.dentrassi.asyncapi.type.ArrayType;
+import de.dentrassi.asyncapi.type.CoreType;
+import de.dentrassi.asyncapi.type.EnumType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * Read a model from a binary snapshot
+ * <p>
+ * Any inconsistency of the data is reported as an {@link IOException}.
+ * </p>
+ */
+final class SnapshotReader {
+
+    private static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+    private final DataInputStream in;
+
+    private final List<String> strings = new ArrayList<>();
+
+    SnapshotReader(final InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    /**
+     * Read the header
+     *
+     * @return the source files and their hashes
+     * @throws IOException
+     *             if the snapshot is invalid or has a different version
+     */
+    Map<String, byte[]> readHeader() throws IOException {
+        if (this.in.readInt() != MAGIC) {
+            throw new IOException("Not a snapshot");
+        }
+
+        final int version = this.in.readInt();
+        if (version != VERSION) {
+            throw new IOException(String.format("Unsupported snapshot version: %s", version));
+        }
+
+        final Map<String, byte[]> result = new LinkedHashMap<>();
+
+        final int count = readSize();
+        for (int i = 0; i < count; i++) {
+            final String path = readString();
+            final byte[] hash = new byte[readSize(64)];
+            this.in.readFully(hash);
+            result.put(path, hash);
+        }
+
+        return result;
+    }
+
+    AsyncApi readModel() throws IOException {
+        final AsyncApi api = new AsyncApi();
+
+        api.setInformation(readInformation());
+        api.setBaseTopic(readString());
+        api.setHost(readString());
+        api.setSchemes(readStrings());
+
+        final Set<Topic> topics = new LinkedHashSet<>();
+        for (int i = readSize(); i > 0; i--) {
+            topics.add(readTopic());
+        }
+        api.setTopics(topics);
+
+        final Set<Message> messages = new LinkedHashSet<>();
+        for (int i = readSize(); i > 0; i--) {
+            messages.add(readMessage());
+        }
+        api.setMessages(messages);
+
+        final Set<Type> types = new LinkedHashSet<>();
+        for (int i = readSize(); i > 0; i--) {
+            final TypeReference type = readType();
+            if (!(type instanceof Type)) {
+                throw new IOException("Expected type definition");
+            }
+            types.add((Type) type);
+        }
+        api.setTypes(types);
+
+        return api;
+    }
+
+    private Information readInformation() throws IOException {
+        if (!this.in.readBoolean()) {
+            return null;
+        }
+
+        final Information result = new Information();
+
+        result.setTitle(readString());
+        result.setVersion(readString());
+        result.setDescription(readString());
+        result.setTermsOfService(readUri());
+
+        if (this.in.readBoolean()) {
+            final License license = new License();
+            license.setName(readString());
+            license.setUrl(readUri());
+            result.setLicense(license);
+        }
+
+        return result;
+    }
+
+    private URI readUri() throws IOException {
+        final String value = readString();
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return new URI(value);
+        } catch (final URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private Topic readTopic() throws IOException {
+        final Topic topic = new Topic();
+
+        topic.setName(readString());
+        topic.setDeprecated(this.in.readBoolean());
+        topic.setPublish(readMessageReference());
+        topic.setSubscribe(readMessageReference());
+        if (this.in.readBoolean()) {
+            final String key = readString();
+            topic.setDelta(new DeltaEncoding(key, this.in.readInt()));
+        }
+
+        return topic;
+    }
+
+    private MessageReference readMessageReference() throws IOException {
+        final int kind = readSize();
+        switch (kind) {
+        case MESSAGE_NULL:
+            return null;
+        case MESSAGE_REFERENCE:
+            return new MessageReference(readString());
+        case MESSAGE_INLINE:
+            return readMessage();
+        default:
+            throw new IOException(String.format("Unknown message kind: %s", kind));
+        }
+    }
+
+    private Message readMessage() throws IOException {
+        final Message message = new Message(readString());
+
+        message.setSummary(readString());
+        message.setDescription(readString());
+        message.setDeprecated(this.in.readBoolean());
+        message.setPayload(readType());
+
+        return message;
+    }
+
+    private TypeReference readType() throws IOException {
+        final int kind = readSize();
+
+        final Type result;
+
+        switch (kind) {
+        case TYPE_NULL:
+            return null;
+        case TYPE_REFERENCE:
+            return new TypeReference(readString(), readString());
+        case TYPE_CORE:
+            result = new CoreType(readString(), readClass(readString()));
+            break;
+        case TYPE_ARRAY: {
+            final String name = readString();
+            final boolean unique = this.in.readBoolean();
+            result = new ArrayType(name, readType(), unique);
+            break;
+        }
+        case TYPE_ENUM: {
+            final EnumType type = new EnumType(readString(), readStringList(), readString());
+            type.setLiterals(readStrings());
+            result = type;
+            break;
+        }
+        case TYPE_OBJECT: {
+            final ObjectType type = new ObjectType(readString(), readStringList(), readString());
+            for (int i = readSize(); i > 0; i--) {
+                type.getProperties().add(readProperty());
+            }
+            result = type;
+            break;
+        }
+        default:
+            throw new IOException(String.format("Unknown type kind: %s", kind));
+        }
+
+        result.setTitle(readString());
+        result.setDescription(readString());
+
+        return result;
+    }
+
+    private static Class<?> readClass(final String name) throws IOException {
+        try {
+            return Class.forName(name, false, SnapshotReader.class.getClassLoader());
+        } catch (final ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private Property readProperty() throws IOException {
+        final Property property = new Property();
+
+        property.setName(readString());
+        property.setDescription(readString());
+        property.setRequired(this.in.readBoolean());
+        property.setIntern(this.in.readBoolean());
+        property.setType(readType());
+
+        return property;
+    }
+
+    private Set<String> readStrings() throws IOException {
+        final Set<String> result = new LinkedHashSet<>();
+        for (int i = readSize(); i > 0; i--) {
+            result.add(readString());
+        }
+        return result;
+    }
+
+    private List<String> readStringList() throws IOException {
+        final List<String> result = new ArrayList<>();
+        for (int i = readSize(); i > 0; i--) {
+            result.add(readString());
+        }
+        return result;
+    }
+
+    private String readString() throws IOException {
+        final int code = readSize();
+
+        if (code == STRING_NULL) {
+            return null;
+        }
+
+        if (code == STRING_NEW) {
+            final byte[] data = new byte[readSize(MAX_STRING_LENGTH)];
+            this.in.readFully(data);
+            final String result = new String(data, StandardCharsets.UTF_8);
+            this.strings.add(result);
+            return result;
+        }
+
+        final int index = code - STRING_INDEX_OFFSET;
+        if (index >= this.strings.size()) {
+            throw new IOException(String.format("Invalid string index: %s", index));
+        }
+
+        return this.strings.get(index);
+    }
+
+    private int readSize(final int max) throws IOException {
+        final int result = readSize();
+        if (result > max) {
+            throw new IOException(String.format("Size exceeds maximum of %s: %s", max, result));
+        }
+        return result;
+    }
+
+    private int readSize() throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = this.in.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (result < 0) {
+                    throw new IOException("Invalid size");
+                }
+                return result;
+            }
+        }
+        throw new IOException("Invalid size");
+    }
+}
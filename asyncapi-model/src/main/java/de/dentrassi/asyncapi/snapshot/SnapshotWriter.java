@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.snapshot;
+
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.MAGIC;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.MESSAGE_INLINE;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.MESSAGE_NULL;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.MESSAGE_REFERENCE;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.STRING_INDEX_OFFSET;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.STRING_NEW;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.STRING_NULL;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_ARRAY;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_CORE;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_ENUM;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_NULL;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_OBJECT;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.TYPE_REFERENCE;
+import static de.dentrassi.asyncapi.snapshot.SnapshotFormat.VERSION;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.DeltaEncoding;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.MessageReference;
+import de.dentrassi.asyncapi.Topic;
+import de.dentrassi.asyncapi.meta.Information;
+import de.dentrassi.asyncapi.meta.License;
+import de.dentrassi.asyncapi.type.ArrayType;
+import de.dentrassi.asyncapi.type.CoreType;
+import de.dentrassi.asyncapi.type.EnumType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.ParentableType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * Write a model into a binary snapshot
+ */
+final class SnapshotWriter {
+
+    private final DataOutputStream out;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    SnapshotWriter(final OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    void writeHeader(final Map<String, byte[]> sources) throws IOException {
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(VERSION);
+
+        writeSize(sources.size());
+        for (final Map.Entry<String, byte[]> entry : sources.entrySet()) {
+            writeString(entry.getKey());
+            writeSize(entry.getValue().length);
+            this.out.write(entry.getValue());
+        }
+    }
+
+    void writeModel(final AsyncApi api) throws IOException {
+        writeInformation(api.getInformation());
+        writeString(api.getBaseTopic());
+        writeString(api.getHost());
+        writeStrings(api.getSchemes());
+
+        writeSize(api.getTopics().size());
+        for (final Topic topic : api.getTopics()) {
+            writeTopic(topic);
+        }
+
+        writeSize(api.getMessages().size());
+        for (final Message message : api.getMessages()) {
+            writeMessage(message);
+        }
+
+        writeSize(api.getTypes().size());
+        for (final Type type : api.getTypes()) {
+            writeType(type);
+        }
+
+        this.out.flush();
+    }
+
+    void writeInformation(final Information information) throws IOException {
+        this.out.writeBoolean(information != null);
+        if (information == null) {
+            return;
+        }
+
+        writeString(information.getTitle());
+        writeString(information.getVersion());
+        writeString(information.getDescription());
+        writeUri(information.getTermsOfService());
+
+        final License license = information.getLicense();
+        this.out.writeBoolean(license != null);
+        if (license != null) {
+            writeString(license.getName());
+            writeUri(license.getUrl());
+        }
+    }
+
+    private void writeUri(final URI uri) throws IOException {
+        writeString(uri != null ? uri.toString() : null);
+    }
+
+    void writeTopic(final Topic topic) throws IOException {
+        writeString(topic.getName());
+        this.out.writeBoolean(topic.isDeprecated());
+        writeMessageReference(topic.getPublish());
+        writeMessageReference(topic.getSubscribe());
+
+        final DeltaEncoding delta = topic.getDelta();
+        this.out.writeBoolean(delta != null);
+        if (delta != null) {
+            writeString(delta.getKey());
+            this.out.writeInt(delta.getKeyframeInterval());
+        }
+    }
+
+    private void writeMessageReference(final MessageReference reference) throws IOException {
+        if (reference == null) {
+            writeSize(MESSAGE_NULL);
+        } else if (reference instanceof Message) {
+            writeSize(MESSAGE_INLINE);
+            writeMessage((Message) reference);
+        } else if (reference.getClass().equals(MessageReference.class)) {
+            writeSize(MESSAGE_REFERENCE);
+            writeString(reference.getName());
+        } else {
+            throw new IllegalStateException("Unsupported message reference: " + reference.getClass().getName());
+        }
+    }
+
+    void writeMessage(final Message message) throws IOException {
+        writeString(message.getName());
+        writeString(message.getSummary());
+        writeString(message.getDescription());
+        this.out.writeBoolean(message.isDeprecated());
+        writeType(message.getPayload());
+    }
+
+    void writeType(final TypeReference type) throws IOException {
+        if (type == null) {
+            writeSize(TYPE_NULL);
+            return;
+        }
+
+        final Class<?> clazz = type.getClass();
+
+        if (clazz.equals(TypeReference.class)) {
+            writeSize(TYPE_REFERENCE);
+            writeString(type.getNamespace());
+            writeString(type.getName());
+            return;
+        }
+
+        if (clazz.equals(CoreType.class)) {
+            writeSize(TYPE_CORE);
+            writeString(type.getName());
+            writeString(((CoreType) type).getJavaType().getName());
+        } else if (clazz.equals(ArrayType.class)) {
+            final ArrayType array = (ArrayType) type;
+            writeSize(TYPE_ARRAY);
+            writeString(array.getName());
+            this.out.writeBoolean(array.isUnique());
+            writeType(array.getItemType());
+        } else if (clazz.equals(EnumType.class)) {
+            writeSize(TYPE_ENUM);
+            writeParentable((ParentableType) type);
+            writeStrings(((EnumType) type).getLiterals());
+        } else if (clazz.equals(ObjectType.class)) {
+            writeSize(TYPE_OBJECT);
+            writeParentable((ParentableType) type);
+
+            final Collection<Property> properties = ((ObjectType) type).getProperties();
+            writeSize(properties.size());
+            for (final Property property : properties) {
+                writeProperty(property);
+            }
+        } else {
+            throw new IllegalStateException("Unsupported type: " + clazz.getName());
+        }
+
+        writeString(((Type) type).getTitle());
+        writeString(((Type) type).getDescription());
+    }
+
+    private void writeParentable(final ParentableType type) throws IOException {
+        writeString(type.getNamespace());
+        writeStrings(type.getParents());
+        writeString(type.getName());
+    }
+
+    private void writeProperty(final Property property) throws IOException {
+        writeString(property.getName());
+        writeString(property.getDescription());
+        this.out.writeBoolean(property.isRequired());
+        this.out.writeBoolean(property.isIntern());
+        writeType(property.getType());
+    }
+
+    void writeStrings(final Collection<String> values) throws IOException {
+        writeSize(values.size());
+        for (final String value : values) {
+            writeString(value);
+        }
+    }
+
+    /**
+     * Write a string, each distinct string is only written once, repeated
+     * strings are written by their index
+     */
+    void writeString(final String value) throws IOException {
+        if (value == null) {
+            writeSize(STRING_NULL);
+            return;
+        }
+
+        final Integer index = this.strings.get(value);
+        if (index != null) {
+            writeSize(index + STRING_INDEX_OFFSET);
+            return;
+        }
+
+        this.strings.put(value, this.strings.size());
+
+        final byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        writeSize(STRING_NEW);
+        writeSize(data.length);
+        this.out.write(data);
+    }
+
+    void flush() throws IOException {
+        this.out.flush();
+    }
+
+    /**
+     * Write a non-negative number, using 7 bits per byte
+     */
+    private void writeSize(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            this.out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        this.out.writeByte(value);
+    }
+}
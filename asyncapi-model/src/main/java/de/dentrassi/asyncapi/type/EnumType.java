@@ -22,6 +22,8 @@ import java.util.Set;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+import de.dentrassi.asyncapi.internal.util.ArraySet;
+
 public class EnumType extends ParentableType {
     private Set<String> literals = new LinkedHashSet<>();
 
@@ -34,9 +36,24 @@ public class EnumType extends ParentableType {
     }
 
     public void setLiterals(final Set<String> literals) {
+        checkMutable();
         this.literals = literals;
     }
 
+    /**
+     * Make this instance immutable
+     * <p>
+     * This also replaces the set of literals with an immutable copy.
+     * </p>
+     */
+    @Override
+    public void freeze() {
+        if (!isFrozen()) {
+            this.literals = ArraySet.copyOf(this.literals);
+        }
+        super.freeze();
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this);
@@ -23,6 +23,8 @@ import java.util.Set;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import de.dentrassi.asyncapi.internal.util.ArraySet;
+
 public class ObjectType extends ParentableType {
 
     private Set<Property> properties = new LinkedHashSet<>();
@@ -36,9 +38,24 @@ public class ObjectType extends ParentableType {
     }
 
     public void setProperties(final Set<Property> properties) {
+        checkMutable();
         this.properties = properties;
     }
 
+    /**
+     * Make this instance immutable
+     * <p>
+     * This also replaces the set of properties with an immutable copy.
+     * </p>
+     */
+    @Override
+    public void freeze() {
+        if (!isFrozen()) {
+            this.properties = ArraySet.copyOf(this.properties);
+        }
+        super.freeze();
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
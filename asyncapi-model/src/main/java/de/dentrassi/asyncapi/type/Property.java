@@ -29,11 +29,16 @@ public class Property {
 
     private String description;
 
+    private boolean intern;
+
+    private boolean frozen;
+
     public String getName() {
         return this.name;
     }
 
     public void setName(final String name) {
+        checkMutable();
         this.name = name;
     }
 
@@ -42,6 +47,7 @@ public class Property {
     }
 
     public void setType(final TypeReference type) {
+        checkMutable();
         this.type = type;
     }
 
@@ -50,6 +56,7 @@ public class Property {
     }
 
     public void setRequired(final boolean required) {
+        checkMutable();
         this.required = required;
     }
 
@@ -58,9 +65,51 @@ public class Property {
     }
 
     public void setDescription(final String description) {
+        checkMutable();
         this.description = description;
     }
 
+    /**
+     * Check if values of this property should be de-duplicated
+     * <p>
+     * This is set by the {@code x-intern} extension and is intended for
+     * string properties with a low number of distinct values, like IDs or
+     * states.
+     * </p>
+     *
+     * @return {@code true} if values should be de-duplicated
+     */
+    public boolean isIntern() {
+        return this.intern;
+    }
+
+    public void setIntern(final boolean intern) {
+        checkMutable();
+        this.intern = intern;
+    }
+
+    /**
+     * Make this instance immutable
+     * <p>
+     * Any further call to a setter fails with an {@link IllegalStateException}.
+     * This does not freeze referenced instances, see
+     * {@link de.dentrassi.asyncapi.AsyncApi#freeze()}.
+     * </p>
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new IllegalStateException("Instance is frozen");
+        }
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
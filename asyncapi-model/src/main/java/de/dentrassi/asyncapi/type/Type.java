@@ -23,6 +23,8 @@ public abstract class Type extends TypeReference {
 
     private String description;
 
+    private boolean frozen;
+
     public Type(final String namespace, final String name) {
         super(namespace, name);
     }
@@ -32,6 +34,7 @@ public abstract class Type extends TypeReference {
     }
 
     public void setTitle(final String title) {
+        checkMutable();
         this.title = title;
     }
 
@@ -40,9 +43,32 @@ public abstract class Type extends TypeReference {
     }
 
     public void setDescription(final String description) {
+        checkMutable();
         this.description = description;
     }
 
+    /**
+     * Make this instance immutable
+     * <p>
+     * Any further call to a setter fails with an {@link IllegalStateException}.
+     * This does not freeze referenced instances, see
+     * {@link de.dentrassi.asyncapi.AsyncApi#freeze()}.
+     * </p>
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    protected void checkMutable() {
+        if (this.frozen) {
+            throw new IllegalStateException("Instance is frozen");
+        }
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this);
@@ -22,9 +22,12 @@ public class TypeReference {
     private final String namespace;
     private final String name;
 
+    private final transient int hash;
+
     public TypeReference(final String namespace, final String name) {
         this.namespace = namespace;
         this.name = name;
+        this.hash = hash(namespace, name);
     }
 
     public String getNamespace() {
@@ -35,15 +38,19 @@ public class TypeReference {
         return this.name;
     }
 
-    @Override
-    public int hashCode() {
+    private static int hash(final String namespace, final String name) {
         final int prime = 31;
         int result = 1;
-        result = prime * result + (this.name == null ? 0 : this.name.hashCode());
-        result = prime * result + (this.namespace == null ? 0 : this.namespace.hashCode());
+        result = prime * result + (name == null ? 0 : name.hashCode());
+        result = prime * result + (namespace == null ? 0 : namespace.hashCode());
         return result;
     }
 
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (this == obj) {
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.validate;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.type.EnumType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+
+/**
+ * Check for names which only differ in case
+ * <p>
+ * The model itself cannot contain the same name twice, but names which only
+ * differ in case end up as the same file on some file systems, or as the same
+ * accessor or constant in generated code.
+ * </p>
+ */
+class DuplicateNameRule implements Rule {
+
+    @Override
+    public void visitApi(final AsyncApi api, final ValidationContext context) {
+        final Map<String, String> types = new HashMap<>();
+        for (final Type type : api.getTypes()) {
+            check(types, type.getName(), "Duplicate type name: {0} and {1}", context);
+        }
+
+        final Map<String, String> messages = new HashMap<>();
+        for (final Message message : api.getMessages()) {
+            check(messages, message.getName(), "Duplicate message name: {0} and {1}", context);
+        }
+    }
+
+    @Override
+    public void visitType(final Type type, final ValidationContext context) {
+        if (type instanceof ObjectType) {
+            final Map<String, String> properties = new HashMap<>();
+            for (final Property property : ((ObjectType) type).getProperties()) {
+                check(properties, property.getName(), "Duplicate property name in type " + type.getName() + ": {0} and {1}", context);
+            }
+        } else if (type instanceof EnumType) {
+            final Map<String, String> literals = new HashMap<>();
+            for (final Object literal : ((EnumType) type).getLiterals()) {
+                check(literals, String.valueOf(literal), "Duplicate literal in enum " + type.getName() + ": {0} and {1}", context);
+            }
+        }
+    }
+
+    private static void check(final Map<String, String> names, final String name, final String message, final ValidationContext context) {
+        if (name == null) {
+            return;
+        }
+
+        final String existing = names.putIfAbsent(name.toLowerCase(Locale.ROOT), name);
+        if (existing != null) {
+            context.reportError(message, existing, name);
+        }
+    }
+}
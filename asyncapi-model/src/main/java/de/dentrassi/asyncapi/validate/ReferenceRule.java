@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.validate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.MessageReference;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * Check that all references can be resolved, and that there are no cycles of
+ * array types
+ */
+class ReferenceRule implements Rule {
+
+    @Override
+    public void visitApi(final AsyncApi api, final ValidationContext context) {
+        for (final List<Type> cycle : context.getSymbols().getCycles()) {
+            context.reportError("Cyclic type references: {0}", cycle.stream().map(Type::getName).collect(Collectors.joining(" -> ")));
+        }
+    }
+
+    @Override
+    public void visitTypeReference(final TypeReference reference, final ValidationContext context) {
+        if (context.getSymbols().resolve(reference) == null) {
+            context.reportError("Unknown type referenced: {0}/{1}", reference.getNamespace(), reference.getName());
+        }
+    }
+
+    @Override
+    public void visitMessageReference(final MessageReference reference, final ValidationContext context) {
+        if (!(reference instanceof Message) && context.getSymbols().resolve(reference) == null) {
+            context.reportError("Unknown message referenced: {0}", reference.getName());
+        }
+    }
+}
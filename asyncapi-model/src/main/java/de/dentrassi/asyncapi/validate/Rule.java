@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.validate;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.MessageReference;
+import de.dentrassi.asyncapi.Topic;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * A validation rule
+ * <p>
+ * The {@link Validator} walks the model once and calls every rule for each
+ * element it encounters. Topics, messages and types are visited in parallel,
+ * so a rule must not keep state between calls, other than in a thread safe
+ * way. The default implementation of each method does nothing.
+ * </p>
+ * <p>
+ * Inline messages and types are visited as part of their owner. Named
+ * messages and types are visited once, from the respective section of the
+ * model, and only show up as reference at the place they are used.
+ * </p>
+ */
+public interface Rule {
+
+    /**
+     * Called once for the model, before any other element is visited
+     *
+     * @param api
+     *            the model
+     * @param context
+     *            the context to report to
+     */
+    public default void visitApi(final AsyncApi api, final ValidationContext context) {
+    }
+
+    public default void visitTopic(final Topic topic, final ValidationContext context) {
+    }
+
+    /**
+     * Called for every message, named or inline
+     *
+     * @param message
+     *            the message
+     * @param context
+     *            the context to report to
+     */
+    public default void visitMessage(final Message message, final ValidationContext context) {
+    }
+
+    /**
+     * Called for every use of a message
+     *
+     * @param reference
+     *            the reference, which may be an inline {@link Message}
+     * @param context
+     *            the context to report to
+     */
+    public default void visitMessageReference(final MessageReference reference, final ValidationContext context) {
+    }
+
+    /**
+     * Called for every type, named or inline
+     *
+     * @param type
+     *            the type
+     * @param context
+     *            the context to report to
+     */
+    public default void visitType(final Type type, final ValidationContext context) {
+    }
+
+    /**
+     * Called for every use of a type
+     *
+     * @param reference
+     *            the reference, which may be an inline {@link Type}
+     * @param context
+     *            the context to report to
+     */
+    public default void visitTypeReference(final TypeReference reference, final ValidationContext context) {
+    }
+
+    public default void visitProperty(final ObjectType owner, final Property property, final ValidationContext context) {
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.validate;
+
+import java.util.regex.Pattern;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Topic;
+
+/**
+ * Check the syntax of the base topic and of the topic names
+ * <p>
+ * Names consist of dot separated, non-empty segments. Segments must not
+ * contain whitespace or any of the wildcard characters used in
+ * subscriptions. The first segment must not start with a slash.
+ * </p>
+ */
+class TopicRule implements Rule {
+
+    static final String PATTERN = "(?!/)[^.\\s*#+>]+(\\.[^.\\s*#+>]+)*";
+
+    private static final Pattern TOPIC = Pattern.compile(PATTERN);
+
+    @Override
+    public void visitApi(final AsyncApi api, final ValidationContext context) {
+        final String baseTopic = api.getBaseTopic();
+        if (baseTopic != null && !baseTopic.isEmpty()) {
+            if (!TOPIC.matcher(baseTopic).matches()) {
+                context.reportError("Base topic must match pattern: {0} - but is: {1}", PATTERN, baseTopic);
+            }
+        }
+    }
+
+    @Override
+    public void visitTopic(final Topic topic, final ValidationContext context) {
+        final String name = topic.getName();
+        if (name == null || !TOPIC.matcher(name).matches()) {
+            context.reportError("Topic name must match pattern: {0} - but is: {1}", PATTERN, name);
+        }
+    }
+}
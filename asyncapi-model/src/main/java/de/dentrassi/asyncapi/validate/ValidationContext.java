@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.validate;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.SymbolTable;
+
+/**
+ * The context handed to a {@link Rule}
+ */
+public interface ValidationContext {
+
+    public AsyncApi getApi();
+
+    /**
+     * Get the index of the model, for resolving references
+     *
+     * @return the symbol table, never {@code null}
+     */
+    public SymbolTable getSymbols();
+
+    public void reportError(String message, Object... arguments);
+}
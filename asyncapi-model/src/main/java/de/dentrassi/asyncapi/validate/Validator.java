@@ -17,13 +17,37 @@
 package de.dentrassi.asyncapi.validate;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
 
 import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.MessageReference;
+import de.dentrassi.asyncapi.SymbolTable;
+import de.dentrassi.asyncapi.Topic;
+import de.dentrassi.asyncapi.type.ArrayType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
 
+/**
+ * Validate a model against a set of rules
+ * <p>
+ * The model is walked once, handing each element to all rules. Topics,
+ * messages and types are validated in parallel on a {@link ForkJoinPool}.
+ * Each task collects its markers on its own, the results are joined in the
+ * order of the model, so that the result does not depend on the scheduling.
+ * </p>
+ */
 public class Validator {
 
     public static class Marker {
@@ -44,21 +68,241 @@ public class Validator {
         }
 
         public String format() {
-            return MessageFormat.format(this.message, this.arguments);
+            return MessageFormat.format(this.message, this.arguments.toArray());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.message, this.arguments);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Marker other = (Marker) obj;
+            return Objects.equals(this.message, other.message) && Objects.equals(this.arguments, other.arguments);
+        }
+
+        @Override
+        public String toString() {
+            return format();
         }
     }
 
+    /**
+     * The number of model elements a single task validates, before splitting
+     * up the work
+     */
+    private static final int THRESHOLD = 64;
+
+    private final List<Rule> rules;
+    private final ForkJoinPool pool;
+
     private final List<Marker> markers = new LinkedList<>();
 
+    /**
+     * Create a validator with the {@link #defaultRules() default rules},
+     * running on the common pool
+     */
+    public Validator() {
+        this(defaultRules(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new validator
+     *
+     * @param rules
+     *            the rules to apply
+     * @param pool
+     *            the pool to run on
+     */
+    public Validator(final List<Rule> rules, final ForkJoinPool pool) {
+        Objects.requireNonNull(rules);
+        Objects.requireNonNull(pool);
+
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.pool = pool;
+    }
+
+    /**
+     * Get the default set of rules
+     * <p>
+     * This checks for unresolved references, cycles of array types, names
+     * only differing in case and invalid topic names.
+     * </p>
+     *
+     * @return a new, modifiable list of rules
+     */
+    public static List<Rule> defaultRules() {
+        return new ArrayList<>(Arrays.asList(new ReferenceRule(), new DuplicateNameRule(), new TopicRule()));
+    }
+
     public void validate(final AsyncApi api) {
 
-        final String baseTopic = api.getBaseTopic();
-        if (baseTopic != null && !baseTopic.isEmpty()) {
-            if (!baseTopic.matches("^[^/.]")) {
-                reportError("Base topic must match pattern: {0} - but is: {1}", "^[^/.]", baseTopic);
+        final SymbolTable symbols = api.getSymbols();
+
+        final Context context = new Context(api, symbols);
+        for (final Rule rule : this.rules) {
+            rule.visitApi(api, context);
+        }
+
+        final List<Runnable> units = new ArrayList<>(api.getTopics().size() + api.getMessages().size() + api.getTypes().size());
+        final List<Context> contexts = new ArrayList<>(units.size());
+
+        addUnits(api.getTopics(), this::walkTopic, api, symbols, units, contexts);
+        addUnits(api.getMessages(), this::walkMessage, api, symbols, units, contexts);
+        addUnits(api.getTypes(), this::walkType, api, symbols, units, contexts);
+
+        final List<Marker> result = new ArrayList<>(context.markers);
+        result.addAll(this.pool.invoke(new WalkTask(units, contexts, 0, units.size())));
+
+        // the same problem may be found from more than one place
+
+        this.markers.addAll(new LinkedHashSet<>(result));
+    }
+
+    private static <T> void addUnits(final Iterable<T> elements, final BiConsumer<T, Context> walker, final AsyncApi api, final SymbolTable symbols, final List<Runnable> units,
+            final List<Context> contexts) {
+        for (final T element : elements) {
+            final Context context = new Context(api, symbols);
+            contexts.add(context);
+            units.add(() -> walker.accept(element, context));
+        }
+    }
+
+    private void walkTopic(final Topic topic, final Context context) {
+        for (final Rule rule : this.rules) {
+            rule.visitTopic(topic, context);
+        }
+        walkMessageReference(topic.getPublish(), context);
+        walkMessageReference(topic.getSubscribe(), context);
+    }
+
+    private void walkMessageReference(final MessageReference reference, final Context context) {
+        if (reference == null) {
+            return;
+        }
+
+        for (final Rule rule : this.rules) {
+            rule.visitMessageReference(reference, context);
+        }
+
+        if (reference instanceof Message) {
+            walkMessage((Message) reference, context);
+        }
+    }
+
+    private void walkMessage(final Message message, final Context context) {
+        for (final Rule rule : this.rules) {
+            rule.visitMessage(message, context);
+        }
+        walkTypeReference(message.getPayload(), context);
+    }
+
+    private void walkTypeReference(final TypeReference reference, final Context context) {
+        if (reference == null) {
+            return;
+        }
+
+        for (final Rule rule : this.rules) {
+            rule.visitTypeReference(reference, context);
+        }
+
+        if (reference instanceof Type) {
+            walkType((Type) reference, context);
+        }
+    }
+
+    private void walkType(final Type type, final Context context) {
+        for (final Rule rule : this.rules) {
+            rule.visitType(type, context);
+        }
+
+        // inline types form a tree, so this terminates
+
+        if (type instanceof ObjectType) {
+            final ObjectType object = (ObjectType) type;
+            for (final Property property : object.getProperties()) {
+                for (final Rule rule : this.rules) {
+                    rule.visitProperty(object, property, context);
+                }
+                walkTypeReference(property.getType(), context);
             }
+        } else if (type instanceof ArrayType) {
+            walkTypeReference(((ArrayType) type).getItemType(), context);
+        }
+    }
+
+    private static class Context implements ValidationContext {
+
+        private final AsyncApi api;
+        private final SymbolTable symbols;
+
+        private final List<Marker> markers = new ArrayList<>(0);
+
+        Context(final AsyncApi api, final SymbolTable symbols) {
+            this.api = api;
+            this.symbols = symbols;
+        }
+
+        @Override
+        public AsyncApi getApi() {
+            return this.api;
+        }
+
+        @Override
+        public SymbolTable getSymbols() {
+            return this.symbols;
+        }
+
+        @Override
+        public void reportError(final String message, final Object... arguments) {
+            this.markers.add(new Marker(message, arguments));
         }
+    }
+
+    private static class WalkTask extends RecursiveTask<List<Marker>> {
 
+        private static final long serialVersionUID = 1L;
+
+        private final List<Runnable> units;
+        private final List<Context> contexts;
+        private final int from;
+        private final int to;
+
+        WalkTask(final List<Runnable> units, final List<Context> contexts, final int from, final int to) {
+            this.units = units;
+            this.contexts = contexts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Marker> compute() {
+            if (this.to - this.from <= THRESHOLD) {
+                final List<Marker> result = new ArrayList<>();
+                for (int i = this.from; i < this.to; i++) {
+                    this.units.get(i).run();
+                    result.addAll(this.contexts.get(i).markers);
+                }
+                return result;
+            }
+
+            final int middle = (this.from + this.to) >>> 1;
+
+            final WalkTask left = new WalkTask(this.units, this.contexts, this.from, middle);
+            final WalkTask right = new WalkTask(this.units, this.contexts, middle, this.to);
+
+            right.fork();
+            final List<Marker> result = left.compute();
+            result.addAll(right.join());
+            return result;
+        }
     }
 
     protected void reportError(final String message, final Object... arguments) {
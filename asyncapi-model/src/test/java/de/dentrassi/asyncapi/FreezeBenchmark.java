@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+import de.dentrassi.asyncapi.internal.parser.YamlParserBenchmark;
+
+/**
+ * Compare the retained heap of a number of loaded models, with and without
+ * freezing them
+ */
+public class FreezeBenchmark {
+
+    private static final int MODELS = 20;
+
+    private static final int TYPES = 2_000;
+
+    private static final int PROPERTIES = 10;
+
+    public static void main(final String[] args) throws Exception {
+        final String yaml = YamlParserBenchmark.createDocument(TYPES, PROPERTIES);
+
+        for (int i = 0; i < 2; i++) {
+            measure("mutable", yaml, api -> api);
+            measure("frozen", yaml, AsyncApi::freeze);
+        }
+    }
+
+    private static void measure(final String label, final String yaml, final UnaryOperator<AsyncApi> converter) throws Exception {
+        final List<AsyncApi> models = new ArrayList<>(MODELS);
+
+        final long before = usedHeap();
+        long time = 0;
+
+        for (int i = 0; i < MODELS; i++) {
+            final AsyncApi api = new YamlParser(new StringReader(yaml)).parse();
+            final long start = System.nanoTime();
+            models.add(converter.apply(api));
+            time += System.nanoTime() - start;
+        }
+
+        final long retained = usedHeap() - before;
+
+        System.out.format("%-10s %8.1f MB/model %8.1f ms/model (%s models)%n", label, retained / 1024.0 / 1024.0 / models.size(), time / 1_000_000.0 / MODELS, models.size());
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
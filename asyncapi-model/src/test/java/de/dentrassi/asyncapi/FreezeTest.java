@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi;
+
+import java.io.StringReader;
+import java.util.Iterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+import de.dentrassi.asyncapi.internal.parser.YamlParserBenchmark;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+
+public class FreezeTest {
+
+    private static AsyncApi parse() throws Exception {
+        return new YamlParser(new StringReader(YamlParserBenchmark.createDocument(20, 10))).parse();
+    }
+
+    @Test
+    public void testContent() throws Exception {
+        final AsyncApi api = parse();
+        final AsyncApi frozen = api.freeze();
+
+        Assert.assertNotSame(api, frozen);
+        Assert.assertFalse(api.isFrozen());
+        Assert.assertTrue(frozen.isFrozen());
+        Assert.assertSame(frozen, frozen.freeze());
+
+        Assert.assertEquals(api.getTopics(), frozen.getTopics());
+        Assert.assertEquals(api.getMessages(), frozen.getMessages());
+        Assert.assertEquals(api.getTypes(), frozen.getTypes());
+        Assert.assertEquals(api.getTypes().hashCode(), frozen.getTypes().hashCode());
+
+        // order is kept
+
+        final Iterator<Type> i = frozen.getTypes().iterator();
+        for (final Type type : api.getTypes()) {
+            Assert.assertEquals(type.getName(), i.next().getName());
+        }
+
+        final Message message = frozen.getSymbols().lookupMessage("Message5").get();
+        Assert.assertSame(frozen.getSymbols().lookupType("types", "Type5").get(), frozen.getSymbols().resolve(message.getPayload()));
+        Assert.assertTrue(frozen.getSymbols().getUnresolvedTypes().isEmpty());
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        final AsyncApi first = parse().freeze();
+        final AsyncApi second = parse().freeze();
+
+        final ObjectType type1 = (ObjectType) first.getSymbols().lookupType("types", "Type1").get();
+        final ObjectType type2 = (ObjectType) second.getSymbols().lookupType("types", "Type1").get();
+
+        // names are interned across models
+
+        Assert.assertSame(type1.getName(), type2.getName());
+
+        final Iterator<Property> p1 = type1.getProperties().iterator();
+        final Iterator<Property> p2 = type2.getProperties().iterator();
+        while (p1.hasNext()) {
+            Assert.assertSame(p1.next().getName(), p2.next().getName());
+        }
+
+        // equal references are shared within a model, properties 0 and 3 both reference Type0
+
+        final Property[] properties = type1.getProperties().toArray(new Property[0]);
+        Assert.assertEquals("Type0", properties[0].getType().getName());
+        Assert.assertSame(properties[0].getType(), properties[3].getType());
+    }
+
+    @Test
+    public void testImmutable() throws Exception {
+        final AsyncApi frozen = parse().freeze();
+
+        final Topic topic = frozen.getTopics().iterator().next();
+        final ObjectType type = (ObjectType) frozen.getTypes().iterator().next();
+        final Property property = type.getProperties().iterator().next();
+
+        assertFails(() -> frozen.setBaseTopic("foo"));
+        assertFails(() -> topic.setName("foo"));
+        assertFails(() -> type.setDescription("foo"));
+        assertFails(() -> property.setRequired(true));
+        assertFails(() -> frozen.getInformation().setTitle("foo"));
+
+        try {
+            frozen.getTopics().clear();
+            Assert.fail();
+        } catch (final UnsupportedOperationException e) {
+        }
+        try {
+            type.getProperties().add(new Property());
+            Assert.fail();
+        } catch (final UnsupportedOperationException e) {
+        }
+    }
+
+    private static void assertFails(final Runnable runnable) {
+        try {
+            runnable.run();
+            Assert.fail("Modification must fail");
+        } catch (final IllegalStateException e) {
+        }
+    }
+}
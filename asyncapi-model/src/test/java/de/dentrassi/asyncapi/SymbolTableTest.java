@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+import de.dentrassi.asyncapi.type.ArrayType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.Type;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+public class SymbolTableTest {
+
+    private static final String HEADER = String.join("\n",
+            "asyncapi: 1.0.0",
+            "schemes: [ amqp ]",
+            "info:",
+            "  version: 1.0.0",
+            "topics:",
+            "  foo.bar:",
+            "    subscribe:",
+            "      $ref: '#/components/messages/Msg'",
+            "");
+
+    private static AsyncApi parse(final String... lines) throws Exception {
+        return new YamlParser(new StringReader(HEADER + String.join("\n", lines))).parse();
+    }
+
+    @Test
+    public void testResolve() throws Exception {
+        final AsyncApi api = parse(
+                "components:",
+                "  messages:",
+                "    Msg:",
+                "      payload:",
+                "        $ref: '#/components/schemas/Node'",
+                "  schemas:",
+                "    Node:",
+                "      type: object",
+                "      properties:",
+                "        children:",
+                "          type: array",
+                "          items:",
+                "            $ref: '#/components/schemas/Node'");
+
+        final SymbolTable symbols = api.getSymbols();
+
+        final Type node = symbols.lookupType(SymbolTable.TYPES_NAMESPACE, "Node").get();
+        Assert.assertTrue(node instanceof ObjectType);
+
+        final Message msg = symbols.lookupMessage("Msg").get();
+        Assert.assertSame(node, symbols.resolve(msg.getPayload()));
+
+        final Topic topic = symbols.lookupTopic("foo.bar").get();
+        Assert.assertSame(msg, symbols.resolve(topic.getSubscribe()));
+
+        final Property children = ((ObjectType) node).getProperties().iterator().next();
+        Assert.assertSame(node, symbols.resolve(((ArrayType) children.getType()).getItemType()));
+
+        // recursion through an object type is not a cycle
+
+        Assert.assertTrue(symbols.getUnresolvedTypes().isEmpty());
+        Assert.assertTrue(symbols.getUnresolvedMessages().isEmpty());
+        Assert.assertTrue(symbols.getCycles().isEmpty());
+    }
+
+    @Test
+    public void testUnresolved() throws Exception {
+        final AsyncApi api = parse(
+                "components:",
+                "  messages:",
+                "    Other:",
+                "      payload:",
+                "        $ref: '#/components/schemas/Missing'");
+
+        final SymbolTable symbols = api.getSymbols();
+
+        Assert.assertEquals(1, symbols.getUnresolvedTypes().size());
+        Assert.assertEquals(new TypeReference(SymbolTable.TYPES_NAMESPACE, "Missing"), symbols.getUnresolvedTypes().iterator().next());
+
+        Assert.assertEquals(1, symbols.getUnresolvedMessages().size());
+        Assert.assertEquals("Msg", symbols.getUnresolvedMessages().iterator().next().getName());
+
+        Assert.assertNull(symbols.resolve(new TypeReference(SymbolTable.TYPES_NAMESPACE, "Missing")));
+    }
+
+    @Test
+    public void testCycle() throws Exception {
+        final AsyncApi api = parse(
+                "components:",
+                "  messages:",
+                "    Msg:",
+                "      payload:",
+                "        $ref: '#/components/schemas/A'",
+                "  schemas:",
+                "    A:",
+                "      type: array",
+                "      items:",
+                "        $ref: '#/components/schemas/B'",
+                "    B:",
+                "      type: array",
+                "      items:",
+                "        $ref: '#/components/schemas/A'");
+
+        final List<List<Type>> cycles = api.getSymbols().getCycles();
+
+        Assert.assertEquals(1, cycles.size());
+        Assert.assertEquals(Arrays.asList("A", "B"), cycles.get(0).stream().map(Type::getName).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.DeltaEncoding;
+import de.dentrassi.asyncapi.Topic;
+
+public class DeltaEncodingTest {
+
+    private static final String DOCUMENT = String.join("\n",
+            "asyncapi: 1.0.0",
+            "info:",
+            "  version: 1.0.0",
+            "schemes: [ amqp ]",
+            "topics:",
+            "  plain:",
+            "    subscribe: { $ref: '#/components/messages/State' }",
+            "  defaults:",
+            "    x-delta: true",
+            "    subscribe: { $ref: '#/components/messages/State' }",
+            "  disabled:",
+            "    x-delta: false",
+            "    subscribe: { $ref: '#/components/messages/State' }",
+            "  keyed:",
+            "    x-delta:",
+            "      key: deviceId",
+            "      keyframeInterval: 5",
+            "    subscribe: { $ref: '#/components/messages/State' }",
+            "components:",
+            "  messages:",
+            "    State:",
+            "      payload:",
+            "        type: object",
+            "        properties:",
+            "          deviceId: { type: string }",
+            "");
+
+    @Test
+    public void testParse() throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(DOCUMENT)).parse();
+
+        final Map<String, Topic> topics = new HashMap<>();
+        for (final Topic topic : api.getTopics()) {
+            topics.put(topic.getName(), topic);
+        }
+
+        Assert.assertNull(topics.get("plain").getDelta());
+        Assert.assertNull(topics.get("disabled").getDelta());
+
+        final DeltaEncoding defaults = topics.get("defaults").getDelta();
+        Assert.assertNull(defaults.getKey());
+        Assert.assertEquals(DeltaEncoding.DEFAULT_KEYFRAME_INTERVAL, defaults.getKeyframeInterval());
+
+        final DeltaEncoding keyed = topics.get("keyed").getDelta();
+        Assert.assertEquals("deviceId", keyed.getKey());
+        Assert.assertEquals(5, keyed.getKeyframeInterval());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidInterval() throws Exception {
+        new YamlParser(new StringReader(DOCUMENT.replace("keyframeInterval: 5", "keyframeInterval: 0"))).parse();
+    }
+}
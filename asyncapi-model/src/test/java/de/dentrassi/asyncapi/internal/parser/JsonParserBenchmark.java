@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import org.yaml.snakeyaml.Yaml;
+
+import com.google.gson.Gson;
+
+/**
+ * Compare building the model from the same, large document encoded as YAML
+ * and as JSON
+ */
+public class JsonParserBenchmark {
+
+    private static final int TYPES = 2_000;
+
+    private static final int PROPERTIES = 10;
+
+    private static final int WARMUP = 5;
+
+    private static final int ITERATIONS = 10;
+
+    public static void main(final String[] args) throws Exception {
+        final String yaml = YamlParserBenchmark.createDocument(TYPES, PROPERTIES);
+        final String json = new Gson().toJson(new Yaml().load(yaml));
+
+        System.out.format("YAML: %s characters, JSON: %s characters%n", yaml.length(), json.length());
+
+        final Function<String, Object> yamlReader = doc -> new YamlReader(Limits.DEFAULT).read(new StringReader(doc));
+        final Function<String, Object> jsonReader = doc -> {
+            try {
+                return new JsonReader(Limits.DEFAULT).read(new StringReader(doc));
+            } catch (final Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+        final Function<String, Object> yamlModel = doc -> {
+            try {
+                return new YamlParser(new StringReader(doc)).parse();
+            } catch (final ParserException e) {
+                throw new RuntimeException(e);
+            }
+        };
+        final Function<String, Object> jsonModel = doc -> {
+            try {
+                return new JsonParser(new StringReader(doc)).parse();
+            } catch (final ParserException e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        run(yamlReader, yaml, WARMUP);
+        run(jsonReader, json, WARMUP);
+        run(yamlModel, yaml, WARMUP);
+        run(jsonModel, json, WARMUP);
+
+        for (int i = 0; i < 3; i++) {
+            measure("YamlReader", yamlReader, yaml);
+            measure("JsonReader", jsonReader, json);
+            measure("YamlParser (model)", yamlModel, yaml);
+            measure("JsonParser (model)", jsonModel, json);
+        }
+    }
+
+    private static void measure(final String label, final Function<String, Object> parser, final String document) {
+        final long start = allocatedBytes();
+        final long startTime = System.nanoTime();
+
+        run(parser, document, ITERATIONS);
+
+        final long duration = System.nanoTime() - startTime;
+        final long allocated = allocatedBytes() - start;
+
+        System.out.format("%-20s %8.1f MB/doc %8.1f ms/doc%n", label, allocated / 1024.0 / 1024.0 / ITERATIONS, duration / 1_000_000.0 / ITERATIONS);
+    }
+
+    private static int run(final Function<String, Object> parser, final String document, final int iterations) {
+        int sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += parser.apply(document).hashCode();
+        }
+        return sum;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.MalformedJsonException;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.MessageReference;
+import de.dentrassi.asyncapi.type.CoreType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+public class JsonReaderTest {
+
+    private static Object read(final String json) throws IOException {
+        return read(json, Limits.DEFAULT);
+    }
+
+    private static Object read(final String json, final Limits limits) throws IOException {
+        return new JsonReader(limits).read(new StringReader(json));
+    }
+
+    private static void assertSame(final String json) throws IOException {
+        // JSON is valid YAML, so both readers must produce the same tree
+        final Object expected = new YamlReader(Limits.DEFAULT).read(new StringReader(json));
+        final Object actual = read(json);
+
+        Assert.assertEquals(expected, actual);
+        // also compare the order of entries
+        Assert.assertEquals(String.valueOf(expected), String.valueOf(actual));
+    }
+
+    @Test
+    public void testScalars() throws IOException {
+        assertSame("{ \"string\": \"foo\", \"version\": \"1.0.0\", \"int\": 42, \"float\": 1.5, \"exp\": 1e3, \"bool\": true, \"null\": null, \"list\": [ \"a\", 1, false ] }");
+    }
+
+    @Test
+    public void testNested() throws IOException {
+        assertSame("{ \"a\": { \"b\": { \"c\": [ { \"d\": [] }, {} ] } } }");
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> result = (Map<String, Object>) read("{ \"int\": 2147483647, \"long\": 2147483648, \"big\": 9223372036854775808, \"double\": 1.0 }");
+
+        Assert.assertEquals(Integer.MAX_VALUE, result.get("int"));
+        Assert.assertEquals(2147483648L, result.get("long"));
+        Assert.assertEquals(new BigInteger("9223372036854775808"), result.get("big"));
+        Assert.assertEquals(1.0, result.get("double"));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        Assert.assertNull(read(""));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMaxDepth() throws IOException {
+        read("{ \"a\": { \"b\": { \"c\": {} } } }", new Limits(1_000, 3));
+    }
+
+    @Test(expected = MalformedJsonException.class)
+    public void testTrailingContent() throws IOException {
+        read("{} {}");
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformed() throws IOException {
+        read("{ \"a\": 1, }");
+    }
+
+    @Test
+    public void testParseJson() throws Exception {
+        final String yaml = YamlParserBenchmark.createDocument(3, 4);
+        final String json = new Gson().toJson(new Yaml().load(yaml));
+
+        final AsyncApi expected = new YamlParser(new StringReader(yaml)).parse();
+        final AsyncApi actual = AsyncApi.parseJson(new StringReader(json));
+
+        Assert.assertEquals(describe(expected), describe(actual));
+    }
+
+    /**
+     * Describe the topics, messages and types of a model, independent of set
+     * ordering
+     */
+    private static String describe(final AsyncApi api) {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append(api.getTopics().stream()
+                .map(topic -> String.format("topic %s: publish=%s, subscribe=%s", topic.getName(), messageName(topic.getPublish()), messageName(topic.getSubscribe())))
+                .sorted()
+                .collect(Collectors.joining("\n")));
+        sb.append('\n');
+
+        sb.append(api.getMessages().stream()
+                .map(message -> String.format("message %s: summary=%s, payload=%s", message.getName(), message.getSummary(), describe(message.getPayload())))
+                .sorted()
+                .collect(Collectors.joining("\n")));
+        sb.append('\n');
+
+        sb.append(api.getTypes().stream()
+                .map(type -> "type " + describe(type) + describeProperties(type))
+                .sorted()
+                .collect(Collectors.joining("\n")));
+
+        return sb.toString();
+    }
+
+    private static String messageName(final MessageReference message) {
+        return message == null ? null : message.getName();
+    }
+
+    private static String describe(final TypeReference type) {
+        if (type == null) {
+            return null;
+        }
+
+        final String result = String.format("%s:%s(%s)", type.getNamespace(), type.getName(), type.getClass().getSimpleName());
+        if (type instanceof CoreType) {
+            return result + "=" + ((CoreType) type).getJavaType().getName();
+        }
+        return result;
+    }
+
+    private static String describeProperties(final TypeReference type) {
+        if (!(type instanceof ObjectType)) {
+            return "";
+        }
+
+        return ((ObjectType) type).getProperties().stream()
+                .map(property -> String.format("%s[required=%s, type=%s, description=%s]", property.getName(), property.isRequired(), describe(property.getType()), property.getDescription()))
+                .sorted()
+                .collect(Collectors.joining(", ", " {", "}"));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.type.ArrayType;
+import de.dentrassi.asyncapi.type.CoreType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+
+public class NumberFormatTest {
+
+    private static final String DOCUMENT = String.join("\n",
+            "asyncapi: 1.0.0",
+            "info:",
+            "  version: 1.0.0",
+            "schemes: [ amqp ]",
+            "topics: {}",
+            "components:",
+            "  schemas:",
+            "    Sample:",
+            "      type: object",
+            "      properties:",
+            "        defaultInteger: { type: integer }",
+            "        int32: { type: integer, format: int32 }",
+            "        int64: { type: integer, format: int64 }",
+            "        defaultNumber: { type: number }",
+            "        float: { type: number, format: float }",
+            "        double: { type: number, format: double }",
+            "        unknown: { type: number, format: decimal }",
+            "        values:",
+            "          type: array",
+            "          items: { type: number, format: float }",
+            "");
+
+    @Test
+    public void testFormats() throws Exception {
+        final AsyncApi api = new YamlParser(new StringReader(DOCUMENT)).parse();
+
+        final ObjectType sample = (ObjectType) api.getTypes().iterator().next();
+
+        final Map<String, Property> properties = new HashMap<>();
+        for (final Property property : sample.getProperties()) {
+            properties.put(property.getName(), property);
+        }
+
+        Assert.assertEquals(Integer.class, javaType(properties.get("defaultInteger")));
+        Assert.assertEquals(Integer.class, javaType(properties.get("int32")));
+        Assert.assertEquals(Long.class, javaType(properties.get("int64")));
+        Assert.assertEquals(Double.class, javaType(properties.get("defaultNumber")));
+        Assert.assertEquals(Float.class, javaType(properties.get("float")));
+        Assert.assertEquals(Double.class, javaType(properties.get("double")));
+        Assert.assertEquals(Double.class, javaType(properties.get("unknown")));
+
+        final ArrayType values = (ArrayType) properties.get("values").getType();
+        Assert.assertEquals(Float.class, ((CoreType) values.getItemType()).getJavaType());
+    }
+
+    private static Class<?> javaType(final Property property) {
+        return ((CoreType) property.getType()).getJavaType();
+    }
+}
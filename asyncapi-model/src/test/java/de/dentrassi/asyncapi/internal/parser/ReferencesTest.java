@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.SymbolTable;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Type;
+
+public class ReferencesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+
+    private static final String HEADER = String.join("\n",
+            "asyncapi: 1.0.0",
+            "info:",
+            "  version: 1.0.0",
+            "schemes: [ amqp ]",
+            "topics:",
+            "  foo.bar:",
+            "    subscribe:",
+            "      $ref: 'messages.yaml#/components/messages/Update'",
+            "");
+
+    @Before
+    public void setup() throws IOException {
+        this.root = this.folder.getRoot().toPath();
+
+        write("messages.yaml",
+                "components:",
+                "  messages:",
+                "    Update:",
+                "      payload:",
+                "        $ref: 'lib/common.yaml#/components/schemas/Shared'");
+
+        write("lib/common.yaml",
+                "components:",
+                "  schemas:",
+                "    Shared:",
+                "      type: object",
+                "      properties:",
+                "        inner:",
+                "          $ref: '#/components/schemas/Inner'",
+                "    Inner:",
+                "      type: string");
+
+        write("lib/point.yaml",
+                "type: object",
+                "properties:",
+                "  x:",
+                "    type: number");
+    }
+
+    private Path write(final String name, final String... lines) throws IOException {
+        final Path path = this.root.resolve(name);
+        Files.createDirectories(path.getParent());
+        Files.write(path, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    private Path writeMain(final String... lines) throws IOException {
+        return write("main.yaml", HEADER + String.join("\n", lines));
+    }
+
+    private Path writeDefaultMain() throws IOException {
+        return writeMain(
+                "components:",
+                "  schemas:",
+                "    Local:",
+                "      type: object",
+                "      properties:",
+                "        shared:",
+                "          $ref: 'lib/common.yaml#/components/schemas/Shared'",
+                "        point:",
+                "          $ref: 'lib/point.yaml'");
+    }
+
+    @Test
+    public void testExternal() throws Exception {
+        final DocumentCache cache = new DocumentCache();
+
+        final Path main = writeDefaultMain();
+        final AsyncApi api = new YamlParser(main, Limits.DEFAULT, cache).parse();
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Local", "Shared", "Inner", "point")), api.getTypes().stream().map(Type::getName).collect(Collectors.toSet()));
+        Assert.assertEquals(Arrays.asList("Update"), api.getMessages().stream().map(Message::getName).collect(Collectors.toList()));
+
+        final SymbolTable symbols = api.getSymbols();
+        Assert.assertTrue(symbols.getUnresolvedTypes().isEmpty());
+        Assert.assertTrue(symbols.getUnresolvedMessages().isEmpty());
+
+        final Message update = symbols.lookupMessage("Update").get();
+        final Type shared = symbols.resolve(update.getPayload());
+        Assert.assertTrue(shared instanceof ObjectType);
+        Assert.assertEquals("Shared", shared.getName());
+
+        Assert.assertEquals(4, cache.getParsedCount());
+
+        // parse again, all documents are cached
+
+        new YamlParser(main, Limits.DEFAULT, cache).parse();
+        Assert.assertEquals(4, cache.getParsedCount());
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        final DocumentCache cache = new DocumentCache();
+
+        final Path main = writeDefaultMain();
+        new YamlParser(main, Limits.DEFAULT, cache).parse();
+        Assert.assertEquals(4, cache.getParsedCount());
+
+        // touch only
+
+        final Path common = this.root.resolve("lib/common.yaml");
+        Files.setLastModifiedTime(common, FileTime.fromMillis(Files.getLastModifiedTime(common).toMillis() + 10_000));
+        new YamlParser(main, Limits.DEFAULT, cache).parse();
+        Assert.assertEquals(4, cache.getParsedCount());
+
+        // change content
+
+        write("lib/point.yaml",
+                "type: object",
+                "properties:",
+                "  y:",
+                "    type: number");
+        new YamlParser(main, Limits.DEFAULT, cache).parse();
+        Assert.assertEquals(5, cache.getParsedCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testConflict() throws Exception {
+        final Path main = writeMain(
+                "components:",
+                "  schemas:",
+                "    Shared:",
+                "      type: string",
+                "    Local:",
+                "      type: object",
+                "      properties:",
+                "        shared:",
+                "          $ref: 'lib/common.yaml#/components/schemas/Shared'");
+
+        new YamlParser(main, Limits.DEFAULT, new DocumentCache()).parse();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingFile() throws Exception {
+        final Path main = writeMain(
+                "components:",
+                "  schemas:",
+                "    Local:",
+                "      type: object",
+                "      properties:",
+                "        missing:",
+                "          $ref: 'missing.yaml'");
+
+        // missing files are reported when resolving
+
+        new YamlParser(main, Limits.DEFAULT, new DocumentCache()).parse();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Compare loading a large, synthetic document through the SnakeYAML node
+ * graph with reading it from the event stream
+ */
+public class YamlParserBenchmark {
+
+    private static final int TYPES = 2_000;
+
+    private static final int PROPERTIES = 10;
+
+    private static final int WARMUP = 5;
+
+    private static final int ITERATIONS = 10;
+
+    public static void main(final String[] args) throws Exception {
+        final String yaml = createDocument(TYPES, PROPERTIES);
+
+        System.out.format("Document: %s lines, %s characters%n", yaml.split("\n").length, yaml.length());
+
+        final Function<String, Object> snakeYaml = doc -> new Yaml().load(doc);
+        final Function<String, Object> events = doc -> new YamlReader(Limits.DEFAULT).read(new StringReader(doc));
+        final Function<String, Object> model = doc -> {
+            try {
+                return new YamlParser(new StringReader(doc)).parse();
+            } catch (final ParserException e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        run(snakeYaml, yaml, WARMUP);
+        run(events, yaml, WARMUP);
+        run(model, yaml, WARMUP);
+
+        for (int i = 0; i < 3; i++) {
+            measure("Yaml.load", snakeYaml, yaml);
+            measure("YamlReader", events, yaml);
+            measure("YamlParser (model)", model, yaml);
+        }
+    }
+
+    private static void measure(final String label, final Function<String, Object> parser, final String yaml) {
+        final long start = allocatedBytes();
+        final long startTime = System.nanoTime();
+
+        run(parser, yaml, ITERATIONS);
+
+        final long duration = System.nanoTime() - startTime;
+        final long allocated = allocatedBytes() - start;
+
+        System.out.format("%-20s %8.1f MB/doc %8.1f ms/doc%n", label, allocated / 1024.0 / 1024.0 / ITERATIONS, duration / 1_000_000.0 / ITERATIONS);
+    }
+
+    private static int run(final Function<String, Object> parser, final String yaml, final int iterations) {
+        int sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += parser.apply(yaml).hashCode();
+        }
+        return sum;
+    }
+
+    public static String createDocument(final int types, final int properties) {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("asyncapi: 1.0.0\n");
+        sb.append("info:\n  title: Benchmark\n  version: 1.0.0\n");
+        sb.append("schemes:\n  - amqp\n");
+
+        sb.append("topics:\n");
+        for (int i = 0; i < types; i++) {
+            sb.append("  service.1.event.item").append(i).append(".update:\n");
+            sb.append("    subscribe:\n");
+            sb.append("      $ref: '#/components/messages/Message").append(i).append("'\n");
+        }
+
+        sb.append("components:\n");
+        sb.append("  messages:\n");
+        for (int i = 0; i < types; i++) {
+            sb.append("    Message").append(i).append(":\n");
+            sb.append("      summary: Message number ").append(i).append('\n');
+            sb.append("      payload:\n");
+            sb.append("        $ref: '#/components/schemas/Type").append(i).append("'\n");
+        }
+
+        sb.append("  schemas:\n");
+        for (int i = 0; i < types; i++) {
+            sb.append("    Type").append(i).append(":\n");
+            sb.append("      type: object\n");
+            sb.append("      properties:\n");
+            for (int j = 0; j < properties; j++) {
+                sb.append("        property").append(j).append(":\n");
+                if (j % 3 == 0 && i > 0) {
+                    sb.append("          $ref: '#/components/schemas/Type").append(i - 1).append("'\n");
+                } else {
+                    sb.append("          type: string\n");
+                    sb.append("          description: Property ").append(j).append(" of type ").append(i).append('\n');
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
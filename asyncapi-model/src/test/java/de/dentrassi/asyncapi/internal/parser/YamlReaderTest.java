@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.internal.parser;
+
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+public class YamlReaderTest {
+
+    private static Object read(final String yaml) {
+        return read(yaml, Limits.DEFAULT);
+    }
+
+    private static Object read(final String yaml, final Limits limits) {
+        return new YamlReader(limits).read(new StringReader(yaml));
+    }
+
+    private static void assertSame(final String yaml) {
+        final Object expected = new Yaml().load(yaml);
+        final Object actual = read(yaml);
+
+        Assert.assertEquals(expected, actual);
+        // also compare the order of entries
+        Assert.assertEquals(String.valueOf(expected), String.valueOf(actual));
+    }
+
+    @Test
+    public void testScalars() {
+        assertSame(String.join("\n",
+                "string: foo",
+                "quoted: '1.0'",
+                "version: 1.0.0",
+                "int: 42",
+                "hex: 0x2A",
+                "float: 1.5",
+                "bool: true",
+                "empty:",
+                "tilde: ~",
+                "explicit: !!str 42",
+                "list: [ a, 1, false ]"));
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertNull(read(""));
+    }
+
+    @Test
+    public void testAliases() {
+        assertSame(String.join("\n",
+                "base: &base",
+                "  type: string",
+                "  description: foo",
+                "ref: *base",
+                "merged:",
+                "  <<: *base",
+                "  description: bar",
+                "list:",
+                "  - &item x",
+                "  - *item"));
+    }
+
+    @Test
+    public void testMultipleMerges() {
+        assertSame(String.join("\n",
+                "a: &a { x: 1, y: 1 }",
+                "b: &b { y: 2, z: 2 }",
+                "c:",
+                "  <<: [ *a, *b ]",
+                "  z: 3"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMaxAliases() {
+        read(String.join("\n",
+                "a: &a [ x, x ]",
+                "b: &b [ *a, *a ]",
+                "c: &c [ *b, *b ]"), new Limits(3, 10));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMaxDepth() {
+        read("a: { b: { c: [ d ] } }", new Limits(0, 3));
+    }
+
+    @Test
+    public void testDepthWithinLimit() {
+        Assert.assertNotNull(read("a: { b: { c: d } }", new Limits(0, 3)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRecursiveAlias() {
+        read("a: &a { b: *a }");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMultipleDocuments() {
+        read("a: b\n---\nc: d\n");
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.type.CoreType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+
+public class SnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path source;
+
+    private SnapshotCache cache;
+
+    @Before
+    public void setup() throws IOException {
+        this.cache = new SnapshotCache(this.folder.newFolder("snapshots").toPath());
+        this.source = this.folder.getRoot().toPath().resolve("api.yaml");
+        write("Initial");
+    }
+
+    private void write(final String title) throws IOException {
+        final String yaml = String.join("\n",
+                "asyncapi: 1.0.0",
+                "info:",
+                "  title: " + title,
+                "  version: 1.0.0",
+                "  license:",
+                "    name: EPL",
+                "    url: https://www.eclipse.org/legal/epl-v10.html",
+                "schemes: [ amqp ]",
+                "topics:",
+                "  foo.bar:",
+                "    subscribe:",
+                "      $ref: '#/components/messages/Update'",
+                "    publish:",
+                "      payload:",
+                "        type: string",
+                "components:",
+                "  messages:",
+                "    Update:",
+                "      summary: An update",
+                "      payload:",
+                "        type: object",
+                "        properties:",
+                "          id:",
+                "            type: string",
+                "            x-intern: true",
+                "          state:",
+                "            $ref: '#/components/schemas/State'",
+                "          values:",
+                "            type: array",
+                "            uniqueItems: true",
+                "            items:",
+                "              type: number",
+                "  schemas:",
+                "    State:",
+                "      type: string",
+                "      title: The state",
+                "      enum: [ active, inactive ]");
+
+        Files.write(this.source, yaml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] encode(final AsyncApi api) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final SnapshotWriter writer = new SnapshotWriter(out);
+        writer.writeHeader(Collections.emptyMap());
+        writer.writeModel(api);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Assert.assertNull(this.cache.load(this.source));
+
+        final AsyncApi parsed = AsyncApi.parseYaml(this.source, this.cache);
+        final AsyncApi loaded = this.cache.load(this.source);
+
+        Assert.assertNotNull(loaded);
+        Assert.assertNotSame(parsed, loaded);
+        Assert.assertArrayEquals(encode(parsed), encode(loaded));
+
+        Assert.assertEquals("Initial", loaded.getInformation().getTitle());
+        Assert.assertEquals("https://www.eclipse.org/legal/epl-v10.html", loaded.getInformation().getLicense().getUrl().toString());
+
+        final ObjectType payload = (ObjectType) loaded.getSymbols().lookupMessage("Update").get().getPayload();
+        final Property id = payload.getProperties().iterator().next();
+        Assert.assertTrue(id.isIntern());
+        Assert.assertEquals(String.class, ((CoreType) id.getType()).getJavaType());
+
+        Assert.assertTrue(loaded.getSymbols().getUnresolvedTypes().isEmpty());
+    }
+
+    @Test
+    public void testFrozen() throws Exception {
+        final AsyncApi parsed = AsyncApi.parseYaml(this.source, null);
+        final AsyncApi frozen = parsed.freeze();
+
+        // the frozen model has the same content
+
+        Assert.assertArrayEquals(encode(parsed), encode(frozen));
+    }
+
+    @Test
+    public void testStale() throws Exception {
+        AsyncApi.parseYaml(this.source, this.cache);
+        Assert.assertNotNull(this.cache.load(this.source));
+
+        write("Changed");
+        Assert.assertNull(this.cache.load(this.source));
+
+        final AsyncApi api = AsyncApi.parseYaml(this.source, this.cache);
+        Assert.assertEquals("Changed", api.getInformation().getTitle());
+        Assert.assertEquals("Changed", this.cache.load(this.source).getInformation().getTitle());
+    }
+
+    @Test
+    public void testBroken() throws Exception {
+        AsyncApi.parseYaml(this.source, this.cache);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.folder.getRoot().toPath().resolve("snapshots"))) {
+            for (final Path file : files) {
+                final byte[] data = Files.readAllBytes(file);
+                Files.write(file, Arrays.copyOf(data, data.length / 2));
+            }
+        }
+
+        Assert.assertNull(this.cache.load(this.source));
+        Assert.assertEquals("Initial", AsyncApi.parseYaml(this.source, this.cache).getInformation().getTitle());
+    }
+
+    @Test
+    public void testDefaultCacheOptIn() throws Exception {
+        final String old = System.getProperty(SnapshotCache.PROPERTY);
+        try {
+            System.clearProperty(SnapshotCache.PROPERTY);
+            Assert.assertNull(SnapshotCache.defaultCache());
+
+            System.setProperty(SnapshotCache.PROPERTY, "false");
+            Assert.assertNull(SnapshotCache.defaultCache());
+
+            System.setProperty(SnapshotCache.PROPERTY, this.folder.getRoot().toString());
+            Assert.assertNotNull(SnapshotCache.defaultCache());
+        } finally {
+            if (old != null) {
+                System.setProperty(SnapshotCache.PROPERTY, old);
+            } else {
+                System.clearProperty(SnapshotCache.PROPERTY);
+            }
+        }
+    }
+
+    @Test
+    public void testPrivateDirectory() throws Exception {
+        final Path directory = this.folder.getRoot().toPath().resolve("private/snapshots");
+        Assume.assumeTrue(directory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        AsyncApi.parseYaml(this.source, new SnapshotCache(directory));
+
+        Assert.assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(directory));
+    }
+}
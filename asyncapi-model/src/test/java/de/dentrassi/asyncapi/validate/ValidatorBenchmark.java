@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.validate;
+
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.SymbolTable;
+import de.dentrassi.asyncapi.Topic;
+import de.dentrassi.asyncapi.type.CoreType;
+import de.dentrassi.asyncapi.type.ObjectType;
+import de.dentrassi.asyncapi.type.Property;
+import de.dentrassi.asyncapi.type.TypeReference;
+
+/**
+ * Validate a large, synthetic model on a single thread and in parallel
+ */
+public class ValidatorBenchmark {
+
+    private static final int TOPICS = 20_000;
+
+    private static final int PROPERTIES = 20;
+
+    private static final int WARMUP = 10;
+
+    private static final int ITERATIONS = 20;
+
+    public static void main(final String[] args) {
+        final AsyncApi api = createModel(TOPICS, PROPERTIES);
+        api.getSymbols();
+
+        final ForkJoinPool single = new ForkJoinPool(1);
+        final ForkJoinPool common = ForkJoinPool.commonPool();
+
+        System.out.format("Topics: %s, parallelism: %s%n", TOPICS, common.getParallelism());
+
+        run(api, single, WARMUP);
+        run(api, common, WARMUP);
+
+        for (int i = 0; i < 3; i++) {
+            measure("single thread", api, single);
+            measure("common pool", api, common);
+        }
+
+        single.shutdown();
+    }
+
+    private static void measure(final String label, final AsyncApi api, final ForkJoinPool pool) {
+        final long start = System.nanoTime();
+        run(api, pool, ITERATIONS);
+        final long duration = System.nanoTime() - start;
+
+        System.out.format("%-15s %8.2f ms/run%n", label, duration / 1_000_000.0 / ITERATIONS);
+    }
+
+    private static int run(final AsyncApi api, final ForkJoinPool pool, final int iterations) {
+        int sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            final Validator validator = new Validator(Validator.defaultRules(), pool);
+            validator.validate(api);
+            sum += validator.getMarkers().size();
+        }
+        return sum;
+    }
+
+    static AsyncApi createModel(final int topics, final int properties) {
+        final AsyncApi api = new AsyncApi();
+
+        final CoreType string = new CoreType("string", String.class);
+        api.getTypes().add(string);
+
+        for (int i = 0; i < topics; i++) {
+            final ObjectType payload = new ObjectType("messages", Collections.emptyList(), "Payload" + i);
+            for (int j = 0; j < properties; j++) {
+                final Property property = new Property();
+                property.setName("property" + j);
+                property.setType(new TypeReference(SymbolTable.TYPES_NAMESPACE, "string"));
+                payload.getProperties().add(property);
+            }
+
+            final Message message = new Message("Message" + i);
+            message.setPayload(payload);
+
+            final Topic topic = new Topic();
+            topic.setName("service.1.event.item" + i + ".update");
+            topic.setSubscribe(message);
+
+            api.getTopics().add(topic);
+        }
+
+        return api;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.validate;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.dentrassi.asyncapi.AsyncApi;
+import de.dentrassi.asyncapi.MessageReference;
+import de.dentrassi.asyncapi.Topic;
+import de.dentrassi.asyncapi.internal.parser.YamlParser;
+
+public class ValidatorTest {
+
+    private static final String HEADER = String.join("\n",
+            "asyncapi: 1.0.0",
+            "schemes: [ amqp ]",
+            "info:",
+            "  version: 1.0.0",
+            "");
+
+    private static AsyncApi parse(final String... lines) throws Exception {
+        return new YamlParser(new StringReader(HEADER + String.join("\n", lines))).parse();
+    }
+
+    private static List<String> validate(final AsyncApi api) {
+        final Validator validator = new Validator();
+        validator.validate(api);
+        return validator.getMarkers().stream().map(Validator.Marker::format).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testValid() throws Exception {
+        final AsyncApi api = parse(
+                "baseTopic: my.base",
+                "topics:",
+                "  foo.bar:",
+                "    subscribe:",
+                "      $ref: '#/components/messages/Msg'",
+                "components:",
+                "  messages:",
+                "    Msg:",
+                "      payload:",
+                "        $ref: '#/components/schemas/Node'",
+                "  schemas:",
+                "    Node:",
+                "      type: object",
+                "      properties:",
+                "        children:",
+                "          type: array",
+                "          items:",
+                "            $ref: '#/components/schemas/Node'");
+
+        Assert.assertEquals(Arrays.asList(), validate(api));
+    }
+
+    @Test
+    public void testTopics() throws Exception {
+        final AsyncApi api = parse(
+                "baseTopic: /my.base",
+                "topics:",
+                "  foo..bar:",
+                "    subscribe:",
+                "      payload:",
+                "        type: string",
+                "  foo.*:",
+                "    subscribe:",
+                "      payload:",
+                "        type: string",
+                "components: {}");
+
+        final List<String> markers = validate(api);
+
+        Assert.assertEquals(3, markers.size());
+        Assert.assertTrue(markers.get(0), markers.get(0).startsWith("Base topic must match pattern"));
+        Assert.assertTrue(markers.stream().anyMatch(marker -> marker.endsWith("foo..bar")));
+        Assert.assertTrue(markers.stream().anyMatch(marker -> marker.endsWith("foo.*")));
+    }
+
+    @Test
+    public void testReferences() throws Exception {
+        final AsyncApi api = parse(
+                "topics:",
+                "  foo.bar:",
+                "    subscribe:",
+                "      $ref: '#/components/messages/Missing'",
+                "components:",
+                "  messages:",
+                "    Msg1:",
+                "      payload:",
+                "        $ref: '#/components/schemas/Missing'",
+                "    Msg2:",
+                "      payload:",
+                "        $ref: '#/components/schemas/Missing'",
+                "  schemas:",
+                "    A:",
+                "      type: array",
+                "      items:",
+                "        $ref: '#/components/schemas/B'",
+                "    B:",
+                "      type: array",
+                "      items:",
+                "        $ref: '#/components/schemas/A'");
+
+        Assert.assertEquals(Arrays.asList(
+                "Cyclic type references: A -> B",
+                "Unknown message referenced: Missing",
+                "Unknown type referenced: types/Missing"), validate(api));
+    }
+
+    @Test
+    public void testDuplicateNames() throws Exception {
+        final AsyncApi api = parse(
+                "topics: {}",
+                "components:",
+                "  schemas:",
+                "    Node:",
+                "      type: object",
+                "      properties:",
+                "        name:",
+                "          type: string",
+                "        Name:",
+                "          type: string",
+                "    node:",
+                "      type: string",
+                "      enum: [ active, ACTIVE ]");
+
+        Assert.assertEquals(Arrays.asList(
+                "Duplicate type name: Node and node",
+                "Duplicate property name in type Node: name and Name",
+                "Duplicate literal in enum node: active and ACTIVE"), validate(api));
+    }
+
+    @Test
+    public void testDeterministic() throws Exception {
+        final AsyncApi api = parse("topics: {}", "components: {}");
+        for (int i = 0; i < 1_000; i++) {
+            final Topic topic = new Topic();
+            topic.setName("topic." + i);
+            topic.setSubscribe(new MessageReference("Missing" + i));
+            api.getTopics().add(topic);
+        }
+
+        final Validator sequential = new Validator(Validator.defaultRules(), new ForkJoinPool(1));
+        sequential.validate(api);
+
+        final Validator parallel = new Validator(Validator.defaultRules(), new ForkJoinPool(4));
+        parallel.validate(api);
+
+        Assert.assertEquals(1_000, parallel.getMarkers().size());
+        Assert.assertEquals(sequential.getMarkers(), parallel.getMarkers());
+    }
+}
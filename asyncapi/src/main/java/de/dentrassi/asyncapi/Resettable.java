@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi;
+
+/**
+ * An object which can be reset to its initial state
+ * <p>
+ * Payload formats may use this to decode messages into an existing instance,
+ * instead of creating a new one for each message.
+ * </p>
+ */
+public interface Resettable {
+    /**
+     * Reset all fields to their initial values
+     * <p>
+     * After this call the instance must be equal to a newly created one.
+     * </p>
+     */
+    public void reset();
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.delta;
+
+/**
+ * Field level differences of a payload type
+ * <p>
+ * Implementations are generated for payload types of topics using delta
+ * encoding. Properties are identified by their index, as bits of a
+ * {@code long}, so a type can have at most 64 properties.
+ * </p>
+ * <p>
+ * Values are compared using {@code equals}, arrays by their content. The
+ * generator only supports nested objects for immutable payloads, as only those
+ * are compared by value and cannot be modified in place.
+ * </p>
+ *
+ * @param <P>
+ *            The payload type
+ */
+public interface DeltaCodec<P> {
+
+    /**
+     * All properties
+     */
+    public static final long ALL = -1L;
+
+    /**
+     * Find the changed properties
+     *
+     * @param previous
+     *            the previous value, must not be {@code null}
+     * @param current
+     *            the current value, must not be {@code null}
+     * @return the changed properties, zero if nothing changed
+     */
+    public long changes(P previous, P current);
+
+    /**
+     * Create a new instance, containing only the provided properties
+     * <p>
+     * With {@link #ALL}, this creates a shallow copy.
+     * </p>
+     *
+     * @param current
+     *            the value to copy from, must not be {@code null}
+     * @param changes
+     *            the properties to copy
+     * @return the new instance, never {@code null}
+     */
+    public P extract(P current, long changes);
+
+    /**
+     * Create a new instance, with the changed properties taken from a delta
+     * and all other properties from a previous state
+     *
+     * @param state
+     *            the previous state, must not be {@code null}
+     * @param delta
+     *            the delta, must not be {@code null}
+     * @param changes
+     *            the properties to take from the delta
+     * @return the new state, never {@code null}
+     */
+    public P merge(P state, P delta, long changes);
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.delta;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Reconstruct the full state from delta encoded frames
+ * <p>
+ * The decoder keeps the last state, per key. A gap is detected when a delta
+ * does not directly follow the last frame of its key, or when no keyframe of
+ * the key has been received yet. In this case a keyframe gets requested, once
+ * per gap, and deltas of this key are dropped until the next keyframe
+ * arrives. Frames older than the last frame are dropped as well, including
+ * keyframes.
+ * </p>
+ * <p>
+ * This class is not thread safe. It is intended to be used by a single
+ * listener, receiving frames one after the other. The returned states must
+ * not be modified, as they are used to reconstruct the next state.
+ * </p>
+ *
+ * @param <P>
+ *            The payload type
+ */
+public class DeltaDecoder<P> {
+
+    private static class State<P> {
+        private long sequence;
+        private boolean awaitingKeyframe;
+        private P value;
+    }
+
+    private final DeltaCodec<P> codec;
+    private final Consumer<String> keyframeRequester;
+
+    private final Map<String, State<P>> states = new HashMap<>();
+
+    /**
+     * Create a new decoder
+     *
+     * @param codec
+     *            the codec of the payload type
+     * @param keyframeRequester
+     *            called with the key, when a gap was detected
+     */
+    public DeltaDecoder(final DeltaCodec<P> codec, final Consumer<String> keyframeRequester) {
+        this.codec = Objects.requireNonNull(codec);
+        this.keyframeRequester = Objects.requireNonNull(keyframeRequester);
+    }
+
+    /**
+     * Decode a frame
+     *
+     * @param frame
+     *            the frame to decode
+     * @return the full state, or {@code null} if the frame had to be dropped
+     */
+    public P decode(final DeltaFrame<P> frame) {
+        State<P> state = this.states.get(frame.getKey());
+
+        if (frame.isKeyframe()) {
+            if (state != null && frame.getSequence() < state.sequence) {
+                // a late keyframe, we already have a newer state
+                return null;
+            }
+
+            if (state == null) {
+                state = new State<>();
+                this.states.put(frame.getKey(), state);
+            }
+
+            state.sequence = frame.getSequence();
+            state.awaitingKeyframe = false;
+            state.value = frame.getPayload();
+
+            return state.value;
+        }
+
+        if (state != null && !state.awaitingKeyframe) {
+
+            if (frame.getSequence() == state.sequence + 1) {
+                state.sequence = frame.getSequence();
+                state.value = this.codec.merge(state.value, frame.getPayload(), frame.getChanges());
+                return state.value;
+            }
+
+            if (frame.getSequence() <= state.sequence) {
+                // a duplicate or a late frame, we already have a newer state
+                return null;
+            }
+        }
+
+        // gap
+
+        if (state == null) {
+            state = new State<>();
+            this.states.put(frame.getKey(), state);
+        }
+
+        if (!state.awaitingKeyframe) {
+            state.awaitingKeyframe = true;
+            state.value = null;
+            this.keyframeRequester.accept(frame.getKey());
+        }
+
+        return null;
+    }
+}
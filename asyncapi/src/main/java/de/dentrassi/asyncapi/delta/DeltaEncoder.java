@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.delta;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Encode payloads as deltas to the last payload of the same key
+ * <p>
+ * The encoder keeps a copy of the last payload, per key. The first payload of
+ * a key, every n-th payload after that, and the next payload after a keyframe
+ * was requested, are sent as a keyframe, containing the full state.
+ * </p>
+ * <p>
+ * This class is thread safe. Payloads of the same key are encoded and sent
+ * one after the other, so that the sequence of the frames matches the order
+ * in which they were sent.
+ * </p>
+ *
+ * @param <P>
+ *            The payload type
+ */
+public class DeltaEncoder<P> {
+
+    /**
+     * The key used when there is no key function
+     */
+    public static final String DEFAULT_KEY = "";
+
+    @FunctionalInterface
+    public interface Sender<P> {
+        public void send(DeltaFrame<P> frame) throws Exception;
+    }
+
+    private static class State<P> {
+        private long sequence;
+        private int deltas;
+        private boolean keyframeRequested;
+        private P last;
+    }
+
+    private final DeltaCodec<P> codec;
+    private final Function<P, String> keyFunction;
+    private final int keyframeInterval;
+
+    private final ConcurrentMap<String, State<P>> states = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new encoder
+     *
+     * @param codec
+     *            the codec of the payload type
+     * @param keyFunction
+     *            the function extracting the key from a payload, may be
+     *            {@code null} if there is only one state
+     * @param keyframeInterval
+     *            the number of frames, per key, after which a keyframe is
+     *            sent, must be greater than zero
+     */
+    public DeltaEncoder(final DeltaCodec<P> codec, final Function<P, String> keyFunction, final int keyframeInterval) {
+        Objects.requireNonNull(codec);
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("'keyframeInterval' must be greater than zero");
+        }
+
+        this.codec = codec;
+        this.keyFunction = keyFunction;
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    public String key(final P payload) {
+        if (this.keyFunction == null) {
+            return DEFAULT_KEY;
+        }
+        return this.keyFunction.apply(payload);
+    }
+
+    /**
+     * Encode and send a payload
+     * <p>
+     * If sending fails, the next frame of the same key will be a keyframe.
+     * </p>
+     *
+     * @param payload
+     *            the payload to encode, must not be {@code null}
+     * @param sender
+     *            the sender, called while the state of the key is locked
+     * @throws Exception
+     *             if the sender failed
+     */
+    public void encode(final P payload, final Sender<P> sender) throws Exception {
+        Objects.requireNonNull(payload);
+
+        final String key = key(payload);
+        final State<P> state = this.states.computeIfAbsent(key, k -> new State<>());
+
+        synchronized (state) {
+            final long sequence = state.sequence + 1;
+
+            final DeltaFrame<P> frame;
+            if (state.last == null || state.keyframeRequested || state.deltas >= this.keyframeInterval - 1) {
+                frame = new DeltaFrame<>(key, sequence, true, DeltaCodec.ALL, payload);
+                state.deltas = 0;
+            } else {
+                final long changes = this.codec.changes(state.last, payload);
+                frame = new DeltaFrame<>(key, sequence, false, changes, this.codec.extract(payload, changes));
+                state.deltas++;
+            }
+
+            state.sequence = sequence;
+            state.keyframeRequested = false;
+            state.last = this.codec.extract(payload, DeltaCodec.ALL);
+
+            try {
+                sender.send(frame);
+            } catch (final Exception e) {
+                // subscribers will detect the gap, so we must send a keyframe next
+                state.keyframeRequested = true;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Request a keyframe for a key
+     * <p>
+     * The next payload of this key will be sent as a keyframe. Requests for
+     * unknown keys are ignored, as the next frame will be a keyframe anyway.
+     * </p>
+     *
+     * @param key
+     *            the key
+     */
+    public void requestKeyframe(final String key) {
+        final State<P> state = this.states.get(key);
+        if (state != null) {
+            synchronized (state) {
+                state.keyframeRequested = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.delta;
+
+/**
+ * A delta encoded message
+ * <p>
+ * Instances are immutable.
+ * </p>
+ *
+ * @param <P>
+ *            The payload type
+ */
+public final class DeltaFrame<P> {
+
+    private final String key;
+    private final long sequence;
+    private final boolean keyframe;
+    private final long changes;
+    private final P payload;
+
+    /**
+     * Create a new frame
+     *
+     * @param key
+     *            the key of the state, never {@code null}
+     * @param sequence
+     *            the number of the frame, increased by one for every frame of
+     *            the same key
+     * @param keyframe
+     *            {@code true} if the payload contains the full state
+     * @param changes
+     *            the properties contained in the payload, see
+     *            {@link DeltaCodec}
+     * @param payload
+     *            the payload
+     */
+    public DeltaFrame(final String key, final long sequence, final boolean keyframe, final long changes, final P payload) {
+        this.key = key;
+        this.sequence = sequence;
+        this.keyframe = keyframe;
+        this.changes = changes;
+        this.payload = payload;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    public boolean isKeyframe() {
+        return this.keyframe;
+    }
+
+    public long getChanges() {
+        return this.changes;
+    }
+
+    public P getPayload() {
+        return this.payload;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[key=%s, sequence=%s, keyframe=%s, changes=%016x]", this.key, this.sequence, this.keyframe, this.changes);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Delta encoding of state topics
+ */
+package de.dentrassi.asyncapi.delta;
\ No newline at end of file
@@ -16,9 +16,14 @@
 
 package de.dentrassi.asyncapi.format;
 
+import java.io.Reader;
 import java.io.Serializable;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
 
 import de.dentrassi.asyncapi.Message;
+import de.dentrassi.asyncapi.util.ArrayMessage;
 
 /**
  * A Text based payload format
@@ -49,4 +54,98 @@ public interface TextPayloadFormat {
      *             if anything goes wrong
      */
     public <M extends Message<P>, P extends Serializable> M decode(Class<M> clazz, Class<P> payloadClazz, String message) throws Exception;
+
+    /**
+     * Decode a message from a text based format
+     * <p>
+     * The default implementation creates a single message using the factory,
+     * and decodes into it using {@link #decodeInto(Message, Class, String)}.
+     * Implementations should override that method, or this one, so that
+     * decoding a message does not require reflection.
+     * </p>
+     *
+     * @param messageFactory
+     *            The factory for new message instances
+     * @param payloadClazz
+     *            The expected payload class
+     * @param message
+     *            The text of the encoded messages, must not be {@code null}
+     * @return The decoded message, must not be {@code null}
+     * @throws Exception
+     *             if anything goes wrong
+     */
+    public default <M extends Message<P>, P extends Serializable> M decode(final Supplier<M> messageFactory, final Class<P> payloadClazz, final String message)
+            throws Exception {
+        return decodeInto(messageFactory.get(), payloadClazz, message);
+    }
+
+    /**
+     * Decode a message from a text based format, re-using an existing message
+     * <p>
+     * Implementations may decode into the provided message, and its payload,
+     * instead of creating new instances. The caller must not assume that the
+     * returned message is a different instance than the provided one, nor that
+     * it is the same instance.
+     * </p>
+     * <p>
+     * The default implementation simply calls
+     * {@link #decode(Class, Class, String)}.
+     * </p>
+     *
+     * @param target
+     *            The message to re-use, must not be {@code null}
+     * @param payloadClazz
+     *            The expected payload class
+     * @param message
+     *            The text of the encoded messages, must not be {@code null}
+     * @return The decoded message, must not be {@code null}
+     * @throws Exception
+     *             if anything goes wrong
+     */
+    public default <M extends Message<P>, P extends Serializable> M decodeInto(final M target, final Class<P> payloadClazz, final String message) throws Exception {
+        @SuppressWarnings("unchecked")
+        final Class<M> clazz = (Class<M>) target.getClass();
+        return decode(clazz, payloadClazz, message);
+    }
+
+    /**
+     * Decode the items of an encoded array, one by one
+     * <p>
+     * This allows processing messages with a large number of items, without
+     * holding all decoded items in memory. Items get decoded while the
+     * returned spliterator is advanced. The spliterator reads from the
+     * provided reader, and so must be consumed before the reader gets closed.
+     * It does not support splitting.
+     * </p>
+     * <p>
+     * Errors while decoding an item are thrown from the methods of the
+     * spliterator, as unchecked exceptions.
+     * </p>
+     * <p>
+     * The default implementation reads the whole text and decodes it as an
+     * array, using {@link #decode(Supplier, Class, String)}. So all items are
+     * held in memory. Formats should override this method, to decode items
+     * one by one.
+     * </p>
+     *
+     * @param itemClazz
+     *            The expected item class
+     * @param reader
+     *            The reader of the encoded array, must not be {@code null}
+     * @return The items, must not be {@code null}
+     * @throws Exception
+     *             if anything goes wrong
+     */
+    public default <T> Spliterator<T> decodeItems(final Class<T> itemClazz, final Reader reader) throws Exception {
+        final StringBuilder text = new StringBuilder();
+
+        final char[] buffer = new char[4096];
+        int len;
+        while ((len = reader.read(buffer)) >= 0) {
+            text.append(buffer, 0, len);
+        }
+
+        final ArrayMessage message = decode(ArrayMessage::new, ArrayMessage.payloadClass(itemClazz), text.toString());
+        return message != null ? message.items() : Spliterators.emptySpliterator();
+    }
 }
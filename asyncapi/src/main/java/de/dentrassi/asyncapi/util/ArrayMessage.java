@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.util;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import de.dentrassi.asyncapi.Message;
+
+/**
+ * A message with an array payload
+ * <p>
+ * This allows decoding the items of an array payload with the regular decode
+ * methods of a payload format, when the format does not support decoding
+ * items one by one.
+ * </p>
+ */
+public final class ArrayMessage implements Message<Serializable> {
+
+    private Serializable payload;
+
+    @Override
+    public void setPayload(final Serializable payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public Serializable getPayload() {
+        return this.payload;
+    }
+
+    /**
+     * Get the payload class for an array of items
+     *
+     * @param itemClazz
+     *            the item class, must not be {@code null}
+     * @return the array class, to be used as payload class
+     */
+    @SuppressWarnings("unchecked")
+    public static Class<Serializable> payloadClass(final Class<?> itemClazz) {
+        Objects.requireNonNull(itemClazz);
+
+        return (Class<Serializable>) Array.newInstance(itemClazz, 0).getClass();
+    }
+
+    /**
+     * Get the items of the payload
+     *
+     * @param <T>
+     *            the item type
+     * @return the items, empty if there is no payload, never {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Spliterator<T> items() {
+        if (this.payload == null) {
+            return Spliterators.emptySpliterator();
+        }
+        return Arrays.spliterator((T[]) this.payload);
+    }
+}
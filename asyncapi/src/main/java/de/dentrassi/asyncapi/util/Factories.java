@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.util;
+
+import java.lang.reflect.Constructor;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for creating instance factories
+ */
+public final class Factories {
+
+    private static final ClassValue<Supplier<?>> REFLECTIVE = new ClassValue<Supplier<?>>() {
+
+        @Override
+        protected Supplier<?> computeValue(final Class<?> type) {
+            final Constructor<?> constructor;
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (final Exception e) {
+                throw new IllegalArgumentException(String.format("Type '%s' has no accessible default constructor", type.getName()), e);
+            }
+
+            return () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (final Exception e) {
+                    throw new IllegalStateException(String.format("Failed to create instance of '%s'", type.getName()), e);
+                }
+            };
+        }
+    };
+
+    private Factories() {
+    }
+
+    /**
+     * Get a factory which creates instances using the default constructor
+     * <p>
+     * The constructor is looked up only once per class. This should only be
+     * used as a fallback, when there is no generated factory for a type.
+     * </p>
+     *
+     * @param clazz
+     *            the class to create instances of, must not be {@code null}
+     * @param <T>
+     *            the type to create
+     * @return the factory, never {@code null}
+     * @throws IllegalArgumentException
+     *             if the class has no default constructor
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> reflective(final Class<T> clazz) {
+        Objects.requireNonNull(clazz);
+
+        return (Supplier<T>) REFLECTIVE.get(clazz);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import de.dentrassi.asyncapi.Message;
+
+/**
+ * A registry of message factories
+ * <p>
+ * Generated code provides an instance of this registry, containing all
+ * message types of an API. This allows to create new message instances
+ * without using reflection.
+ * </p>
+ */
+public final class MessageRegistry {
+
+    public static final class Builder {
+
+        private final Map<Class<?>, Supplier<?>> byClass = new HashMap<>();
+        private final Map<String, Supplier<? extends Message<?>>> byPublishTopic = new HashMap<>();
+        private final Map<String, Supplier<? extends Message<?>>> bySubscribeTopic = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a message type
+         *
+         * @param clazz
+         *            the message type
+         * @param factory
+         *            the factory creating new instances of the type
+         * @param <M>
+         *            the message type
+         * @return the builder instance
+         */
+        public <M extends Message<?>> Builder add(final Class<M> clazz, final Supplier<M> factory) {
+            this.byClass.put(Objects.requireNonNull(clazz), Objects.requireNonNull(factory));
+            return this;
+        }
+
+        /**
+         * Set the message type which is published to a topic
+         *
+         * @param topic
+         *            the topic name, without the base topic
+         * @param factory
+         *            the factory creating new instances of the message type
+         * @return the builder instance
+         */
+        public Builder publish(final String topic, final Supplier<? extends Message<?>> factory) {
+            this.byPublishTopic.put(Objects.requireNonNull(topic), Objects.requireNonNull(factory));
+            return this;
+        }
+
+        /**
+         * Set the message type which is subscribed to on a topic
+         *
+         * @param topic
+         *            the topic name, without the base topic
+         * @param factory
+         *            the factory creating new instances of the message type
+         * @return the builder instance
+         */
+        public Builder subscribe(final String topic, final Supplier<? extends Message<?>> factory) {
+            this.bySubscribeTopic.put(Objects.requireNonNull(topic), Objects.requireNonNull(factory));
+            return this;
+        }
+
+        public MessageRegistry build() {
+            return new MessageRegistry(new HashMap<>(this.byClass), new HashMap<>(this.byPublishTopic), new HashMap<>(this.bySubscribeTopic));
+        }
+    }
+
+    private final Map<Class<?>, Supplier<?>> byClass;
+    private final Map<String, Supplier<? extends Message<?>>> byPublishTopic;
+    private final Map<String, Supplier<? extends Message<?>>> bySubscribeTopic;
+
+    private MessageRegistry(final Map<Class<?>, Supplier<?>> byClass, final Map<String, Supplier<? extends Message<?>>> byPublishTopic,
+            final Map<String, Supplier<? extends Message<?>>> bySubscribeTopic) {
+        this.byClass = Collections.unmodifiableMap(byClass);
+        this.byPublishTopic = Collections.unmodifiableMap(byPublishTopic);
+        this.bySubscribeTopic = Collections.unmodifiableMap(bySubscribeTopic);
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the factory for a message type
+     *
+     * @param clazz
+     *            the message type
+     * @param <M>
+     *            the message type
+     * @return the factory, or {@code null} if the type is unknown
+     */
+    @SuppressWarnings("unchecked")
+    public <M extends Message<?>> Supplier<M> forClass(final Class<M> clazz) {
+        return (Supplier<M>) this.byClass.get(clazz);
+    }
+
+    /**
+     * Get the factory for the message published to a topic
+     *
+     * @param topic
+     *            the topic name, without the base topic
+     * @return the factory, or {@code null} if the topic is unknown
+     */
+    public Supplier<? extends Message<?>> forPublishTopic(final String topic) {
+        return this.byPublishTopic.get(topic);
+    }
+
+    /**
+     * Get the factory for the message subscribed to on a topic
+     *
+     * @param topic
+     *            the topic name, without the base topic
+     * @return the factory, or {@code null} if the topic is unknown
+     */
+    public Supplier<? extends Message<?>> forSubscribeTopic(final String topic) {
+        return this.bySubscribeTopic.get(topic);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2017 Jens Reimann <jreimann@redhat.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dentrassi.asyncapi.util;
+
+/**
+ * A bounded cache for de-duplicating strings
+ * <p>
+ * Other than {@link String#intern()} this cache has a fixed size. Each string
+ * maps to a single slot, if two strings map to the same slot, the newer one
+ * replaces the older one. So the cache never grows and never blocks, but may
+ * miss strings which were seen before.
+ * </p>
+ * <p>
+ * This class is thread safe without using locks. Slots are read and written
+ * without synchronization, which is safe as strings are immutable. At worst a
+ * thread sees an outdated value of a slot, and creates a new string instead
+ * of re-using a cached one.
+ * </p>
+ */
+public final class StringCache {
+
+    private static final int DEFAULT_SIZE = 4 * 1024;
+
+    private static final int DEFAULT_MAX_LENGTH = 64;
+
+    private static final StringCache SHARED = new StringCache(DEFAULT_SIZE, DEFAULT_MAX_LENGTH);
+
+    private final String[] entries;
+
+    private final int mask;
+
+    private final int maxLength;
+
+    /**
+     * Create a new cache
+     *
+     * @param size
+     *            the number of slots, will be rounded up to the next power of
+     *            two
+     * @param maxLength
+     *            strings longer than this will not be cached
+     */
+    public StringCache(final int size, final int maxLength) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be greater than zero");
+        }
+        if (size > 1 << 30) {
+            throw new IllegalArgumentException("Size must not be greater than 2^30");
+        }
+
+        final int slots = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+
+        this.entries = new String[slots];
+        this.mask = slots - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Get the shared default instance
+     *
+     * @return the shared instance, never {@code null}
+     */
+    public static StringCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * De-duplicate a string
+     *
+     * @param value
+     *            the string to de-duplicate, may be {@code null}
+     * @return a string equal to the provided one, possibly a previously cached
+     *         instance, or {@code null} if the input was {@code null}
+     */
+    public String intern(final String value) {
+        if (value == null || value.length() > this.maxLength) {
+            return value;
+        }
+
+        final int index = spread(value.hashCode()) & this.mask;
+
+        final String cached = this.entries[index];
+        if (value.equals(cached)) {
+            return cached;
+        }
+
+        this.entries[index] = value;
+        return value;
+    }
+
+    /**
+     * De-duplicate a string from a character buffer
+     * <p>
+     * A new string only gets created if the value is not found in the cache.
+     * </p>
+     *
+     * @param buffer
+     *            the buffer to read from
+     * @param offset
+     *            the offset of the first character
+     * @param length
+     *            the number of characters
+     * @return the string, never {@code null}
+     */
+    public String intern(final char[] buffer, final int offset, final int length) {
+        if (length > this.maxLength) {
+            return new String(buffer, offset, length);
+        }
+
+        // same as String.hashCode()
+
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer[offset + i];
+        }
+
+        final int index = spread(hash) & this.mask;
+
+        final String cached = this.entries[index];
+        if (cached != null && equals(cached, buffer, offset, length)) {
+            return cached;
+        }
+
+        final String value = new String(buffer, offset, length);
+        this.entries[index] = value;
+        return value;
+    }
+
+    private static boolean equals(final String value, final char[] buffer, final int offset, final int length) {
+        if (value.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != buffer[offset + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int spread(final int hash) {
+        // same as HashMap, mix in the upper bits
+        return hash ^ hash >>> 16;
+    }
+}